@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spdx.rdfparser.BulkDocumentLoader;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.SpdxPackageVerificationCode;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
+import org.spdx.rdfparser.license.SpdxNoAssertionLicense;
+import org.spdx.rdfparser.model.DoapProject;
+import org.spdx.rdfparser.model.SpdxFile;
+import org.spdx.rdfparser.model.SpdxFile.FileType;
+import org.spdx.rdfparser.model.SpdxPackage;
+
+/**
+ * Compares adding files to a package one at a time with adding them through the bulk document loader.
+ * The files are created for each invocation since a file can only be added to a document once.
+ *
+ * @author Gary O'Neall
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BulkLoadBenchmark {
+
+	static final long SEED = 20170101L;
+	static final String DOC_URI = "http://spdx.org/documents/benchmark";
+
+	@State(Scope.Thread)
+	public static class LoadState {
+
+		@Param({"10000", "200000"})
+		public int numFiles;
+
+		SpdxDocumentContainer container;
+		SpdxPackage pkg;
+		SpdxFile[] files;
+
+		@Setup(Level.Invocation)
+		public void setUp() throws Exception {
+			Random random = new Random(SEED);
+			AnyLicenseInfo noAssertion = new SpdxNoAssertionLicense();
+			container = new SpdxDocumentContainer(DOC_URI);
+			pkg = new SpdxPackage("package", noAssertion, new AnyLicenseInfo[] {noAssertion}, "NOASSERTION",
+					noAssertion, "NOASSERTION", new SpdxFile[0],
+					new SpdxPackageVerificationCode("2fd4e1c67a2d28fced849ee1bb76e7391b93eb12", new String[0]));
+			container.addElement(pkg);
+			files = new SpdxFile[numFiles];
+			for (int i = 0; i < numFiles; i++) {
+				// roughly one file in ten is a duplicate of an earlier file
+				int fileNum = random.nextInt(10) == 0 && i > 0 ? random.nextInt(i) : i;
+				files[i] = new SpdxFile("./src/file" + String.valueOf(fileNum) + ".c", new FileType[] {FileType.fileType_source},
+						String.format("%040x", fileNum), noAssertion, new AnyLicenseInfo[] {noAssertion}, null,
+						"NOASSERTION", new DoapProject[0], null);
+			}
+		}
+	}
+
+	@Benchmark
+	public SpdxDocumentContainer addFilesIndividually(LoadState state) throws Exception {
+		for (SpdxFile file:state.files) {
+			state.pkg.addFile(file);
+		}
+		return state.container;
+	}
+
+	@Benchmark
+	public SpdxDocumentContainer addFilesInBulk(LoadState state) throws Exception {
+		BulkDocumentLoader loader = state.container.startBulkLoad();
+		loader.addFiles(state.pkg, state.files);
+		loader.finish();
+		return state.container;
+	}
+}
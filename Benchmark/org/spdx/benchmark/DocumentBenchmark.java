@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spdx.compare.SpdxComparer;
+
+/**
+ * Benchmarks for verifying and comparing SPDX documents
+ *
+ * @author Gary O'Neall
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DocumentBenchmark {
+
+	@Benchmark
+	public List<String> verify(SyntheticDocumentState state) {
+		return state.doc.verify();
+	}
+
+	/**
+	 * Compare the generated document to the copy read from RDF/XML - since the documents
+	 * are equivalent every element is compared
+	 */
+	@Benchmark
+	public boolean compare(SyntheticDocumentState state) throws Exception {
+		SpdxComparer comparer = new SpdxComparer();
+		comparer.compare(state.doc, state.parsedDoc);
+		return comparer.isDifferenceFound();
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spdx.compare.SpdxComparer;
+import org.spdx.rdfparser.RdfModelHelper;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
+import org.spdx.rdfparser.license.SpdxNoAssertionLicense;
+import org.spdx.rdfparser.model.Checksum;
+import org.spdx.rdfparser.model.Checksum.ChecksumAlgorithm;
+import org.spdx.rdfparser.model.DoapProject;
+import org.spdx.rdfparser.model.SpdxFile;
+import org.spdx.rdfparser.model.SpdxFile.FileType;
+
+/**
+ * Benchmarks for the unordered array equivalence used by the model getters and the comparer.
+ * Run with several values of numElements to check that the time scales linearly.
+ *
+ * @author Gary O'Neall
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EquivalenceBenchmark {
+
+	static final long SEED = 20170101L;
+
+	@State(Scope.Benchmark)
+	public static class ArrayState {
+
+		@Param({"1000", "10000", "100000"})
+		public int numElements;
+
+		SpdxFile[] files;
+		SpdxFile[] shuffledFiles;
+		Checksum[] checksums;
+		Checksum[] shuffledChecksums;
+
+		@Setup(Level.Trial)
+		public void setUp() throws Exception {
+			Random random = new Random(SEED);
+			AnyLicenseInfo noAssertion = new SpdxNoAssertionLicense();
+			files = new SpdxFile[numElements];
+			checksums = new Checksum[numElements];
+			for (int i = 0; i < numElements; i++) {
+				String sha1 = String.format("%040x", random.nextLong() & Long.MAX_VALUE);
+				files[i] = new SpdxFile("./src/file" + String.valueOf(i) + ".c", new FileType[] {FileType.fileType_source},
+						sha1, noAssertion, new AnyLicenseInfo[] {noAssertion}, null, "NOASSERTION", new DoapProject[0], null);
+				checksums[i] = new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, sha1);
+			}
+			shuffledFiles = shuffle(files, random);
+			shuffledChecksums = shuffle(checksums, random);
+		}
+
+		private static <T> T[] shuffle(T[] array, Random random) {
+			List<T> retval = Arrays.asList(array.clone());
+			Collections.shuffle(retval, random);
+			return retval.toArray(array.clone());
+		}
+	}
+
+	@Benchmark
+	public boolean filesEquivalent(ArrayState state) {
+		return state.files[0].arraysEquivalent(state.files, state.shuffledFiles, false);
+	}
+
+	@Benchmark
+	public boolean checksumsEquivalent(ArrayState state) {
+		return RdfModelHelper.arraysEquivalent(state.checksums, state.shuffledChecksums);
+	}
+
+	@Benchmark
+	public Checksum[] findUniqueChecksums(ArrayState state) {
+		return SpdxComparer.findUniqueChecksums(state.checksums, state.shuffledChecksums);
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.spdx.compare.LicenseCompareHelper;
+import org.spdx.compare.CompareTemplateOutputHandler.DifferenceDescription;
+import org.spdx.rdfparser.JavaSha1ChecksumGenerator;
+import org.spdx.rdfparser.SpdxPackageVerificationCode;
+import org.spdx.rdfparser.VerificationCodeGenerator;
+import org.spdx.rdfparser.license.LicenseInfoFactory;
+import org.spdx.rdfparser.license.SpdxListedLicense;
+import org.spdx.rdfparser.model.SpdxFile;
+
+/**
+ * Benchmarks for license matching, license expression parsing and the package verification code
+ *
+ * @author Gary O'Neall
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LicenseBenchmark {
+
+	static final int NUM_EXPRESSIONS = 1000;
+
+	@State(Scope.Benchmark)
+	public static class LicenseState {
+
+		@Param({"Apache-2.0"})
+		public String licenseId;
+
+		SpdxListedLicense license;
+		/**
+		 * Text of a different license - the comparison fails part way through
+		 */
+		String otherLicenseText;
+		List<String> expressions;
+		SpdxFile[] files;
+
+		@Setup(Level.Trial)
+		public void setUp(SyntheticDocumentState docState) throws Exception {
+			license = LicenseInfoFactory.getListedLicenseById(licenseId);
+			otherLicenseText = LicenseInfoFactory.getListedLicenseById(
+					"MIT".equals(licenseId) ? "Apache-2.0" : "MIT").getLicenseText();
+			expressions = docState.generator.generateLicenseExpressions(NUM_EXPRESSIONS);
+			files = docState.doc.getDocumentContainer().findAllFiles().toArray(new SpdxFile[0]);
+		}
+	}
+
+	@Benchmark
+	public DifferenceDescription isTextStandardLicenseMatch(LicenseState state) throws Exception {
+		return LicenseCompareHelper.isTextStandardLicense(state.license, state.license.getLicenseText());
+	}
+
+	@Benchmark
+	public DifferenceDescription isTextStandardLicenseNoMatch(LicenseState state) throws Exception {
+		return LicenseCompareHelper.isTextStandardLicense(state.license, state.otherLicenseText);
+	}
+
+	/**
+	 * Parse all of the generated license expressions
+	 */
+	@Benchmark
+	public void parseLicenseExpressions(LicenseState state, SyntheticDocumentState docState, Blackhole bh) throws Exception {
+		for (String expression:state.expressions) {
+			bh.consume(LicenseInfoFactory.parseSPDXLicenseString(expression, docState.doc.getDocumentContainer()));
+		}
+	}
+
+	/**
+	 * Verification code over all files in the document
+	 */
+	@Benchmark
+	public SpdxPackageVerificationCode verificationCode(LicenseState state) throws Exception {
+		VerificationCodeGenerator vcg = new VerificationCodeGenerator(new JavaSha1ChecksumGenerator());
+		return vcg.generatePackageVerificationCode(state.files, new String[0]);
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.benchmark;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.spdx.licensexml.LicenseXmlDocument;
+import org.spdx.licensexml.XmlLicenseProvider;
+import org.spdx.rdfparser.license.SpdxListedLicense;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Compares loading a directory of license XML files through the parallel XmlLicenseProvider
+ * iterator with parsing the same files one at a time.  The files are copies of
+ * TestFiles/test-license.xml with distinct license IDs.
+ *
+ * @author Gary O'Neall
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LicenseXmlBenchmark {
+
+	static final String TEST_FILE_PATH = "TestFiles" + File.separator + "test-license.xml";
+
+	@State(Scope.Benchmark)
+	public static class LicenseXmlState {
+
+		@Param({"200"})
+		public int numLicenseFiles;
+
+		File xmlDir;
+		List<File> xmlFiles = Lists.newArrayList();
+
+		@Setup(Level.Trial)
+		public void setUp() throws Exception {
+			xmlDir = Files.createTempDirectory("spdxlicensexml").toFile();
+			String xml = new String(Files.readAllBytes(new File(TEST_FILE_PATH).toPath()), StandardCharsets.UTF_8);
+			for (int i = 0; i < numLicenseFiles; i++) {
+				File xmlFile = new File(xmlDir, String.format("lic%04d.xml", i));
+				Files.write(xmlFile.toPath(), xml.replace("licenseId=\"test-",
+						"licenseId=\"test-"+String.valueOf(i)+"-").getBytes(StandardCharsets.UTF_8));
+				xmlFiles.add(xmlFile);
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			for (File file:xmlFiles) {
+				file.delete();
+			}
+			xmlDir.delete();
+		}
+	}
+
+	@Benchmark
+	public void loadParallel(LicenseXmlState state, Blackhole bh) throws Exception {
+		Iterator<SpdxListedLicense> iter = new XmlLicenseProvider(state.xmlDir).getLicenseIterator();
+		while (iter.hasNext()) {
+			bh.consume(iter.next());
+		}
+	}
+
+	@Benchmark
+	public void loadSequential(LicenseXmlState state, Blackhole bh) throws Exception {
+		for (File xmlFile:state.xmlFiles) {
+			bh.consume(new LicenseXmlDocument(xmlFile).getListedLicenses());
+		}
+	}
+}
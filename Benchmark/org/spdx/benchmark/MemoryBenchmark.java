@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.benchmark;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spdx.rdfparser.SPDXDocumentFactory;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.model.SpdxDocument;
+import org.spdx.tools.TagToRDF;
+
+/**
+ * Measures the heap retained by a parsed document.  The retained heap is reported as the <code>retainedBytes</code> secondary
+ * result.  To measure a 100,000 file document:
+ *
+ * <code>mvn -Pbenchmark -DskipTests test -Djmh.args="-p numFiles=100000 MemoryBenchmark"</code>
+ *
+ * @author Gary O'Neall
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class MemoryBenchmark {
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class HeapCounters {
+		public long retainedBytes;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	@Benchmark
+	public SpdxDocument parseRdfXml(SyntheticDocumentState state, HeapCounters counters) throws Exception {
+		long before = usedHeap();
+		SpdxDocument doc = SPDXDocumentFactory.createSpdxDocument(state.rdfXmlFile.getPath());
+		counters.retainedBytes = usedHeap() - before;
+		return doc;
+	}
+
+	@Benchmark
+	public SpdxDocumentContainer parseTag(SyntheticDocumentState state, HeapCounters counters) throws Exception {
+		long before = usedHeap();
+		SpdxDocumentContainer container;
+		try (InputStream in = new FileInputStream(state.tagFile)) {
+			container = TagToRDF.convertTagFileToRdf(in, "RDF/XML", new ArrayList<String>());
+		}
+		counters.retainedBytes = usedHeap() - before;
+		return container;
+	}
+}
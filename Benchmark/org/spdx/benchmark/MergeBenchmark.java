@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spdx.merge.SpdxFileInfoMerger;
+import org.spdx.merge.SpdxLicenseMapper;
+import org.spdx.rdfparser.model.SpdxDocument;
+import org.spdx.rdfparser.model.SpdxFile;
+
+/**
+ * Measures merging the file information of synthetic SPDX documents into a master document.
+ * Each sub document is generated with a different seed, so the files of the sub documents
+ * overlap the master by name but not by checksum.
+ *
+ * @author Gary O'Neall
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MergeBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class MergeState {
+
+		@Param({"10000", "100000"})
+		public int numFiles;
+
+		@Param({"4"})
+		public int numSubDocs;
+
+		@Param({"5"})
+		public int numPackages;
+
+		SpdxDocument master;
+		SpdxDocument[] subDocs;
+
+		@Setup(Level.Trial)
+		public void setUp() throws Exception {
+			master = new SyntheticSpdxGenerator(numPackages, numFiles, 0, 0,
+					SyntheticSpdxGenerator.DEFAULT_SEED).generate();
+			subDocs = new SpdxDocument[numSubDocs];
+			for (int i = 0; i < numSubDocs; i++) {
+				subDocs[i] = new SyntheticSpdxGenerator(numPackages, numFiles, 0, 0,
+						SyntheticSpdxGenerator.DEFAULT_SEED + i + 1).generate();
+			}
+		}
+	}
+
+	@Benchmark
+	public SpdxFile[] mergeFileInfo(MergeState state) throws Exception {
+		return new SpdxFileInfoMerger(state.master, new SpdxLicenseMapper()).mergeFileInfo(state.subDocs);
+	}
+}
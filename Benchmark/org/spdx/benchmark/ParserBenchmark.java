@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.benchmark;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spdx.rdfparser.SPDXDocumentFactory;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.model.SpdxDocument;
+import org.spdx.spdxspreadsheet.SPDXSpreadsheet;
+import org.spdx.tools.SpreadsheetToRDF;
+import org.spdx.tools.TagToRDF;
+
+/**
+ * Benchmarks for reading SPDX documents in each of the supported formats
+ *
+ * @author Gary O'Neall
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParserBenchmark {
+
+	/**
+	 * Tag/value parsing with the HandBuiltParser
+	 */
+	@Benchmark
+	public SpdxDocumentContainer parseTag(SyntheticDocumentState state) throws Exception {
+		List<String> warnings = new ArrayList<String>();
+		try (InputStream in = new FileInputStream(state.tagFile)) {
+			return TagToRDF.convertTagFileToRdf(in, "RDF/XML", warnings);
+		}
+	}
+
+	@Benchmark
+	public SpdxDocument parseRdfXml(SyntheticDocumentState state) throws Exception {
+		return SPDXDocumentFactory.createSpdxDocument(state.rdfXmlFile.getPath());
+	}
+
+	@Benchmark
+	public SpdxDocument parseXlsx(SyntheticDocumentState state) throws Exception {
+		SPDXSpreadsheet ss = SPDXSpreadsheet.openForStreaming(state.xlsxFile);
+		try {
+			return SpreadsheetToRDF.copySpreadsheetToSPDXAnalysis(ss);
+		} finally {
+			ss.close();
+		}
+	}
+}
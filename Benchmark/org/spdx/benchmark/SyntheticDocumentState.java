@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.benchmark;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.spdx.rdfparser.SPDXDocumentFactory;
+import org.spdx.rdfparser.model.SpdxDocument;
+
+/**
+ * Synthetic SPDX document shared by the benchmarks along with copies written in the
+ * tag/value, RDF/XML and XLSX formats.  The scale is set with the JMH parameters,
+ * e.g. <code>-p numFiles=10000</code>.
+ *
+ * @author Gary O'Neall
+ *
+ */
+@State(Scope.Benchmark)
+public class SyntheticDocumentState {
+
+	@Param({"1000"})
+	public int numFiles;
+
+	@Param({"5"})
+	public int numPackages;
+
+	@Param({"500"})
+	public int numRelationships;
+
+	@Param({"20"})
+	public int numExtractedLicenses;
+
+	@Param({"20170101"})
+	public long seed;
+
+	SyntheticSpdxGenerator generator;
+	SpdxDocument doc;
+	/**
+	 * Same document as doc read back from the RDF/XML file
+	 */
+	SpdxDocument parsedDoc;
+	File tempDir;
+	File tagFile;
+	File rdfXmlFile;
+	File xlsxFile;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		generator = new SyntheticSpdxGenerator(numPackages, numFiles, numRelationships, numExtractedLicenses, seed);
+		doc = generator.generate();
+		tempDir = Files.createTempDirectory("spdxbenchmark").toFile();
+		tagFile = new File(tempDir, "synthetic.spdx");
+		SyntheticSpdxGenerator.writeTag(doc, tagFile);
+		rdfXmlFile = new File(tempDir, "synthetic.rdf");
+		SyntheticSpdxGenerator.writeRdfXml(doc, rdfXmlFile);
+		xlsxFile = new File(tempDir, "synthetic.xlsx");
+		SyntheticSpdxGenerator.writeSpreadsheet(doc, xlsxFile);
+		parsedDoc = SPDXDocumentFactory.createSpdxDocument(rdfXmlFile.getPath());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		File[] files = tempDir.listFiles();
+		if (files != null) {
+			for (File file:files) {
+				file.delete();
+			}
+		}
+		tempDir.delete();
+	}
+}
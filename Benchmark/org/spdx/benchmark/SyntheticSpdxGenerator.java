@@ -0,0 +1,286 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.SPDXCreatorInformation;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.SpdxPackageVerificationCode;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
+import org.spdx.rdfparser.license.ExtractedLicenseInfo;
+import org.spdx.rdfparser.license.LicenseInfoFactory;
+import org.spdx.rdfparser.model.Annotation;
+import org.spdx.rdfparser.model.Checksum;
+import org.spdx.rdfparser.model.Checksum.ChecksumAlgorithm;
+import org.spdx.rdfparser.model.DoapProject;
+import org.spdx.rdfparser.model.Relationship;
+import org.spdx.rdfparser.model.Relationship.RelationshipType;
+import org.spdx.rdfparser.model.SpdxDocument;
+import org.spdx.rdfparser.model.SpdxFile;
+import org.spdx.rdfparser.model.SpdxFile.FileType;
+import org.spdx.rdfparser.model.SpdxPackage;
+import org.spdx.spdxspreadsheet.InvalidLicenseStringException;
+import org.spdx.spdxspreadsheet.SPDXSpreadsheet;
+import org.spdx.spdxspreadsheet.SpreadsheetException;
+import org.spdx.tag.CommonCode;
+import org.spdx.tools.RdfToSpreadsheet;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Generates synthetic SPDX documents for benchmarks.  The documents only depend on the
+ * scale parameters and the seed so that the results can be compared across releases.
+ *
+ * Only the locally cached copy of the SPDX listed licenses is used so that the generated
+ * documents do not depend on the network.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class SyntheticSpdxGenerator {
+
+	public static final long DEFAULT_SEED = 20170101L;
+	static final String DOCUMENT_NAMESPACE_PREFIX = "http://spdx.org/spdxdocs/synthetic-";
+	static final String CREATED_DATE = "2017-01-01T00:00:00Z";
+	static final String[] LISTED_LICENSE_IDS = new String[] {"Apache-2.0", "MIT", "GPL-2.0",
+			"LGPL-2.1", "BSD-3-Clause", "EPL-1.0", "MPL-2.0"};
+	static final String[] WORDS = new String[] {"the", "software", "is", "provided", "as", "without",
+			"warranty", "of", "any", "kind", "permission", "hereby", "granted", "copy", "modify", "merge",
+			"publish", "distribute", "sublicense", "sell", "copies", "notice", "shall", "be", "included",
+			"in", "all", "substantial", "portions", "holders", "liable", "for", "claim", "damages"};
+	static final RelationshipType[] FILE_RELATIONSHIP_TYPES = new RelationshipType[] {
+			RelationshipType.GENERATED_FROM, RelationshipType.DYNAMIC_LINK, RelationshipType.STATIC_LINK,
+			RelationshipType.DATA_FILE_OF, RelationshipType.TEST_CASE_OF, RelationshipType.PATCH_FOR};
+	static final int NUM_LICENSE_TEXT_WORDS = 200;
+	static final int FILES_PER_DIRECTORY = 50;
+
+	static {
+		if (System.getProperty("SPDXParser.OnlyUseLocalLicenses") == null) {
+			System.setProperty("SPDXParser.OnlyUseLocalLicenses", "true");
+		}
+	}
+
+	private int numPackages;
+	private int numFiles;
+	private int numRelationships;
+	private int numExtractedLicenses;
+	private long seed;
+
+	/**
+	 * @param numPackages number of packages described by the document
+	 * @param numFiles total number of files divided between the packages
+	 * @param numRelationships number of relationships between files
+	 * @param numExtractedLicenses number of extracted licenses referenced by the files
+	 * @param seed seed for the random generator
+	 */
+	public SyntheticSpdxGenerator(int numPackages, int numFiles, int numRelationships,
+			int numExtractedLicenses, long seed) {
+		this.numPackages = Math.max(1, numPackages);
+		this.numFiles = numFiles;
+		this.numRelationships = numRelationships;
+		this.numExtractedLicenses = numExtractedLicenses;
+		this.seed = seed;
+	}
+
+	/**
+	 * @return a new SPDX document at the configured scale
+	 * @throws InvalidSPDXAnalysisException
+	 * @throws InvalidLicenseStringException
+	 */
+	public SpdxDocument generate() throws InvalidSPDXAnalysisException, InvalidLicenseStringException {
+		Random random = new Random(seed);
+		SpdxDocumentContainer container = new SpdxDocumentContainer(DOCUMENT_NAMESPACE_PREFIX +
+				numPackages + "-" + numFiles + "-" + numRelationships + "-" + numExtractedLicenses + "-" + seed);
+		SpdxDocument doc = container.getSpdxDocument();
+		doc.setName("Synthetic document");
+		doc.setCreationInfo(new SPDXCreatorInformation(new String[] {"Tool: SyntheticSpdxGenerator"},
+				CREATED_DATE, null, null));
+		for (int i = 0; i < numExtractedLicenses; i++) {
+			doc.addExtractedLicenseInfos(new ExtractedLicenseInfo(extractedLicenseId(i), randomText(random, NUM_LICENSE_TEXT_WORDS)));
+		}
+		List<SpdxFile> allFiles = Lists.newArrayList();
+		for (int pkgNum = 0; pkgNum < numPackages; pkgNum++) {
+			int fromFile = (int)((long)pkgNum * numFiles / numPackages);
+			int toFile = (int)((long)(pkgNum + 1) * numFiles / numPackages);
+			SpdxFile[] files = new SpdxFile[toFile - fromFile];
+			for (int i = 0; i < files.length; i++) {
+				int fileNum = fromFile + i;
+				AnyLicenseInfo fileLicense = LicenseInfoFactory.parseSPDXLicenseString(
+						randomLicenseExpression(random), container);
+				files[i] = new SpdxFile("./package" + pkgNum + "/dir" + (fileNum / FILES_PER_DIRECTORY) + "/file" + fileNum + ".c",
+						null, new Annotation[0], new Relationship[0], fileLicense, new AnyLicenseInfo[] {fileLicense},
+						"Copyright (c) " + (1990 + random.nextInt(28)) + " Holder" + random.nextInt(100), null,
+						new FileType[] {FileType.fileType_source},
+						new Checksum[] {new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, randomSha1(random))},
+						new String[0], null, new DoapProject[0]);
+				allFiles.add(files[i]);
+			}
+			AnyLicenseInfo pkgLicense = LicenseInfoFactory.parseSPDXLicenseString(
+					randomLicenseExpression(random), container);
+			SpdxPackage pkg = new SpdxPackage("package" + pkgNum, pkgLicense,
+					new AnyLicenseInfo[] {pkgLicense}, "Copyright (c) Holder" + pkgNum, pkgLicense,
+					"http://example.com/package" + pkgNum + ".tar.gz", files,
+					new SpdxPackageVerificationCode(randomSha1(random), new String[0]));
+			pkg.setVersionInfo("1." + pkgNum);
+			doc.addRelationship(new Relationship(pkg, RelationshipType.DESCRIBES, null));
+		}
+		if (!allFiles.isEmpty()) {
+			for (int i = 0; i < numRelationships; i++) {
+				SpdxFile from = allFiles.get(random.nextInt(allFiles.size()));
+				SpdxFile to = allFiles.get(random.nextInt(allFiles.size()));
+				from.addRelationship(new Relationship(to,
+						FILE_RELATIONSHIP_TYPES[random.nextInt(FILE_RELATIONSHIP_TYPES.length)], null));
+			}
+		}
+		return doc;
+	}
+
+	/**
+	 * @param count number of expressions
+	 * @return license expressions using the same licenses as the generated documents
+	 */
+	public List<String> generateLicenseExpressions(int count) {
+		Random random = new Random(seed);
+		List<String> retval = Lists.newArrayList();
+		for (int i = 0; i < count; i++) {
+			retval.add(randomLicenseExpression(random));
+		}
+		return retval;
+	}
+
+	private String randomLicenseExpression(Random random) {
+		switch (random.nextInt(4)) {
+			case 0: return randomSimpleLicense(random) + " AND " + randomSimpleLicense(random);
+			case 1: return "(" + randomSimpleLicense(random) + " OR " + randomSimpleLicense(random) + ") AND " +
+					randomSimpleLicense(random);
+			default: return randomSimpleLicense(random);
+		}
+	}
+
+	private String randomSimpleLicense(Random random) {
+		if (numExtractedLicenses > 0 && random.nextInt(3) == 0) {
+			return extractedLicenseId(random.nextInt(numExtractedLicenses));
+		} else {
+			return LISTED_LICENSE_IDS[random.nextInt(LISTED_LICENSE_IDS.length)];
+		}
+	}
+
+	private static String extractedLicenseId(int licenseNum) {
+		return "LicenseRef-" + (licenseNum + 1);
+	}
+
+	private static String randomText(Random random, int numWords) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < numWords; i++) {
+			if (i > 0) {
+				sb.append(i % 12 == 0 ? '\n' : ' ');
+			}
+			sb.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return sb.toString();
+	}
+
+	private static String randomSha1(Random random) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 40; i++) {
+			sb.append(Character.forDigit(random.nextInt(16), 16));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Write a document in the tag/value format
+	 * @param doc
+	 * @param file
+	 * @throws IOException
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public static void writeTag(SpdxDocument doc, File file) throws IOException, InvalidSPDXAnalysisException {
+		Properties constants = CommonCode.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
+		try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+			CommonCode.printDoc(doc, out, constants);
+		}
+	}
+
+	/**
+	 * Write a document in the RDF/XML format
+	 * @param doc
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void writeRdfXml(SpdxDocument doc, File file) throws IOException {
+		try (OutputStream out = new FileOutputStream(file)) {
+			doc.getDocumentContainer().getModel().write(out, "RDF/XML-ABBREV");
+		}
+	}
+
+	/**
+	 * Write a document as a spreadsheet - the format is determined by the file extension
+	 * @param doc
+	 * @param file
+	 * @throws SpreadsheetException
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public static void writeSpreadsheet(SpdxDocument doc, File file) throws SpreadsheetException, InvalidSPDXAnalysisException {
+		SPDXSpreadsheet ss = new SPDXSpreadsheet(file, true, false);
+		try {
+			RdfToSpreadsheet.copyRdfXmlToSpreadsheet(doc, ss);
+		} finally {
+			ss.close();
+		}
+	}
+
+	/**
+	 * Generate a synthetic document in the tag, RDF/XML and XLSX formats
+	 * @param args outputDir numPackages numFiles numRelationships numExtractedLicenses [seed]
+	 */
+	public static void main(String[] args) {
+		if (args.length < 5) {
+			System.out.println("Usage: SyntheticSpdxGenerator outputDir numPackages numFiles numRelationships numExtractedLicenses [seed]");
+			System.exit(1);
+		}
+		File outputDir = new File(args[0]);
+		if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+			System.out.println("Unable to create output directory "+args[0]);
+			System.exit(1);
+		}
+		try {
+			long seed = args.length > 5 ? Long.parseLong(args[5]) : DEFAULT_SEED;
+			SyntheticSpdxGenerator generator = new SyntheticSpdxGenerator(Integer.parseInt(args[1]),
+					Integer.parseInt(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]), seed);
+			SpdxDocument doc = generator.generate();
+			writeTag(doc, new File(outputDir, "synthetic.spdx"));
+			writeRdfXml(doc, new File(outputDir, "synthetic.rdf"));
+			writeSpreadsheet(doc, new File(outputDir, "synthetic.xlsx"));
+		} catch (NumberFormatException e) {
+			System.out.println("Invalid number: "+e.getMessage());
+			System.exit(1);
+		} catch (Exception e) {
+			System.out.println("Error generating synthetic SPDX document: "+e.getMessage());
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.compare;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestLicenseTextDuplicateFinder {
+	
+	static final String TEST_DIR = "TestFiles";
+
+	@Test
+	public void testAddAndFindDuplicates() {
+		LicenseTextDuplicateFinder finder = new LicenseTextDuplicateFinder();
+		assertTrue(finder.addAndFindDuplicates("lic1", "Licence to use this software, whilst the copyright holder is favoured.").isEmpty());
+		assertTrue(finder.addAndFindDuplicates("lic2", "Different text").isEmpty());
+		List<String> result = finder.addAndFindDuplicates("lic3", 
+				"/*\n * License to use this   software, while the\n * copyright-holder is favoured.\n */");
+		assertEquals(Lists.newArrayList("lic1"), result);
+		result = finder.addAndFindDuplicates("lic4", "# licence to use this software, whilst the copyright holder is favoured.");
+		assertEquals(Lists.newArrayList("lic1", "lic3"), result);
+		assertTrue(finder.addAndFindDuplicates("lic5", null).isEmpty());
+		assertEquals(Lists.newArrayList("lic5"), finder.addAndFindDuplicates("lic6", ""));
+	}
+	
+	@Test
+	public void testMatchesPairwiseComparison() throws Exception {
+		Map<String, String> texts = Maps.newLinkedHashMap();
+		File[] files = new File(TEST_DIR).listFiles();
+		for (File file:files) {
+			if (file.isFile() && file.getName().endsWith(".txt") && !file.getName().contains("emplate")) {
+				String text = Files.toString(file, Charset.forName("UTF-8"));
+				texts.put(file.getName(), text);
+				texts.put(file.getName() + "-comment", "/*\n * " + text.replace("\n", "\n * ") + "\n */");
+				texts.put(file.getName() + "-reformatted", text.replaceAll("\\s+", " ").replace("-", "\u2013"));
+				texts.put(file.getName() + "-changed", text + " changed");
+			}
+		}
+		assertTrue(texts.size() > 0);
+		LicenseTextDuplicateFinder finder = new LicenseTextDuplicateFinder();
+		List<String> addedIds = Lists.newArrayList();
+		for (Map.Entry<String, String> entry:texts.entrySet()) {
+			List<String> expected = Lists.newArrayList();
+			for (String addedId:addedIds) {
+				if (LicenseCompareHelper.isLicenseTextEquivalent(texts.get(addedId), entry.getValue())) {
+					expected.add(addedId);
+				}
+			}
+			assertEquals(entry.getKey(), expected, finder.addAndFindDuplicates(entry.getKey(), entry.getValue()));
+			addedIds.add(entry.getKey());
+		}
+	}
+}
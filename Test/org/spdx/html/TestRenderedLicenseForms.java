@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.html;
+
+import static org.junit.Assert.*;
+
+import java.lang.ref.WeakReference;
+
+import org.junit.Test;
+import org.spdx.licenseTemplate.SpdxLicenseTemplateHelper;
+import org.spdx.rdfparser.license.LicenseException;
+import org.spdx.rdfparser.license.SpdxListedLicense;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestRenderedLicenseForms {
+	
+	static final String TEXT = "Line 1\r\nLine 2\rLine <3> & \"4\"\n";
+	static final String TEMPLATE = "Line 1\r\n<<var;name=\"name\";original=\"Line 2\";match=\".+\">>\n";
+	static final String HEADER = "Header\r\ntext";
+
+	@Test
+	public void testForLicense() throws Exception {
+		SpdxListedLicense license = new SpdxListedLicense("name", "id", TEXT, new String[0], null, HEADER, 
+				TEMPLATE, false);
+		RenderedLicenseForms forms = RenderedLicenseForms.forLicense(license);
+		assertSame(forms, RenderedLicenseForms.forLicense(license));
+		SpdxListedLicense sameIdLicense = new SpdxListedLicense("name", "id", TEXT, new String[0], null, HEADER, 
+				TEMPLATE, false);
+		assertNotSame(forms, RenderedLicenseForms.forLicense(sameIdLicense));
+		assertEquals(TEXT.replaceAll("\\r\\n", "\n").replaceAll("\\r", "\n"), forms.getNormalizedText());
+		assertEquals(TEMPLATE.replaceAll("\\r\\n", "\n").replaceAll("\\r", "\n"), forms.getNormalizedTemplate());
+		assertEquals("Header\ntext", forms.getNormalizedHeader());
+		assertEquals(SpdxLicenseTemplateHelper.formatEscapeHTML(TEXT), forms.getEscapedTextHtml());
+		assertEquals(sameIdLicense.getLicenseTextHtml(), forms.getTextHtml());
+		assertEquals(sameIdLicense.getLicenseHeaderHtml(), forms.getHeaderHtml());
+		assertSame(forms.getTextHtml(), forms.getTextHtml());
+	}
+	
+	@Test
+	public void testForException() throws Exception {
+		LicenseException exception = new LicenseException("id", "name", TEXT, new String[0], null, null);
+		RenderedLicenseForms forms = RenderedLicenseForms.forException(exception);
+		assertSame(forms, RenderedLicenseForms.forException(exception));
+		assertEquals(TEXT.replaceAll("\\r\\n", "\n").replaceAll("\\r", "\n"), forms.getNormalizedText());
+		assertEquals(SpdxLicenseTemplateHelper.formatEscapeHTML(TEXT), forms.getEscapedTextHtml());
+		assertEquals(exception.getExceptionTextHtml(), forms.getTextHtml());
+		assertNull(forms.getHeaderHtml());
+		assertNull(forms.getNormalizedHeader());
+	}
+	
+	@Test
+	public void testLicenseCollected() throws Exception {
+		SpdxListedLicense license = new SpdxListedLicense("name", "id", TEXT, new String[0], null, HEADER, 
+				TEMPLATE, false);
+		RenderedLicenseForms forms = RenderedLicenseForms.forLicense(license);
+		assertEquals("Header\ntext", forms.getNormalizedHeader());
+		WeakReference<SpdxListedLicense> licenseRef = new WeakReference<SpdxListedLicense>(license);
+		license = null;
+		for (int i = 0; i < 10 && licenseRef.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(licenseRef.get());
+		// forms which were already computed are still available
+		assertEquals("Header\ntext", forms.getNormalizedHeader());
+	}
+	
+	@Test
+	public void testNormalizeLineEndings() {
+		assertNull(RenderedLicenseForms.normalizeLineEndings(null));
+		assertEquals("a\nb\nc\n\nd", RenderedLicenseForms.normalizeLineEndings("a\r\nb\rc\r\rd"));
+	}
+}
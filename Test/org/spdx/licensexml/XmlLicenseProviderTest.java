@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.licensexml;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.spdx.rdfparser.license.LicenseException;
+import org.spdx.rdfparser.license.SpdxListedLicense;
+import org.spdx.spdxspreadsheet.SPDXLicenseSpreadsheet.DeprecatedLicenseInfo;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class XmlLicenseProviderTest {
+	
+	static final String TEST_FILE_PATH = "TestFiles" + File.separator + "test-license.xml";
+	static final int NUM_FILES = 200;
+	static final Charset UTF8 = Charset.forName("UTF-8");
+	File xmlDir;
+	List<File> xmlFiles = Lists.newArrayList();
+
+	@Before
+	public void setUp() throws Exception {
+		xmlDir = Files.createTempDir();
+		String xml = Files.toString(new File(TEST_FILE_PATH), UTF8);
+		for (int i = 0; i < NUM_FILES; i++) {
+			File xmlFile = new File(xmlDir, String.format("lic%04d.xml", i));
+			Files.write(xml.replace("licenseId=\"test-", "licenseId=\"test-"+String.valueOf(i)+"-"), xmlFile, UTF8);
+			xmlFiles.add(xmlFile);
+		}
+		Files.write("<SPDXLicenseCollection><notvalid/></SPDXLicenseCollection>", new File(xmlDir, "invalid.xml"), UTF8);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		for (File file:xmlDir.listFiles()) {
+			file.delete();
+		}
+		xmlDir.delete();
+	}
+	
+	@Test
+	public void testParallelLoadOrder() throws Exception {
+		XmlLicenseProvider provider = new XmlLicenseProvider(xmlDir);
+		List<String> licenseIds = Lists.newArrayList();
+		Iterator<SpdxListedLicense> licIter = provider.getLicenseIterator();
+		while (licIter.hasNext()) {
+			licenseIds.add(licIter.next().getLicenseId());
+		}
+		List<String> expectedIds = Lists.newArrayList();
+		for (File xmlFile:xmlFiles) {
+			for (SpdxListedLicense license:new LicenseXmlDocument(xmlFile).getListedLicenses()) {
+				expectedIds.add(license.getLicenseId());
+			}
+		}
+		// file order depends on the directory listing so compare as sorted lists
+		Collections.sort(expectedIds);
+		List<String> sortedIds = Lists.newArrayList(licenseIds);
+		Collections.sort(sortedIds);
+		assertEquals(expectedIds, sortedIds);
+		assertEquals(NUM_FILES, licenseIds.size());
+		assertEquals(1, provider.getWarnings().size());
+		assertTrue(provider.getWarnings().get(0).contains("invalid.xml"));
+		
+		List<String> exceptionIds = Lists.newArrayList();
+		Iterator<LicenseException> exIter = provider.getExceptionIterator();
+		while (exIter.hasNext()) {
+			exceptionIds.add(exIter.next().getLicenseExceptionId());
+		}
+		List<String> deprecatedIds = Lists.newArrayList();
+		Iterator<DeprecatedLicenseInfo> depIter = provider.getDeprecatedLicenseIterator();
+		while (depIter.hasNext()) {
+			deprecatedIds.add(depIter.next().getLicense().getLicenseId());
+		}
+		assertEquals(NUM_FILES, exceptionIds.size());
+		assertEquals(NUM_FILES, deprecatedIds.size());
+		// all iterators read the files in the same order
+		for (int i = 0; i < NUM_FILES; i++) {
+			String prefix = licenseIds.get(i).substring(0, licenseIds.get(i).length() - "id".length());
+			assertEquals(prefix + "ex", exceptionIds.get(i));
+			assertEquals(prefix + "dep", deprecatedIds.get(i));
+		}
+	}
+	
+	@Test
+	public void testSchemaCached() throws Exception {
+		assertSame(LicenseXmlDocument.getLicenseXmlSchema(), LicenseXmlDocument.getLicenseXmlSchema());
+	}
+}
@@ -16,18 +16,35 @@
 */
 package org.spdx.merge;
 
+import static org.junit.Assert.*;
+
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.SPDXDocumentFactory;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
+import org.spdx.rdfparser.license.SpdxNoAssertionLicense;
+import org.spdx.rdfparser.model.Annotation;
+import org.spdx.rdfparser.model.Checksum;
+import org.spdx.rdfparser.model.Checksum.ChecksumAlgorithm;
+import org.spdx.rdfparser.model.DoapProject;
+import org.spdx.rdfparser.model.Relationship;
 import org.spdx.rdfparser.model.SpdxDocument;
+import org.spdx.rdfparser.model.SpdxFile;
+import org.spdx.rdfparser.model.SpdxFile.FileType;
 import org.spdx.rdfparser.model.SpdxPackage;
 
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
 /**
  * @author Gang Ling
  *
@@ -64,6 +81,107 @@ public class SpdxFileInfoMergerTest {
 //		SpdxFileInfoMerger fileMerger = new SpdxFileInfoMerger(packageInfo, new SpdxLicenseMapper());
 	}
 
+	/**
+	 * Create a document containing generated files
+	 * @param uri document namespace
+	 * @param names file names
+	 * @param sha1Seeds seeds for the generated SHA1 checksums
+	 * @return
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private SpdxDocument createDocument(String uri, String[] names, int[] sha1Seeds) throws InvalidSPDXAnalysisException {
+		SpdxDocumentContainer container = new SpdxDocumentContainer(uri);
+		for (int i = 0; i < names.length; i++) {
+			SpdxFile file = new SpdxFile(names[i], null, new Annotation[0], new Relationship[0], 
+					new SpdxNoAssertionLicense(), new AnyLicenseInfo[] {new SpdxNoAssertionLicense()},
+					"NOASSERTION", null, new FileType[] {FileType.fileType_source},
+					new Checksum[] {new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, String.format("%040x", sha1Seeds[i]))},
+					new String[0], null, new DoapProject[0]);
+			container.addElement(file);
+		}
+		return container.getSpdxDocument();
+	}
+	
+	/**
+	 * Merges generated documents where the sub document contains files matching master
+	 * files by checksum, by name in a different case, and new files.
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	@Test
+	public void testMergeGeneratedFiles() throws InvalidSPDXAnalysisException {
+		int numFiles = 2000;
+		String[] masterNames = new String[numFiles];
+		int[] masterSeeds = new int[numFiles];
+		String[] subNames = new String[numFiles];
+		int[] subSeeds = new int[numFiles];
+		for (int i = 0; i < numFiles; i++) {
+			masterNames[i] = "src/dir"+String.valueOf(i % 10)+"/File"+String.valueOf(i)+".c";
+			masterSeeds[i] = i;
+			if (i % 4 < 2) {
+				// same checksum, different name
+				subNames[i] = "other/File"+String.valueOf(i)+".c";
+				subSeeds[i] = i;
+			} else if (i % 4 == 2) {
+				// same name ignoring case, different checksum
+				subNames[i] = masterNames[i].toUpperCase();
+				subSeeds[i] = numFiles + i;
+			} else {
+				subNames[i] = "new/File"+String.valueOf(i)+".c";
+				subSeeds[i] = numFiles + i;
+			}
+		}
+		SpdxDocument master = createDocument("http://spdx.org/spdxdocs/merge-master", masterNames, masterSeeds);
+		SpdxDocument sub = createDocument("http://spdx.org/spdxdocs/merge-sub", subNames, subSeeds);
+		SpdxFileInfoMerger fileMerger = new SpdxFileInfoMerger(master, new SpdxLicenseMapper());
+		SpdxFile[] result = fileMerger.mergeFileInfo(new SpdxDocument[] {sub});
+		assertEquals(numFiles + numFiles / 4, result.length);
+		Set<String> resultNames = Sets.newHashSet();
+		for (SpdxFile file:result) {
+			resultNames.add(file.getName());
+		}
+		for (int i = 0; i < numFiles; i++) {
+			assertTrue(resultNames.contains(masterNames[i]));
+			assertEquals(i % 4 == 3, resultNames.contains(subNames[i]));
+		}
+	}
+
+	private SpdxFile createFile(String name, int sha1Seed, DoapProject[] artifactOf) throws InvalidSPDXAnalysisException {
+		return new SpdxFile(name, null, new Annotation[0], new Relationship[0], 
+				new SpdxNoAssertionLicense(), new AnyLicenseInfo[] {new SpdxNoAssertionLicense()},
+				"NOASSERTION", null, new FileType[] {FileType.fileType_source},
+				new Checksum[] {new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, String.format("%040x", sha1Seed))},
+				new String[0], null, artifactOf);
+	}
+	
+	@Test
+	public void testMergeArtifactOf() throws InvalidSPDXAnalysisException {
+		DoapProject masterProject = new DoapProject("MasterProject", "http://master.example.com");
+		DoapProject subProject = new DoapProject("SubProject", "http://sub.example.com");
+		SpdxDocumentContainer masterContainer = new SpdxDocumentContainer("http://spdx.org/spdxdocs/merge-doap-master");
+		masterContainer.addElement(createFile("src/a.c", 1, new DoapProject[0]));
+		masterContainer.addElement(createFile("src/b.c", 2, new DoapProject[] {masterProject}));
+		masterContainer.addElement(createFile("src/c.c", 3, new DoapProject[0]));
+		SpdxDocumentContainer subContainer = new SpdxDocumentContainer("http://spdx.org/spdxdocs/merge-doap-sub");
+		// matches a.c by name only
+		subContainer.addElement(createFile("SRC/A.C", 11, new DoapProject[] {subProject}));
+		// matches b.c by checksum
+		subContainer.addElement(createFile("other/b.c", 2, new DoapProject[] {subProject}));
+		subContainer.addElement(createFile("src/new.c", 12, new DoapProject[] {subProject}));
+		SpdxFileInfoMerger fileMerger = new SpdxFileInfoMerger(masterContainer.getSpdxDocument(), new SpdxLicenseMapper());
+		SpdxFile[] result = fileMerger.mergeFileInfo(new SpdxDocument[] {subContainer.getSpdxDocument()});
+		assertEquals(4, result.length);
+		Map<String, SpdxFile> resultByName = Maps.newHashMap();
+		for (SpdxFile file:result) {
+			resultByName.put(file.getName(), file);
+		}
+		assertEquals(1, resultByName.get("src/a.c").getArtifactOf().length);
+		assertEquals("SubProject", resultByName.get("src/a.c").getArtifactOf()[0].getName());
+		assertEquals(2, resultByName.get("src/b.c").getArtifactOf().length);
+		assertEquals(0, resultByName.get("src/c.c").getArtifactOf().length);
+		// files after a matching file with artifactOf projects are still merged
+		assertTrue(resultByName.containsKey("src/new.c"));
+	}
+
 	/**
 	 * Test method for {@link org.spdx.merge.SpdxFileInfoMerger#mergeFileInfo(org.spdx.rdfparser.SpdxDocument[])}.
 	 * @throws InvalidSPDXAnalysisException 
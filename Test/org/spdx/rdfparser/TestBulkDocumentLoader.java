@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.ref.WeakReference;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.junit.Before;
+import org.junit.Test;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
+import org.spdx.rdfparser.license.ExtractedLicenseInfo;
+import org.spdx.rdfparser.license.SpdxNoAssertionLicense;
+import org.spdx.rdfparser.model.Checksum.ChecksumAlgorithm;
+import org.spdx.rdfparser.model.DoapProject;
+import org.spdx.rdfparser.model.Relationship;
+import org.spdx.rdfparser.model.Relationship.RelationshipType;
+import org.spdx.rdfparser.model.SpdxFile;
+import org.spdx.rdfparser.model.SpdxFile.FileType;
+import org.spdx.rdfparser.model.SpdxPackage;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestBulkDocumentLoader {
+
+	static final String DOC_URI = "http://spdx.org/documents/test";
+	static final String SHA1 = "2fd4e1c67a2d28fced849ee1bb76e7391b93eb12";
+	static final String SHA1_2 = "de9f2c7fd25e1b3afad3e85a0bd17d9b100db4b3";
+	static final String SHA1_3 = "a94a8fe5ccb19ba61c4c0873d391e987982fbbd3";
+
+	SpdxDocumentContainer container;
+	SpdxPackage pkg;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		container = new SpdxDocumentContainer(DOC_URI);
+		AnyLicenseInfo noAssertion = new SpdxNoAssertionLicense();
+		pkg = new SpdxPackage("package", noAssertion, new AnyLicenseInfo[] {noAssertion}, "NOASSERTION",
+				noAssertion, "NOASSERTION", new SpdxFile[0], new SpdxPackageVerificationCode(SHA1, new String[0]));
+		container.addElement(pkg);
+	}
+
+	private SpdxFile createFile(String name, String sha1) throws InvalidSPDXAnalysisException {
+		AnyLicenseInfo noAssertion = new SpdxNoAssertionLicense();
+		return new SpdxFile(name, new FileType[] {FileType.fileType_source}, sha1, noAssertion,
+				new AnyLicenseInfo[] {noAssertion}, null, "NOASSERTION", new DoapProject[0], null);
+	}
+
+	private int countSubjects(String propertyName) {
+		Node property = container.getModel().createProperty(SpdxRdfConstants.SPDX_NAMESPACE, propertyName).asNode();
+		return container.getModel().getGraph().find(Node.ANY, property, Node.ANY).toList().size();
+	}
+
+	@Test
+	public void testAddFiles() throws InvalidSPDXAnalysisException {
+		BulkDocumentLoader loader = container.startBulkLoad();
+		assertTrue(container.isBulkLoading());
+		SpdxFile file1 = createFile("./src/file1.c", SHA1);
+		SpdxFile file2 = createFile("./src/file2.c", SHA1_2);
+		loader.addFiles(pkg, new SpdxFile[] {file1, file2});
+		loader.addFiles(null, new SpdxFile[] {createFile("./src/file3.c", SHA1_3)});
+		assertEquals(0, loader.finish());
+		assertFalse(container.isBulkLoading());
+		assertEquals(3, container.findAllFiles().size());
+		assertEquals(2, pkg.getFiles().length);
+		assertEquals(3, countSubjects(SpdxRdfConstants.PROP_CHECKSUM_VALUE));
+		assertEquals(0, file1.verify().size());
+	}
+
+	@Test
+	public void testAddedFilesNotRetained() throws InvalidSPDXAnalysisException, InterruptedException {
+		BulkDocumentLoader loader = container.startBulkLoad();
+		SpdxFile file = createFile("./src/file1.c", SHA1);
+		WeakReference<SpdxFile> fileRef = new WeakReference<SpdxFile>(file);
+		loader.addFiles(pkg, new SpdxFile[] {file});
+		loader.addFiles(null, new SpdxFile[] {createFile("./src/file2.c", SHA1_2)});
+		loader.finish();
+		file = null;
+		for (int i = 0; i < 10 && fileRef.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(fileRef.get());
+		SpdxFile[] pkgFiles = pkg.getFiles();
+		assertEquals(1, pkgFiles.length);
+		assertEquals("./src/file1.c", pkgFiles[0].getName());
+		assertEquals(2, container.findAllFiles().size());
+	}
+
+	@Test
+	public void testMergeDuplicateFiles() throws InvalidSPDXAnalysisException {
+		BulkDocumentLoader loader = container.startBulkLoad();
+		SpdxFile file1 = createFile("./src/file1.c", SHA1);
+		SpdxFile duplicate = createFile("./src/file1.c", SHA1.toUpperCase());
+		SpdxFile file2 = createFile("./src/file1.c", SHA1_2);
+		loader.addFiles(pkg, new SpdxFile[] {file1, duplicate, file2});
+		assertEquals(3, container.findAllFiles().size());
+		assertEquals(1, loader.finish());
+		assertEquals(2, container.findAllFiles().size());
+		assertEquals(file1.getResource(), duplicate.getResource());
+		assertEquals("./src/file1.c", duplicate.getName());
+		assertEquals(2, container.getModel().listObjectsOfProperty(pkg.getResource(),
+				container.getModel().createProperty(SpdxRdfConstants.SPDX_NAMESPACE, SpdxRdfConstants.PROP_PACKAGE_FILE)).toList().size());
+		assertEquals(2, countSubjects(SpdxRdfConstants.PROP_CHECKSUM_VALUE));
+		// the index is rebuilt after the load
+		assertEquals(file1.getResource(), container.getResourceIndex().findFile("./src/file1.c", SHA1));
+	}
+
+	@Test
+	public void testExistingResourceKept() throws InvalidSPDXAnalysisException {
+		SpdxFile existing = createFile("./src/file1.c", SHA1);
+		pkg.addFile(existing);
+		BulkDocumentLoader loader = container.startBulkLoad();
+		SpdxFile duplicate = createFile("./src/file1.c", SHA1);
+		loader.addFiles(null, new SpdxFile[] {duplicate});
+		assertEquals(1, loader.finish());
+		assertEquals(existing.getResource(), duplicate.getResource());
+		assertEquals(existing.getId(), duplicate.getId());
+		assertEquals(1, container.findAllFiles().size());
+	}
+
+	@Test
+	public void testMergeChecksumsAndLicenses() throws InvalidSPDXAnalysisException {
+		BulkDocumentLoader loader = container.startBulkLoad();
+		// different files with the same content share a checksum resource
+		loader.addFiles(pkg, new SpdxFile[] {createFile("./src/file1.c", SHA1), createFile("./src/file2.c", SHA1)});
+		loader.addExtractedLicenses(new ExtractedLicenseInfo[] {new ExtractedLicenseInfo("LicenseRef-1", "text")});
+		assertEquals(1, loader.finish());
+		assertEquals(2, container.findAllFiles().size());
+		assertEquals(1, countSubjects(SpdxRdfConstants.PROP_CHECKSUM_VALUE));
+		assertNotNull(container.getResourceIndex().findChecksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1));
+		assertEquals(1, countSubjects(SpdxRdfConstants.PROP_LICENSE_ID));
+	}
+
+	@Test
+	public void testAddRelationships() throws InvalidSPDXAnalysisException {
+		BulkDocumentLoader loader = container.startBulkLoad();
+		SpdxFile file1 = createFile("./src/file1.c", SHA1);
+		SpdxFile file2 = createFile("./src/file2.c", SHA1_2);
+		loader.addFiles(pkg, new SpdxFile[] {file1, file2});
+		loader.addRelationships(file1, new Relationship[] {
+				new Relationship(file2, RelationshipType.GENERATED_FROM, null),
+				null,
+				new Relationship(pkg, RelationshipType.CONTAINED_BY, null)});
+		loader.finish();
+		assertEquals(2, file1.getRelationships().length);
+		Node relationshipProperty = container.getModel().createProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_RELATIONSHIP).asNode();
+		assertEquals(2, container.getModel().getGraph().find(Triple.createMatch(file1.getResource().asNode(),
+				relationshipProperty, null)).toList().size());
+	}
+
+	@Test
+	public void testFinishedLoader() throws InvalidSPDXAnalysisException {
+		BulkDocumentLoader loader = container.startBulkLoad();
+		try {
+			container.startBulkLoad();
+			fail("Started a second bulk load");
+		} catch (InvalidSPDXAnalysisException ex) {
+			// expected
+		}
+		loader.finish();
+		try {
+			loader.addFiles(pkg, new SpdxFile[] {createFile("./src/file1.c", SHA1)});
+			fail("Added files after the load was finished");
+		} catch (InvalidSPDXAnalysisException ex) {
+			// expected
+		}
+		assertNotNull(container.startBulkLoad());
+	}
+
+	@Test
+	public void testAbort() throws InvalidSPDXAnalysisException {
+		BulkDocumentLoader loader = container.startBulkLoad();
+		loader.addFiles(pkg, new SpdxFile[] {createFile("./src/file1.c", SHA1)});
+		loader.abort();
+		assertFalse(container.isBulkLoading());
+		loader.abort();
+		try {
+			loader.finish();
+			fail("Finished an aborted load");
+		} catch (InvalidSPDXAnalysisException ex) {
+			// expected
+		}
+		assertNotNull(container.startBulkLoad());
+	}
+}
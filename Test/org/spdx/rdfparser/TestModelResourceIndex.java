@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.junit.Before;
+import org.junit.Test;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
+import org.spdx.rdfparser.license.ExtractedLicenseInfo;
+import org.spdx.rdfparser.license.SpdxNoAssertionLicense;
+import org.spdx.rdfparser.model.Checksum;
+import org.spdx.rdfparser.model.Checksum.ChecksumAlgorithm;
+import org.spdx.rdfparser.model.DoapProject;
+import org.spdx.rdfparser.model.SpdxFile;
+import org.spdx.rdfparser.model.SpdxFile.FileType;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestModelResourceIndex {
+
+	static final String DOC_URI = "http://spdx.org/documents/test";
+	static final String SHA1 = "2fd4e1c67a2d28fced849ee1bb76e7391b93eb12";
+	static final String SHA1_2 = "de9f2c7fd25e1b3afad3e85a0bd17d9b100db4b3";
+
+	SpdxDocumentContainer container;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		container = new SpdxDocumentContainer(DOC_URI);
+	}
+
+	private SpdxFile createFile(String name, String sha1) throws InvalidSPDXAnalysisException {
+		AnyLicenseInfo noAssertion = new SpdxNoAssertionLicense();
+		return new SpdxFile(name, new FileType[] {FileType.fileType_source}, sha1, noAssertion,
+				new AnyLicenseInfo[] {noAssertion}, null, "NOASSERTION", new DoapProject[0], null);
+	}
+
+	@Test
+	public void testFindLicense() throws InvalidSPDXAnalysisException {
+		ModelResourceIndex index = container.getResourceIndex();
+		ExtractedLicenseInfo license = new ExtractedLicenseInfo("LicenseRef-1", "text");
+		Resource type = license.getType(container.getModel());
+		assertNull(index.findLicense("LicenseRef-1", type));
+		Resource resource = license.createResource(container);
+		assertEquals(resource, index.findLicense("LicenseRef-1", type));
+		assertNull(index.findLicense("LicenseRef-2", type));
+		// A duplicate license uses the same resource
+		ExtractedLicenseInfo duplicate = new ExtractedLicenseInfo("LicenseRef-1", "text");
+		assertEquals(resource, duplicate.createResource(container));
+		// Changing the ID updates the index
+		license.setLicenseId("LicenseRef-3");
+		assertNull(index.findLicense("LicenseRef-1", type));
+		assertEquals(resource, index.findLicense("LicenseRef-3", type));
+	}
+
+	@Test
+	public void testFindChecksum() throws InvalidSPDXAnalysisException {
+		ModelResourceIndex index = container.getResourceIndex();
+		Checksum checksum = new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1);
+		Resource resource = checksum.createResource(container);
+		assertEquals(resource, index.findChecksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1));
+		assertNull(index.findChecksum(ChecksumAlgorithm.checksumAlgorithm_md5, SHA1));
+		assertNull(index.findChecksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1_2));
+		assertEquals(resource, new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1).createResource(container));
+	}
+
+	@Test
+	public void testFindFile() throws InvalidSPDXAnalysisException {
+		ModelResourceIndex index = container.getResourceIndex();
+		SpdxFile file = createFile("./src/file1.c", SHA1);
+		Resource resource = file.createResource(container);
+		assertEquals(resource, index.findFile("./src/file1.c", SHA1));
+		assertEquals(resource, index.findFile("./src/file1.c", SHA1.toUpperCase()));
+		assertNull(index.findFile("./src/file1.c", SHA1_2));
+		assertNull(index.findFile("./src/file2.c", SHA1));
+		// Same name with a different checksum is a different file
+		Resource resource2 = createFile("./src/file1.c", SHA1_2).createResource(container);
+		assertNotNull(resource2);
+		assertEquals(resource2, index.findFile("./src/file1.c", SHA1_2));
+		assertEquals(resource, index.findFile("./src/file1.c", SHA1));
+		assertEquals(resource, createFile("./src/file1.c", SHA1).createResource(container));
+	}
+
+	@Test
+	public void testIndexExistingModel() throws InvalidSPDXAnalysisException {
+		createFile("./src/file1.c", SHA1).createResource(container);
+		new ExtractedLicenseInfo("LicenseRef-1", "text").createResource(container);
+		Model model = ModelFactory.createDefaultModel();
+		model.add(container.getModel());
+		SpdxDocumentContainer container2 = new SpdxDocumentContainer(model);
+		ModelResourceIndex index = container2.getResourceIndex();
+		assertNotNull(index.findFile("./src/file1.c", SHA1));
+		assertNotNull(index.findChecksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1));
+		assertNotNull(index.findLicense("LicenseRef-1", new ExtractedLicenseInfo("LicenseRef-1", "text").getType(model)));
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.spdx.rdfparser.model.Annotation;
+import org.spdx.rdfparser.model.Annotation.AnnotationType;
+import org.spdx.rdfparser.model.Checksum;
+import org.spdx.rdfparser.model.Checksum.ChecksumAlgorithm;
+import org.spdx.rdfparser.model.DoapProject;
+import org.spdx.rdfparser.model.IRdfModel;
+import org.spdx.rdfparser.model.Relationship;
+import org.spdx.rdfparser.model.Relationship.RelationshipType;
+import org.spdx.rdfparser.model.SpdxElement;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestRdfModelHelper {
+
+	static final String SHA1_1 = "2fd4e1c67a2d28fced849ee1bb76e7391b93eb12";
+	static final String SHA1_2 = "de9f2c7fd25e1b3afad3e85a0bd17d9b100db4b3";
+	static final String SHA1_3 = "a94a8fe5ccb19ba61c4c0873d391e987982fbbd3";
+
+	@Test
+	public void testArraysEqual() {
+		assertTrue(RdfModelHelper.arraysEqual(null, null));
+		assertFalse(RdfModelHelper.arraysEqual(new String[0], null));
+		assertFalse(RdfModelHelper.arraysEqual(null, new String[0]));
+		assertTrue(RdfModelHelper.arraysEqual(new String[] {"a", "b", null}, new String[] {null, "b", "a"}));
+		assertTrue(RdfModelHelper.arraysEqual(new String[] {"a", "a", "b"}, new String[] {"a", "b", "a"}));
+		assertFalse(RdfModelHelper.arraysEqual(new String[] {"a", "a", "b"}, new String[] {"a", "b", "b"}));
+		assertFalse(RdfModelHelper.arraysEqual(new String[] {"a", "b"}, new String[] {"a", "b", "c"}));
+	}
+
+	@Test
+	public void testArraysEquivalent() {
+		Checksum[] checksums1 = new Checksum[] {new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1_1),
+				new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1_2),
+				new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1_2),
+				null};
+		Checksum[] checksums2 = new Checksum[] {null,
+				new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1_2),
+				new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1_1),
+				new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1_2)};
+		assertTrue(RdfModelHelper.arraysEquivalent(checksums1, checksums2));
+		assertTrue(RdfModelHelper.arraysEquivalent(checksums2, checksums1));
+		// duplicates must be matched to different elements
+		Checksum[] checksums3 = new Checksum[] {new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1_1),
+				new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1_2),
+				new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1_3),
+				null};
+		assertFalse(RdfModelHelper.arraysEquivalent(checksums1, checksums3));
+		assertFalse(RdfModelHelper.arraysEquivalent(checksums3, checksums1));
+		assertFalse(RdfModelHelper.arraysEquivalent(checksums1, new Checksum[0]));
+		assertTrue(RdfModelHelper.arraysEquivalent(null, null));
+		assertFalse(RdfModelHelper.arraysEquivalent(checksums1, null));
+	}
+
+	@Test
+	public void testArraysEquivalentUnknownType() {
+		DoapProject[] projects1 = new DoapProject[] {new DoapProject("p1", "http://p1"), new DoapProject("p2", "http://p2")};
+		DoapProject[] projects2 = new DoapProject[] {new DoapProject("p2", "http://p2"), new DoapProject("p1", "http://p1")};
+		DoapProject[] projects3 = new DoapProject[] {new DoapProject("p2", "http://p2"), new DoapProject("p3", "http://p3")};
+		assertTrue(RdfModelHelper.arraysEquivalent(projects1, projects2));
+		assertFalse(RdfModelHelper.arraysEquivalent(projects1, projects3));
+	}
+
+	@Test
+	public void testEquivalenceHash() throws InvalidSPDXAnalysisException {
+		assertEquals(0, RdfModelHelper.equivalenceHash(null));
+		SpdxElement element1 = new SpdxElement("name", "comment", new Annotation[0], new Relationship[0]);
+		SpdxElement element2 = new SpdxElement("name", "other comment", new Annotation[0], new Relationship[0]);
+		assertEquals(RdfModelHelper.equivalenceHash(element1), RdfModelHelper.equivalenceHash(element2));
+		Relationship relationship1 = new Relationship(element1, RelationshipType.DESCRIBES, "comment");
+		Relationship relationship2 = new Relationship(element2, RelationshipType.DESCRIBES, "comment");
+		assertEquals(RdfModelHelper.equivalenceHash(relationship1), RdfModelHelper.equivalenceHash(relationship2));
+		Annotation annotation1 = new Annotation("Person: me", AnnotationType.annotationType_other, "2010-01-29T18:30:22Z", "comment");
+		Annotation annotation2 = new Annotation("Person: me", AnnotationType.annotationType_other, "2010-01-29T18:30:22Z", "comment");
+		assertTrue(annotation1.equivalent(annotation2));
+		assertEquals(RdfModelHelper.equivalenceHash(annotation1), RdfModelHelper.equivalenceHash(annotation2));
+		IRdfModel[] mixed1 = new IRdfModel[] {element1, relationship1, annotation1,
+				new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1_1)};
+		IRdfModel[] mixed2 = new IRdfModel[] {new Checksum(ChecksumAlgorithm.checksumAlgorithm_sha1, SHA1_1),
+				annotation2, relationship1, element1};
+		assertTrue(RdfModelHelper.arraysEquivalent(mixed1, mixed2));
+	}
+}
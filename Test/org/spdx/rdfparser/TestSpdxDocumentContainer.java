@@ -18,19 +18,25 @@ package org.spdx.rdfparser;
 
 import static org.junit.Assert.*;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
 import org.spdx.rdfparser.license.ExtractedLicenseInfo;
 import org.spdx.rdfparser.license.SpdxListedLicense;
+import org.spdx.rdfparser.license.SpdxNoAssertionLicense;
+import org.spdx.rdfparser.model.DoapProject;
 import org.spdx.rdfparser.model.ExternalDocumentRef;
 import org.spdx.rdfparser.model.Relationship;
 import org.spdx.rdfparser.model.SpdxElement;
 import org.spdx.rdfparser.model.SpdxFile;
+import org.spdx.rdfparser.model.SpdxFile.FileType;
 import org.spdx.rdfparser.model.SpdxPackage;
 import org.spdx.rdfparser.model.SpdxSnippet;
 import org.spdx.rdfparser.model.UnitTestHelper;
@@ -38,6 +44,8 @@ import org.spdx.rdfparser.model.Relationship.RelationshipType;
 
 import org.apache.jena.rdf.model.Model;
 
+import com.google.common.collect.Lists;
+
 
 /**
  * @author Gary
@@ -517,4 +525,116 @@ public class TestSpdxDocumentContainer {
 		assertEquals(elementComment2, element1.getComment());
 		assertEquals(elementComment2, element2.getComment());
 	}
+	
+	@Test
+	public void testElementIterators() throws InvalidSPDXAnalysisException {
+		String testUri = "https://spdx.org/documents/iterators";
+		SpdxDocumentContainer doc = new SpdxDocumentContainer(testUri,"SPDX-2.1");
+		AnyLicenseInfo noAssertion = new SpdxNoAssertionLicense();
+		for (int i = 0; i < 5; i++) {
+			doc.addElement(new SpdxFile("./file"+String.valueOf(i)+".c", new FileType[] {FileType.fileType_source},
+					"2fd4e1c67a2d28fced849ee1bb76e7391b93eb1"+String.valueOf(i), noAssertion, new AnyLicenseInfo[] {noAssertion},
+					null, "NOASSERTION", new DoapProject[0], null));
+		}
+		doc.addElement(new SpdxPackage("PkgName1", null, null, null, null, null, null, null));
+		// a new container on the same model has not created any of the elements
+		SpdxDocumentContainer lazyDoc = new SpdxDocumentContainer(doc.getModel());
+		Iterator<SpdxFile> fileIter = lazyDoc.getFileIterator(true);
+		List<SpdxFile> lazyFiles = Lists.newArrayList();
+		while (fileIter.hasNext()) {
+			SpdxFile file = fileIter.next();
+			assertTrue(file.isLazy());
+			lazyFiles.add(file);
+		}
+		assertEquals(5, lazyFiles.size());
+		List<SpdxFile> expected = doc.findAllFiles();
+		for (SpdxFile file:lazyFiles) {
+			SpdxFile expectedFile = null;
+			for (SpdxFile e:expected) {
+				if (e.getId().equals(file.getId())) {
+					expectedFile = e;
+				}
+			}
+			assertTrue(expectedFile != null);
+			assertEquals(expectedFile.getName(), file.getName());
+			assertEquals(expectedFile.getSha1(), file.getSha1());
+			assertTrue(file.isLazy());
+			assertEquals(expectedFile.verify().size(), file.verify().size());
+			assertFalse(file.isLazy());
+			assertTrue(expectedFile.equivalent(file));
+		}
+		assertEquals(7, lazyDoc.getElementStream(true).count());
+		assertEquals(1, lazyDoc.getPackageStream(true).count());
+		assertEquals(0, lazyDoc.getSnippetStream(false).count());
+		Iterator<List<SpdxFile>> pages = lazyDoc.getFilePages(2, true);
+		int numFiles = 0;
+		int numPages = 0;
+		while (pages.hasNext()) {
+			List<SpdxFile> page = pages.next();
+			assertTrue(page.size() <= 2);
+			numFiles += page.size();
+			numPages++;
+		}
+		assertEquals(5, numFiles);
+		assertEquals(3, numPages);
+		// elements already created are returned by the iterator
+		assertTrue(lazyDoc.findAllFiles().containsAll(lazyFiles));
+	}
+	
+	@Test
+	public void testCloseElementIterators() throws InvalidSPDXAnalysisException {
+		String testUri = "https://spdx.org/documents/closeiterators";
+		SpdxDocumentContainer doc = new SpdxDocumentContainer(testUri,"SPDX-2.1");
+		AnyLicenseInfo noAssertion = new SpdxNoAssertionLicense();
+		for (int i = 0; i < 3; i++) {
+			doc.addElement(new SpdxFile("./file"+String.valueOf(i)+".c", new FileType[] {FileType.fileType_source},
+					"2fd4e1c67a2d28fced849ee1bb76e7391b93eb1"+String.valueOf(i), noAssertion, new AnyLicenseInfo[] {noAssertion},
+					null, "NOASSERTION", new DoapProject[0], null));
+		}
+		try (CloseableIterator<SpdxFile> fileIter = doc.getFileIterator(true)) {
+			assertTrue(fileIter.hasNext());
+			assertNotNull(fileIter.next());
+			fileIter.close();
+			assertFalse(fileIter.hasNext());
+		}
+		CloseableIterator<SpdxElement> elementIter = doc.getElementIterator(true);
+		assertSame(doc.getSpdxDocument(), elementIter.next());
+		assertTrue(elementIter.hasNext());
+		elementIter.close();
+		assertFalse(elementIter.hasNext());
+		elementIter.close();
+		CloseableIterator<SpdxFile> exhausted = doc.getFileIterator(false);
+		int numFiles = 0;
+		while (exhausted.hasNext()) {
+			exhausted.next();
+			numFiles++;
+		}
+		assertEquals(3, numFiles);
+		try {
+			exhausted.next();
+			fail("Returned an element after the iterator was exhausted");
+		} catch (NoSuchElementException ex) {
+			// expected
+		}
+		// the model can be changed once the iterators have been closed
+		doc.addElement(new SpdxPackage("PkgName1", null, null, null, null, null, null, null));
+		assertEquals(1, doc.findAllPackages().size());
+	}
+	
+	@Test
+	public void testLazyElementUpdate() throws InvalidSPDXAnalysisException {
+		String testUri = "https://spdx.org/documents/lazyupdate";
+		SpdxDocumentContainer doc = new SpdxDocumentContainer(testUri,"SPDX-2.1");
+		doc.addElement(new SpdxPackage("PkgName1", null, null, null, null, null, null, null));
+		SpdxDocumentContainer lazyDoc = new SpdxDocumentContainer(doc.getModel());
+		SpdxPackage pkg = lazyDoc.findAllPackages(true).get(0);
+		assertTrue(pkg.isLazy());
+		assertTrue(pkg.isRefreshOnGet());
+		assertEquals("PkgName1", pkg.getName());
+		pkg.loadProperties();
+		assertFalse(pkg.isLazy());
+		pkg.setName("NewName");
+		assertEquals("NewName", pkg.getName());
+		assertEquals("NewName", new SpdxDocumentContainer(doc.getModel()).findAllPackages().get(0).getName());
+	}
 }
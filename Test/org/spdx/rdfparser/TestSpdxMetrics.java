@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.spdx.rdfparser.SpdxMetrics.TimerStats;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestSpdxMetrics {
+
+	static final String RDF_FILE_PATH = "TestFiles" + java.io.File.separator + "SPDXRdfExample-v2.1.rdf";
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		SpdxMetrics.reset();
+		SpdxMetrics.setEnabled(true);
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception {
+		SpdxMetrics.setEnabled(false);
+		SpdxMetrics.reset();
+	}
+
+	@Test
+	public void testDisabled() {
+		SpdxMetrics.setEnabled(false);
+		assertFalse(SpdxMetrics.isEnabled());
+		SpdxMetrics.startTimer(SpdxMetrics.PARSE).stop();
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
+		SpdxMetrics.cacheLookup(SpdxMetrics.ELEMENT_CACHE, true);
+		SpdxMetrics.setGauge(SpdxMetrics.MODEL_TRIPLES, 10);
+		assertTrue(SpdxMetrics.getTimers().isEmpty());
+		assertTrue(SpdxMetrics.getCounters().isEmpty());
+		assertTrue(SpdxMetrics.getGauges().isEmpty());
+		assertTrue(Double.isNaN(SpdxMetrics.getHitRate(SpdxMetrics.ELEMENT_CACHE)));
+	}
+
+	@Test
+	public void testTimer() throws InterruptedException {
+		SpdxMetrics.Timer timer = SpdxMetrics.startTimer(SpdxMetrics.VERIFY);
+		Thread.sleep(5);
+		timer.stop();
+		try (SpdxMetrics.Timer t = SpdxMetrics.startTimer(SpdxMetrics.VERIFY)) {
+			Thread.sleep(1);
+		}
+		TimerStats stats = SpdxMetrics.getTimers().get(SpdxMetrics.VERIFY);
+		assertEquals(2, stats.getCount());
+		assertTrue(stats.getMaxNanos() >= 5000000L);
+		assertTrue(stats.getTotalNanos() >= stats.getMaxNanos());
+	}
+
+	@Test
+	public void testCounters() {
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
+		SpdxMetrics.add(SpdxMetrics.MODEL_QUERIES, 4);
+		assertEquals(5, SpdxMetrics.getCount(SpdxMetrics.MODEL_QUERIES));
+		assertEquals(Long.valueOf(5), SpdxMetrics.getCounters().get(SpdxMetrics.MODEL_QUERIES));
+		assertEquals(0, SpdxMetrics.getCount("unknown"));
+		SpdxMetrics.setGauge(SpdxMetrics.MODEL_TRIPLES, 12);
+		SpdxMetrics.setGauge(SpdxMetrics.MODEL_TRIPLES, 7);
+		assertEquals(Long.valueOf(7), SpdxMetrics.getGauges().get(SpdxMetrics.MODEL_TRIPLES));
+	}
+
+	@Test
+	public void testHitRate() {
+		SpdxMetrics.cacheLookup(SpdxMetrics.LISTED_LICENSE_CACHE, true);
+		SpdxMetrics.cacheLookup(SpdxMetrics.LISTED_LICENSE_CACHE, true);
+		SpdxMetrics.cacheLookup(SpdxMetrics.LISTED_LICENSE_CACHE, true);
+		SpdxMetrics.cacheLookup(SpdxMetrics.LISTED_LICENSE_CACHE, false);
+		assertEquals(0.75, SpdxMetrics.getHitRate(SpdxMetrics.LISTED_LICENSE_CACHE), 0.0001);
+		assertTrue(Double.isNaN(SpdxMetrics.getHitRate(SpdxMetrics.EXTRACTED_LICENSE_CACHE)));
+	}
+
+	@Test
+	public void testReset() {
+		SpdxMetrics.startTimer(SpdxMetrics.COMPARE).stop();
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
+		SpdxMetrics.setGauge(SpdxMetrics.MODEL_TRIPLES, 3);
+		SpdxMetrics.reset();
+		assertTrue(SpdxMetrics.getTimers().isEmpty());
+		assertTrue(SpdxMetrics.getCounters().isEmpty());
+		assertTrue(SpdxMetrics.getGauges().isEmpty());
+	}
+
+	@Test
+	public void testReport() {
+		SpdxMetrics.startTimer(SpdxMetrics.WRITE).stop();
+		SpdxMetrics.cacheLookup(SpdxMetrics.ELEMENT_CACHE, false);
+		SpdxMetrics.setGauge(SpdxMetrics.MODEL_TRIPLES, 3);
+		String report = SpdxMetrics.report();
+		assertTrue(report.contains(SpdxMetrics.WRITE));
+		assertTrue(report.contains(SpdxMetrics.ELEMENT_CACHE + ": 0.0%"));
+		assertTrue(report.contains(SpdxMetrics.MODEL_TRIPLES + ": 3"));
+	}
+
+	@Test
+	public void testParseInstrumentation() throws Exception {
+		try (InputStream is = new FileInputStream(RDF_FILE_PATH)) {
+			SPDXDocumentFactory.createSpdxDocument(is, "http://spdx.org/test", "RDF/XML");
+		}
+		assertEquals(1, SpdxMetrics.getTimers().get(SpdxMetrics.PARSE).getCount());
+		assertTrue(SpdxMetrics.getGauges().get(SpdxMetrics.MODEL_TRIPLES) > 0);
+		assertTrue(SpdxMetrics.getCount(SpdxMetrics.MODEL_QUERIES) > 0);
+	}
+}
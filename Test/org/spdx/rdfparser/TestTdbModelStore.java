@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+
+import org.junit.Test;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
+import org.spdx.rdfparser.license.SpdxNoAssertionLicense;
+import org.spdx.rdfparser.model.DoapProject;
+import org.spdx.rdfparser.model.SpdxDocument;
+import org.spdx.rdfparser.model.SpdxFile;
+import org.spdx.rdfparser.model.SpdxFile.FileType;
+import org.spdx.tools.TagToRDF;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestTdbModelStore {
+
+	static final String RDF_FILE = "TestFiles" + File.separator + "SPDXRdfExample-v2.1.rdf";
+	static final String TAG_FILE = "TestFiles" + File.separator + "SPDXTagExample-v2.1.spdx";
+	static final String DOC_URI = "http://spdx.org/documents/test";
+
+	@Test
+	public void testLoadRdf() throws Exception {
+		SpdxDocument memoryDoc = SPDXDocumentFactory.createSpdxDocument(RDF_FILE);
+		try (TdbModelStore store = TdbModelStore.createTemporary(1000)) {
+			SpdxDocument storeDoc = store.loadRdf(RDF_FILE);
+			assertEquals(memoryDoc.getDocumentContainer().getModel().size(), store.getModel().size());
+			assertTrue(memoryDoc.equivalent(storeDoc));
+			assertEquals(memoryDoc.verify(), storeDoc.verify());
+			try {
+				store.loadRdf(RDF_FILE);
+				fail("Loaded a second document into the store");
+			} catch (InvalidSPDXAnalysisException ex) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testLoadRdfStream() throws Exception {
+		SpdxDocument memoryDoc;
+		try (InputStream input = new FileInputStream(RDF_FILE)) {
+			memoryDoc = SPDXDocumentFactory.createSpdxDocument(input, "http://test", "RDF/XML");
+		}
+		ByteArrayOutputStream nTriples = new ByteArrayOutputStream();
+		memoryDoc.getDocumentContainer().getModel().write(nTriples, "N-TRIPLES");
+		try (TdbModelStore store = TdbModelStore.createTemporary(1000)) {
+			SpdxDocument storeDoc = store.loadRdf(new ByteArrayInputStream(nTriples.toByteArray()), "http://test", "N-TRIPLES");
+			assertEquals(memoryDoc.getDocumentContainer().getModel().size(), store.getModel().size());
+			assertTrue(memoryDoc.equivalent(storeDoc));
+		}
+		try (TdbModelStore store = TdbModelStore.createTemporary(1000)) {
+			SpdxDocument storeDoc;
+			try (InputStream input = new FileInputStream(RDF_FILE)) {
+				storeDoc = store.loadRdf(input, "http://test", "RDF/XML");
+			}
+			assertTrue(memoryDoc.equivalent(storeDoc));
+		}
+	}
+
+	@Test
+	public void testNoResourceIndex() throws Exception {
+		try (TdbModelStore store = TdbModelStore.createTemporary(1000)) {
+			SpdxDocumentContainer container = new SpdxDocumentContainer(DOC_URI,
+					SpdxDocumentContainer.CURRENT_SPDX_VERSION, store.getModel());
+			assertNull(container.getResourceIndex());
+			AnyLicenseInfo noAssertion = new SpdxNoAssertionLicense();
+			// duplicates are still found by searching the store
+			for (int i = 0; i < 2; i++) {
+				container.addElement(new SpdxFile("./file1.c", new FileType[] {FileType.fileType_source},
+						"2fd4e1c67a2d28fced849ee1bb76e7391b93eb12", noAssertion, new AnyLicenseInfo[] {noAssertion},
+						null, "NOASSERTION", new DoapProject[0], null));
+			}
+			assertEquals(1, container.findAllFiles().size());
+		}
+		assertNotNull(new SpdxDocumentContainer(DOC_URI).getResourceIndex());
+	}
+
+	@Test
+	public void testLoadTag() throws Exception {
+		SpdxDocumentContainer memoryContainer;
+		try (InputStream input = new FileInputStream(TAG_FILE)) {
+			memoryContainer = TagToRDF.convertTagFileToRdf(input, "RDF/XML", Lists.<String>newArrayList());
+		}
+		try (TdbModelStore store = TdbModelStore.createTemporary(1000)) {
+			SpdxDocumentContainer storeContainer;
+			try (InputStream input = new FileInputStream(TAG_FILE)) {
+				storeContainer = TagToRDF.convertTagFileToRdf(input, "RDF/XML", Lists.<String>newArrayList(), store.getModel());
+			}
+			assertTrue(storeContainer.getModel() == store.getModel());
+			assertTrue(memoryContainer.getSpdxDocument().equivalent(storeContainer.getSpdxDocument()));
+		}
+	}
+
+	@Test
+	public void testPersistentStore() throws Exception {
+		File directory;
+		try (TdbModelStore temp = TdbModelStore.createTemporary(1000)) {
+			directory = temp.getDirectory();
+		}
+		assertFalse(directory.exists());
+		try {
+			AnyLicenseInfo noAssertion = new SpdxNoAssertionLicense();
+			try (TdbModelStore store = new TdbModelStore(directory, 1000)) {
+				SpdxDocumentContainer container = new SpdxDocumentContainer(DOC_URI,
+						SpdxDocumentContainer.CURRENT_SPDX_VERSION, store.getModel());
+				container.addElement(new SpdxFile("./file1.c", new FileType[] {FileType.fileType_source},
+						"2fd4e1c67a2d28fced849ee1bb76e7391b93eb12", noAssertion, new AnyLicenseInfo[] {noAssertion},
+						null, "NOASSERTION", new DoapProject[0], null));
+			}
+			try (TdbModelStore store = new TdbModelStore(directory, 1000)) {
+				SpdxDocumentContainer container = new SpdxDocumentContainer(store.getModel());
+				List<SpdxFile> files = container.findAllFiles();
+				assertEquals(1, files.size());
+				assertEquals("./file1.c", files.get(0).getName());
+			}
+		} finally {
+			for (File file:directory.listFiles()) {
+				file.delete();
+			}
+			directory.delete();
+		}
+	}
+}
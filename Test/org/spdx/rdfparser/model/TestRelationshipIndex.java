@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.junit.Before;
+import org.junit.Test;
+import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.SpdxRdfConstants;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
+import org.spdx.rdfparser.license.SpdxNoAssertionLicense;
+import org.spdx.rdfparser.model.Relationship.RelationshipType;
+import org.spdx.rdfparser.model.SpdxFile.FileType;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestRelationshipIndex {
+
+	static final String DOC_URI = "http://spdx.org/documents/relationshipindex";
+	static final int CHAIN_LENGTH = 3000;
+
+	SpdxDocumentContainer container;
+	AnyLicenseInfo noAssertion;
+
+	@Before
+	public void setUp() throws Exception {
+		container = new SpdxDocumentContainer(DOC_URI, SpdxDocumentContainer.CURRENT_SPDX_VERSION);
+		noAssertion = new SpdxNoAssertionLicense();
+	}
+
+	private SpdxPackage createPackage(String name) throws InvalidSPDXAnalysisException {
+		SpdxPackage retval = new SpdxPackage(name, noAssertion, new AnyLicenseInfo[] {noAssertion},
+				"NOASSERTION", noAssertion, "NOASSERTION", new SpdxFile[0], null);
+		container.addElement(retval);
+		return retval;
+	}
+
+	private SpdxFile createFile(String name, String sha1) throws InvalidSPDXAnalysisException {
+		SpdxFile retval = new SpdxFile(name, new FileType[] {FileType.fileType_source},
+				sha1, noAssertion, new AnyLicenseInfo[] {noAssertion},
+				null, "NOASSERTION", new DoapProject[0], null);
+		container.addElement(retval);
+		return retval;
+	}
+
+	@Test
+	public void testDeepContainment() throws InvalidSPDXAnalysisException {
+		SpdxPackage[] pkgs = new SpdxPackage[CHAIN_LENGTH];
+		for (int i = 0; i < CHAIN_LENGTH; i++) {
+			pkgs[i] = createPackage("pkg"+String.valueOf(i));
+			if (i > 0) {
+				pkgs[i-1].addRelationship(new Relationship(pkgs[i], RelationshipType.CONTAINS, null));
+			}
+		}
+		SpdxFile lastFile = createFile("./last.c", "2fd4e1c67a2d28fced849ee1bb76e7391b93eb12");
+		pkgs[CHAIN_LENGTH-1].addFile(lastFile);
+		SpdxFile containedFile = createFile("./contained.c", "2fd4e1c67a2d28fced849ee1bb76e7391b93eb13");
+		containedFile.addRelationship(new Relationship(pkgs[CHAIN_LENGTH / 2], RelationshipType.CONTAINED_BY, null));
+		// a cycle back to the start
+		pkgs[CHAIN_LENGTH-1].addRelationship(new Relationship(pkgs[0], RelationshipType.DESCENDANT_OF, null));
+		RelationshipIndex index = new RelationshipIndex(container);
+		Set<SpdxFile> files = index.getFilesContainedBy(pkgs[0]);
+		assertEquals(2, files.size());
+		assertTrue(files.contains(lastFile));
+		assertTrue(files.contains(containedFile));
+		assertEquals(1, index.getFilesContainedBy(pkgs[CHAIN_LENGTH-1]).size());
+		assertEquals(CHAIN_LENGTH, index.getAllRelatedPackages(pkgs[0]).size());
+		Set<SpdxFile> relatedFiles = index.getAllRelatedFiles(pkgs[0]);
+		assertEquals(1, relatedFiles.size());
+		assertTrue(relatedFiles.contains(lastFile));
+		assertEquals(1, index.getPackageFiles(pkgs[CHAIN_LENGTH-1]).size());
+		assertEquals(1, index.getRelatedElements(pkgs[0], RelationshipType.CONTAINS).size());
+		assertEquals(pkgs[1], index.getRelatedElements(pkgs[0], RelationshipType.CONTAINS).get(0));
+		assertTrue(index.getInvalidRelationships().isEmpty());
+		assertTrue(RelationshipIndex.findInvalidRelationships(container).isEmpty());
+	}
+
+	@Test
+	public void testPackagesDependingOn() throws InvalidSPDXAnalysisException {
+		SpdxPackage library = createPackage("library");
+		SpdxPackage app = createPackage("app");
+		SpdxPackage plugin = createPackage("plugin");
+		SpdxPackage tool = createPackage("tool");
+		SpdxPackage unrelated = createPackage("unrelated");
+		app.addRelationship(new Relationship(library, RelationshipType.HAS_PREREQUISITE, null));
+		plugin.addRelationship(new Relationship(app, RelationshipType.STATIC_LINK, null));
+		library.addRelationship(new Relationship(tool, RelationshipType.PREREQUISITE_FOR, null));
+		unrelated.addRelationship(new Relationship(library, RelationshipType.DESCENDANT_OF, null));
+		RelationshipIndex index = new RelationshipIndex(container);
+		Set<SpdxPackage> dependents = index.getPackagesDependingOn(library);
+		assertEquals(3, dependents.size());
+		assertTrue(dependents.contains(app));
+		assertTrue(dependents.contains(plugin));
+		assertTrue(dependents.contains(tool));
+		assertEquals(1, index.getPackagesDependingOn(app).size());
+		assertTrue(index.getPackagesDependingOn(plugin).isEmpty());
+	}
+
+	@Test
+	public void testInvalidRelationships() throws InvalidSPDXAnalysisException {
+		SpdxPackage pkg = createPackage("pkg");
+		Model model = container.getModel();
+		Resource relationship = model.createResource(model.createResource(SpdxRdfConstants.SPDX_NAMESPACE +
+				SpdxRdfConstants.CLASS_RELATIONSHIP));
+		relationship.addProperty(model.createProperty(SpdxRdfConstants.SPDX_NAMESPACE, SpdxRdfConstants.PROP_RELATIONSHIP_TYPE),
+				model.createResource(SpdxRdfConstants.SPDX_NAMESPACE + RelationshipType.CONTAINS.toString()));
+		model.getResource(pkg.getNode().getURI()).addProperty(model.createProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_RELATIONSHIP), relationship);
+		RelationshipIndex index = new RelationshipIndex(container);
+		assertEquals(1, index.getInvalidRelationships().size());
+		assertEquals(index.getInvalidRelationships(), RelationshipIndex.findInvalidRelationships(container));
+		assertTrue(index.getRelatedElements(pkg, RelationshipType.CONTAINS).isEmpty());
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
+import org.spdx.rdfparser.license.SpdxNoAssertionLicense;
+import org.spdx.rdfparser.model.SnippetRangeIndex.RangeType;
+import org.spdx.rdfparser.model.SpdxFile.FileType;
+import org.spdx.rdfparser.model.pointer.ByteOffsetPointer;
+import org.spdx.rdfparser.model.pointer.LineCharPointer;
+import org.spdx.rdfparser.model.pointer.StartEndPointer;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestSnippetRangeIndex {
+
+	static final String DOC_URI = "http://spdx.org/documents/snippetrangeindex";
+	static final int NUM_SNIPPETS = 1000;
+	static final int SNIPPET_SIZE = 10;
+
+	SpdxDocumentContainer container;
+	AnyLicenseInfo noAssertion;
+	SpdxFile file;
+	SpdxFile otherFile;
+
+	@Before
+	public void setUp() throws Exception {
+		container = new SpdxDocumentContainer(DOC_URI, SpdxDocumentContainer.CURRENT_SPDX_VERSION);
+		noAssertion = new SpdxNoAssertionLicense();
+		file = createFile("./src/file.c", "2fd4e1c67a2d28fced849ee1bb76e7391b93eb12");
+		otherFile = createFile("./src/other.c", "2fd4e1c67a2d28fced849ee1bb76e7391b93eb13");
+	}
+
+	private SpdxFile createFile(String name, String sha1) throws InvalidSPDXAnalysisException {
+		SpdxFile retval = new SpdxFile(name, new FileType[] {FileType.fileType_source},
+				sha1, noAssertion, new AnyLicenseInfo[] {noAssertion},
+				null, "NOASSERTION", new DoapProject[0], null);
+		container.addElement(retval);
+		return retval;
+	}
+
+	private SpdxSnippet createSnippet(String name, SpdxFile fromFile, int byteStart, int byteEnd,
+			int lineStart, int lineEnd) throws InvalidSPDXAnalysisException {
+		StartEndPointer byteRange = new StartEndPointer(new ByteOffsetPointer(fromFile, byteStart),
+				new ByteOffsetPointer(fromFile, byteEnd));
+		StartEndPointer lineRange = new StartEndPointer(new LineCharPointer(fromFile, lineStart),
+				new LineCharPointer(fromFile, lineEnd));
+		SpdxSnippet retval = new SpdxSnippet(name, null, null, null, noAssertion,
+				new AnyLicenseInfo[] {noAssertion}, "NOASSERTION", null, fromFile, byteRange, lineRange);
+		container.addElement(retval);
+		return retval;
+	}
+
+	@Test
+	public void testRangeQueries() throws InvalidSPDXAnalysisException {
+		// created in reverse order to check the sorting
+		for (int i = NUM_SNIPPETS - 1; i >= 0; i--) {
+			createSnippet("snippet"+String.valueOf(i), file, i * SNIPPET_SIZE, i * SNIPPET_SIZE + SNIPPET_SIZE - 1, i + 1, i + 1);
+		}
+		createSnippet("other", otherFile, 0, 100, 1, 5);
+		SnippetRangeIndex index = new SnippetRangeIndex(container);
+		List<SpdxSnippet> snippets = index.getSnippets(file.getId());
+		assertEquals(NUM_SNIPPETS, snippets.size());
+		for (int i = 0; i < NUM_SNIPPETS; i++) {
+			assertEquals("snippet"+String.valueOf(i), snippets.get(i).getName());
+		}
+		assertEquals(1, index.getSnippets(otherFile.getId()).size());
+		assertEquals(2, index.getSnippetFileIds().size());
+		assertEquals(1, index.getSnippetFileIds("./src/file.c").size());
+		List<SpdxSnippet> overlapping = index.getOverlappingSnippets(file.getId(), RangeType.BYTE_RANGE, 105, 125);
+		assertEquals(3, overlapping.size());
+		assertEquals("snippet10", overlapping.get(0).getName());
+		assertEquals("snippet12", overlapping.get(2).getName());
+		assertEquals(1, index.getContainingSnippets(file.getId(), RangeType.BYTE_RANGE, 101, 108).size());
+		assertTrue(index.getContainingSnippets(file.getId(), RangeType.BYTE_RANGE, 105, 115).isEmpty());
+		assertEquals(2, index.getContainedSnippets(file.getId(), RangeType.BYTE_RANGE, 100, 125).size());
+		assertEquals(5, index.getOverlappingSnippets(file.getId(), RangeType.LINE_RANGE, 3, 7).size());
+		assertTrue(index.getOverlapWarnings().isEmpty());
+	}
+
+	@Test
+	public void testOverlapWarnings() throws InvalidSPDXAnalysisException {
+		SpdxSnippet first = createSnippet("first", file, 0, 99, 1, 10);
+		SpdxSnippet second = createSnippet("second", file, 100, 199, 10, 20);
+		SpdxSnippet spanning = createSnippet("spanning", file, 50, 150, 5, 15);
+		createSnippet("other", otherFile, 50, 150, 5, 15);
+		SnippetRangeIndex index = new SnippetRangeIndex(container);
+		assertEquals(2, index.getOverlapWarnings().size());
+		List<SpdxSnippet> overlapping = index.getOverlappingSnippets(spanning, RangeType.BYTE_RANGE);
+		assertEquals(2, overlapping.size());
+		assertTrue(overlapping.contains(first));
+		assertTrue(overlapping.contains(second));
+		// line ranges sharing a line overlap
+		assertEquals(2, index.getOverlappingSnippets(first, RangeType.LINE_RANGE).size());
+	}
+
+	@Test
+	public void testDocumentWarnings() throws InvalidSPDXAnalysisException {
+		createSnippet("first", file, 0, 99, 1, 10);
+		createSnippet("spanning", file, 50, 150, 5, 15);
+		SpdxDocument doc = container.getSpdxDocument();
+		List<String> warnings = doc.getWarnings();
+		assertEquals(1, warnings.size());
+		// overlapping snippets do not make the document invalid
+		List<String> verify = doc.verify();
+		for (String warning:warnings) {
+			assertFalse(verify.contains(warning));
+		}
+	}
+}
@@ -18,6 +18,7 @@ package org.spdx.rdfparser.model;
 
 import static org.junit.Assert.*;
 
+import java.lang.ref.WeakReference;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
@@ -223,4 +224,47 @@ public class TestSpdxElementFactory {
 		assertEquals(id, externElement.getId());
 		assertEquals(externalUri, externElement.getUri(modelContainer));
 	}
+
+	@Test
+	public void testCachedLazyElement() throws InvalidSPDXAnalysisException {
+		SpdxElement element = new SpdxElement(ELEMENT_NAME1, ELEMENT_COMMENT1, null, null);
+		Resource r = element.createResource(modelContainer);
+		// a new container so that the element is not already in the cache
+		ModelContainerForTest container = new ModelContainerForTest(model, DOCUMENT_NAMESPACE);
+		SpdxElement lazy = SpdxElementFactory.createElementFromModel(container, r.asNode(), true);
+		assertTrue(lazy.isLazy());
+		assertSame(lazy, SpdxElementFactory.createElementFromModel(container, r.asNode(), true));
+		assertTrue(lazy.isLazy());
+		// eager callers get the cached element with its properties loaded
+		SpdxElement eager = SpdxElementFactory.createElementFromModel(container, r.asNode());
+		assertSame(lazy, eager);
+		assertFalse(eager.isLazy());
+		assertEquals(ELEMENT_NAME1, eager.getName());
+	}
+
+	/**
+	 * The created element cache must not keep a model container in memory once it is no longer used
+	 */
+	@Test
+	public void testCreatedElementsCollected() throws Exception {
+		WeakReference<ModelContainerForTest> containerRef = createElements();
+		for (int i = 0; i < 20 && containerRef.get() != null; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		assertNull("Model container retained by the element cache", containerRef.get());
+	}
+
+	private WeakReference<ModelContainerForTest> createElements() throws InvalidSPDXAnalysisException {
+		ModelContainerForTest container = new ModelContainerForTest(ModelFactory.createDefaultModel(), DOCUMENT_NAMESPACE);
+		// new objects only - createResource associates the objects with the container
+		SpdxElement related = new SpdxElement(ELEMENT_NAME2, ELEMENT_COMMENT2, null, null);
+		SpdxElement element = new SpdxElement(ELEMENT_NAME1, ELEMENT_COMMENT1, null,
+				new Relationship[] {new Relationship(related, RelationshipType.CONTAINS, null)});
+		Resource r = element.createResource(container);
+		SpdxElement result = SpdxElementFactory.createElementFromModel(container, r.asNode());
+		assertEquals(ELEMENT_NAME1, result.getName());
+		assertSame(result, SpdxElementFactory.createElementFromModel(container, r.asNode()));
+		return new WeakReference<ModelContainerForTest>(container);
+	}
 }
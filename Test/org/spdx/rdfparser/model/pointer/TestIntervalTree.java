@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser.model.pointer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.spdx.rdfparser.model.pointer.IntervalTree.Interval;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestIntervalTree {
+
+	static final int NUM_INTERVALS = 2000;
+	static final int MAX_POSITION = 10000;
+	static final int NUM_QUERIES = 200;
+
+	@Test
+	public void testEmpty() {
+		IntervalTree<String> tree = new IntervalTree<String>(Lists.<Interval<String>>newArrayList());
+		assertEquals(0, tree.size());
+		assertTrue(tree.getOverlapping(0, 10).isEmpty());
+		assertTrue(tree.getContaining(0, 10).isEmpty());
+		assertTrue(tree.getContainedIn(0, 10).isEmpty());
+	}
+
+	@Test
+	public void testQueries() {
+		List<Interval<String>> intervals = Lists.newArrayList();
+		intervals.add(new Interval<String>(20, 29, "c"));
+		intervals.add(new Interval<String>(0, 9, "a"));
+		intervals.add(new Interval<String>(10, 19, "b"));
+		intervals.add(new Interval<String>(5, 25, "d"));
+		IntervalTree<String> tree = new IntervalTree<String>(intervals);
+		assertEquals(4, tree.size());
+		assertEquals("adbc", values(tree.getIntervals()));
+		assertEquals("db", values(tree.getOverlapping(12, 12)));
+		assertEquals("adb", values(tree.getOverlapping(9, 10)));
+		assertEquals("", values(tree.getOverlapping(30, 40)));
+		assertEquals("d", values(tree.getContaining(8, 22)));
+		assertEquals("db", values(tree.getContaining(10, 19)));
+		assertEquals("b", values(tree.getContainedIn(10, 19)));
+		assertEquals("adbc", values(tree.getContainedIn(0, 29)));
+	}
+
+	@Test
+	public void testAgainstScan() {
+		Random random = new Random(1234);
+		List<Interval<Integer>> intervals = Lists.newArrayList();
+		for (int i = 0; i < NUM_INTERVALS; i++) {
+			int start = random.nextInt(MAX_POSITION);
+			intervals.add(new Interval<Integer>(start, start + random.nextInt(200), i));
+		}
+		IntervalTree<Integer> tree = new IntervalTree<Integer>(intervals);
+		for (int i = 0; i < NUM_QUERIES; i++) {
+			int start = random.nextInt(MAX_POSITION);
+			int end = start + random.nextInt(300);
+			int overlapping = 0;
+			int containing = 0;
+			int contained = 0;
+			for (Interval<Integer> interval:intervals) {
+				if (interval.getStart() <= end && interval.getEnd() >= start) {
+					overlapping++;
+				}
+				if (interval.getStart() <= start && interval.getEnd() >= end) {
+					containing++;
+				}
+				if (interval.getStart() >= start && interval.getEnd() <= end) {
+					contained++;
+				}
+			}
+			assertEquals(overlapping, tree.getOverlapping(start, end).size());
+			assertEquals(containing, tree.getContaining(start, end).size());
+			assertEquals(contained, tree.getContainedIn(start, end).size());
+		}
+	}
+
+	private static String values(List<Interval<String>> intervals) {
+		StringBuilder sb = new StringBuilder();
+		for (Interval<String> interval:intervals) {
+			sb.append(interval.getValue());
+		}
+		return sb.toString();
+	}
+}
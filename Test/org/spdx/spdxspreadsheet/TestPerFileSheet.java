@@ -18,8 +18,19 @@ package org.spdx.spdxspreadsheet;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -30,6 +41,7 @@ import org.spdx.rdfparser.model.IRdfModel;
 import org.spdx.rdfparser.model.Relationship;
 import org.spdx.rdfparser.IModelContainer;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.SpdxDocumentContainer;
 import org.spdx.rdfparser.model.SpdxFile;
 import org.spdx.rdfparser.model.SpdxFile.FileType;
 import org.spdx.rdfparser.license.AnyLicenseInfo;
@@ -375,6 +387,251 @@ public class TestPerFileSheet {
 		}
 	}
 	
+	@Test
+	public void testStreamingAdd() throws Exception {
+		XSSFWorkbook template = new XSSFWorkbook();
+		PerFileSheet.create(template, "File Info");
+		SXSSFWorkbook wb = new SXSSFWorkbook(template, -1);
+		File tempFile = File.createTempFile("spdxstreaming", ".xlsx");
+		try {
+			PerFileSheet fileInfoSheet = PerFileSheet.openVersion(wb, "File Info", SPDXSpreadsheet.CURRENT_VERSION);
+			assertNull(fileInfoSheet.verify());
+			int numFiles = AbstractSheet.STREAMING_ROW_WINDOW * 2 + 5;
+			for (int i = 0; i < numFiles; i++) {
+				SpdxFile file = new SpdxFile("FileName"+String.valueOf(i), "comment", new Annotation[0],
+						new Relationship[0], NON_STD_LICENSES[0],
+						new AnyLicenseInfo[] {NON_STD_LICENSES[0]}, "copyright (c) 1",
+						"license comments", new FileType[] {FileType.fileType_source} ,
+						new Checksum[] {new Checksum(Checksum.ChecksumAlgorithm.checksumAlgorithm_sha1, "2fd4e1c67a2d28fced849ee1bb76e7391b93eb12")},
+						new String[0], null, new DoapProject[0]);
+				file.setId("SPDXRef-File"+String.valueOf(i));
+				fileInfoSheet.add(file, "SPDXRef-Package1");
+			}
+			// Only the rows added since the last flush are held in memory
+			assertNull(wb.getSheet("File Info").getRow(1));
+			fileInfoSheet.resizeRows();
+			OutputStream out = new FileOutputStream(tempFile);
+			try {
+				wb.write(out);
+			} finally {
+				out.close();
+			}
+			InputStream in = new FileInputStream(tempFile);
+			Workbook result;
+			try {
+				result = new XSSFWorkbook(in);
+			} finally {
+				in.close();
+			}
+			PerFileSheet resultSheet = PerFileSheet.openVersion(result, "File Info", SPDXSpreadsheet.CURRENT_VERSION);
+			assertNull(resultSheet.verify());
+			assertEquals(numFiles, resultSheet.getNumDataRows());
+			assertEquals("FileName0", resultSheet.getFileInfo(1, null).getName());
+			assertEquals("FileName"+String.valueOf(numFiles-1), resultSheet.getFileInfo(numFiles, null).getName());
+		} finally {
+			wb.dispose();
+			tempFile.delete();
+		}
+	}
+	
+	@Test
+	public void testStreamingRead() throws Exception {
+		XSSFWorkbook wb = new XSSFWorkbook();
+		PerFileSheet.create(wb, "File Info");
+		File tempFile = File.createTempFile("spdxstreamingread", ".xlsx");
+		try {
+			PerFileSheet fileInfoSheet = PerFileSheet.openVersion(wb, "File Info", SPDXSpreadsheet.CURRENT_VERSION);
+			int numFiles = 25;
+			for (int i = 0; i < numFiles; i++) {
+				SpdxFile file = new SpdxFile("FileName"+String.valueOf(i), "comment", new Annotation[0],
+						new Relationship[0], NON_STD_LICENSES[0],
+						new AnyLicenseInfo[] {NON_STD_LICENSES[0]}, "copyright (c) 1",
+						"license comments", new FileType[] {FileType.fileType_source} ,
+						new Checksum[] {new Checksum(Checksum.ChecksumAlgorithm.checksumAlgorithm_sha1, "2fd4e1c67a2d28fced849ee1bb76e7391b93eb12")},
+						new String[0], null, new DoapProject[0]);
+				file.setId("SPDXRef-File"+String.valueOf(i));
+				fileInfoSheet.add(file, "SPDXRef-Package1");
+			}
+			OutputStream out = new FileOutputStream(tempFile);
+			try {
+				wb.write(out);
+			} finally {
+				out.close();
+			}
+			StreamingSpreadsheetReader reader = new StreamingSpreadsheetReader(tempFile);
+			try {
+				Workbook result = reader.readWorkbook(Collections.singleton("File Info"));
+				final PerFileSheet resultSheet = PerFileSheet.openVersion(result, "File Info", SPDXSpreadsheet.CURRENT_VERSION);
+				assertNull(resultSheet.verify());
+				assertEquals(0, resultSheet.getNumDataRows());
+				final List<String> fileNames = new ArrayList<String>();
+				reader.streamSheet("File Info", resultSheet.getSheet(), row -> {
+					fileNames.add(resultSheet.getFileInfo(row.getRowNum(), null).getName());
+					assertArrayEquals(new String[] {"SPDXRef-Package1"}, resultSheet.getPackageIds(row.getRowNum()));
+					return true;
+				});
+				assertEquals(numFiles, fileNames.size());
+				for (int i = 0; i < numFiles; i++) {
+					assertEquals("FileName"+String.valueOf(i), fileNames.get(i));
+				}
+				// rows are removed once handled
+				assertNull(resultSheet.getSheet().getRow(1));
+			} finally {
+				reader.close();
+			}
+		} finally {
+			wb.close();
+			tempFile.delete();
+		}
+	}
+	
+	@Test
+	public void testFindFileByName() throws Exception {
+		Workbook wb = new HSSFWorkbook();
+		PerFileSheet.create(wb, "File Info");
+		PerFileSheet fileInfoSheet = PerFileSheet.openVersion(wb, "File Info", SPDXSpreadsheet.CURRENT_VERSION);
+		int numFiles = PerFileSheet.MAX_FILE_CACHE_SIZE + 10;
+		SpdxFile[] files = new SpdxFile[numFiles];
+		for (int i = 0; i < numFiles; i++) {
+			files[i] = new SpdxFile("FileName"+String.valueOf(i), "comment", new Annotation[0],
+					new Relationship[0], NON_STD_LICENSES[0],
+					new AnyLicenseInfo[] {NON_STD_LICENSES[0]}, "copyright (c) 1",
+					"license comments", new FileType[] {FileType.fileType_source} ,
+					new Checksum[] {new Checksum(Checksum.ChecksumAlgorithm.checksumAlgorithm_sha1, "2fd4e1c67a2d28fced849ee1bb76e7391b93eb12")},
+					new String[0], null, new DoapProject[0]);
+			files[i].setId("SPDXRef-File"+String.valueOf(i));
+		}
+		// the last file depends on the first file which will be evicted from the cache
+		files[numFiles-1].setFileDependencies(new SpdxFile[] {files[0]});
+		for (int i = 0; i < numFiles; i++) {
+			fileInfoSheet.add(files[i], "SPDXRef-Package1");
+		}
+		for (int i = 0; i < numFiles; i++) {
+			assertEquals("FileName"+String.valueOf(i), fileInfoSheet.getFileInfo(i+1, null).getName());
+		}
+		assertTrue(fileInfoSheet.fileCache.size() <= PerFileSheet.MAX_FILE_CACHE_SIZE);
+		assertEquals("FileName0", fileInfoSheet.findFileByName("FileName0", null).getName());
+		assertEquals("FileName"+String.valueOf(numFiles/2), 
+				fileInfoSheet.findFileByName("FileName"+String.valueOf(numFiles/2), null).getName());
+		try {
+			fileInfoSheet.findFileByName("NoSuchFile", null);
+			fail("Expected exception for missing file");
+		} catch (SpreadsheetException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void testFindEvictedFileInContainer() throws Exception {
+		Workbook wb = new HSSFWorkbook();
+		PerFileSheet.create(wb, "File Info");
+		PerFileSheet fileInfoSheet = PerFileSheet.openVersion(wb, "File Info", SPDXSpreadsheet.CURRENT_VERSION);
+		int numFiles = PerFileSheet.MAX_FILE_CACHE_SIZE + 10;
+		for (int i = 0; i < numFiles; i++) {
+			fileInfoSheet.add(createTestFile("FileName"+String.valueOf(i)), "SPDXRef-Package1");
+		}
+		SpdxDocumentContainer container = new SpdxDocumentContainer("http://spdx.org/documents/perfilesheet");
+		SpdxFile first = fileInfoSheet.getFileInfo(1, container);
+		container.addElement(first);
+		for (int i = 1; i < numFiles; i++) {
+			fileInfoSheet.getFileInfo(i+1, container);
+		}
+		assertFalse(fileInfoSheet.fileCache.containsKey("FileName0"));
+		// the row is no longer available, as for a streamed sheet
+		fileInfoSheet.getSheet().removeRow(fileInfoSheet.getSheet().getRow(1));
+		assertEquals(first, fileInfoSheet.findFileByName("FileName0", container));
+		try {
+			fileInfoSheet.findFileByName("FileName0", null);
+			fail("Expected exception for an evicted file without a container");
+		} catch (UnresolvedFileDependencyException e) {
+			assertEquals("FileName0", e.getFileName());
+		}
+	}
+	
+	private SpdxFile createTestFile(String name) throws InvalidSPDXAnalysisException {
+		SpdxFile retval = new SpdxFile(name, "comment", new Annotation[0],
+				new Relationship[0], NON_STD_LICENSES[0],
+				new AnyLicenseInfo[] {NON_STD_LICENSES[0]}, "copyright (c) 1",
+				"license comments", new FileType[] {FileType.fileType_source} ,
+				new Checksum[] {new Checksum(Checksum.ChecksumAlgorithm.checksumAlgorithm_sha1, "2fd4e1c67a2d28fced849ee1bb76e7391b93eb12")},
+				new String[0], null, new DoapProject[0]);
+		retval.setId("SPDXRef-"+name);
+		return retval;
+	}
+	
+	/**
+	 * Write the files to a new XLSX per file sheet and stream them back
+	 * @return names of the files in the order they were passed to the handler
+	 */
+	private List<String> streamFiles(SpdxFile[] files) throws Exception {
+		XSSFWorkbook wb = new XSSFWorkbook();
+		PerFileSheet.create(wb, "File Info");
+		File tempFile = File.createTempFile("spdxstreamingdeps", ".xlsx");
+		try {
+			PerFileSheet fileInfoSheet = PerFileSheet.openVersion(wb, "File Info", SPDXSpreadsheet.CURRENT_VERSION);
+			for (SpdxFile file:files) {
+				fileInfoSheet.add(file, "SPDXRef-Package1");
+			}
+			OutputStream out = new FileOutputStream(tempFile);
+			try {
+				wb.write(out);
+			} finally {
+				out.close();
+			}
+			StreamingSpreadsheetReader reader = new StreamingSpreadsheetReader(tempFile);
+			try {
+				Workbook result = reader.readWorkbook(Collections.singleton("File Info"));
+				PerFileSheet resultSheet = PerFileSheet.openVersion(result, "File Info", SPDXSpreadsheet.CURRENT_VERSION);
+				final List<String> fileNames = new ArrayList<String>();
+				resultSheet.readStreamedFileInfo(reader, "File Info", null, (file, pkgIds) -> {
+					fileNames.add(file.getName());
+				});
+				for (int i = 0; i < files.length; i++) {
+					assertNull(resultSheet.getSheet().getRow(i+1));
+				}
+				return fileNames;
+			} finally {
+				reader.close();
+			}
+		} finally {
+			wb.close();
+			tempFile.delete();
+		}
+	}
+	
+	@Test
+	public void testStreamingReadDependencies() throws Exception {
+		SpdxFile[] files = new SpdxFile[5];
+		for (int i = 0; i < files.length; i++) {
+			files[i] = createTestFile("FileName"+String.valueOf(i));
+		}
+		files[0].setFileDependencies(new SpdxFile[] {files[2]});
+		files[3].setFileDependencies(new SpdxFile[] {files[4]});
+		List<String> fileNames = streamFiles(files);
+		// only the rows depending on later files are deferred
+		assertEquals(5, fileNames.size());
+		assertEquals("FileName1", fileNames.get(0));
+		assertEquals("FileName2", fileNames.get(1));
+		assertEquals("FileName0", fileNames.get(2));
+		assertEquals("FileName4", fileNames.get(3));
+		assertEquals("FileName3", fileNames.get(4));
+	}
+	
+	@Test
+	public void testStreamingReadMissingDependency() throws Exception {
+		SpdxFile[] files = new SpdxFile[3];
+		for (int i = 0; i < files.length; i++) {
+			files[i] = createTestFile("FileName"+String.valueOf(i));
+		}
+		files[1].setFileDependencies(new SpdxFile[] {createTestFile("Missing")});
+		try {
+			streamFiles(files);
+			fail("Expected exception for missing dependency");
+		} catch (UnresolvedFileDependencyException e) {
+			assertEquals("Missing", e.getFileName());
+		}
+	}
+	
 	@Test
 	public void testCsv() {
 		String[] strings = new String[] {"Test1", "\"Quoted test2\"", "", "Test4 with, comma"};
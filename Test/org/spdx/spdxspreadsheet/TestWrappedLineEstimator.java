@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.spdxspreadsheet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestWrappedLineEstimator {
+
+	static final String TEST_FILES_DIR = "TestFiles";
+	static final int MAX_LINES = 10;
+	/**
+	 * Spreadsheets written by the tools with the rows resized to the wrapped lines
+	 */
+	static final String[] RESIZED_SPREADSHEETS = {"SPDXRdfExample-v2.1.xls", "SPDXSpreadsheetExample-v2.0.xls"};
+
+	Workbook workbook;
+	short fontIndex;
+
+	@Before
+	public void setUp() throws Exception {
+		workbook = new HSSFWorkbook();
+		Font font = workbook.createFont();
+		font.setFontName(AbstractSheet.FONT_NAME);
+		font.setFontHeight(AbstractSheet.FONT_SIZE);
+		fontIndex = font.getIndex();
+	}
+
+	@Test
+	public void testGetNumWrappedLines() {
+		WrappedLineEstimator estimator = new WrappedLineEstimator(workbook);
+		assertEquals(1, estimator.getNumWrappedLines("", fontIndex, 100, MAX_LINES));
+		assertEquals(1, estimator.getNumWrappedLines("short", fontIndex, 100, MAX_LINES));
+		// "aaaa" is 4 * 5.56 points wide in a 10 point font
+		assertEquals(1, estimator.getNumWrappedLines("aaaa aaaa", fontIndex, 48, MAX_LINES));
+		assertEquals(2, estimator.getNumWrappedLines("aaaa aaaa", fontIndex, 46, MAX_LINES));
+		// trailing whitespace does not need to fit
+		assertEquals(1, estimator.getNumWrappedLines("aaaa    ", fontIndex, 23, MAX_LINES));
+		// words longer than the line are broken
+		assertEquals(4, estimator.getNumWrappedLines("aaaaaaaaaaaaaaaa", fontIndex, 23, MAX_LINES));
+		// break after a hyphen
+		assertEquals(2, estimator.getNumWrappedLines("aaaa-aaaa", fontIndex, 30, MAX_LINES));
+		assertEquals(MAX_LINES, estimator.getNumWrappedLines("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa", fontIndex, 6, MAX_LINES));
+	}
+
+	@Test
+	public void testAgreesWithStoredRowHeights() throws Exception {
+		int numCompared = 0;
+		for (String fileName:RESIZED_SPREADSHEETS) {
+			try (InputStream is = new FileInputStream(new File(TEST_FILES_DIR, fileName));
+					Workbook wb = new HSSFWorkbook(is)) {
+				WrappedLineEstimator estimator = new WrappedLineEstimator(wb);
+				for (int i = 0; i < wb.getNumberOfSheets(); i++) {
+					Sheet sheet = wb.getSheetAt(i);
+					short defaultHeight = sheet.getDefaultRowHeight();
+					for (Row row:sheet) {
+						// only rows resized to a number of wrapped lines
+						if (row.getHeight() <= defaultHeight || row.getHeight() % defaultHeight != 0) {
+							continue;
+						}
+						int expected = row.getHeight() / defaultHeight;
+						int result = 1;
+						for (Cell cell:row) {
+							result = Math.max(result, estimator.getNumWrappedLines(cell, AbstractSheet.MAX_ROW_LINES));
+						}
+						assertTrue(fileName + " sheet " + sheet.getSheetName() + " row " + row.getRowNum() +
+								" expected " + expected + " lines, estimated " + result,
+								Math.abs(expected - result) <= 1);
+						numCompared++;
+					}
+				}
+			}
+		}
+		assertTrue(numCompared > 0);
+	}
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.tools;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.junit.Test;
+import org.spdx.compare.MultiDocumentSpreadsheet;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestCompareMultipleSpdxDocs {
+
+	@Test
+	public void testPageFiles() {
+		File dir = new File("TestFiles").getAbsoluteFile();
+		File outputFile = new File(dir, "result.xls");
+		File[] pages = CompareMultpleSpdxDocs.pageFiles(outputFile, 25, 25);
+		assertEquals(1, pages.length);
+		assertEquals(outputFile, pages[0]);
+		pages = CompareMultpleSpdxDocs.pageFiles(outputFile, 51, 25);
+		assertEquals(3, pages.length);
+		assertEquals(new File(dir, "result-1.xls"), pages[0]);
+		assertEquals(new File(dir, "result-3.xls"), pages[2]);
+		pages = CompareMultpleSpdxDocs.pageFiles(new File(dir, "result"), 26, 25);
+		assertEquals(2, pages.length);
+		assertEquals(new File(dir, "result-2"), pages[1]);
+	}
+
+	@Test
+	public void testManyDocuments() throws Exception {
+		File dir = Files.createTempDirectory("spdxCompare").toFile();
+		try {
+			File outputFile = new File(dir, "manyDocs.xls");
+			String[] args = new String[MultiDocumentSpreadsheet.MAX_DOCUMENTS * 2 + 2];
+			args[0] = outputFile.getPath();
+			for (int i = 1; i < args.length; i++) {
+				args[i] = "TestFiles" + File.separator + "SPDXRdfExample-v2.1.rdf";
+			}
+			CompareMultpleSpdxDocs.onlineFunction(args);
+			assertFalse(outputFile.exists());
+			File[] pages = CompareMultpleSpdxDocs.pageFiles(outputFile, args.length - 1, MultiDocumentSpreadsheet.MAX_DOCUMENTS);
+			assertEquals(3, pages.length);
+			for (File page:pages) {
+				assertTrue(page.exists());
+			}
+			MultiDocumentSpreadsheet lastPage = new MultiDocumentSpreadsheet(pages[2], false, true);
+			try {
+				assertTrue(lastPage.verifyWorkbook() == null || lastPage.verifyWorkbook().isEmpty());
+			} finally {
+				lastPage.close();
+			}
+		} finally {
+			for (File file:dir.listFiles()) {
+				file.delete();
+			}
+			dir.delete();
+		}
+	}
+}
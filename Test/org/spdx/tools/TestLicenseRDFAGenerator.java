@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.tools;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.spdx.tools.licensegenerator.LicenseGeneratorManifest;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestLicenseRDFAGenerator {
+
+	static final String TEST_FILE_PATH = "TestFiles" + File.separator + "test-license.xml";
+	static final int NUM_FILES = 3;
+	static final String VERSION = "1.0";
+	static final String RELEASE_DATE = "2017-01-01";
+	static final Charset UTF8 = Charset.forName("UTF-8");
+
+	File xmlDir;
+	File incrementalDir;
+	File cleanDir;
+
+	@Before
+	public void setUp() throws Exception {
+		xmlDir = Files.createTempDir();
+		incrementalDir = Files.createTempDir();
+		cleanDir = Files.createTempDir();
+		String xml = Files.toString(new File(TEST_FILE_PATH), UTF8);
+		for (int i = 0; i < NUM_FILES; i++) {
+			Files.write(xml.replace("licenseId=\"test-", "licenseId=\"test-"+String.valueOf(i)+"-"),
+					licenseXmlFile(i), UTF8);
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		deleteDir(xmlDir);
+		deleteDir(incrementalDir);
+		deleteDir(cleanDir);
+	}
+
+	private void deleteDir(File dir) {
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File file:files) {
+				if (file.isDirectory()) {
+					deleteDir(file);
+				} else {
+					file.delete();
+				}
+			}
+		}
+		dir.delete();
+	}
+
+	private File licenseXmlFile(int i) {
+		return new File(xmlDir, String.format("lic%04d.xml", i));
+	}
+
+	/**
+	 * @param dir
+	 * @return paths relative to dir of all files in the directory tree in sorted order
+	 */
+	private List<String> listFiles(File dir) {
+		List<String> retval = Lists.newArrayList();
+		listFiles(dir, "", retval);
+		return retval;
+	}
+
+	private void listFiles(File dir, String prefix, List<String> result) {
+		File[] files = dir.listFiles();
+		Arrays.sort(files);
+		for (File file:files) {
+			if (file.isDirectory()) {
+				listFiles(file, prefix + file.getName() + "/", result);
+			} else {
+				result.add(prefix + file.getName());
+			}
+		}
+	}
+
+	@Test
+	public void testIncrementalMatchesClean() throws Exception {
+		LicenseRDFAGenerator.generateLicenseData(xmlDir, incrementalDir, VERSION, RELEASE_DATE, null);
+		assertNotNull(LicenseGeneratorManifest.load(incrementalDir));
+		File changedFile = licenseXmlFile(1);
+		Files.write(Files.toString(changedFile, UTF8).replace("paragraph 1", "changed paragraph 1"), changedFile, UTF8);
+		// only the changed license is rewritten
+		LicenseRDFAGenerator.generateLicenseData(xmlDir, incrementalDir, VERSION, RELEASE_DATE, null);
+		LicenseRDFAGenerator.generateLicenseData(xmlDir, cleanDir, VERSION, RELEASE_DATE, null, true);
+		List<String> incrementalFiles = listFiles(incrementalDir);
+		assertEquals(listFiles(cleanDir), incrementalFiles);
+		assertTrue(incrementalFiles.contains(LicenseGeneratorManifest.MANIFEST_FILE_NAME));
+		for (String fileName:incrementalFiles) {
+			assertTrue("Incremental output differs for "+fileName,
+					Arrays.equals(Files.toByteArray(new File(cleanDir, fileName)),
+							Files.toByteArray(new File(incrementalDir, fileName))));
+		}
+	}
+}
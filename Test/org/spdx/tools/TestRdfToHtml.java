@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.tools;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.spdx.rdfparser.SPDXCreatorInformation;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.SpdxPackageVerificationCode;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
+import org.spdx.rdfparser.license.SpdxNoAssertionLicense;
+import org.spdx.rdfparser.model.DoapProject;
+import org.spdx.rdfparser.model.Relationship;
+import org.spdx.rdfparser.model.Relationship.RelationshipType;
+import org.spdx.rdfparser.model.SpdxDocument;
+import org.spdx.rdfparser.model.SpdxFile;
+import org.spdx.rdfparser.model.SpdxFile.FileType;
+import org.spdx.rdfparser.model.SpdxPackage;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestRdfToHtml {
+	
+	static final String TEST_RDF_FILE_PATH = "TestFiles" + File.separator + "SPDXRdfExample-v2.1.rdf";
+	static final String DOC_NAME = "paginated";
+	static final String[] PACKAGE_NAMES = new String[] {"pkgA", "pkgB", "pkgC"};
+	static final int[] PACKAGE_NUM_FILES = new int[] {RdfToHtml.MAX_FILES_PER_PAGE + 1,
+			RdfToHtml.MAX_FILES_PER_PAGE * 2 + 1, 10};
+	File tempDir;
+
+	@Before
+	public void setUp() throws Exception {
+		tempDir = Files.createTempDirectory("spdxhtml").toFile();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		File[] files = tempDir.listFiles();
+		if (files != null) {
+			for (File file:files) {
+				file.delete();
+			}
+		}
+		tempDir.delete();
+	}
+
+	@Test
+	public void testGetNumFilePages() {
+		assertEquals(1, RdfToHtml.getNumFilePages(0));
+		assertEquals(1, RdfToHtml.getNumFilePages(1));
+		assertEquals(1, RdfToHtml.getNumFilePages(RdfToHtml.MAX_FILES_PER_PAGE));
+		assertEquals(2, RdfToHtml.getNumFilePages(RdfToHtml.MAX_FILES_PER_PAGE + 1));
+		assertEquals(3, RdfToHtml.getNumFilePages(RdfToHtml.MAX_FILES_PER_PAGE * 3));
+	}
+	
+	@Test
+	public void testGetPackageFilesHtmlFileName() {
+		assertEquals("pkg-packagefiles.html", RdfToHtml.getPackageFilesHtmlFileName("pkg", 1));
+		assertEquals("pkg-packagefiles-2.html", RdfToHtml.getPackageFilesHtmlFileName("pkg", 2));
+		assertEquals("pkg-packagefiles-12.html", RdfToHtml.getPackageFilesHtmlFileName("pkg", 12));
+	}
+	
+	@Test
+	public void testOnlineFunction() throws OnlineToolException {
+		List<String> result = RdfToHtml.onlineFunction(new String[] {TEST_RDF_FILE_PATH, tempDir.getPath()});
+		assertNotNull(result);
+		File[] created = tempDir.listFiles();
+		assertTrue(created.length > 0);
+		boolean foundPackageFiles = false;
+		for (File file:created) {
+			assertTrue(file.length() > 0);
+			if (file.getName().endsWith(RdfToHtml.PACKAGE_FILE_HTML_FILE_POSTFIX)) {
+				foundPackageFiles = true;
+			}
+		}
+		assertTrue(foundPackageFiles);
+	}
+
+	/**
+	 * @param packageName
+	 * @param fileNum
+	 * @return name of the file in the generated package - names sort in file number order
+	 */
+	private String fileName(String packageName, int fileNum) {
+		return packageName + "-file" + String.format("%05d", fileNum) + ".c";
+	}
+
+	private SpdxDocument createPaginatedDocument() throws Exception {
+		SpdxDocumentContainer container = new SpdxDocumentContainer("http://spdx.org/documents/paginated");
+		SpdxDocument doc = container.getSpdxDocument();
+		doc.setName(DOC_NAME);
+		doc.setCreationInfo(new SPDXCreatorInformation(new String[] {"Tool: TestRdfToHtml"},
+				"2017-01-01T00:00:00Z", null, null));
+		AnyLicenseInfo noAssertion = new SpdxNoAssertionLicense();
+		for (int pkgNum = 0; pkgNum < PACKAGE_NAMES.length; pkgNum++) {
+			// files are created in reverse order to check the pages are sorted by name
+			SpdxFile[] files = new SpdxFile[PACKAGE_NUM_FILES[pkgNum]];
+			for (int i = 0; i < files.length; i++) {
+				files[i] = new SpdxFile(fileName(PACKAGE_NAMES[pkgNum], files.length - 1 - i), 
+						new FileType[] {FileType.fileType_source}, String.format("%040x", i), noAssertion, 
+						new AnyLicenseInfo[] {noAssertion}, null, "NOASSERTION", new DoapProject[0], null);
+			}
+			SpdxPackage pkg = new SpdxPackage(PACKAGE_NAMES[pkgNum], noAssertion, new AnyLicenseInfo[] {noAssertion}, 
+					"NOASSERTION", noAssertion, "NOASSERTION", files,
+					new SpdxPackageVerificationCode("2fd4e1c67a2d28fced849ee1bb76e7391b93eb12", new String[0]));
+			doc.addRelationship(new Relationship(pkg, RelationshipType.DESCRIBES, null));
+		}
+		return doc;
+	}
+
+	@Test
+	public void testPaginatedPackageFiles() throws Exception {
+		SpdxDocument doc = createPaginatedDocument();
+		RdfToHtml.rdfToHtml(doc, new File(tempDir, DOC_NAME + RdfToHtml.DOC_HTML_FILE_POSTFIX),
+				new File(tempDir, DOC_NAME + RdfToHtml.LICENSE_HTML_FILE_POSTFIX),
+				new File(tempDir, RdfToHtml.SNIPPET_FILE_NAME),
+				new File(tempDir, DOC_NAME + RdfToHtml.DOCUMENT_FILE_HTML_FILE_POSTFIX));
+		for (int pkgNum = 0; pkgNum < PACKAGE_NAMES.length; pkgNum++) {
+			String packageName = PACKAGE_NAMES[pkgNum];
+			int numFiles = PACKAGE_NUM_FILES[pkgNum];
+			int numPages = RdfToHtml.getNumFilePages(numFiles);
+			assertTrue(new File(tempDir, packageName + RdfToHtml.PACKAGE_HTML_FILE_POSTFIX).isFile());
+			assertFalse(new File(tempDir, RdfToHtml.getPackageFilesHtmlFileName(packageName, numPages + 1)).exists());
+			for (int page = 1; page <= numPages; page++) {
+				File pageFile = new File(tempDir, RdfToHtml.getPackageFilesHtmlFileName(packageName, page));
+				assertTrue(pageFile.getName() + " not written", pageFile.isFile());
+				String html = new String(Files.readAllBytes(pageFile.toPath()), StandardCharsets.UTF_8);
+				// page links
+				for (int linkedPage = 1; linkedPage <= numPages; linkedPage++) {
+					String link = "href=\"./" + RdfToHtml.getPackageFilesHtmlFileName(packageName, linkedPage) + "\"";
+					if (numPages > 1 && linkedPage != page) {
+						assertTrue("Missing link to page " + linkedPage + " in " + pageFile.getName(), html.contains(link));
+					} else {
+						assertFalse(html.contains(link));
+					}
+				}
+				if (numPages == 1) {
+					assertFalse(html.contains("Pages:"));
+				}
+				// contents - only the files for this page in name order
+				int fromIndex = (page - 1) * RdfToHtml.MAX_FILES_PER_PAGE;
+				int toIndex = Math.min(numFiles, fromIndex + RdfToHtml.MAX_FILES_PER_PAGE);
+				int lastPos = -1;
+				for (int fileNum = fromIndex; fileNum < toIndex; fileNum++) {
+					int pos = html.indexOf("File Name: " + fileName(packageName, fileNum) + "<");
+					assertTrue(fileName(packageName, fileNum) + " missing from " + pageFile.getName(), pos > lastPos);
+					lastPos = pos;
+				}
+				if (fromIndex > 0) {
+					assertFalse(html.contains(fileName(packageName, fromIndex - 1)));
+				}
+				if (toIndex < numFiles) {
+					assertFalse(html.contains(fileName(packageName, toIndex)));
+				}
+				for (String otherPackage:PACKAGE_NAMES) {
+					if (!otherPackage.equals(packageName)) {
+						assertFalse(html.contains(otherPackage + "-file"));
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,354 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.spdx.rdfparser.SPDXCreatorInformation;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.SpdxPackageVerificationCode;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
+import org.spdx.rdfparser.license.SpdxNoAssertionLicense;
+import org.spdx.rdfparser.model.DoapProject;
+import org.spdx.rdfparser.model.Relationship;
+import org.spdx.rdfparser.model.Relationship.RelationshipType;
+import org.spdx.rdfparser.model.SpdxDocument;
+import org.spdx.rdfparser.model.SpdxFile;
+import org.spdx.rdfparser.model.SpdxFile.FileType;
+import org.spdx.rdfparser.model.SpdxPackage;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestSpdxToolsServer {
+
+	static final String TEST_DIR = "TestFiles";
+	static final String RDF_FILE_PATH = TEST_DIR + File.separator + "SPDXRdfExample-v2.1.rdf";
+	static final int SOAK_REQUESTS = 200;
+	static final int SOAK_CLIENTS = 4;
+	static final long MAX_HEAP_GROWTH = 32L * 1024L * 1024L;
+	static final int LARGE_DOC_FILES = 5000;
+	static final int LARGE_DOC_REQUESTS = 20;
+	static final long LARGE_DOC_MAX_HEAP_GROWTH = 16L * 1024L * 1024L;
+
+	SpdxToolsServer server;
+	File tempDir;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		server = new SpdxToolsServer(0, SOAK_CLIENTS);
+		server.start();
+		tempDir = Files.createTempDirectory("spdxServer").toFile();
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception {
+		server.stop(0);
+		deleteDirectory(tempDir);
+	}
+
+	private void deleteDirectory(File dir) {
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File file:files) {
+				if (file.isDirectory()) {
+					deleteDirectory(file);
+				} else {
+					file.delete();
+				}
+			}
+		}
+		dir.delete();
+	}
+
+	private JSONObject post(String function, String... args) throws Exception {
+		return post(function, "application/json", server.getToken(), args);
+	}
+
+	@SuppressWarnings("unchecked")
+	private JSONObject post(String function, String contentType, String token,
+			String... args) throws Exception {
+		JSONObject request = new JSONObject();
+		JSONArray jsonArgs = new JSONArray();
+		for (String arg:args) {
+			jsonArgs.add(arg);
+		}
+		request.put(SpdxToolsServer.ARGS_PROPERTY, jsonArgs);
+		HttpURLConnection connection = (HttpURLConnection)new URL("http://localhost:" +
+				String.valueOf(server.getPort()) + SpdxToolsServer.TOOLS_CONTEXT + function).openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setRequestProperty("Content-Type", contentType);
+		if (token != null) {
+			connection.setRequestProperty(SpdxToolsServer.TOKEN_HEADER, token);
+		}
+		try (OutputStream os = connection.getOutputStream()) {
+			os.write(request.toJSONString().getBytes(StandardCharsets.UTF_8));
+		}
+		InputStream is = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream();
+		try (InputStreamReader reader = new InputStreamReader(is, StandardCharsets.UTF_8)) {
+			return (JSONObject)new JSONParser().parse(reader);
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	/**
+	 * Send a Verify request with the given headers over a raw socket - HttpURLConnection
+	 * does not allow the Host and Origin headers to be set
+	 * @param headers request header lines
+	 * @return HTTP status code of the response
+	 * @throws Exception
+	 */
+	private int rawVerifyStatus(String... headers) throws Exception {
+		byte[] body = ("{\"args\":[\"" + RDF_FILE_PATH.replace("\\", "\\\\") + "\"]}").getBytes(StandardCharsets.UTF_8);
+		StringBuilder request = new StringBuilder();
+		request.append("POST " + SpdxToolsServer.TOOLS_CONTEXT + "Verify HTTP/1.1\r\n");
+		for (String header:headers) {
+			request.append(header);
+			request.append("\r\n");
+		}
+		request.append("Content-Type: application/json\r\n");
+		request.append("Content-Length: " + String.valueOf(body.length) + "\r\n");
+		request.append("Connection: close\r\n\r\n");
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+			OutputStream os = socket.getOutputStream();
+			os.write(request.toString().getBytes(StandardCharsets.US_ASCII));
+			os.write(body);
+			os.flush();
+			BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+			String statusLine = reader.readLine();
+			return Integer.parseInt(statusLine.split(" ")[1]);
+		}
+	}
+
+	private long usedHeapAfterGc() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	@Test
+	public void testVerify() throws Exception {
+		JSONObject response = post("Verify", RDF_FILE_PATH);
+		assertEquals(SpdxToolsServer.STATUS_OK, response.get(SpdxToolsServer.STATUS_PROPERTY));
+		assertTrue(response.get(SpdxToolsServer.MESSAGES_PROPERTY) instanceof JSONArray);
+		assertEquals(1, server.getRequestCount());
+	}
+
+	@Test
+	public void testConversion() throws Exception {
+		String outputPath = tempDir.getPath() + File.separator + "out.spdx";
+		JSONObject response = post("rdftotag", RDF_FILE_PATH, outputPath);
+		assertEquals(SpdxToolsServer.STATUS_OK, response.get(SpdxToolsServer.STATUS_PROPERTY));
+		assertTrue(new File(outputPath).exists());
+		// Running again must fail since the output file exists
+		response = post("RdfToTag", RDF_FILE_PATH, outputPath);
+		assertEquals(SpdxToolsServer.STATUS_ERROR, response.get(SpdxToolsServer.STATUS_PROPERTY));
+		assertEquals(1, server.getErrorCount());
+	}
+
+	@Test
+	public void testErrors() throws Exception {
+		JSONObject response = post("NoSuchTool");
+		assertEquals(SpdxToolsServer.STATUS_ERROR, response.get(SpdxToolsServer.STATUS_PROPERTY));
+		response = post("Verify", TEST_DIR + File.separator + "doesNotExist.rdf");
+		assertEquals(SpdxToolsServer.STATUS_ERROR, response.get(SpdxToolsServer.STATUS_PROPERTY));
+		response = post("Verify");
+		assertEquals(SpdxToolsServer.STATUS_ERROR, response.get(SpdxToolsServer.STATUS_PROPERTY));
+	}
+
+	@Test
+	public void testRejectedRequests() throws Exception {
+		JSONObject response = post("Verify", "application/json", null, RDF_FILE_PATH);
+		assertEquals(SpdxToolsServer.STATUS_ERROR, response.get(SpdxToolsServer.STATUS_PROPERTY));
+		response = post("Verify", "application/json", "wrong", RDF_FILE_PATH);
+		assertEquals(SpdxToolsServer.STATUS_ERROR, response.get(SpdxToolsServer.STATUS_PROPERTY));
+		response = post("Verify", "text/plain", server.getToken(), RDF_FILE_PATH);
+		assertEquals(SpdxToolsServer.STATUS_ERROR, response.get(SpdxToolsServer.STATUS_PROPERTY));
+		String tokenHeader = SpdxToolsServer.TOKEN_HEADER + ": " + server.getToken();
+		assertEquals(SpdxToolsServer.HTTP_FORBIDDEN, rawVerifyStatus("Host: localhost", tokenHeader,
+				"Origin: http://evil.example.com"));
+		assertEquals(SpdxToolsServer.HTTP_FORBIDDEN, rawVerifyStatus("Host: evil.example.com", tokenHeader));
+		// none of the rejected requests reached a tool
+		assertEquals(0, server.getRequestCount());
+		assertEquals(SpdxToolsServer.HTTP_OK, rawVerifyStatus("Host: localhost", tokenHeader));
+		response = post("Verify", "application/json; charset=utf-8", server.getToken(), RDF_FILE_PATH);
+		assertEquals(SpdxToolsServer.STATUS_OK, response.get(SpdxToolsServer.STATUS_PROPERTY));
+		assertEquals(2, server.getRequestCount());
+	}
+
+	@Test
+	public void testIsLocalHost() {
+		assertTrue(SpdxToolsServer.isLocalHost("localhost"));
+		assertTrue(SpdxToolsServer.isLocalHost("LocalHost:8089"));
+		assertTrue(SpdxToolsServer.isLocalHost("127.0.0.1:8089"));
+		assertTrue(SpdxToolsServer.isLocalHost("[::1]:8089"));
+		assertFalse(SpdxToolsServer.isLocalHost(null));
+		assertFalse(SpdxToolsServer.isLocalHost("evil.example.com:8089"));
+		assertFalse(SpdxToolsServer.isLocalHost("localhost.evil.example.com"));
+		assertFalse(SpdxToolsServer.isLocalHost("[::1"));
+	}
+
+	@Test
+	public void testIsJsonContentType() {
+		assertTrue(SpdxToolsServer.isJsonContentType("application/json"));
+		assertTrue(SpdxToolsServer.isJsonContentType("Application/JSON; charset=utf-8"));
+		assertFalse(SpdxToolsServer.isJsonContentType(null));
+		assertFalse(SpdxToolsServer.isJsonContentType("text/plain"));
+		assertFalse(SpdxToolsServer.isJsonContentType("application/x-www-form-urlencoded"));
+	}
+
+	@Test
+	public void testParseArgs() throws Exception {
+		String[] result = SpdxToolsServer.parseArgs(new ByteArrayInputStream(
+				"{\"args\":[\"a\",\"b\"]}".getBytes(StandardCharsets.UTF_8)));
+		assertEquals(2, result.length);
+		assertEquals("b", result[1]);
+		assertEquals(0, SpdxToolsServer.parseArgs(new ByteArrayInputStream(
+				"{}".getBytes(StandardCharsets.UTF_8))).length);
+		try {
+			SpdxToolsServer.parseArgs(new ByteArrayInputStream("[1]".getBytes(StandardCharsets.UTF_8)));
+			assertTrue("Expected exception", false);
+		} catch (OnlineToolException e) {
+			// expected
+		}
+		try {
+			SpdxToolsServer.parseArgs(new ByteArrayInputStream("{\"args\":[1]}".getBytes(StandardCharsets.UTF_8)));
+			assertTrue("Expected exception", false);
+		} catch (OnlineToolException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Run many concurrent requests and check that the retained heap does not grow
+	 */
+	@Test
+	public void testSoak() throws Exception {
+		// Warm up so that class loading and the listed licenses are not counted
+		for (int i = 0; i < 10; i++) {
+			post("Verify", RDF_FILE_PATH);
+		}
+		long startHeap = usedHeapAfterGc();
+		ExecutorService clients = Executors.newFixedThreadPool(SOAK_CLIENTS);
+		try {
+			List<Future<JSONObject>> results = Lists.newArrayList();
+			for (int i = 0; i < SOAK_REQUESTS; i++) {
+				results.add(clients.submit(() -> post("Verify", RDF_FILE_PATH)));
+			}
+			for (Future<JSONObject> result:results) {
+				assertEquals(SpdxToolsServer.STATUS_OK, result.get().get(SpdxToolsServer.STATUS_PROPERTY));
+			}
+		} finally {
+			clients.shutdown();
+		}
+		long endHeap = usedHeapAfterGc();
+		assertTrue("Heap grew by " + String.valueOf(endHeap - startHeap) + " bytes",
+				endHeap - startHeap < MAX_HEAP_GROWTH);
+		assertEquals(SOAK_REQUESTS + 10, server.getRequestCount());
+		assertEquals(0, server.getErrorCount());
+	}
+
+	/**
+	 * Write an RDF document with a single package containing numFiles files
+	 * @param file
+	 * @param numFiles
+	 * @throws Exception
+	 */
+	private void writeLargeDocument(File file, int numFiles) throws Exception {
+		SpdxDocumentContainer container = new SpdxDocumentContainer("http://spdx.org/documents/large");
+		SpdxDocument doc = container.getSpdxDocument();
+		doc.setName("large");
+		doc.setCreationInfo(new SPDXCreatorInformation(new String[] {"Tool: TestSpdxToolsServer"},
+				"2017-01-01T00:00:00Z", null, null));
+		AnyLicenseInfo noAssertion = new SpdxNoAssertionLicense();
+		SpdxFile[] files = new SpdxFile[numFiles];
+		for (int i = 0; i < files.length; i++) {
+			files[i] = new SpdxFile("./src/file" + String.format("%05d", i) + ".c",
+					new FileType[] {FileType.fileType_source}, String.format("%040x", i), noAssertion,
+					new AnyLicenseInfo[] {noAssertion}, null, "NOASSERTION", new DoapProject[0], null);
+		}
+		SpdxPackage pkg = new SpdxPackage("largePackage", noAssertion, new AnyLicenseInfo[] {noAssertion},
+				"NOASSERTION", noAssertion, "NOASSERTION", files,
+				new SpdxPackageVerificationCode("2fd4e1c67a2d28fced849ee1bb76e7391b93eb12", new String[0]));
+		doc.addRelationship(new Relationship(pkg, RelationshipType.DESCRIBES, null));
+		try (OutputStream out = new FileOutputStream(file)) {
+			container.getModel().write(out, "RDF/XML-ABBREV");
+		}
+	}
+
+	/**
+	 * Verify a large document repeatedly and check that none of the parsed documents are retained.
+	 * Each parsed copy of the document is larger than the allowed heap growth, so retaining
+	 * the documents (e.g. in the element cache) fails the test.
+	 */
+	@Test
+	public void testSoakLargeDocument() throws Exception {
+		File largeFile = new File(tempDir, "large.rdf");
+		writeLargeDocument(largeFile, LARGE_DOC_FILES);
+		JSONObject response = post("Verify", largeFile.getPath());
+		assertEquals(SpdxToolsServer.STATUS_OK, response.get(SpdxToolsServer.STATUS_PROPERTY));
+		long startHeap = usedHeapAfterGc();
+		for (int i = 0; i < LARGE_DOC_REQUESTS; i++) {
+			response = post("Verify", largeFile.getPath());
+			assertEquals(SpdxToolsServer.STATUS_OK, response.get(SpdxToolsServer.STATUS_PROPERTY));
+		}
+		long endHeap = usedHeapAfterGc();
+		assertTrue("Heap grew by " + String.valueOf(endHeap - startHeap) + " bytes",
+				endHeap - startHeap < LARGE_DOC_MAX_HEAP_GROWTH);
+		assertEquals(0, server.getErrorCount());
+	}
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.SPDXDocumentFactory;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.license.SpdxListedLicense;
+import org.spdx.rdfparser.model.SpdxDocument;
+import org.spdx.rdfparser.model.SpdxFile;
+import org.spdx.rdfparser.model.SpdxItem;
+import org.spdx.rdfparser.model.SpdxPackage;
+import org.spdx.tools.UpgradeLegacyDocs.UpgradeResult;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestUpgradeLegacyDocs {
+
+	static final String LEGACY_DOC = "TestFiles" + File.separator + "SPDXRdfExample-v1.2.rdf";
+	static final String CURRENT_DOC = "TestFiles" + File.separator + "SPDXRdfExample-v2.1.rdf";
+	static final String CURRENT_DOC_NAME = "current.rdf";
+	static final String INVALID_DOC_NAME = "invalid.rdf";
+	static final int NUM_BATCH_DOCS = 400;
+	static final long MAX_HEAP_GROWTH = 16L * 1024L * 1024L;
+
+	File inputDir;
+	File outputDir;
+
+	@Before
+	public void setUp() throws Exception {
+		inputDir = Files.createTempDirectory("spdxLegacyIn").toFile();
+		outputDir = Files.createTempDirectory("spdxLegacyOut").toFile();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		deleteDirectory(inputDir);
+		deleteDirectory(outputDir);
+	}
+
+	private void deleteDirectory(File dir) {
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File file:files) {
+				file.delete();
+			}
+		}
+		dir.delete();
+	}
+
+	@Test
+	public void testUpgradeFile() throws IOException, InvalidSPDXAnalysisException {
+		File outputFile = new File(outputDir, "upgraded.rdf");
+		UpgradeResult result = UpgradeLegacyDocs.upgradeFile(new File(LEGACY_DOC), outputFile);
+		assertTrue(result.getErrorMessage(), result.isSuccess());
+		assertEquals(outputFile, result.getOutputFile());
+		SpdxDocument doc = SPDXDocumentFactory.createSpdxDocument(outputFile.getPath());
+		assertEquals(SpdxDocumentContainer.CURRENT_SPDX_VERSION, doc.getSpecVersion());
+		assertEquals(0, result.getNumVerificationErrors());
+		assertEquals(0, doc.verify().size());
+		// named after the described package
+		assertEquals("SPDX Translator", doc.getName());
+		assertEquals(SpdxDocumentContainer.SPDX_DATA_LICENSE_ID,
+				((SpdxListedLicense)doc.getDataLicense()).getLicenseId());
+		SpdxItem[] described = doc.getDocumentDescribes();
+		assertTrue(described.length > 0);
+		for (SpdxItem item:described) {
+			assertNotNull(item.getId());
+			assertTrue(item instanceof SpdxPackage);
+			SpdxFile[] files = ((SpdxPackage)item).getFiles();
+			assertTrue(files.length > 0);
+			for (SpdxFile file:files) {
+				assertNotNull(file.getId());
+			}
+		}
+		// the output is never overwritten
+		result = UpgradeLegacyDocs.upgradeFile(new File(LEGACY_DOC), outputFile);
+		assertFalse(result.isSuccess());
+	}
+
+	@Test
+	public void testSkipCurrentVersion() throws IOException {
+		File outputFile = new File(outputDir, "current.rdf");
+		UpgradeResult result = UpgradeLegacyDocs.upgradeFile(new File(CURRENT_DOC), outputFile);
+		assertTrue(result.isSkipped());
+		assertFalse(result.isSuccess());
+		assertNull(result.getErrorMessage());
+		assertNull(result.getOutputFile());
+		assertEquals(SpdxDocumentContainer.TWO_POINT_ZERO_VERSION, result.getSkippedVersion());
+		assertFalse(outputFile.exists());
+		assertFalse(new File(outputFile.getPath() + UpgradeLegacyDocs.TEMP_FILE_SUFFIX).exists());
+	}
+
+	@Test
+	public void testUpgradeDirectory() throws IOException {
+		int numDocs = 5;
+		for (int i = 0; i < numDocs; i++) {
+			Files.copy(new File(LEGACY_DOC).toPath(), new File(inputDir, "legacy" + String.valueOf(i) + ".rdf").toPath());
+		}
+		Files.copy(new File(CURRENT_DOC).toPath(), new File(inputDir, CURRENT_DOC_NAME).toPath());
+		Files.write(new File(inputDir, INVALID_DOC_NAME).toPath(), "not an SPDX document".getBytes(StandardCharsets.UTF_8));
+		Files.write(new File(inputDir, "ignored.txt").toPath(), "not an RDF file".getBytes(StandardCharsets.UTF_8));
+		List<UpgradeResult> results = UpgradeLegacyDocs.upgradeDirectory(inputDir, outputDir, 2, null);
+		assertEquals(numDocs + 2, results.size());
+		int numSuccess = 0;
+		for (UpgradeResult result:results) {
+			if (result.getInputFile().getName().equals(CURRENT_DOC_NAME)) {
+				assertTrue(result.isSkipped());
+				assertNull(result.getOutputFile());
+			} else if (result.getInputFile().getName().equals(INVALID_DOC_NAME)) {
+				assertFalse(result.isSuccess());
+				assertNotNull(result.getErrorMessage());
+				assertNull(result.getOutputFile());
+			} else {
+				assertTrue(result.getErrorMessage(), result.isSuccess());
+				assertTrue(result.getOutputFile().isFile());
+				numSuccess++;
+			}
+		}
+		assertEquals(numDocs, numSuccess);
+		assertFalse(new File(outputDir, CURRENT_DOC_NAME).exists());
+		assertFalse(new File(outputDir, INVALID_DOC_NAME).exists());
+		assertFalse(new File(outputDir, INVALID_DOC_NAME + UpgradeLegacyDocs.TEMP_FILE_SUFFIX).exists());
+	}
+
+	private long usedHeapAfterGc() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	@Test
+	public void testUpgradeManyFiles() throws Exception {
+		// loads the listed licenses used by the document before measuring
+		assertTrue(UpgradeLegacyDocs.upgradeFile(new File(LEGACY_DOC), new File(outputDir, "warmup.rdf")).isSuccess());
+		for (int i = 0; i < NUM_BATCH_DOCS; i++) {
+			Files.copy(new File(LEGACY_DOC).toPath(), new File(inputDir, "legacy" + String.valueOf(i) + ".rdf").toPath());
+		}
+		long startHeap = usedHeapAfterGc();
+		List<UpgradeResult> results = UpgradeLegacyDocs.upgradeDirectory(inputDir, outputDir, 2, null);
+		long endHeap = usedHeapAfterGc();
+		assertEquals(NUM_BATCH_DOCS, results.size());
+		for (UpgradeResult result:results) {
+			assertTrue(result.getErrorMessage(), result.isSuccess());
+			assertEquals(result.toString(), 0, result.getNumVerificationErrors());
+		}
+		assertTrue("Heap grew by "+String.valueOf(endHeap - startHeap)+" bytes upgrading "+NUM_BATCH_DOCS+" documents",
+				endHeap - startHeap < MAX_HEAP_GROWTH);
+		SpdxDocument doc = SPDXDocumentFactory.createSpdxDocument(results.get(NUM_BATCH_DOCS - 1).getOutputFile().getPath());
+		List<String> verify = doc.verify();
+		assertTrue(verify.toString(), verify.isEmpty());
+	}
+}
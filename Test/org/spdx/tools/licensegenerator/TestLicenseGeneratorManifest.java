@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.tools.licensegenerator;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.Charset;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.spdx.rdfparser.license.LicenseException;
+import org.spdx.rdfparser.license.SpdxListedLicense;
+
+import com.google.common.io.Files;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestLicenseGeneratorManifest {
+
+	static final Charset UTF8 = Charset.forName("UTF-8");
+	File outputDir;
+
+	@Before
+	public void setUp() throws Exception {
+		outputDir = Files.createTempDir();
+		File subDir = new File(outputDir, "text");
+		subDir.mkdir();
+		Files.write("license text", new File(subDir, "lic1.txt"), UTF8);
+		Files.write("# ToC", new File(outputDir, "licenses.md"), UTF8);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		deleteDir(outputDir);
+	}
+
+	private void deleteDir(File dir) {
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File file:files) {
+				if (file.isDirectory()) {
+					deleteDir(file);
+				} else {
+					file.delete();
+				}
+			}
+		}
+		dir.delete();
+	}
+
+	@Test
+	public void testSaveLoad() throws Exception {
+		assertNull(LicenseGeneratorManifest.load(outputDir));
+		String environmentHash = LicenseGeneratorManifest.hashEnvironment("1.0", "2017-01-01");
+		LicenseGeneratorManifest manifest = new LicenseGeneratorManifest(environmentHash);
+		manifest.setInputHash("license/lic1", "abc");
+		manifest.setInputHash("exception/exc1", "def");
+		manifest.recordOutputs(outputDir);
+		manifest.save(outputDir);
+		LicenseGeneratorManifest result = LicenseGeneratorManifest.load(outputDir);
+		assertNotNull(result);
+		assertEquals(environmentHash, result.getEnvironmentHash());
+		assertEquals("abc", result.getInputHash("license/lic1"));
+		assertEquals("def", result.getInputHash("exception/exc1"));
+		assertNull(result.getInputHash("license/lic2"));
+		assertTrue(result.outputsUnchanged(outputDir));
+		assertTrue(manifest.containsAllInputs(result));
+		LicenseGeneratorManifest.delete(outputDir);
+		assertNull(LicenseGeneratorManifest.load(outputDir));
+	}
+
+	@Test
+	public void testOutputsUnchanged() throws Exception {
+		LicenseGeneratorManifest manifest = new LicenseGeneratorManifest("env");
+		manifest.recordOutputs(outputDir);
+		manifest.save(outputDir);
+		assertTrue(LicenseGeneratorManifest.load(outputDir).outputsUnchanged(outputDir));
+		Files.write("edited license text", new File(outputDir, "text" + File.separator + "lic1.txt"), UTF8);
+		assertFalse(LicenseGeneratorManifest.load(outputDir).outputsUnchanged(outputDir));
+		manifest.recordOutputs(outputDir);
+		manifest.save(outputDir);
+		new File(outputDir, "licenses.md").delete();
+		assertFalse(LicenseGeneratorManifest.load(outputDir).outputsUnchanged(outputDir));
+	}
+
+	@Test
+	public void testEnvironmentHash() throws Exception {
+		String hash = LicenseGeneratorManifest.hashEnvironment("1.0", "2017-01-01");
+		assertEquals(hash, LicenseGeneratorManifest.hashEnvironment("1.0", "2017-01-01"));
+		assertNotEquals(hash, LicenseGeneratorManifest.hashEnvironment("1.1", "2017-01-01"));
+		assertNotEquals(hash, LicenseGeneratorManifest.hashEnvironment("1.0", "2017-01-02"));
+	}
+
+	@Test
+	public void testEnvironmentHashTemplates() throws Exception {
+		File templateDir = new File(outputDir, "templates");
+		templateDir.mkdir();
+		for (String templateFileName:LicenseGeneratorManifest.TEMPLATE_FILE_NAMES) {
+			Files.write("template " + templateFileName, new File(templateDir, templateFileName), UTF8);
+		}
+		String hash = LicenseGeneratorManifest.hashEnvironment("1.0", "2017-01-01", templateDir);
+		assertEquals(hash, LicenseGeneratorManifest.hashEnvironment("1.0", "2017-01-01", templateDir));
+		assertNotEquals(hash, LicenseGeneratorManifest.hashEnvironment("1.0", "2017-01-01", null));
+		// every template is covered, including the table of contents templates
+		for (String templateFileName:LicenseGeneratorManifest.TEMPLATE_FILE_NAMES) {
+			File templateFile = new File(templateDir, templateFileName);
+			Files.write("changed template", templateFile, UTF8);
+			assertNotEquals(hash, LicenseGeneratorManifest.hashEnvironment("1.0", "2017-01-01", templateDir));
+			Files.write("template " + templateFileName, templateFile, UTF8);
+		}
+		assertEquals(hash, LicenseGeneratorManifest.hashEnvironment("1.0", "2017-01-01", templateDir));
+		new File(templateDir, LicenseGeneratorManifest.TEMPLATE_FILE_NAMES[0]).delete();
+		assertNotEquals(hash, LicenseGeneratorManifest.hashEnvironment("1.0", "2017-01-01", templateDir));
+	}
+
+	@Test
+	public void testHashLicense() throws Exception {
+		SpdxListedLicense license = new SpdxListedLicense("name", "id", "text", new String[] {"http://url"}, 
+				"comment", null, null, true);
+		String hash = LicenseGeneratorManifest.hashLicense(license, false, null);
+		SpdxListedLicense sameLicense = new SpdxListedLicense("name", "id", "text", new String[] {"http://url"}, 
+				"comment", null, null, true);
+		assertEquals(hash, LicenseGeneratorManifest.hashLicense(sameLicense, false, null));
+		assertNotEquals(hash, LicenseGeneratorManifest.hashLicense(license, true, "2.6"));
+		license.setLicenseText("changed text");
+		assertNotEquals(hash, LicenseGeneratorManifest.hashLicense(license, false, null));
+		assertEquals("license/id", LicenseGeneratorManifest.licenseKey(license, false));
+		assertEquals("deprecated/id", LicenseGeneratorManifest.licenseKey(license, true));
+	}
+
+	@Test
+	public void testHashException() throws Exception {
+		LicenseException exception = new LicenseException("id", "name", "text", new String[0], null, null);
+		String hash = LicenseGeneratorManifest.hashException(exception);
+		exception.setComment("new comment");
+		assertNotEquals(hash, LicenseGeneratorManifest.hashException(exception));
+		assertEquals("exception/id", LicenseGeneratorManifest.exceptionKey(exception));
+	}
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.tools.licensegenerator;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.spdx.rdfparser.license.License;
+import org.spdx.rdfparser.license.LicenseException;
+import org.spdx.rdfparser.license.SpdxListedLicense;
+import org.spdx.tools.LicenseGeneratorException;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestLicenseWriterPipeline {
+
+	static final int NUM_LICENSES = 200;
+
+	/**
+	 * Records the order licenses are written in
+	 */
+	class RecordingWriter implements ILicenseFormatWriter {
+		List<String> written = Lists.newArrayList();
+		List<String> tocOnly = Lists.newArrayList();
+		boolean fail = false;
+
+		@Override
+		public void writeLicense(SpdxListedLicense license, boolean deprecated, String deprecatedVersion)
+				throws IOException, LicenseGeneratorException {
+			if (fail) {
+				throw new IOException("Write failed");
+			}
+			written.add(license.getLicenseId());
+		}
+
+		@Override
+		public void writeToC() throws IOException, LicenseGeneratorException {
+			// nothing to write
+		}
+
+		@Override
+		public void writeException(LicenseException exception, boolean deprecated, String deprecatedVersion)
+				throws IOException, LicenseGeneratorException {
+			written.add(exception.getLicenseExceptionId());
+		}
+
+		@Override
+		public void addLicenseToC(SpdxListedLicense license, boolean deprecated, String deprecatedVersion)
+				throws IOException, LicenseGeneratorException {
+			tocOnly.add(license.getLicenseId());
+		}
+
+		@Override
+		public void addExceptionToC(LicenseException exception, boolean deprecated, String deprecatedVersion)
+				throws IOException, LicenseGeneratorException {
+			tocOnly.add(exception.getLicenseExceptionId());
+		}
+	}
+
+	/**
+	 * Records whether the writer was ever called from more than one thread at a time
+	 */
+	class ConcurrencyCheckingWriter extends RecordingWriter {
+		AtomicInteger active = new AtomicInteger(0);
+		AtomicInteger numWritten = new AtomicInteger(0);
+		volatile boolean concurrentCall = false;
+
+		@Override
+		public void writeLicense(SpdxListedLicense license, boolean deprecated, String deprecatedVersion)
+				throws IOException, LicenseGeneratorException {
+			if (active.incrementAndGet() > 1) {
+				concurrentCall = true;
+			}
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			super.writeLicense(license, deprecated, deprecatedVersion);
+			numWritten.incrementAndGet();
+			active.decrementAndGet();
+		}
+	}
+
+	class FailingTester implements ILicenseTester {
+
+		@Override
+		public List<String> testException(LicenseException exception) throws IOException {
+			return Arrays.asList(new String[] {"exception failure"});
+		}
+
+		@Override
+		public List<String> testLicense(License license) throws IOException {
+			return Arrays.asList(new String[] {"license failure"});
+		}
+	}
+
+	@Test
+	public void testWriteOrder() throws Exception {
+		RecordingWriter writer1 = new RecordingWriter();
+		RecordingWriter writer2 = new RecordingWriter();
+		List<ILicenseFormatWriter> writers = Lists.newArrayList();
+		writers.add(writer1);
+		writers.add(writer2);
+		LicenseWriterPipeline pipeline = new LicenseWriterPipeline(writers, new FailingTester(), null);
+		List<String> expected = Lists.newArrayList();
+		for (int i = 0; i < NUM_LICENSES; i++) {
+			String id = "License-"+String.valueOf(i);
+			expected.add(id);
+			pipeline.addLicense(new SpdxListedLicense(id, id, "text", new String[0], null, null, null, false),
+					false, null, Lists.newArrayList("check warning "+id));
+		}
+		expected.add("Exception-1");
+		pipeline.addException(new LicenseException("Exception-1", "Exception 1", "text", new String[0], null, null),
+				false, null, Lists.<String>newArrayList());
+		List<String> warnings = pipeline.finish();
+		assertEquals(expected, writer1.written);
+		assertEquals(expected, writer2.written);
+		assertEquals(NUM_LICENSES * 2 + 1, warnings.size());
+		assertEquals("check warning License-0", warnings.get(0));
+		assertEquals("Test for license License-0 failed: license failure", warnings.get(1));
+		assertEquals("Test for exception Exception-1 failed: exception failure", warnings.get(NUM_LICENSES * 2));
+	}
+
+	@Test
+	public void testBoundedPending() throws Exception {
+		int maxPending = 3;
+		List<ConcurrencyCheckingWriter> checkingWriters = Lists.newArrayList();
+		List<ILicenseFormatWriter> writers = Lists.newArrayList();
+		for (int i = 0; i < 3; i++) {
+			ConcurrencyCheckingWriter writer = new ConcurrencyCheckingWriter();
+			checkingWriters.add(writer);
+			writers.add(writer);
+		}
+		LicenseWriterPipeline pipeline = new LicenseWriterPipeline(writers, null, null, 4, maxPending);
+		List<String> expected = Lists.newArrayList();
+		for (int i = 0; i < NUM_LICENSES; i++) {
+			String id = "License-"+String.valueOf(i);
+			expected.add(id);
+			pipeline.addLicense(new SpdxListedLicense(id, id, "text", new String[0], null, null, null, false),
+					false, null, Lists.<String>newArrayList());
+			for (ConcurrencyCheckingWriter writer:checkingWriters) {
+				assertTrue(i + 1 - writer.numWritten.get() <= maxPending);
+			}
+		}
+		pipeline.finish();
+		for (ConcurrencyCheckingWriter writer:checkingWriters) {
+			assertFalse(writer.concurrentCall);
+			assertEquals(expected, writer.written);
+		}
+	}
+
+	@Test
+	public void testTocOnly() throws Exception {
+		RecordingWriter writer = new RecordingWriter();
+		List<ILicenseFormatWriter> writers = Lists.newArrayList();
+		writers.add(writer);
+		LicenseWriterPipeline pipeline = new LicenseWriterPipeline(writers, new FailingTester(), null);
+		pipeline.addLicense(new SpdxListedLicense("changed", "changed", "text", new String[0], null, null, null, false),
+				false, null, Lists.<String>newArrayList(), false);
+		pipeline.addLicense(new SpdxListedLicense("unchanged", "unchanged", "text", new String[0], null, null, null, false),
+				false, null, Lists.<String>newArrayList(), true);
+		pipeline.addException(new LicenseException("Exception-1", "Exception 1", "text", new String[0], null, null),
+				false, null, Lists.<String>newArrayList(), true);
+		List<String> warnings = pipeline.finish();
+		assertEquals(Lists.newArrayList("changed"), writer.written);
+		assertEquals(Lists.newArrayList("unchanged", "Exception-1"), writer.tocOnly);
+		// unchanged licenses are still tested
+		assertEquals(3, warnings.size());
+	}
+
+	@Test
+	public void testWriterError() throws Exception {
+		RecordingWriter writer = new RecordingWriter();
+		writer.fail = true;
+		List<ILicenseFormatWriter> writers = Lists.newArrayList();
+		writers.add(writer);
+		LicenseWriterPipeline pipeline = new LicenseWriterPipeline(writers, null, null);
+		pipeline.addLicense(new SpdxListedLicense("name", "id", "text", new String[0], null, null, null, false),
+				false, null, Lists.<String>newArrayList());
+		try {
+			pipeline.finish();
+			fail("Expected writer error");
+		} catch (LicenseGeneratorException e) {
+			assertTrue(e.getCause() instanceof IOException);
+		}
+	}
+}
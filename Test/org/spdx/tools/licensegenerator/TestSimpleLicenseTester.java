@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tools.licensegenerator;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.json.simple.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.spdx.rdfparser.license.License;
+import org.spdx.rdfparser.license.LicenseException;
+import org.spdx.rdfparser.license.SpdxListedLicense;
+import org.spdx.tools.licensegenerator.SimpleLicenseTester.LicenseTestResult;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @author Gary O'Neall
+ *
+ */
+public class TestSimpleLicenseTester {
+	
+	static final String TEXT_A = "License A text\r\n";
+	static final String TEXT_B = "Completely different license B";
+	static final String TEMPLATE_ANY = "<<var;name=\"all\";original=\"anything\";match=\".+\">>";
+	static final String EXCEPTION_TEXT = "Exception text";
+	
+	File testDir;
+
+	@Before
+	public void setUp() throws Exception {
+		testDir = Files.createTempDirectory("spdxtest").toFile();
+		Files.write(new File(testDir, "A.txt").toPath(), TEXT_A.getBytes(StandardCharsets.UTF_8));
+		Files.write(new File(testDir, "B.txt").toPath(), TEXT_B.getBytes(StandardCharsets.UTF_8));
+		Files.write(new File(testDir, "EXC.txt").toPath(), EXCEPTION_TEXT.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		for (File file:testDir.listFiles()) {
+			file.delete();
+		}
+		testDir.delete();
+	}
+
+	@Test
+	public void testReadTestTexts() throws Exception {
+		SimpleLicenseTester tester = new SimpleLicenseTester(testDir);
+		assertEquals(3, tester.getTestTexts().size());
+		assertEquals("License A text\n", tester.getTestTexts().get("A"));
+		assertSame(tester.getTestTexts(), tester.getTestTexts());
+	}
+	
+	@Test
+	public void testTestLicense() throws Exception {
+		SimpleLicenseTester tester = new SimpleLicenseTester(testDir);
+		License a = new SpdxListedLicense("A", "A", TEXT_A, new String[0], null, null, null, false);
+		assertTrue(tester.testLicense(a).isEmpty());
+		License wrong = new SpdxListedLicense("B", "B", TEXT_A, new String[0], null, null, null, false);
+		assertEquals(1, tester.testLicense(wrong).size());
+		License missing = new SpdxListedLicense("C", "C", TEXT_A, new String[0], null, null, null, false);
+		assertEquals(1, tester.testLicense(missing).size());
+		LicenseException exception = new LicenseException("EXC", "exc", EXCEPTION_TEXT);
+		assertTrue(tester.testException(exception).isEmpty());
+	}
+	
+	@Test
+	public void testTestAll() throws Exception {
+		SimpleLicenseTester tester = new SimpleLicenseTester(testDir);
+		List<License> licenses = Lists.newArrayList();
+		licenses.add(new SpdxListedLicense("A", "A", TEXT_A, new String[0], null, null, null, false));
+		licenses.add(new SpdxListedLicense("B", "B", TEXT_B, new String[0], null, null, TEMPLATE_ANY, false));
+		List<LicenseException> exceptions = Lists.newArrayList();
+		exceptions.add(new LicenseException("EXC", "exc", EXCEPTION_TEXT));
+		List<LicenseTestResult> results = tester.testAll(licenses, exceptions, true);
+		assertEquals(3, results.size());
+		assertEquals("A", results.get(0).getId());
+		assertTrue(results.get(0).isPassed());
+		// the template for B matches any text including the test text for A
+		assertEquals("B", results.get(1).getId());
+		assertTrue(results.get(1).getFailures().isEmpty());
+		assertEquals(Lists.newArrayList("A"), results.get(1).getUnexpectedMatches());
+		assertFalse(results.get(1).isPassed());
+		assertEquals("EXC", results.get(2).getId());
+		assertTrue(results.get(2).isException());
+		assertTrue(results.get(2).isPassed());
+		
+		results = tester.testAll(licenses, exceptions, false);
+		assertTrue(results.get(1).isPassed());
+		
+		JSONObject report = SimpleLicenseTester.toJsonReport(results);
+		assertEquals(3, report.get("numTested"));
+		assertEquals(0, report.get("numFailed"));
+	}
+}
@@ -53,7 +53,7 @@ public abstract class AbstractFileCompareSheet extends AbstractSheet {
 	 * @param sheetName
 	 */
 	public AbstractFileCompareSheet(Workbook workbook, String sheetName) {
-		super(workbook, sheetName);
+		super(workbook, sheetName, true);
 	}
 
 	/* (non-Javadoc)
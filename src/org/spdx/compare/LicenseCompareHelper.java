@@ -31,6 +31,7 @@ import org.spdx.compare.CompareTemplateOutputHandler.DifferenceDescription;
 import org.spdx.licenseTemplate.LicenseTemplateRuleException;
 import org.spdx.licenseTemplate.SpdxLicenseTemplateHelper;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.SpdxMetrics;
 import org.spdx.rdfparser.license.AnyLicenseInfo;
 import org.spdx.rdfparser.license.ConjunctiveLicenseSet;
 import org.spdx.rdfparser.license.DisjunctiveLicenseSet;
@@ -406,6 +407,18 @@ public class LicenseCompareHelper {
 			}
 		}
 	}
+	/**
+	 * Normalizes a token such that two tokens are equivalent per <code>tokensEquivalent</code>
+	 * if and only if their normalized forms are equal
+	 * @param token
+	 * @return normalized token
+	 */
+	static String normalizeToken(String token) {
+		String s = token.trim().toLowerCase().replaceAll(DASHES_REGEX, "-");
+		String ns = NORMALIZE_TOKENS.get(s);
+		return ns == null ? s : ns;
+	}
+	
 	/**
 	 * Returns true if the token can be ignored per the rules
 	 * @param token
@@ -506,6 +519,15 @@ public class LicenseCompareHelper {
 	 * @throws SpdxCompareException
 	 */
 	public static DifferenceDescription isTextStandardLicense(License license, String compareText) throws SpdxCompareException {
+		SpdxMetrics.Timer timer = SpdxMetrics.startTimer(SpdxMetrics.LICENSE_MATCH);
+		try {
+			return doIsTextStandardLicense(license, compareText);
+		} finally {
+			timer.stop();
+		}
+	}
+
+	private static DifferenceDescription doIsTextStandardLicense(License license, String compareText) throws SpdxCompareException {
 		String licenseTemplate = license.getStandardLicenseTemplate();
 		if (licenseTemplate == null || licenseTemplate.trim().isEmpty()) {
 			licenseTemplate = license.getLicenseText();
@@ -532,6 +554,15 @@ public class LicenseCompareHelper {
 	 * @throws SpdxCompareException
 	 */
 	public static DifferenceDescription isTextStandardException(LicenseException exception, String compareText) throws SpdxCompareException {
+		SpdxMetrics.Timer timer = SpdxMetrics.startTimer(SpdxMetrics.LICENSE_MATCH);
+		try {
+			return doIsTextStandardException(exception, compareText);
+		} finally {
+			timer.stop();
+		}
+	}
+
+	private static DifferenceDescription doIsTextStandardException(LicenseException exception, String compareText) throws SpdxCompareException {
 		String exceptionTemplate = exception.getLicenseExceptionTemplate();
 		if (exceptionTemplate == null || exceptionTemplate.trim().isEmpty()) {
 			exceptionTemplate = exception.getLicenseExceptionText();
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.compare;
+
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Finds license texts which are equivalent per <code>LicenseCompareHelper.isLicenseTextEquivalent</code>
+ * to any previously added license text without comparing against every added text.
+ * 
+ * Each text is tokenized once and fingerprinted by hashing its normalized tokens with the 
+ * skippable tokens (e.g. comment characters) removed.  Two texts can only be equivalent if
+ * their fingerprints are equal, so the full comparison is only run against the texts with the
+ * same fingerprint.
+ * 
+ * @author Gary O'Neall
+ *
+ */
+public class LicenseTextDuplicateFinder {
+	
+	static final Charset UTF8 = Charset.forName("UTF-8");
+	
+	/**
+	 * License ID and text for a previously added license
+	 */
+	private static class AddedText {
+		String id;
+		String text;
+		AddedText(String id, String text) {
+			this.id = id;
+			this.text = text;
+		}
+	}
+	
+	private Map<HashCode, List<AddedText>> textsByFingerprint = Maps.newHashMap();
+	
+	/**
+	 * Add a license text and return the ID's of all previously added equivalent texts
+	 * @param id License ID
+	 * @param text License text
+	 * @return ID's of the previously added licenses with equivalent text in the order they were added
+	 */
+	public List<String> addAndFindDuplicates(String id, String text) {
+		HashCode fingerprint = fingerprint(text);
+		List<AddedText> candidates = textsByFingerprint.get(fingerprint);
+		if (candidates == null) {
+			candidates = Lists.newArrayList();
+			textsByFingerprint.put(fingerprint, candidates);
+		}
+		List<String> retval = Lists.newArrayList();
+		for (AddedText candidate:candidates) {
+			if (LicenseCompareHelper.isLicenseTextEquivalent(candidate.text, text)) {
+				retval.add(candidate.id);
+			}
+		}
+		candidates.add(new AddedText(id, text));
+		return retval;
+	}
+	
+	/**
+	 * @param text License text
+	 * @return Hash of the normalized tokens which are not skippable
+	 */
+	static HashCode fingerprint(String text) {
+		Hasher hasher = Hashing.sha1().newHasher();
+		if (text != null) {
+			String[] tokens = LicenseCompareHelper.tokenizeLicenseText(text, Maps.<Integer, LineColumn>newHashMap());
+			for (String token:tokens) {
+				if (!LicenseCompareHelper.canSkip(token)) {
+					byte[] bytes = LicenseCompareHelper.normalizeToken(token).getBytes(UTF8);
+					hasher.putInt(bytes.length);
+					hasher.putBytes(bytes);
+				}
+			}
+		}
+		return hasher.hash();
+	}
+}
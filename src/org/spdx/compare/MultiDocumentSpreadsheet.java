@@ -25,7 +25,6 @@ import java.util.Comparator;
 import java.util.List;
 
 import org.apache.log4j.Logger;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.model.SpdxFile;
@@ -51,6 +50,9 @@ import org.spdx.spdxspreadsheet.SpreadsheetException;
  *   - reviewers: review information
  *   - verification: List of any verification errors
  *   
+ * If the spreadsheet file name ends in .xlsx, the spreadsheet is written in the XLSX format
+ * and the rows of the file comparison sheets are streamed to disk.
+ *   
  * @author Gary O'Neall
  *
  */
@@ -103,6 +105,10 @@ public class MultiDocumentSpreadsheet extends AbstractSpreadsheet {
 	private static final String FILE_NOTICE_SHEET_NAME = "File Notices";
 	private FileNoticeSheet fileNoticeSheet;
 	private static final String VERIFICATION_SHEET_NAME = "Verification Errors";
+	/**
+	 * Maximum number of documents in a single spreadsheet.  Comparisons of more documents
+	 * are written to several spreadsheets.
+	 */
 	public static final int MAX_DOCUMENTS = 25;
 	private static final String EXTERNAL_REFERENCES_SHEET_NAME = "Ext. Doc. References";
 	private static final String DOCUMENT_RELATIONSHIP_SHEET_NAME = "Doc. Relationships";
@@ -183,7 +189,7 @@ public class MultiDocumentSpreadsheet extends AbstractSpreadsheet {
 		FileOutputStream excelOut = null;
 		try {
 			excelOut = new FileOutputStream(spreadsheetFile);
-			Workbook wb = new HSSFWorkbook();
+			Workbook wb = newWorkbook(spreadsheetFile);
 			DocumentSheet.create(wb, DOCUMENT_SHEET_NAME);
 			CreatorSheet.create(wb, CREATOR_SHEET_NAME);
 			ExternalReferencesSheet.create(wb, EXTERNAL_REFERENCES_SHEET_NAME);
@@ -23,27 +23,32 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.RdfModelHelper;
 import org.spdx.rdfparser.SPDXCreatorInformation;
 import org.spdx.rdfparser.SPDXReview;
+import org.spdx.rdfparser.SpdxMetrics;
 import org.spdx.rdfparser.SpdxPackageVerificationCode;
 import org.spdx.rdfparser.license.AnyLicenseInfo;
 import org.spdx.rdfparser.license.ExtractedLicenseInfo;
 import org.spdx.rdfparser.model.Annotation;
 import org.spdx.rdfparser.model.Checksum;
 import org.spdx.rdfparser.model.ExternalDocumentRef;
+import org.spdx.rdfparser.model.IRdfModel;
 import org.spdx.rdfparser.model.RdfModelObject;
 import org.spdx.rdfparser.model.Relationship;
+import org.spdx.rdfparser.model.RelationshipIndex;
+import org.spdx.rdfparser.model.SnippetRangeIndex;
 import org.spdx.rdfparser.model.SpdxDocument;
-import org.spdx.rdfparser.model.SpdxElement;
 import org.spdx.rdfparser.model.SpdxFile;
 import org.spdx.rdfparser.model.SpdxItem;
 import org.spdx.rdfparser.model.SpdxPackage;
 import org.spdx.rdfparser.model.SpdxSnippet;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -174,66 +179,54 @@ public class SpdxComparer {
 	private boolean licenseListVersionEquals = true;
 	private boolean documentContentsEquals = true;
 	
-	// Reviewer results
+	// The comparison keeps a summary for each document rather than the results for each pair of
+	// documents.  Results between two documents are computed from the summaries when they are requested
+	// so that the memory used grows linearly with the number of documents compared.
 	/**
-	 * Holds a map of all SPDX documents which have reviewers unique relative to other SPDX document
-	 * based on the reviewer name.  The results of the map is another map of all SPDX documents in 
-	 * the comparison which do not contain some of the reviewers in the key document.  See the
-	 * implementation of compareReviewers for details
+	 * Documents in the current comparison
 	 */
-	private Map<SpdxDocument, Map<SpdxDocument, SPDXReview[]>> uniqueReviews = Maps.newHashMap();
+	private Set<SpdxDocument> comparedDocuments = Sets.newLinkedHashSet();
 	
-	/**
-	 * Holds a map of any SPDX documents which have reviewer differenes.  A reviewer difference
-	 * is an SPDXReview with the same reviewer name but a different reviewer date or comment
-	 */
-	private Map<SpdxDocument, Map<SpdxDocument, SPDXReviewDifference[]>> reviewerDifferences = Maps.newHashMap();
+	// Reviewer results
+	private boolean reviewersEqual = true;
 	
 	// Extracted Licensing Info results
 	/**
-	 * Holds a map of all SPDX documents which have extracted license infos unique relative to other SPDX document
-	 * based on the reviewer name.  The results of the map is another map of all SPDX documents in 
-	 * the comparison which do not contain some of the reviewers in the key document.  See the
-	 * implementation of compareReviewers for details
+	 * Extracted license infos for each document in the order they occur in the document
+	 */
+	private Map<SpdxDocument, ExtractedLicenseInfo[]> documentExtractedLicenses = Maps.newHashMap();
+	/**
+	 * Maps the license ID of each extracted license info in a document to its text group.  Extracted
+	 * licenses in any of the documents with equivalent text are in the same text group
 	 */
-	private Map<SpdxDocument, Map<SpdxDocument, ExtractedLicenseInfo[]>> uniqueExtractedLicenses = Maps.newHashMap();
+	private Map<SpdxDocument, Map<String, Integer>> licenseTextGroups = Maps.newHashMap();
 	/**
-	 * Map of any SPDX documents that have extraced license infos with equivalent text but different comments, id's or other fields
+	 * Extracted license infos for each document indexed by their text group
 	 */
-	private Map<SpdxDocument, Map<SpdxDocument, SpdxLicenseDifference[]>> licenseDifferences = Maps.newHashMap();
+	private Map<SpdxDocument, ListMultimap<Integer, ExtractedLicenseInfo>> licensesByTextGroup = Maps.newHashMap();
+	private boolean extractedLicensingInfosEqual = true;
 	/**
 	 * Maps the license ID's for the extracted license infos of the documents being compared.  License ID's are mapped based on the text
-	 * being equivalent 
+	 * being equivalent.  The map is a view over the text groups of the documents.
 	 */
-	private Map<SpdxDocument, Map<SpdxDocument, Map<String, String>>> extractedLicenseIdMap = Maps.newHashMap();
+	private final Map<SpdxDocument, Map<SpdxDocument, Map<String, String>>> extractedLicenseIdMap = 
+			Maps.asMap(comparedDocuments, docA -> Maps.asMap(comparedDocuments, docB -> licenseIdTranslation(docA, docB)));
 
 	private boolean creatorInformationEquals;
 	
-	private Map<SpdxDocument, Map<SpdxDocument, String[]>> uniqueCreators = Maps.newHashMap();
-	
 	// file compare results
 	/**
-	 * Holds a map of all SPDX documents which have files unique relative to other SPDX document
-	 * based on the file name.  The results of the map is another map of all SPDX documents in 
-	 * the comparison which do not contain some of the files in the key document.  See the
-	 * implementation of compareFiles for details
+	 * Files for each document sorted by file name
 	 */
-	private Map<SpdxDocument, Map<SpdxDocument, SpdxFile[]>> uniqueFiles = Maps.newHashMap();
-	
-	/**
-	 * Holds a map of any SPDX documents which have file differences.  A file difference
-	 * is an SPDXReview with the same filename name but a different file property
-	 */
-	private Map<SpdxDocument, Map<SpdxDocument, SpdxFileDifference[]>> fileDifferences = Maps.newHashMap();
+	private Map<SpdxDocument, SpdxFile[]> documentFiles = Maps.newHashMap();
+	private boolean filesEqual = true;
 
 	// Package compare results
 	/**
-	 * Holds a map of all SPDX documents which have packages unique relative to other SPDX document
-	 * based on the package name and package version.  The results of the map is another map of all SPDX documents in 
-	 * the comparison which do not contain some of the packages in the key document.  See the
-	 * implementation of comparePackages for details
+	 * Packages for each document sorted by package name and version
 	 */
-	private Map<SpdxDocument, Map<SpdxDocument, SpdxPackage[]>> uniquePackages = Maps.newHashMap();
+	private Map<SpdxDocument, SpdxPackage[]> documentPackages = Maps.newHashMap();
+	private boolean packagesEqual = true;
 	
 	/**
 	 * Map of package names to package comparisons
@@ -241,18 +234,27 @@ public class SpdxComparer {
 	private Map<String, SpdxPackageComparer> packageComparers = Maps.newHashMap();
 	
 	// Annotation comparison results
-	private Map<SpdxDocument, Map<SpdxDocument, Annotation[]>> uniqueDocumentAnnotations = Maps.newHashMap();
+	private boolean documentAnnotationsEqual = true;
 
 	// Document Relationships comparison results
-	private Map<SpdxDocument, Map<SpdxDocument, Relationship[]>> uniqueDocumentRelationships = Maps.newHashMap();
+	private boolean documentRelationshipsEqual = true;
 
 	// External Document References comparison results
-	private Map<SpdxDocument, Map<SpdxDocument, ExternalDocumentRef[]>> uniqueExternalDocumentRefs = Maps.newHashMap();
+	private boolean externalDocumentRefsEqual = true;
 	
 	// Snippet references comparison results
-	private Map<SpdxDocument, Map<SpdxDocument, SpdxSnippet[]>> uniqueSnippets = Maps.newHashMap();
+	private boolean snippetsEqual = true;
 	private Map<String, SpdxSnippetComparer>  snippetComparers = Maps.newHashMap();
 	
+	/**
+	 * Relationship indexes for the documents being compared
+	 */
+	private Map<SpdxDocument, RelationshipIndex> relationshipIndexes = Maps.newHashMap();
+	/**
+	 * Snippet range indexes for the documents being compared
+	 */
+	private Map<SpdxDocument, SnippetRangeIndex> snippetRangeIndexes = Maps.newHashMap();
+	
 	public SpdxComparer() {
 		
 	}
@@ -275,6 +277,15 @@ public class SpdxComparer {
 	 * @throws InvalidSPDXAnalysisException 
 	 */
 	public synchronized void compare(SpdxDocument[] spdxDocuments) throws InvalidSPDXAnalysisException, SpdxCompareException {
+		SpdxMetrics.Timer timer = SpdxMetrics.startTimer(SpdxMetrics.COMPARE);
+		try {
+			doCompare(spdxDocuments);
+		} finally {
+			timer.stop();
+		}
+	}
+
+	private void doCompare(SpdxDocument[] spdxDocuments) throws InvalidSPDXAnalysisException, SpdxCompareException {
 		//TODO: Add a monitor function which allows for cancel
 		clearCompareResults();
 		this.spdxDocs = spdxDocuments;
@@ -290,6 +301,7 @@ public class SpdxComparer {
 	private void performCompare() throws InvalidSPDXAnalysisException, SpdxCompareException {
 		compareInProgress = true;
 		differenceFound = false;
+		comparedDocuments.addAll(Arrays.asList(spdxDocs));
 		compareExtractedLicenseInfos();	// note - this must be done first to build the translation map of IDs
 		compareDocumentFields();
 		compareSnippets();
@@ -308,49 +320,38 @@ public class SpdxComparer {
 	 * @throws SpdxCompareException 
 	 */
 	private void compareSnippets() throws SpdxCompareException {
-		// This will be a complete NXN comparison of all documents filling in the uniqueSnippets map
+		// Each document is compared to the first document - any difference between two other
+		// documents is also a difference from the first document
 		if (this.spdxDocs == null || this.spdxDocs.length < 1) {
 			return;
 		}
-		this.uniqueSnippets.clear();
+		this.snippetsEqual = true;
 		this.snippetComparers.clear();
-		// N x N comparison of all snippets
+		List<SpdxSnippet> firstSnippets = null;
 		for (int i = 0; i < spdxDocs.length; i++) {
-			List<SpdxSnippet> snippetsA;
+			List<SpdxSnippet> snippets;
 			try {
-				snippetsA = spdxDocs[i].getDocumentContainer().findAllSnippets();
+				snippets = spdxDocs[i].getDocumentContainer().findAllSnippets();
 			} catch (InvalidSPDXAnalysisException e) {
 				throw(new SpdxCompareException("Error collecting snippets from SPDX document "+spdxDocs[i].getName(), e));
 			}
 			// note - the snippet arrays MUST be sorted for the comparator methods to work
-			Collections.sort(snippetsA);
-			addSnippetComparers(spdxDocs[i], snippetsA, this.extractedLicenseIdMap);
-			Map<SpdxDocument, SpdxSnippet[]> uniqueAMap = this.uniqueSnippets.get(spdxDocs[i]);
-			if (uniqueAMap == null) {
-				uniqueAMap = Maps.newHashMap();
-			}
-			for (int j = 0; j < spdxDocs.length; j++) {
-				if (j == i) {
-					continue;
-				}
-				List<SpdxSnippet> snippetsB;
-				try {
-					snippetsB = spdxDocs[j].getDocumentContainer().findAllSnippets();
-				} catch (InvalidSPDXAnalysisException e) {
-					throw(new SpdxCompareException("Error collecting snippets from SPDX document "+spdxDocs[i].getName(), e));
-				}
-				//Note that the files arrays must be sorted for the find methods to work
-				Collections.sort(snippetsB);
-				SpdxSnippet[] uniqueAB = findUniqueSnippets(snippetsA, snippetsB);
-				if (uniqueAB != null && uniqueAB.length > 0) {
-					uniqueAMap.put(spdxDocs[j], uniqueAB);
-				}
+			Collections.sort(snippets);
+			addSnippetComparers(spdxDocs[i], snippets, this.extractedLicenseIdMap);
+			if (firstSnippets == null) {
+				firstSnippets = snippets;
+			} else if (findUniqueSnippets(firstSnippets, snippets).length > 0 ||
+					findUniqueSnippets(snippets, firstSnippets).length > 0) {
+				this.snippetsEqual = false;
 			}
-			if (!uniqueAMap.isEmpty()) {
-				this.uniqueSnippets.put(spdxDocs[i], uniqueAMap);
+		}
+		Iterator<SpdxSnippetComparer> diffIter = this.snippetComparers.values().iterator();
+		while (diffIter.hasNext()) {
+			if (diffIter.next().isDifferenceFound()) {
+				this.snippetsEqual = false;
 			}
 		}
-		if (!_isSnippetsEqualsNoCheck()) {
+		if (!this.snippetsEqual) {
 			this.differenceFound = true;
 		}		
 	}
@@ -413,102 +414,51 @@ public class SpdxComparer {
 	 * 
 	 */
 	private void compareExternalDocumentRefs() throws InvalidSPDXAnalysisException {
-		// this will be a N x N comparison of all external document relationships to fill the
-		// hashmap uniqueExternalDocumentRefs
-		for (int i = 0; i < spdxDocs.length; i++) {
-			ExternalDocumentRef[] externalDocRefsA = spdxDocs[i].getExternalDocumentRefs();
-			Map<SpdxDocument, ExternalDocumentRef[]> uniqueAMap = uniqueExternalDocumentRefs.get(spdxDocs[i]);
-			if (uniqueAMap == null) {
-				uniqueAMap = Maps.newHashMap();
-				// We will put this into the hashmap at the end of this method if it is not empty
-			}
-			for (int j = 0; j < spdxDocs.length; j++) {
-				if (j == i) {
-					continue;	// skip comparing to ourself
-				}
-				ExternalDocumentRef[] externalDocRefsB = spdxDocs[j].getExternalDocumentRefs();
-
-				// find any external refs in A that are not in B
-				ExternalDocumentRef[] uniqueA = findUniqueExternalDocumentRefs(externalDocRefsA, externalDocRefsB);
-				if (uniqueA != null && uniqueA.length > 0) {
-					uniqueAMap.put(spdxDocs[j], uniqueA);					
-				}
-			}
-			if (uniqueAMap.keySet().size() > 0) {
-				this.uniqueExternalDocumentRefs.put(spdxDocs[i], uniqueAMap);
+		this.externalDocumentRefsEqual = true;
+		ExternalDocumentRef[] externalDocRefsA = spdxDocs[0].getExternalDocumentRefs();
+		for (int i = 1; i < spdxDocs.length; i++) {
+			ExternalDocumentRef[] externalDocRefsB = spdxDocs[i].getExternalDocumentRefs();
+			if (findUniqueExternalDocumentRefs(externalDocRefsA, externalDocRefsB).length > 0 ||
+					findUniqueExternalDocumentRefs(externalDocRefsB, externalDocRefsA).length > 0) {
+				this.externalDocumentRefsEqual = false;
+				this.differenceFound = true;
+				return;
 			}
 		}
-		if (!this._isExternalDcoumentRefsEqualsNoCheck()) {
-			this.differenceFound = true;
-		}	
 	}
 
 	/**
 	 * Compare all of the document level relationships
 	 */
 	private void compareDocumentRelationships() {
-		// this will be a N x N comparison of all document level relationships to fill the
-		// hashmap uniqueDocumentRelationships
-		for (int i = 0; i < spdxDocs.length; i++) {
-			Relationship[] relationshipsA = spdxDocs[i].getRelationships();
-			Map<SpdxDocument, Relationship[]> uniqueAMap = uniqueDocumentRelationships.get(spdxDocs[i]);
-			if (uniqueAMap == null) {
-				uniqueAMap = Maps.newHashMap();
-				// We will put this into the hashmap at the end of this method if it is not empty
-			}
-			for (int j = 0; j < spdxDocs.length; j++) {
-				if (j == i) {
-					continue;	// skip comparing to ourself
-				}
-				Relationship[] relationshipsB = spdxDocs[j].getRelationships();
-
-				// find any creators in A that are not in B
-				Relationship[] uniqueA = findUniqueRelationships(relationshipsA, relationshipsB);
-				if (uniqueA != null && uniqueA.length > 0) {
-					uniqueAMap.put(spdxDocs[j], uniqueA);					
-				}
-			}
-			if (uniqueAMap.keySet().size() > 0) {
-				this.uniqueDocumentRelationships.put(spdxDocs[i], uniqueAMap);
+		this.documentRelationshipsEqual = true;
+		Relationship[] relationshipsA = spdxDocs[0].getRelationships();
+		for (int i = 1; i < spdxDocs.length; i++) {
+			Relationship[] relationshipsB = spdxDocs[i].getRelationships();
+			if (findUniqueRelationships(relationshipsA, relationshipsB).length > 0 ||
+					findUniqueRelationships(relationshipsB, relationshipsA).length > 0) {
+				this.documentRelationshipsEqual = false;
+				this.differenceFound = true;
+				return;
 			}
 		}
-		if (!this._isDocumentRelationshipsEqualsNoCheck()) {
-			this.differenceFound = true;
-		}	
 	}
 
 	/**
 	 * Compare all of the Document level annotations
 	 */
 	private void compareDocumentAnnotations() {
-		// this will be a N x N comparison of all document level annotations to fill the
-		// hashmap uniqueAnnotations
-		for (int i = 0; i < spdxDocs.length; i++) {
-			Annotation[] annotationsA = spdxDocs[i].getAnnotations();
-			Map<SpdxDocument, Annotation[]> uniqueAMap = uniqueDocumentAnnotations.get(spdxDocs[i]);
-			if (uniqueAMap == null) {
-				uniqueAMap = Maps.newHashMap();
-				// We will put this into the hashmap at the end of this method if it is not empty
-			}
-			for (int j = 0; j < spdxDocs.length; j++) {
-				if (j == i) {
-					continue;	// skip comparing to ourself
-				}
-				Annotation[] annotationsB = spdxDocs[j].getAnnotations();
-
-				// find any creators in A that are not in B
-				Annotation[] uniqueA = findUniqueAnnotations(annotationsA, annotationsB);
-				if (uniqueA != null && uniqueA.length > 0) {
-					uniqueAMap.put(spdxDocs[j], uniqueA);					
-				}
-			}
-			if (uniqueAMap.keySet().size() > 0) {
-				this.uniqueDocumentAnnotations.put(spdxDocs[i], uniqueAMap);
+		this.documentAnnotationsEqual = true;
+		Annotation[] annotationsA = spdxDocs[0].getAnnotations();
+		for (int i = 1; i < spdxDocs.length; i++) {
+			Annotation[] annotationsB = spdxDocs[i].getAnnotations();
+			if (findUniqueAnnotations(annotationsA, annotationsB).length > 0 ||
+					findUniqueAnnotations(annotationsB, annotationsA).length > 0) {
+				this.documentAnnotationsEqual = false;
+				this.differenceFound = true;
+				return;
 			}
 		}
-		if (!this._isDocumentAnnotationsEqualsNoCheck()) {
-			this.differenceFound = true;
-		}	
 	}
 
 	/**
@@ -517,110 +467,80 @@ public class SpdxComparer {
 	 * 
 	 */
 	private void compareFiles() throws InvalidSPDXAnalysisException, SpdxCompareException {
-		this.uniqueFiles.clear();
-		this.fileDifferences.clear();
-		// N x N comparison of all files
+		this.documentFiles.clear();
+		this.filesEqual = true;
 		for (int i = 0; i < spdxDocs.length; i++) {
-			SpdxFile[] filesA = collectAllFiles(spdxDocs[i]);
+			SpdxFile[] files = collectAllFiles(spdxDocs[i]);
 			// note - the file arrays MUST be sorted for the comparator methods to work
-			Arrays.sort(filesA);
-			Map<SpdxDocument, SpdxFile[]> uniqueAMap = this.uniqueFiles.get(spdxDocs[i]);
-			if (uniqueAMap == null) {
-				uniqueAMap = Maps.newHashMap();
-			}
-			// this map will be added to uniqueFiles at the end if we find anything
-			Map<SpdxDocument, SpdxFileDifference[]> diffMap = this.fileDifferences.get(spdxDocs[i]);
-			if (diffMap == null) {
-				diffMap = Maps.newHashMap();
-			}
-			for (int j = 0; j < spdxDocs.length; j++) {
-				if (j == i) {
-					continue;
+			Arrays.sort(files);
+			this.documentFiles.put(spdxDocs[i], files);
+			if (i > 0 && this.filesEqual) {
+				SpdxFile[] firstFiles = this.documentFiles.get(spdxDocs[0]);
+				if (findUniqueFiles(firstFiles, files).length > 0 ||
+						findUniqueFiles(files, firstFiles).length > 0 ||
+						findFileDifferences(spdxDocs[0], spdxDocs[i], firstFiles, files, this.extractedLicenseIdMap).length > 0) {
+					this.filesEqual = false;
 				}
-				SpdxFile[] filesB = collectAllFiles(spdxDocs[j]);
-				//Note that the files arrays must be sorted for the find methods to work
-				Arrays.sort(filesB);
-				SpdxFile[] uniqueAB = findUniqueFiles(filesA, filesB);
-				if (uniqueAB != null && uniqueAB.length > 0) {
-					uniqueAMap.put(spdxDocs[j], uniqueAB);
-				}
-				SpdxFileDifference[] differences = findFileDifferences(spdxDocs[i], spdxDocs[j], filesA, filesB, this.extractedLicenseIdMap);
-				if (differences != null && differences.length > 0) {
-					diffMap.put(spdxDocs[j], differences);
-				}
-			}
-			if (!uniqueAMap.isEmpty()) {
-				this.uniqueFiles.put(spdxDocs[i], uniqueAMap);
-			}
-			if (!diffMap.isEmpty()) {
-				this.fileDifferences.put(spdxDocs[i], diffMap);
 			}
 		}
-		if (!_isFilesEqualsNoCheck()) {
+		if (!this.filesEqual) {
 			this.differenceFound = true;
 		}
 	}
 	
 	/**
-	 * Add all files found in the related elements (including descendant related elements)
-	 * @param element
-	 * @param files
-	 * @throws InvalidSPDXAnalysisException 
+	 * @param spdxDocument
+	 * @return the relationship index for the document, built the first time it is requested during a comparison
 	 */
-	private void addAllRelatedFiles(SpdxElement element, Set<SpdxFile> files,
-			Set<SpdxElement> visitedElements) throws InvalidSPDXAnalysisException {
-		if (element == null || visitedElements.contains(element)) {
-			return;
-		}
-		visitedElements.add(element);
-		Relationship[] relationships = element.getRelationships();
-		if (relationships != null) {
-			for (int j = 0; j < relationships.length; j++) {
-				if (relationships[j] != null && 
-						relationships[j].getRelatedSpdxElement() instanceof SpdxFile &&
-						!files.contains(relationships[j].getRelatedSpdxElement())) {
-					files.add((SpdxFile)(relationships[j].getRelatedSpdxElement()));
-				} else if (relationships[j] != null && 
-						relationships[j].getRelatedSpdxElement() instanceof SpdxPackage) {
-					SpdxFile[] pkgFiles = ((SpdxPackage)(relationships[j].getRelatedSpdxElement())).getFiles();
-					if (pkgFiles != null) {
-						for (int k = 0; k < pkgFiles.length; k++) {
-							files.add(pkgFiles[k]);
-						}
-					}
-				}
-				// recursively add all of the related files to this relationships
-				addAllRelatedFiles(relationships[j].getRelatedSpdxElement(), files, visitedElements);
-			}
+	private synchronized RelationshipIndex getRelationshipIndex(SpdxDocument spdxDocument) {
+		RelationshipIndex retval = this.relationshipIndexes.get(spdxDocument);
+		if (retval == null) {
+			retval = new RelationshipIndex(spdxDocument.getDocumentContainer());
+			this.relationshipIndexes.put(spdxDocument, retval);
 		}
+		return retval;
 	}
 	
 	/**
-	 * Add all packages found in the related elements (including descendant related elements)
-	 * @param element
-	 * @param pkgs
-	 * @throws InvalidSPDXAnalysisException 
+	 * @param spdxDocument
+	 * @return the snippet range index for the document, built the first time it is requested during a comparison
+	 * @throws InvalidSPDXAnalysisException
 	 */
-	private void addAllRelatedPackages(SpdxElement element, 
-			Set<SpdxPackage> pkgs,
-			Set<SpdxElement> visitedElements) throws InvalidSPDXAnalysisException {
-		if (element == null || visitedElements.contains(element)) {
-			return;
+	private synchronized SnippetRangeIndex getSnippetRangeIndex(SpdxDocument spdxDocument) throws InvalidSPDXAnalysisException {
+		SnippetRangeIndex retval = this.snippetRangeIndexes.get(spdxDocument);
+		if (retval == null) {
+			retval = new SnippetRangeIndex(spdxDocument.getDocumentContainer());
+			this.snippetRangeIndexes.put(spdxDocument, retval);
 		}
-		visitedElements.add(element);
-		Relationship[] relationships = element.getRelationships();
-		if (relationships != null) {
-			for (int j = 0; j < relationships.length; j++) {
-				if (relationships[j] != null && 
-						relationships[j].getRelatedSpdxElement() instanceof SpdxPackage &&
-						!pkgs.contains(relationships[j].getRelatedSpdxElement())) {
-					pkgs.add((SpdxPackage)(relationships[j].getRelatedSpdxElement()));
-				}
-				// recursively add all of the related files to this relationships
-				addAllRelatedPackages(relationships[j].getRelatedSpdxElement(), 
-						pkgs, visitedElements);
+		return retval;
+	}
+	
+	/**
+	 * Find the snippets in a document whose byte range overlaps the byte range of a snippet.  The
+	 * snippets are matched against the snippet from files with the same file name as the snippet from
+	 * file for the snippet.  This can be used to find the counterpart of a unique snippet whose range
+	 * has changed.
+	 * @param snippet snippet to match
+	 * @param spdxDocument document to search for overlapping snippets
+	 * @return snippets from the document with overlapping byte ranges sorted by byte range
+	 * @throws SpdxCompareException
+	 */
+	public List<SpdxSnippet> getOverlappingSnippets(SpdxSnippet snippet, SpdxDocument spdxDocument) throws SpdxCompareException {
+		checkInProgress();
+		List<SpdxSnippet> retval = Lists.newArrayList();
+		try {
+			SpdxFile fromFile = snippet.getSnippetFromFile();
+			if (fromFile == null || fromFile.getName() == null) {
+				return retval;
 			}
+			SnippetRangeIndex index = getSnippetRangeIndex(spdxDocument);
+			for (String fileId:index.getSnippetFileIds(fromFile.getName())) {
+				retval.addAll(index.getOverlappingSnippets(fileId, snippet.getByteRange()));
+			}
+		} catch (InvalidSPDXAnalysisException e) {
+			throw(new SpdxCompareException("Error getting overlapping snippets for "+snippet.toString(), e));
 		}
+		return retval;
 	}
 	
 	/**
@@ -632,12 +552,13 @@ public class SpdxComparer {
 	 */
 	protected SpdxPackage[] collectAllPackages(SpdxDocument spdxDocument) throws InvalidSPDXAnalysisException {
 		Set<SpdxPackage> retval = Sets.newHashSet();
+		RelationshipIndex relationshipIndex = getRelationshipIndex(spdxDocument);
 		SpdxItem[] items = spdxDocument.getDocumentDescribes();
 		for (int i = 0; i < items.length; i++) {
 			if (items[i] instanceof SpdxPackage) {
 				retval.add((SpdxPackage)items[i]);
 			}
-			addAllRelatedPackages(items[i], retval, Sets.<SpdxElement>newHashSet());
+			retval.addAll(relationshipIndex.getAllRelatedPackages(items[i]));
 		}	
 		return retval.toArray(new SpdxPackage[retval.size()]);
 	}
@@ -651,17 +572,15 @@ public class SpdxComparer {
 	 */
 	protected SpdxFile[] collectAllFiles(SpdxDocument spdxDocument) throws InvalidSPDXAnalysisException {
 		Set<SpdxFile> retval = Sets.newHashSet();
+		RelationshipIndex relationshipIndex = getRelationshipIndex(spdxDocument);
 		SpdxItem[] items = spdxDocument.getDocumentDescribes();
 		for (int i = 0; i < items.length; i++) {
 			if (items[i] instanceof SpdxFile) {
 				retval.add((SpdxFile)items[i]);			
 			} else if (items[i] instanceof SpdxPackage) {
-				SpdxFile[] pkgFiles = ((SpdxPackage)items[i]).getFiles();
-				for (int j = 0; j < pkgFiles.length; j++) {
-					retval.add(pkgFiles[j]);
-				}
+				retval.addAll(relationshipIndex.getPackageFiles((SpdxPackage)items[i]));
 			}
-			addAllRelatedFiles(items[i], retval, Sets.<SpdxElement>newHashSet());
+			retval.addAll(relationshipIndex.getAllRelatedFiles(items[i]));
 		}	
 		return retval.toArray(new SpdxFile[retval.size()]);
 	}
@@ -780,45 +699,28 @@ public class SpdxComparer {
 	private void compareCreators() throws InvalidSPDXAnalysisException {
 		this.creatorInformationEquals = true;
 		this.licenseListVersionEquals = true;
-		// this will be a N x N comparison of all creators to fill the
-		// hashmap uniqueCreators
-		for (int i = 0; i < spdxDocs.length; i++) {
-			SPDXCreatorInformation creatorInfoA = spdxDocs[i].getCreationInfo();
-			String[] creatorsA = creatorInfoA.getCreators();
-			Map<SpdxDocument, String[]> uniqueAMap = uniqueCreators.get(spdxDocs[i]);
-			if (uniqueAMap == null) {
-				uniqueAMap = Maps.newHashMap();
-				// We will put this into the hashmap at the end of this method if it is not empty
+		SPDXCreatorInformation creatorInfoA = spdxDocs[0].getCreationInfo();
+		String[] creatorsA = creatorInfoA.getCreators();
+		for (int i = 1; i < spdxDocs.length; i++) {
+			SPDXCreatorInformation creatorInfoB = spdxDocs[i].getCreationInfo();
+			String[] creatorsB = creatorInfoB.getCreators();
+			// find any creators in either document that are not in the other
+			if (findUniqueString(creatorsA, creatorsB).length > 0 ||
+					findUniqueString(creatorsB, creatorsA).length > 0) {
+				this.creatorInformationEquals = false;
 			}
-			for (int j = 0; j < spdxDocs.length; j++) {
-				if (j == i) {
-					continue;	// skip comparing to ourself
-				}
-				SPDXCreatorInformation creatorInfoB = spdxDocs[j].getCreationInfo();
-				String[] creatorsB = creatorInfoB.getCreators();
-
-				// find any creators in A that are not in B
-				String[] uniqueA = findUniqueString(creatorsA, creatorsB);
-				if (uniqueA != null && uniqueA.length > 0) {
-					uniqueAMap.put(spdxDocs[j], uniqueA);					
-				}
-				// compare creator comments
-				if (!stringsEqual(creatorInfoA.getComment(), creatorInfoB.getComment())) {
-					this.creatorInformationEquals = false;
-				}
-				// compare creation dates
-				if (!stringsEqual(creatorInfoA.getCreated(), creatorInfoB.getCreated())) {
-					this.creatorInformationEquals = false;
-				}
-				// compare license list versions
-				if (!stringsEqual(creatorInfoA.getLicenseListVersion(), creatorInfoB.getLicenseListVersion())) {
-					this.creatorInformationEquals = false;
-					this.licenseListVersionEquals = false;
-				}
+			// compare creator comments
+			if (!stringsEqual(creatorInfoA.getComment(), creatorInfoB.getComment())) {
+				this.creatorInformationEquals = false;
+			}
+			// compare creation dates
+			if (!stringsEqual(creatorInfoA.getCreated(), creatorInfoB.getCreated())) {
+				this.creatorInformationEquals = false;
 			}
-			if (uniqueAMap.keySet().size() > 0) {
-				this.uniqueCreators.put(spdxDocs[i], uniqueAMap);
+			// compare license list versions
+			if (!stringsEqual(creatorInfoA.getLicenseListVersion(), creatorInfoB.getLicenseListVersion())) {
 				this.creatorInformationEquals = false;
+				this.licenseListVersionEquals = false;
 			}
 		}
 		if (!this.creatorInformationEquals) {
@@ -863,45 +765,35 @@ public class SpdxComparer {
 		if (this.spdxDocs == null || this.spdxDocs.length < 1) {
 			return;
 		}
-		this.uniquePackages.clear();
+		this.documentPackages.clear();
 		this.packageComparers.clear();
-		// N x N comparison of all files
+		this.packagesEqual = true;
 		for (int i = 0; i < spdxDocs.length; i++) {
-			SpdxPackage[] pkgsA;
+			SpdxPackage[] pkgs;
 			try {
-				pkgsA = collectAllPackages(spdxDocs[i]);
+				pkgs = collectAllPackages(spdxDocs[i]);
 			} catch (InvalidSPDXAnalysisException e) {
 				throw(new SpdxCompareException("Error collecting packages from SPDX document "+spdxDocs[i].getName(), e));
 			}
 			// note - the package arrays MUST be sorted for the comparator methods to work
-			Arrays.sort(pkgsA);
-			addPackageComparers(spdxDocs[i], pkgsA, this.extractedLicenseIdMap);
-			Map<SpdxDocument, SpdxPackage[]> uniqueAMap = this.uniquePackages.get(spdxDocs[i]);
-			if (uniqueAMap == null) {
-				uniqueAMap = Maps.newHashMap();
-			}
-			for (int j = 0; j < spdxDocs.length; j++) {
-				if (j == i) {
-					continue;
-				}
-				SpdxPackage[] pkgsB;
-				try {
-					pkgsB = collectAllPackages(spdxDocs[j]);
-				} catch (InvalidSPDXAnalysisException e) {
-					throw(new SpdxCompareException("Error collecting packages from SPDX document "+spdxDocs[i].getName(), e));
-				}
-				//Note that the files arrays must be sorted for the find methods to work
-				Arrays.sort(pkgsB);
-				SpdxPackage[] uniqueAB = findUniquePackages(pkgsA, pkgsB);
-				if (uniqueAB != null && uniqueAB.length > 0) {
-					uniqueAMap.put(spdxDocs[j], uniqueAB);
+			Arrays.sort(pkgs);
+			addPackageComparers(spdxDocs[i], pkgs, this.extractedLicenseIdMap);
+			this.documentPackages.put(spdxDocs[i], pkgs);
+			if (i > 0) {
+				SpdxPackage[] firstPkgs = this.documentPackages.get(spdxDocs[0]);
+				if (findUniquePackages(firstPkgs, pkgs).length > 0 ||
+						findUniquePackages(pkgs, firstPkgs).length > 0) {
+					this.packagesEqual = false;
 				}
 			}
-			if (!uniqueAMap.isEmpty()) {
-				this.uniquePackages.put(spdxDocs[i], uniqueAMap);
+		}
+		Iterator<SpdxPackageComparer> diffIter = this.packageComparers.values().iterator();
+		while (diffIter.hasNext()) {
+			if (diffIter.next().isDifferenceFound()) {
+				this.packagesEqual = false;
 			}
 		}
-		if (!_isPackagesEqualsNoCheck()) {
+		if (!this.packagesEqual) {
 			this.differenceFound = true;
 		}		
 	}
@@ -1068,89 +960,110 @@ public class SpdxComparer {
 	 * @throws SpdxCompareException 
 	 */
 	private void compareExtractedLicenseInfos() throws InvalidSPDXAnalysisException, SpdxCompareException {
+		// Group the licenses of all documents by equivalent text so that licenses can be matched
+		// between any two documents without comparing the license text again
+		List<String> groupTexts = Lists.newArrayList();
 		for (int i = 0; i < spdxDocs.length; i++) {
-			ExtractedLicenseInfo[] extractedLicensesA = spdxDocs[i].getExtractedLicenseInfos();
-			Map<SpdxDocument, ExtractedLicenseInfo[]> uniqueMap = Maps.newHashMap();
-				Map<SpdxDocument, SpdxLicenseDifference[]> differenceMap = Maps.newHashMap();
-				Map<SpdxDocument, Map<String, String>> licenseIdMap = Maps.newHashMap();
-
-			for (int j = 0; j < spdxDocs.length; j++) {
-				if (i == j) {
-					continue;	// no need to compare to ourself;
+			ExtractedLicenseInfo[] extractedLicenses = spdxDocs[i].getExtractedLicenseInfos();
+			Map<String, Integer> textGroups = Maps.newHashMap();
+			ListMultimap<Integer, ExtractedLicenseInfo> byTextGroup = ArrayListMultimap.create();
+			for (ExtractedLicenseInfo license:extractedLicenses) {
+				int group = 0;
+				while (group < groupTexts.size() && 
+						!LicenseCompareHelper.isLicenseTextEquivalent(groupTexts.get(group), license.getExtractedText())) {
+					group++;
 				}
-				Map<String, String> idMap = Maps.newHashMap();
-				List<SpdxLicenseDifference> alDifferences = Lists.newArrayList();
-				ExtractedLicenseInfo[] extractedLicensesB = spdxDocs[j].getExtractedLicenseInfos();
-				List<ExtractedLicenseInfo> uniqueLicenses = Lists.newArrayList();
-				compareLicenses(extractedLicensesA, extractedLicensesB,
-						idMap, alDifferences, uniqueLicenses);
-				// unique
-				if (uniqueLicenses.size() > 0) {
-					uniqueMap.put(spdxDocs[j], uniqueLicenses.toArray(
-							new ExtractedLicenseInfo[uniqueLicenses.size()]));
+				if (group == groupTexts.size()) {
+					groupTexts.add(license.getExtractedText());
 				}
-				// differences
-				if (alDifferences.size() > 0) {
-					differenceMap.put(spdxDocs[j], alDifferences.toArray(
-							new SpdxLicenseDifference[alDifferences.size()]));
-				}
-				// map
-				licenseIdMap.put(spdxDocs[j], idMap);
+				textGroups.put(license.getLicenseId(), group);
+				byTextGroup.put(group, license);
 			}
-			if (uniqueMap.keySet().size() > 0) {
-				this.uniqueExtractedLicenses.put(spdxDocs[i], uniqueMap);
+			this.documentExtractedLicenses.put(spdxDocs[i], extractedLicenses);
+			this.licenseTextGroups.put(spdxDocs[i], textGroups);
+			this.licensesByTextGroup.put(spdxDocs[i], byTextGroup);
+		}
+		this.extractedLicensingInfosEqual = true;
+		List<SpdxLicenseDifference> alDifferences = Lists.newArrayList();
+		List<ExtractedLicenseInfo> uniqueLicenses = Lists.newArrayList();
+		for (int i = 1; i < spdxDocs.length; i++) {
+			compareLicenses(spdxDocs[0], spdxDocs[i], alDifferences, uniqueLicenses);
+			if (alDifferences.size() > 0 || uniqueLicenses.size() > 0) {
+				this.extractedLicensingInfosEqual = false;
+				break;
 			}
-			if (differenceMap.keySet().size() > 0) {
-				this.licenseDifferences.put(spdxDocs[i], differenceMap);
+			compareLicenses(spdxDocs[i], spdxDocs[0], alDifferences, uniqueLicenses);
+			if (uniqueLicenses.size() > 0) {
+				this.extractedLicensingInfosEqual = false;
+				break;
 			}
-			this.extractedLicenseIdMap.put(spdxDocs[i], licenseIdMap);
 		}
-		if (!_isExtractedLicensingInfoEqualsNoCheck()) {
+		if (!this.extractedLicensingInfosEqual) {
 			this.differenceFound = true;
 		}
 	}
 
 	/**
-	 * Compares two arrays of non standard licenses
-	 * @param extractedLicensesA
-	 * @param extractedLicensesB
-	 * @param idMap Map of license IDs for licenses considered equal
+	 * Compares the extracted licenses of two documents
+	 * @param docA
+	 * @param docB
 	 * @param alDifferences Array list of license differences found where the license text is equivalent but other properties are different
 	 * @param uniqueLicenses ArrayList if licenses found in the A but not found in B
 	 */
-	private void compareLicenses(ExtractedLicenseInfo[] extractedLicensesA,
-			ExtractedLicenseInfo[] extractedLicensesB,
-			Map<String, String> idMap,
+	private void compareLicenses(SpdxDocument docA, SpdxDocument docB,
 			List<SpdxLicenseDifference> alDifferences,
 			List<ExtractedLicenseInfo> uniqueLicenses) {
-		idMap.clear();
 		alDifferences.clear();
 		uniqueLicenses.clear();
-		for (int k = 0; k < extractedLicensesA.length; k++) {
-			boolean foundMatch = false;
-			boolean foundTextMatch = false;
-			for (int q = 0; q < extractedLicensesB.length; q++) {
-				if (LicenseCompareHelper.isLicenseTextEquivalent(extractedLicensesA[k].getExtractedText(), 
-						extractedLicensesB[q].getExtractedText())) {
-					foundTextMatch = true;
-					if (!foundMatch) {
-						idMap.put(extractedLicensesA[k].getLicenseId(), extractedLicensesB[q].getLicenseId());
-						// always add to the map any matching licenses.  If more than one, add
-						// the license matches where the entire license match.  This condition checks
-						// to make sure we are not over-writing an exact match
-					}
-					if (nonTextLicenseFieldsEqual(extractedLicensesA[k], extractedLicensesB[q])) {
-						foundMatch = true;
-					} else {
-						alDifferences.add(new SpdxLicenseDifference(extractedLicensesA[k], extractedLicensesB[q]));
-					}
+		Map<String, Integer> textGroupsA = this.licenseTextGroups.get(docA);
+		ListMultimap<Integer, ExtractedLicenseInfo> licensesB = this.licensesByTextGroup.get(docB);
+		for (ExtractedLicenseInfo licenseA:this.documentExtractedLicenses.get(docA)) {
+			List<ExtractedLicenseInfo> textMatches = licensesB.get(textGroupsA.get(licenseA.getLicenseId()));
+			if (textMatches.isEmpty()) {	// we treat the licenses as equivalent if the text matches even if other fields do not match
+				uniqueLicenses.add(licenseA);
+			}
+			for (ExtractedLicenseInfo licenseB:textMatches) {
+				if (!nonTextLicenseFieldsEqual(licenseA, licenseB)) {
+					alDifferences.add(new SpdxLicenseDifference(licenseA, licenseB));
 				}
 			}
-			if (!foundTextMatch) {	// we treat the licenses as equivalent if the text matches even if other fields do not match
-				uniqueLicenses.add(extractedLicensesA[k]);
-			}
 		}
 	}
+	
+	/**
+	 * Maps the extracted license IDs in document A to the IDs of the licenses with equivalent
+	 * text in document B.  If more than one license matches, the license where all fields match
+	 * is preferred.
+	 * @param docA
+	 * @param docB
+	 * @return view of the license ID translation computed from the text groups of the documents
+	 */
+	private Map<String, String> licenseIdTranslation(final SpdxDocument docA, final SpdxDocument docB) {
+		final Map<String, Integer> textGroupsA = this.licenseTextGroups.get(docA);
+		final ListMultimap<Integer, ExtractedLicenseInfo> licensesA = this.licensesByTextGroup.get(docA);
+		final ListMultimap<Integer, ExtractedLicenseInfo> licensesB = this.licensesByTextGroup.get(docB);
+		if (textGroupsA == null || licensesB == null) {
+			return null;
+		}
+		return Maps.asMap(textGroupsA.keySet(), licenseId -> {
+			Integer group = textGroupsA.get(licenseId);
+			ExtractedLicenseInfo licenseA = null;
+			for (ExtractedLicenseInfo license:licensesA.get(group)) {
+				if (license.getLicenseId().equals(licenseId)) {
+					licenseA = license;
+					break;
+				}
+			}
+			String retval = null;
+			for (ExtractedLicenseInfo licenseB:licensesB.get(group)) {
+				retval = licenseB.getLicenseId();
+				if (licenseA == null || nonTextLicenseFieldsEqual(licenseA, licenseB)) {
+					break;
+				}
+			}
+			return retval;
+		});
+	}
 
 	/**
 	 * Compares the non-license text and non-id fields and returns true
@@ -1326,47 +1239,22 @@ public class SpdxComparer {
 	 * @throws SpdxCompareException 
 	 */
 	private void compareReviewers() throws InvalidSPDXAnalysisException, SpdxCompareException {
-		// this will be a N x N comparison of all reviewer data to fill in the
-		// hashmaps uniqueReviews
-		for (int i = 0; i < spdxDocs.length; i++) {
+		this.reviewersEqual = true;
+		@SuppressWarnings("deprecation")
+		SPDXReview[] reviewA = spdxDocs[0].getReviewers();
+		for (int i = 1; i < spdxDocs.length; i++) {
 			@SuppressWarnings("deprecation")
-			SPDXReview[] reviewA = spdxDocs[i].getReviewers();
-			Map<SpdxDocument, SPDXReview[]> uniqueAMap = uniqueReviews.get(spdxDocs[i]);
-			if (uniqueAMap == null) {
-				uniqueAMap = Maps.newHashMap();
-				// We will put this into the hashmap at the end of this method if it is not empty
-			}
-			Map<SpdxDocument, SPDXReviewDifference[]> diffMap = this.reviewerDifferences.get(this.spdxDocs[i]);
-			if (diffMap == null) {
-				diffMap = Maps.newHashMap();
-				// We will put this into the hashmap at the end of this method if it is not empty
+			SPDXReview[] reviewB = spdxDocs[i].getReviewers();
+			// find any reviewers in either document that are not in the other or
+			// any reviewers that are the same reviewer but have different dates or comments
+			if (findUniqueReviewers(reviewA, reviewB).length > 0 ||
+					findUniqueReviewers(reviewB, reviewA).length > 0 ||
+					findReviewerDifferences(reviewA, reviewB).length > 0 ||
+					findReviewerDifferences(reviewB, reviewA).length > 0) {
+				this.reviewersEqual = false;
+				this.differenceFound = true;
+				return;
 			}
-			for (int j = 0; j < spdxDocs.length; j++) {
-				if (j == i) {
-					continue;	// skip comparing to ourself
-				}
-				@SuppressWarnings("deprecation")
-				SPDXReview[] reviewB = spdxDocs[j].getReviewers();
-				// find any reviewers in A that are not in B
-				SPDXReview[] uniqueA = findUniqueReviewers(reviewA, reviewB);
-				if (uniqueA != null && uniqueA.length > 0) {
-					uniqueAMap.put(spdxDocs[j], uniqueA);					
-				}
-				//Find any reviewers that are the same reviewer but have different dates or comments
-				SPDXReviewDifference[] reviewerDifferences = findReviewerDifferences(reviewA, reviewB);
-				if (reviewerDifferences != null && reviewerDifferences.length > 0) {
-					diffMap.put(this.spdxDocs[j], reviewerDifferences);
-				}
-			}
-			if (uniqueAMap.keySet().size() > 0) {
-				this.uniqueReviews.put(spdxDocs[i], uniqueAMap);
-			}
-			if (diffMap.keySet().size() > 0) {
-				this.reviewerDifferences.put(this.spdxDocs[i], diffMap);
-			}
-		}
-		if (!this._isReviewersEqualNoCheck()) {
-			this.differenceFound = true;
 		}
 	}
 
@@ -1437,12 +1325,14 @@ public class SpdxComparer {
 	 */
 	private void clearCompareResults() {
 		this.differenceFound = false;
-		this.reviewerDifferences.clear();
-		this.uniqueReviews.clear();
-		this.licenseDifferences.clear();
-		this.uniqueExtractedLicenses.clear();
-		this.extractedLicenseIdMap.clear();
-		this.uniqueCreators.clear();
+		this.comparedDocuments.clear();
+		this.documentExtractedLicenses.clear();
+		this.licenseTextGroups.clear();
+		this.licensesByTextGroup.clear();
+		this.documentFiles.clear();
+		this.documentPackages.clear();
+		this.relationshipIndexes.clear();
+		this.snippetRangeIndexes.clear();
 	}
 
 	/**
@@ -1544,98 +1434,20 @@ public class SpdxComparer {
 	public boolean isReviewersEqual() throws SpdxCompareException {
 		checkInProgress();
 		checkDocsField();
-		return _isReviewersEqualNoCheck();
-	}
-	
-	
-	/**
-	 * @return
-	 */
-	private boolean _isReviewersEqualNoCheck() {
-		// check for unique reviewers
-		Iterator<Entry<SpdxDocument, Map<SpdxDocument, SPDXReview[]>>> uniqueIter =
-			this.uniqueReviews.entrySet().iterator();
-		while (uniqueIter.hasNext()) {
-			Entry <SpdxDocument, Map<SpdxDocument, SPDXReview[]>> entry = uniqueIter.next();
-			Iterator<Entry<SpdxDocument, SPDXReview[]>> entryIter = entry.getValue().entrySet().iterator();
-			while (entryIter.hasNext()) {
-				SPDXReview[] val = entryIter.next().getValue();
-				if (val != null && val.length > 0) {
-					return false;
-				}
-			}
-		}
-		// check differences
-		Iterator<Entry<SpdxDocument, Map<SpdxDocument, SPDXReviewDifference[]>>> diffIter = this.reviewerDifferences.entrySet().iterator();
-		while (diffIter.hasNext()) {
-			Iterator<Entry<SpdxDocument, SPDXReviewDifference[]>> entryIter = diffIter.next().getValue().entrySet().iterator();
-			while(entryIter.hasNext()) {
-				SPDXReviewDifference[] reviewDifferences = entryIter.next().getValue();
-				if (reviewDifferences != null && reviewDifferences.length > 0) {
-					return false;
-				}
-			}
-		}
-		// if we got to here - they are equal
-		return true;
-	}
-	
-	private boolean _isExternalDcoumentRefsEqualsNoCheck() {
-		Iterator<Entry<SpdxDocument, Map<SpdxDocument, ExternalDocumentRef[]>>> iter = this.uniqueExternalDocumentRefs.entrySet().iterator();
-		while (iter.hasNext()) {
-			Iterator<ExternalDocumentRef[]> docIterator = iter.next().getValue().values().iterator();
-			while (docIterator.hasNext()) {
-				if (docIterator.next().length > 0) {
-					return false;
-				}
-			}
-		}
-		return true;
+		return this.reviewersEqual;
 	}
 
-
 	public boolean isExternalDcoumentRefsEquals() throws SpdxCompareException {
 		checkInProgress();
 		checkDocsField();
-		return _isExternalDcoumentRefsEqualsNoCheck();
+		return this.externalDocumentRefsEqual;
 	}
 
 	
 	public boolean isExtractedLicensingInfosEqual() throws SpdxCompareException {
 		checkInProgress();
 		checkDocsField();
-		return _isExtractedLicensingInfoEqualsNoCheck();
-	}
-
-	/**
-	 * @return
-	 */
-	private boolean _isExtractedLicensingInfoEqualsNoCheck() {
-		// check for unique extraced license infos
-		Iterator<Entry<SpdxDocument, Map<SpdxDocument, ExtractedLicenseInfo[]>>> uniqueIter = 
-			this.uniqueExtractedLicenses.entrySet().iterator();
-		while (uniqueIter.hasNext()) {
-			Entry<SpdxDocument, Map<SpdxDocument, ExtractedLicenseInfo[]>> entry = uniqueIter.next();
-			Iterator<Entry<SpdxDocument, ExtractedLicenseInfo[]>> entryIter = entry.getValue().entrySet().iterator();
-			while(entryIter.hasNext()) {
-				ExtractedLicenseInfo[] licenses = entryIter.next().getValue();
-				if (licenses != null && licenses.length > 0) {
-					return false;
-				}
-			}
-		}
-		// check differences
-		Iterator<Entry<SpdxDocument, Map<SpdxDocument,SpdxLicenseDifference[]>>> diffIterator = this.licenseDifferences.entrySet().iterator();
-		while (diffIterator.hasNext()) {
-			Iterator<Entry<SpdxDocument,SpdxLicenseDifference[]>> entryIter = diffIterator.next().getValue().entrySet().iterator();
-			while (entryIter.hasNext()) {
-				SpdxLicenseDifference[] differences = entryIter.next().getValue();
-				if (differences != null && differences.length > 0) {
-					return false;
-				}
-			}
-		}
-		return true;
+		return this.extractedLicensingInfosEqual;
 	}
 
 	/**
@@ -1651,16 +1463,20 @@ public class SpdxComparer {
 		this.checkInProgress();
 		checkDocsIndex(docindex1);
 		checkDocsIndex(docindex2);
-		Map<SpdxDocument, SPDXReview[]> uniques = this.uniqueReviews.get(spdxDocs[docindex1]);
-		if (uniques != null) {
-			SPDXReview[] retval = uniques.get(spdxDocs[docindex2]);
-			if (retval != null) {
-				return retval;
-			} else {
-				return new SPDXReview[0];
-			}
-		} else {
-			return new SPDXReview[0];
+		return findUniqueReviewers(getReviewers(docindex1), getReviewers(docindex2));
+	}
+
+	/**
+	 * @param docIndex
+	 * @return the reviewers for the document at the index
+	 * @throws SpdxCompareException
+	 */
+	@SuppressWarnings("deprecation")
+	private SPDXReview[] getReviewers(int docIndex) throws SpdxCompareException {
+		try {
+			return this.spdxDocs[docIndex].getReviewers();
+		} catch (InvalidSPDXAnalysisException e) {
+			throw(new SpdxCompareException("Error getting the reviewers: "+e.getMessage(), e));
 		}
 	}
 
@@ -1678,16 +1494,7 @@ public class SpdxComparer {
 		this.checkInProgress();
 		checkDocsIndex(docindex1);
 		checkDocsIndex(docindex2);
-		Map<SpdxDocument, SPDXReviewDifference[]> doc1Differences =
-			this.reviewerDifferences.get(spdxDocs[docindex1]);
-		if (doc1Differences == null) {
-			return new SPDXReviewDifference[0];
-		}
-		SPDXReviewDifference[] retval = doc1Differences.get(spdxDocs[docindex2]);
-		if (retval == null) {
-			return new SPDXReviewDifference[0];
-		} 
-		return retval;
+		return findReviewerDifferences(getReviewers(docindex1), getReviewers(docindex2));
 	}
 
 	/**
@@ -1703,17 +1510,10 @@ public class SpdxComparer {
 		this.checkInProgress();
 		checkDocsIndex(docIndexA);
 		checkDocsIndex(docIndexB);
-		Map<SpdxDocument, ExtractedLicenseInfo[]> uniques = this.uniqueExtractedLicenses.get(spdxDocs[docIndexA]);
-		if (uniques != null) {
-			ExtractedLicenseInfo[] retval = uniques.get(spdxDocs[docIndexB]);
-			if (retval != null) {
-				return retval;
-			} else {
-				return new ExtractedLicenseInfo[0];
-			}
-		} else {
-			return new ExtractedLicenseInfo[0];
-		}
+		List<SpdxLicenseDifference> alDifferences = Lists.newArrayList();
+		List<ExtractedLicenseInfo> uniqueLicenses = Lists.newArrayList();
+		compareLicenses(spdxDocs[docIndexA], spdxDocs[docIndexB], alDifferences, uniqueLicenses);
+		return uniqueLicenses.toArray(new ExtractedLicenseInfo[uniqueLicenses.size()]);
 	}
 
 	/**
@@ -1729,17 +1529,10 @@ public class SpdxComparer {
 		this.checkInProgress();
 		checkDocsIndex(docIndexA);
 		checkDocsIndex(docIndexB);
-		Map<SpdxDocument, SpdxLicenseDifference[]> differences = this.licenseDifferences.get(spdxDocs[docIndexA]);
-		if (differences != null) {
-			SpdxLicenseDifference[] retval = differences.get(spdxDocs[docIndexB]);
-			if (retval != null) {
-				return retval;
-			} else {
-				return new SpdxLicenseDifference[0];
-			}
-		} else {
-			return new SpdxLicenseDifference[0];
-		}
+		List<SpdxLicenseDifference> alDifferences = Lists.newArrayList();
+		List<ExtractedLicenseInfo> uniqueLicenses = Lists.newArrayList();
+		compareLicenses(spdxDocs[docIndexA], spdxDocs[docIndexB], alDifferences, uniqueLicenses);
+		return alDifferences.toArray(new SpdxLicenseDifference[alDifferences.size()]);
 	}
 
 	/**
@@ -1762,15 +1555,11 @@ public class SpdxComparer {
 	public String[] getUniqueCreators(int doc1index, int doc2index) throws SpdxCompareException {
 		this.checkDocsField();
 		this.checkInProgress();
-		Map<SpdxDocument, String[]> uniques = this.uniqueCreators.get(this.getSpdxDoc(doc1index));
-		if (uniques == null) {
-			return new String[0];
-		}
-		String[] retval = uniques.get(this.getSpdxDoc(doc2index));
-		if (retval == null) {
-			return new String[0];
-		} else {
-			return retval;
+		try {
+			return findUniqueString(this.getSpdxDoc(doc1index).getCreationInfo().getCreators(), 
+					this.getSpdxDoc(doc2index).getCreationInfo().getCreators());
+		} catch (InvalidSPDXAnalysisException e) {
+			throw(new SpdxCompareException("Error getting the creators: "+e.getMessage(), e));
 		}
 	}
 
@@ -1781,7 +1570,7 @@ public class SpdxComparer {
 	public boolean isfilesEquals() throws SpdxCompareException {
 		this.checkDocsField();
 		this.checkInProgress();
-		return this._isFilesEqualsNoCheck();
+		return this.filesEqual;
 	}
 	
 	/**
@@ -1791,7 +1580,7 @@ public class SpdxComparer {
 	public boolean isPackagesEquals() throws SpdxCompareException {
 		this.checkDocsField();
 		this.checkInProgress();
-		return this._isPackagesEqualsNoCheck();
+		return this.packagesEqual;
 	}
 
 	/**
@@ -1801,22 +1590,7 @@ public class SpdxComparer {
 	public boolean isDocumentAnnotationsEquals() throws SpdxCompareException {
 		this.checkDocsField();
 		this.checkInProgress();
-		return _isDocumentAnnotationsEqualsNoCheck();
-	}
-	/**
-	 * @return
-	 */
-	private boolean _isDocumentAnnotationsEqualsNoCheck() {
-		Iterator<Entry<SpdxDocument, Map<SpdxDocument, Annotation[]>>> iter = this.uniqueDocumentAnnotations.entrySet().iterator();
-		while (iter.hasNext()) {
-			Iterator<Annotation[]> docIterator = iter.next().getValue().values().iterator();
-			while (docIterator.hasNext()) {
-				if (docIterator.next().length > 0) {
-					return false;
-				}
-			}
-		}
-		return true;
+		return this.documentAnnotationsEqual;
 	}
 	
 	/**
@@ -1826,58 +1600,7 @@ public class SpdxComparer {
 	public boolean isDocumentRelationshipsEquals() throws SpdxCompareException {
 		this.checkDocsField();
 		this.checkInProgress();
-		return _isDocumentRelationshipsEqualsNoCheck();
-	}
-	/**
-	 * @return
-	 */
-	private boolean _isDocumentRelationshipsEqualsNoCheck() {
-		Iterator<Entry<SpdxDocument, Map<SpdxDocument, Relationship[]>>> iter = this.uniqueDocumentRelationships.entrySet().iterator();
-		while (iter.hasNext()) {
-			Iterator<Relationship[]> docIterator = iter.next().getValue().values().iterator();
-			while (docIterator.hasNext()) {
-				if (docIterator.next().length > 0) {
-					return false;
-				}
-			}
-		}
-		return true;
-	}
-
-	/**
-	 * @return
-	 */
-	private boolean _isFilesEqualsNoCheck() {
-		if (!this.uniqueFiles.isEmpty()) {
-			return false;
-		}
-		if (!this.fileDifferences.isEmpty()) {
-			return false;
-		}
-		return true;
-	}
-
-	/**
-	 * @return
-	 * @throws SpdxCompareException 
-	 */
-	private boolean _isPackagesEqualsNoCheck() throws SpdxCompareException {
-		Iterator<Entry<SpdxDocument, Map<SpdxDocument, SpdxPackage[]>>> iter = this.uniquePackages.entrySet().iterator();
-		while (iter.hasNext()) {
-			Iterator<SpdxPackage[]> docIterator = iter.next().getValue().values().iterator();
-			while (docIterator.hasNext()) {
-				if (docIterator.next().length > 0) {
-					return false;
-				}
-			}
-		}
-		Iterator<SpdxPackageComparer> diffIter = this.packageComparers.values().iterator();
-		while (diffIter.hasNext()) {
-			if (diffIter.next().isDifferenceFound()) {
-				return false;
-			}
-		}
-		return true;
+		return this.documentRelationshipsEqual;
 	}
 	/**
 	 * Return any files which are in spdx document index 1 but not in spdx document index 2
@@ -1891,15 +1614,8 @@ public class SpdxComparer {
 		this.checkInProgress();
 		this.checkDocsIndex(docindex1);
 		this.checkDocsIndex(docindex2);
-		Map<SpdxDocument, SpdxFile[]> uniqueMap = this.uniqueFiles.get(this.spdxDocs[docindex1]);
-		if (uniqueMap == null) {
-			return new SpdxFile[0];
-		}
-		SpdxFile[] retval = uniqueMap.get(this.spdxDocs[docindex2]);
-		if (retval == null) {
-			return new SpdxFile[0];
-		}
-		return retval;
+		return findUniqueFiles(this.documentFiles.get(this.spdxDocs[docindex1]),
+				this.documentFiles.get(this.spdxDocs[docindex2]));
 	}
 
 	/**
@@ -1915,15 +1631,9 @@ public class SpdxComparer {
 		this.checkInProgress();
 		this.checkDocsIndex(docindex1);
 		this.checkDocsIndex(docindex2);
-		Map<SpdxDocument, SpdxFileDifference[]> uniqueMap = this.fileDifferences.get(this.spdxDocs[docindex1]);
-		if (uniqueMap == null) {
-			return new SpdxFileDifference[0];
-		}
-		SpdxFileDifference[] retval = uniqueMap.get(this.spdxDocs[docindex2]);
-		if (retval == null) {
-			return new SpdxFileDifference[0];
-		}
-		return retval;
+		return findFileDifferences(this.spdxDocs[docindex1], this.spdxDocs[docindex2],
+				this.documentFiles.get(this.spdxDocs[docindex1]),
+				this.documentFiles.get(this.spdxDocs[docindex2]), this.extractedLicenseIdMap);
 	}
 	
 	/**
@@ -1938,15 +1648,8 @@ public class SpdxComparer {
 		this.checkInProgress();
 		this.checkDocsIndex(docindex1);
 		this.checkDocsIndex(docindex2);
-		Map<SpdxDocument, SpdxPackage[]> uniqueMap = this.uniquePackages.get(this.spdxDocs[docindex1]);
-		if (uniqueMap == null) {
-			return new SpdxPackage[0];
-		}
-		SpdxPackage[] retval = uniqueMap.get(this.spdxDocs[docindex2]);
-		if (retval == null) {
-			return new SpdxPackage[0];
-		}
-		return retval;
+		return findUniquePackages(this.documentPackages.get(this.spdxDocs[docindex1]),
+				this.documentPackages.get(this.spdxDocs[docindex2]));
 	}
 	
 	/**
@@ -1961,15 +1664,12 @@ public class SpdxComparer {
 		this.checkInProgress();
 		this.checkDocsIndex(docindex1);
 		this.checkDocsIndex(docindex2);
-		Map<SpdxDocument, ExternalDocumentRef[]> uniqueMap = this.uniqueExternalDocumentRefs.get(this.spdxDocs[docindex1]);
-		if (uniqueMap == null) {
-			return new ExternalDocumentRef[0];
-		}
-		ExternalDocumentRef[] retval = uniqueMap.get(this.spdxDocs[docindex2]);
-		if (retval == null) {
-			return new ExternalDocumentRef[0];
+		try {
+			return findUniqueExternalDocumentRefs(this.spdxDocs[docindex1].getExternalDocumentRefs(),
+					this.spdxDocs[docindex2].getExternalDocumentRefs());
+		} catch (InvalidSPDXAnalysisException e) {
+			throw(new SpdxCompareException("Error getting the external document references: "+e.getMessage(), e));
 		}
-		return retval;
 	}
 
 	/**
@@ -1984,15 +1684,8 @@ public class SpdxComparer {
 		this.checkInProgress();
 		this.checkDocsIndex(docindex1);
 		this.checkDocsIndex(docindex2);
-		Map<SpdxDocument, Annotation[]> uniqueMap = this.uniqueDocumentAnnotations.get(this.spdxDocs[docindex1]);
-		if (uniqueMap == null) {
-			return new Annotation[0];
-		}
-		Annotation[] retval = uniqueMap.get(this.spdxDocs[docindex2]);
-		if (retval == null) {
-			return new Annotation[0];
-		}
-		return retval;
+		return findUniqueAnnotations(this.spdxDocs[docindex1].getAnnotations(),
+				this.spdxDocs[docindex2].getAnnotations());
 	}
 	
 	/**
@@ -2007,15 +1700,8 @@ public class SpdxComparer {
 		this.checkInProgress();
 		this.checkDocsIndex(docindex1);
 		this.checkDocsIndex(docindex2);
-		Map<SpdxDocument, Relationship[]> uniqueMap = this.uniqueDocumentRelationships.get(this.spdxDocs[docindex1]);
-		if (uniqueMap == null) {
-			return new Relationship[0];
-		}
-		Relationship[] retval = uniqueMap.get(this.spdxDocs[docindex2]);
-		if (retval == null) {
-			return new Relationship[0];
-		}
-		return retval;
+		return findUniqueRelationships(this.spdxDocs[docindex1].getRelationships(),
+				this.spdxDocs[docindex2].getRelationships());
 	}
 	
 	/**
@@ -2077,18 +1763,17 @@ public class SpdxComparer {
 	public static Checksum[] findUniqueChecksums(Checksum[] checksumsA,
 			Checksum[] checksumsB) {
 		List<Checksum> retval = Lists.newArrayList();
+		ListMultimap<Integer, IRdfModel> checksumsByHash = RdfModelHelper.partitionByEquivalenceHash(checksumsB);
 		if (checksumsA != null) {
 			for (int i = 0; i < checksumsA.length; i++) {
 				if (checksumsA[i] == null) {
 					continue;
 				}
 				boolean found = false;
-				if (checksumsB != null) {
-					for (int j = 0; j < checksumsB.length; j++) {
-						if (checksumsA[i].equivalent(checksumsB[j])) {
-							found = true;
-							break;
-						}
+				for (IRdfModel candidate:checksumsByHash.get(RdfModelHelper.equivalenceHash(checksumsA[i]))) {
+					if (checksumsA[i].equivalent(candidate)) {
+						found = true;
+						break;
 					}
 				}
 				if (!found) {
@@ -2108,18 +1793,17 @@ public class SpdxComparer {
 	public static Annotation[] findUniqueAnnotations(Annotation[] annotationsA,
 			Annotation[] annotationsB) {
 		List<Annotation> retval = Lists.newArrayList();
+		ListMultimap<Integer, IRdfModel> annotationsByHash = RdfModelHelper.partitionByEquivalenceHash(annotationsB);
 		if (annotationsA != null) {
 			for (int i = 0; i < annotationsA.length; i++) {
 				if (annotationsA[i] == null) {
 					continue;
 				}
 				boolean found = false;
-				if (annotationsB != null) {
-					for (int j = 0; j < annotationsB.length; j++) {
-						if (annotationsA[i].equivalent(annotationsB[j])) {
-							found = true;
-							break;
-						}
+				for (IRdfModel candidate:annotationsByHash.get(RdfModelHelper.equivalenceHash(annotationsA[i]))) {
+					if (annotationsA[i].equivalent(candidate)) {
+						found = true;
+						break;
 					}
 				}
 				if (!found) {
@@ -2138,31 +1822,7 @@ public class SpdxComparer {
 	 */
 	public static boolean elementsEquivalent(RdfModelObject[] elementsA,
 			RdfModelObject[] elementsB) {
-		if (elementsA == null) {
-			return elementsB == null;
-		}
-		if (elementsB == null) {
-			return false;
-		}
-		if (elementsA.length != elementsB.length) {
-			return false;
-		}
-		Set<Integer> matchedIndexes = Sets.newHashSet();
-		for (int i = 0; i < elementsA.length; i++) {
-			boolean found = false;
-			for (int j = 0; j < elementsB.length; j++) {
-				if (!matchedIndexes.contains(j) &&
-						elementsA[i].equivalent(elementsB[j])) {
-					found = true;
-					matchedIndexes.add(j);
-					break;
-				}
-			}
-			if (!found) {
-				return false;
-			}
-		}
-		return true;
+		return RdfModelHelper.arraysEquivalent(elementsA, elementsB, (a, b) -> a.equivalent(b));
 	}
 	
 	/**
@@ -2177,17 +1837,16 @@ public class SpdxComparer {
 		if (relationshipsA == null) {
 			return new Relationship[0];
 		}
+		ListMultimap<Integer, IRdfModel> relationshipsByHash = RdfModelHelper.partitionByEquivalenceHash(relationshipsB);
 		for (int i = 0; i < relationshipsA.length; i++) {
 			if (relationshipsA[i] == null) {
 				continue;
 			}
 			boolean found = false;
-			if (relationshipsB != null) {
-				for (int j = 0; j < relationshipsB.length; j++) {
-					if (relationshipsA[i].equivalent(relationshipsB[j])) {
-						found = true;
-						break;
-					}
+			for (IRdfModel candidate:relationshipsByHash.get(RdfModelHelper.equivalenceHash(relationshipsA[i]))) {
+				if (relationshipsA[i].equivalent(candidate)) {
+					found = true;
+					break;
 				}
 			}
 			if (!found) {
@@ -2256,30 +1915,7 @@ public class SpdxComparer {
 	public boolean isSnippetsEqual() throws SpdxCompareException {
 		this.checkDocsField();
 		this.checkInProgress();
-		return this._isSnippetsEqualsNoCheck();
-	}
-
-	/**
-	 * @return
-	 * @throws SpdxCompareException 
-	 */
-	private boolean _isSnippetsEqualsNoCheck() throws SpdxCompareException {
-		Iterator<Entry<SpdxDocument, Map<SpdxDocument, SpdxSnippet[]>>> iter = this.uniqueSnippets.entrySet().iterator();
-		while (iter.hasNext()) {
-			Iterator<SpdxSnippet[]> docIterator = iter.next().getValue().values().iterator();
-			while (docIterator.hasNext()) {
-				if (docIterator.next().length > 0) {
-					return false;
-				}
-			}
-		}
-		Iterator<SpdxSnippetComparer> diffIter = this.snippetComparers.values().iterator();
-		while (diffIter.hasNext()) {
-			if (diffIter.next().isDifferenceFound()) {
-				return false;
-			}
-		}
-		return true;
+		return this.snippetsEqual;
 	}
 
 	/**
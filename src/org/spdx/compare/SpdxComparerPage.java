@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.compare;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.SPDXReview;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
+import org.spdx.rdfparser.license.ExtractedLicenseInfo;
+import org.spdx.rdfparser.model.Annotation;
+import org.spdx.rdfparser.model.ExternalDocumentRef;
+import org.spdx.rdfparser.model.Relationship;
+import org.spdx.rdfparser.model.SpdxDocument;
+import org.spdx.rdfparser.model.SpdxFile;
+import org.spdx.rdfparser.model.SpdxPackage;
+import org.spdx.rdfparser.model.SpdxSnippet;
+
+/**
+ * A view of a range of the documents in a completed comparison.  The documents in the range
+ * are indexed from zero.  All of the equality results and the package and snippet comparers
+ * are the results for all of the documents in the comparison.
+ *
+ * This is used to write the results for a comparison of more documents than fit in a single
+ * spreadsheet into several spreadsheets.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class SpdxComparerPage extends SpdxComparer {
+
+	private SpdxComparer comparer;
+	private int fromIndex;
+	private int numDocs;
+
+	/**
+	 * @param comparer comparer which has completed the comparison of all of the documents
+	 * @param fromIndex index of the first document in the page
+	 * @param toIndex index after the last document in the page
+	 * @throws SpdxCompareException
+	 */
+	public SpdxComparerPage(SpdxComparer comparer, int fromIndex, int toIndex) throws SpdxCompareException {
+		if (comparer.getSpdxDocuments() == null) {
+			throw(new SpdxCompareException("No compare has been performed"));
+		}
+		if (fromIndex < 0 || toIndex > comparer.getNumSpdxDocs() || fromIndex >= toIndex) {
+			throw(new SpdxCompareException("Invalid range of documents for a compare page: "+
+					String.valueOf(fromIndex)+" to "+String.valueOf(toIndex)));
+		}
+		this.comparer = comparer;
+		this.fromIndex = fromIndex;
+		this.numDocs = toIndex - fromIndex;
+	}
+
+	/**
+	 * @param docIndex index of the document in the page
+	 * @return index of the document in the comparison
+	 * @throws SpdxCompareException
+	 */
+	private int xlateIndex(int docIndex) throws SpdxCompareException {
+		if (docIndex < 0 || docIndex >= numDocs) {
+			throw(new SpdxCompareException("Invalid index for SPDX document compare - SPDX document index "+String.valueOf(docIndex)+" does not exist."));
+		}
+		return docIndex + fromIndex;
+	}
+
+	@Override
+	public void compare(SpdxDocument[] spdxDocuments) throws InvalidSPDXAnalysisException, SpdxCompareException {
+		throw(new SpdxCompareException("Can not compare documents from a page of the compare results"));
+	}
+
+	@Override
+	public List<SpdxSnippet> getOverlappingSnippets(SpdxSnippet snippet, SpdxDocument spdxDocument) throws SpdxCompareException {
+		return comparer.getOverlappingSnippets(snippet, spdxDocument);
+	}
+
+	@Override
+	protected SpdxPackage[] collectAllPackages(SpdxDocument spdxDocument) throws InvalidSPDXAnalysisException {
+		return comparer.collectAllPackages(spdxDocument);
+	}
+
+	@Override
+	protected SpdxFile[] collectAllFiles(SpdxDocument spdxDocument) throws InvalidSPDXAnalysisException {
+		return comparer.collectAllFiles(spdxDocument);
+	}
+
+	@Override
+	public boolean compareLicense(int doc1, AnyLicenseInfo license1, int doc2, AnyLicenseInfo license2) throws SpdxCompareException {
+		return comparer.compareLicense(xlateIndex(doc1), license1, xlateIndex(doc2), license2);
+	}
+
+	@Override
+	public boolean isDifferenceFound() {
+		return comparer.isDifferenceFound();
+	}
+
+	@Override
+	public boolean isSpdxVersionEqual() throws SpdxCompareException {
+		return comparer.isSpdxVersionEqual();
+	}
+
+	@Override
+	public SpdxDocument getSpdxDoc(int docIndex) throws SpdxCompareException {
+		return comparer.getSpdxDoc(xlateIndex(docIndex));
+	}
+
+	@Override
+	public boolean isDataLicenseEqual() throws SpdxCompareException {
+		return comparer.isDataLicenseEqual();
+	}
+
+	@Override
+	public boolean isDocumentCommentsEqual() throws SpdxCompareException {
+		return comparer.isDocumentCommentsEqual();
+	}
+
+	@Override
+	public boolean isReviewersEqual() throws SpdxCompareException {
+		return comparer.isReviewersEqual();
+	}
+
+	@Override
+	public boolean isExternalDcoumentRefsEquals() throws SpdxCompareException {
+		return comparer.isExternalDcoumentRefsEquals();
+	}
+
+	@Override
+	public boolean isExtractedLicensingInfosEqual() throws SpdxCompareException {
+		return comparer.isExtractedLicensingInfosEqual();
+	}
+
+	@Override
+	public SPDXReview[] getUniqueReviewers(int docindex1, int docindex2) throws SpdxCompareException {
+		return comparer.getUniqueReviewers(xlateIndex(docindex1), xlateIndex(docindex2));
+	}
+
+	@Override
+	public SPDXReviewDifference[] getReviewerDifferences(int docindex1, int docindex2) throws SpdxCompareException {
+		return comparer.getReviewerDifferences(xlateIndex(docindex1), xlateIndex(docindex2));
+	}
+
+	@Override
+	public ExtractedLicenseInfo[] getUniqueExtractedLicenses(int docIndexA, int docIndexB) throws SpdxCompareException {
+		return comparer.getUniqueExtractedLicenses(xlateIndex(docIndexA), xlateIndex(docIndexB));
+	}
+
+	@Override
+	public SpdxLicenseDifference[] getExtractedLicenseDifferences(int docIndexA, int docIndexB) throws SpdxCompareException {
+		return comparer.getExtractedLicenseDifferences(xlateIndex(docIndexA), xlateIndex(docIndexB));
+	}
+
+	@Override
+	public boolean isCreatorInformationEqual() throws SpdxCompareException {
+		return comparer.isCreatorInformationEqual();
+	}
+
+	@Override
+	public String[] getUniqueCreators(int doc1index, int doc2index) throws SpdxCompareException {
+		return comparer.getUniqueCreators(xlateIndex(doc1index), xlateIndex(doc2index));
+	}
+
+	@Override
+	public boolean isfilesEquals() throws SpdxCompareException {
+		return comparer.isfilesEquals();
+	}
+
+	@Override
+	public boolean isPackagesEquals() throws SpdxCompareException {
+		return comparer.isPackagesEquals();
+	}
+
+	@Override
+	public boolean isDocumentAnnotationsEquals() throws SpdxCompareException {
+		return comparer.isDocumentAnnotationsEquals();
+	}
+
+	@Override
+	public boolean isDocumentRelationshipsEquals() throws SpdxCompareException {
+		return comparer.isDocumentRelationshipsEquals();
+	}
+
+	@Override
+	public SpdxFile[] getUniqueFiles(int docindex1, int docindex2) throws SpdxCompareException {
+		return comparer.getUniqueFiles(xlateIndex(docindex1), xlateIndex(docindex2));
+	}
+
+	@Override
+	public SpdxFileDifference[] getFileDifferences(int docindex1, int docindex2) throws SpdxCompareException {
+		return comparer.getFileDifferences(xlateIndex(docindex1), xlateIndex(docindex2));
+	}
+
+	@Override
+	public SpdxPackage[] getUniquePackages(int docindex1, int docindex2) throws SpdxCompareException {
+		return comparer.getUniquePackages(xlateIndex(docindex1), xlateIndex(docindex2));
+	}
+
+	@Override
+	public ExternalDocumentRef[] getUniqueExternalDocumentRefs(int docindex1, int docindex2) throws SpdxCompareException {
+		return comparer.getUniqueExternalDocumentRefs(xlateIndex(docindex1), xlateIndex(docindex2));
+	}
+
+	@Override
+	public Annotation[] getUniqueDocumentAnnotations(int docindex1, int docindex2) throws SpdxCompareException {
+		return comparer.getUniqueDocumentAnnotations(xlateIndex(docindex1), xlateIndex(docindex2));
+	}
+
+	@Override
+	public Relationship[] getUniqueDocumentRelationship(int docindex1, int docindex2) throws SpdxCompareException {
+		return comparer.getUniqueDocumentRelationship(xlateIndex(docindex1), xlateIndex(docindex2));
+	}
+
+	@Override
+	public SpdxPackageComparer[] getPackageDifferences() throws SpdxCompareException {
+		return comparer.getPackageDifferences();
+	}
+
+	@Override
+	public SpdxPackageComparer[] getPackageComparers() {
+		return comparer.getPackageComparers();
+	}
+
+	@Override
+	public int getNumSpdxDocs() {
+		return numDocs;
+	}
+
+	@Override
+	public boolean isLicenseListVersionEqual() throws SpdxCompareException {
+		return comparer.isLicenseListVersionEqual();
+	}
+
+	@Override
+	public SpdxDocument[] getSpdxDocuments() {
+		return Arrays.copyOfRange(comparer.getSpdxDocuments(), fromIndex, fromIndex + numDocs);
+	}
+
+	@Override
+	public boolean isDocumentContentsEquals() throws SpdxCompareException {
+		return comparer.isDocumentContentsEquals();
+	}
+
+	@Override
+	public boolean isSnippetsEqual() throws SpdxCompareException {
+		return comparer.isSnippetsEqual();
+	}
+
+	@Override
+	public SpdxSnippetComparer[] getSnippetComparers() {
+		return comparer.getSnippetComparers();
+	}
+}
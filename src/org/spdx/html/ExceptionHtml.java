@@ -59,7 +59,7 @@ public class ExceptionHtml {
 		}
 		mustacheMap.put("name", exception.getName());
 		mustacheMap.put("id", exception.getLicenseExceptionId());
-		mustacheMap.put("text", exception.getExceptionTextHtml());
+		mustacheMap.put("text", RenderedLicenseForms.forException(exception).getTextHtml());
 		mustacheMap.put("getSourceUrl", alSourceUrls);
 		mustacheMap.put("notes", exception.getComment());
 	}
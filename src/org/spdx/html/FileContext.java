@@ -27,6 +27,7 @@ import org.spdx.rdfparser.model.Annotation;
 import org.spdx.rdfparser.model.Checksum;
 import org.spdx.rdfparser.model.DoapProject;
 import org.spdx.rdfparser.model.Relationship;
+import org.spdx.rdfparser.model.SnippetRangeIndex;
 import org.spdx.rdfparser.model.SpdxFile;
 import org.spdx.rdfparser.model.SpdxFile.FileType;
 import org.spdx.rdfparser.model.SpdxSnippet;
@@ -44,16 +45,16 @@ public class FileContext {
 	SpdxFile spdxFile = null;
 	Exception error = null;
 	private Map<String, String> spdxIdToUrl;
-	private Map<String, List<SpdxSnippet>> fileIdToSnippets;
+	private SnippetRangeIndex snippetIndex;
 
 	/**
 	 * @param SpdxFile
 	 */
 	public FileContext(SpdxFile SpdxFile, Map<String, String> spdxIdToUrl,
-			Map<String, List<SpdxSnippet>> fileIdToSnippets) {
+			SnippetRangeIndex snippetIndex) {
 		this.spdxFile = SpdxFile;
 		this.spdxIdToUrl = spdxIdToUrl;
-		this.fileIdToSnippets = fileIdToSnippets;
+		this.snippetIndex = snippetIndex;
 	}
 
 	/**
@@ -264,12 +265,9 @@ public class FileContext {
 	public List<ElementContext> fileSnippets() {
 		List<ElementContext> retval = Lists.newArrayList();
 		if (this.spdxFile != null) {
-			List<SpdxSnippet> snippets = this.fileIdToSnippets.get(this.spdxFile.getId());
-			if (snippets != null) {
-				for (SpdxSnippet snippet:snippets) {
-					retval.add(new ElementContext(snippet, spdxIdToUrl));
-				}
-			}	
+			for (SpdxSnippet snippet:this.snippetIndex.getSnippets(this.spdxFile)) {
+				retval.add(new ElementContext(snippet, spdxIdToUrl));
+			}
 		}
 		return retval;
 	}
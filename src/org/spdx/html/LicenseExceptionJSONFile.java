@@ -80,7 +80,7 @@ public class LicenseExceptionJSONFile extends AbstractJsonFile {
 			jsonObject.put(SpdxRdfConstants.RDFS_PROP_SEE_ALSO, seeAlsoArray);
 		}
 		jsonObject.put(SpdxRdfConstants.PROP_LIC_COMMENTS, exception.getComment());
-		jsonObject.put(SpdxRdfConstants.PROP_EXCEPTION_TEXT, exception.getLicenseExceptionText().replaceAll("\\r\\n", "\n").replaceAll("\\r", "\n"));
+		jsonObject.put(SpdxRdfConstants.PROP_EXCEPTION_TEXT, RenderedLicenseForms.forException(exception).getNormalizedText());
 		jsonObject.put(SpdxRdfConstants.PROP_EXAMPLE, exception.getExample());
 		jsonObject.put(SpdxRdfConstants.PROP_LIC_ID_DEPRECATED, this.isDeprecated());
 		return jsonObject;
@@ -175,8 +175,9 @@ public class LicenseHTMLFile {
 	private Map<String, Object> buildMustachMap() throws InvalidLicenseTemplateException {
 			Map<String, Object> retval = Maps.newHashMap();
 			if (license != null) {
+				RenderedLicenseForms renderedForms = RenderedLicenseForms.forLicense(license);
 				retval.put("licenseId", license.getLicenseId());
-				String licenseTextHtml = license.getLicenseTextHtml();
+				String licenseTextHtml = renderedForms.getTextHtml();
 				retval.put("licenseText", licenseTextHtml);
 				retval.put("licenseName", license.getName());
 				String notes;
@@ -202,7 +203,7 @@ public class LicenseHTMLFile {
 				}
 				retval.put("otherWebPages", otherWebPages);
 				retval.put("title", license.getName());
-				String header = license.getLicenseHeaderHtml();
+				String header = renderedForms.getHeaderHtml();
 				if (header != null && header.trim().isEmpty()) {
 					header = null;	// so the template will appropriately skip the header text
 				}
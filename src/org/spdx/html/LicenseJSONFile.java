@@ -64,6 +64,7 @@ public class LicenseJSONFile extends AbstractJsonFile {
 	@SuppressWarnings("unchecked")
 	protected JSONObject getJsonObject() {
 		JSONObject jsonObject = new JSONObject();
+		RenderedLicenseForms renderedForms = RenderedLicenseForms.forLicense(license);
 		jsonObject.put(SpdxRdfConstants.PROP_LICENSE_ID, license.getLicenseId());
 		jsonObject.put(SpdxRdfConstants.PROP_STD_LICENSE_OSI_APPROVED, license.isOsiApproved());
 		if (license.getFsfLibre() != null) {
@@ -82,18 +83,18 @@ public class LicenseJSONFile extends AbstractJsonFile {
 			jsonObject.put(SpdxRdfConstants.PROP_LIC_COMMENTS, license.getComment());
 		}
 		if (license.getLicenseText() != null) {
-			jsonObject.put(SpdxRdfConstants.PROP_LICENSE_TEXT, license.getLicenseText().replaceAll("\\r\\n", "\n").replaceAll("\\r", "\n"));
+			jsonObject.put(SpdxRdfConstants.PROP_LICENSE_TEXT, renderedForms.getNormalizedText());
 		}
 		if (license.getStandardLicenseHeader() != null) {
-			jsonObject.put(SpdxRdfConstants.PROP_STD_LICENSE_NOTICE, license.getStandardLicenseHeader().replaceAll("\\r\\n", "\n").replaceAll("\\r", "\n"));
+			jsonObject.put(SpdxRdfConstants.PROP_STD_LICENSE_NOTICE, renderedForms.getNormalizedHeader());
 			if (license.getStandardLicenseHeaderTemplate() != null) {
-				jsonObject.put(SpdxRdfConstants.PROP_STD_LICENSE_HEADER_TEMPLATE, license.getStandardLicenseHeaderTemplate().replaceAll("\\r\\n", "\n").replaceAll("\\r", "\n"));
+				jsonObject.put(SpdxRdfConstants.PROP_STD_LICENSE_HEADER_TEMPLATE, renderedForms.getNormalizedHeaderTemplate());
 			} else {
-				jsonObject.put(SpdxRdfConstants.PROP_STD_LICENSE_HEADER_TEMPLATE, license.getStandardLicenseHeader().replaceAll("\\r\\n", "\n").replaceAll("\\r", "\n"));
+				jsonObject.put(SpdxRdfConstants.PROP_STD_LICENSE_HEADER_TEMPLATE, renderedForms.getNormalizedHeader());
 			}
 		}
 		if (license.getStandardLicenseTemplate() != null) {
-			jsonObject.put(SpdxRdfConstants.PROP_STD_LICENSE_TEMPLATE, license.getStandardLicenseTemplate().replaceAll("\\r\\n", "\n").replaceAll("\\r", "\n"));
+			jsonObject.put(SpdxRdfConstants.PROP_STD_LICENSE_TEMPLATE, renderedForms.getNormalizedTemplate());
 		}
 		jsonObject.put(SpdxRdfConstants.PROP_LIC_ID_DEPRECATED, this.isDeprecated());
 		return jsonObject;
@@ -29,12 +29,17 @@ import org.spdx.rdfparser.license.SimpleLicensingInfo;
 import org.spdx.rdfparser.model.Annotation;
 import org.spdx.rdfparser.model.ExternalDocumentRef;
 import org.spdx.rdfparser.model.Relationship;
+import org.spdx.rdfparser.model.RelationshipIndex;
+import org.spdx.rdfparser.model.SnippetRangeIndex;
 import org.spdx.rdfparser.model.SpdxDocument;
 import org.spdx.rdfparser.model.SpdxFile;
 import org.spdx.rdfparser.model.SpdxItem;
 import org.spdx.rdfparser.model.SpdxPackage;
 import org.spdx.rdfparser.model.SpdxSnippet;
 
+import com.google.common.base.Function;
+import com.google.common.base.Predicates;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -133,7 +138,7 @@ public class MustacheMap {
 	 * @throws InvalidSPDXAnalysisException 
 	 */
 	public static Map<String, Object> buildDocFileMustacheMap(SpdxDocument doc, SpdxFile[] files,
-			Map<String, String> spdxIdToUrl, Map<String, List<SpdxSnippet>> fileIdToSnippets) throws InvalidSPDXAnalysisException {
+			Map<String, String> spdxIdToUrl, SnippetRangeIndex snippetIndex) throws InvalidSPDXAnalysisException {
 		Map<String, Object> retval = Maps.newHashMap();
 		retval.put("about", "SPDX Document "+doc.getName());
 		SpdxItem[] describedItems = doc.getDocumentDescribes();
@@ -156,7 +161,7 @@ public class MustacheMap {
 		List<FileContext> describedFiles = Lists.newArrayList();
 		for (int i = 0; i < describedItems.length; i++) {
 			if (describedItems[i] instanceof SpdxFile) {
-				describedFiles.add(new FileContext((SpdxFile)describedItems[i],spdxIdToUrl, fileIdToSnippets));
+				describedFiles.add(new FileContext((SpdxFile)describedItems[i],spdxIdToUrl, snippetIndex));
 			}
 		}
 		retval.put("hasFile", describedFiles);
@@ -244,40 +249,89 @@ public class MustacheMap {
 		return retval;
 	}
 
+	/**
+	 * Orders files by file name with files missing a name at the end
+	 */
+	public static final Comparator<SpdxFile> FILE_NAME_COMPARATOR = new Comparator<SpdxFile>() {
+
+		@Override
+		public int compare(SpdxFile o1, SpdxFile o2) {
+			if (o1 == null || o1.getName() == null) {
+				if (o2 != null && o2.getName() != null) {
+					return 1;
+				}
+			}
+			if (o2 == null || o2.getName() == null) {
+				return -1;
+			}
+			return o1.getName().compareTo(o2.getName());
+		}
+		
+	};
+	
+	/**
+	 * @param pkg
+	 * @return the files in the package in the order they are listed in the HTML files
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public static SpdxFile[] getSortedFiles(SpdxPackage pkg) throws InvalidSPDXAnalysisException {
+		SpdxFile[] files = pkg.getFiles();
+		Arrays.sort(files, FILE_NAME_COMPARATOR);
+		return files;
+	}
+
+	/**
+	 * @param pkg
+	 * @param relationshipIndex index for the document containing the package
+	 * @return the files in the package in the order they are listed in the HTML files
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public static SpdxFile[] getSortedFiles(SpdxPackage pkg, RelationshipIndex relationshipIndex) throws InvalidSPDXAnalysisException {
+		List<SpdxFile> pkgFiles = relationshipIndex.getPackageFiles(pkg);
+		SpdxFile[] files = pkgFiles.toArray(new SpdxFile[pkgFiles.size()]);
+		Arrays.sort(files, FILE_NAME_COMPARATOR);
+		return files;
+	}
+
 	/**
 	 * @param pkg
 	 * @param spdxIdToUrl
-	 * @return
-	 * @throws InvalidSPDXAnalysisException 
+	 * @param snippetIndex snippets by file
+	 * @return mustache map for all files in the package
+	 * @throws InvalidSPDXAnalysisException
 	 */
 	public static Map<String, Object> buildPkgFileMap(SpdxPackage pkg,
-			Map<String, String> spdxIdToUrl, Map<String, List<SpdxSnippet>> fileIdToSnippets) throws InvalidSPDXAnalysisException {
+			Map<String, String> spdxIdToUrl, SnippetRangeIndex snippetIndex) throws InvalidSPDXAnalysisException {
+		SpdxFile[] files = getSortedFiles(pkg);
+		return buildPkgFilePageMap(pkg, files, 0, files.length, spdxIdToUrl, snippetIndex);
+	}
+	
+	/**
+	 * Build the mustache map for a range of the files in a package.  The file contexts
+	 * are created as the template iterates over them rather than all being built up front.
+	 * @param pkg
+	 * @param sortedFiles files for the package sorted by <code>getSortedFiles</code>
+	 * @param fromIndex index of the first file to include
+	 * @param toIndex index after the last file to include
+	 * @param spdxIdToUrl
+	 * @param snippetIndex snippets by file
+	 * @return mustache map for the files in the range
+	 */
+	public static Map<String, Object> buildPkgFilePageMap(SpdxPackage pkg, SpdxFile[] sortedFiles,
+			int fromIndex, int toIndex, final Map<String, String> spdxIdToUrl, 
+			final SnippetRangeIndex snippetIndex) {
 		Map<String, Object> retval = Maps.newHashMap();
 		retval.put("about", "SPDX Package "+pkg.getName());
-		SpdxFile[] files = pkg.getFiles();
-		Arrays.sort(files, new Comparator<SpdxFile>() {
+		Iterable<SpdxFile> pageFiles = Iterables.filter(Arrays.asList(sortedFiles).subList(fromIndex, toIndex), 
+				Predicates.notNull());
+		retval.put("hasFile", Iterables.transform(pageFiles, new Function<SpdxFile, FileContext>() {
 
 			@Override
-			public int compare(SpdxFile o1, SpdxFile o2) {
-				if (o1 == null || o1.getName() == null) {
-					if (o2 != null && o2.getName() != null) {
-						return 1;
-					}
-				}
-				if (o2 == null || o2.getName() == null) {
-					return -1;
-				}
-				return o1.getName().compareTo(o2.getName());
+			public FileContext apply(SpdxFile file) {
+				return new FileContext(file, spdxIdToUrl, snippetIndex);
 			}
 			
-		});
-		List<FileContext> alFiles = Lists.newArrayList();
-		for (int i = 0; i < files.length; i++) {
-			if (files[i] != null) {
-				alFiles.add(new FileContext(files[i], spdxIdToUrl, fileIdToSnippets));
-			}
-		}
-		retval.put("hasFile", alFiles);
+		}));
 		return retval;
 	}
 
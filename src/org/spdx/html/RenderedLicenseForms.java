@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.html;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import org.spdx.licenseTemplate.SpdxLicenseTemplateHelper;
+import org.spdx.rdfparser.license.LicenseException;
+import org.spdx.rdfparser.license.SpdxListedLicense;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * Forms of a license or exception text derived for the output formats - HTML, escaped
+ * HTML and text with normalized line endings.  Each form is computed on first use and
+ * shared by all users of the same license or exception object, so the license format
+ * writers do not each repeat the template parsing and regular expression replacements.
+ * 
+ * The forms reflect the license at the time they are first computed - the license
+ * must not be modified once the forms are in use.  A form which has not yet been computed
+ * can only be requested while the license or exception is still in use.  The forms are
+ * thread safe.
+ * 
+ * @author Gary O'Neall
+ *
+ */
+public class RenderedLicenseForms {
+	
+	static final Pattern LINE_ENDING_PATTERN = Pattern.compile("\\r\\n?");
+	
+	/**
+	 * Rendered forms keyed by the identity of the license or exception.  Entries are
+	 * removed once the license or exception is garbage collected - the rendered forms
+	 * only hold a weak reference to the license or exception so that they do not keep
+	 * their own key in the map.
+	 */
+	private static final ConcurrentMap<Object, RenderedLicenseForms> renderedForms = 
+			new MapMaker().weakKeys().makeMap();
+	
+	/**
+	 * License the forms are rendered from or null if the forms are for an exception
+	 */
+	private final WeakReference<SpdxListedLicense> license;
+	/**
+	 * Exception the forms are rendered from or null if the forms are for a license
+	 */
+	private final WeakReference<LicenseException> exception;
+	private String textHtml = null;
+	private String escapedTextHtml = null;
+	private String headerHtml = null;
+	private String normalizedText = null;
+	private String normalizedHeader = null;
+	private String normalizedHeaderTemplate = null;
+	private String normalizedTemplate = null;
+
+	private RenderedLicenseForms(SpdxListedLicense license, LicenseException exception) {
+		this.license = license != null ? new WeakReference<SpdxListedLicense>(license) : null;
+		this.exception = exception != null ? new WeakReference<LicenseException>(exception) : null;
+	}
+	
+	/**
+	 * @param license
+	 * @return the rendered forms shared by all users of the license
+	 */
+	public static RenderedLicenseForms forLicense(SpdxListedLicense license) {
+		return getRenderedForms(license, new RenderedLicenseForms(license, null));
+	}
+	
+	/**
+	 * @param exception
+	 * @return the rendered forms shared by all users of the exception
+	 */
+	public static RenderedLicenseForms forException(LicenseException exception) {
+		return getRenderedForms(exception, new RenderedLicenseForms(null, exception));
+	}
+	
+	private static RenderedLicenseForms getRenderedForms(Object key, RenderedLicenseForms newForms) {
+		RenderedLicenseForms existing = renderedForms.putIfAbsent(key, newForms);
+		return existing != null ? existing : newForms;
+	}
+	
+	/**
+	 * Replace all CR LF and CR line endings with LF
+	 * @param text
+	 * @return text with normalized line endings or null if text is null
+	 */
+	public static String normalizeLineEndings(String text) {
+		if (text == null) {
+			return null;
+		}
+		return LINE_ENDING_PATTERN.matcher(text).replaceAll("\n");
+	}
+	
+	/**
+	 * @return HTML fragment for the text - formatted from the template if available
+	 * @throws InvalidLicenseTemplateException
+	 */
+	public synchronized String getTextHtml() throws InvalidLicenseTemplateException {
+		if (textHtml == null) {
+			textHtml = license != null ? getLicense().getLicenseTextHtml() : getException().getExceptionTextHtml();
+		}
+		return textHtml;
+	}
+	
+	/**
+	 * @return HTML escaped text ignoring any template
+	 */
+	public synchronized String getEscapedTextHtml() {
+		if (escapedTextHtml == null) {
+			escapedTextHtml = SpdxLicenseTemplateHelper.formatEscapeHTML(getText());
+		}
+		return escapedTextHtml;
+	}
+	
+	/**
+	 * @return HTML fragment for the standard license header or null for an exception
+	 * @throws InvalidLicenseTemplateException
+	 */
+	public synchronized String getHeaderHtml() throws InvalidLicenseTemplateException {
+		if (headerHtml == null && license != null) {
+			headerHtml = getLicense().getLicenseHeaderHtml();
+		}
+		return headerHtml;
+	}
+	
+	/**
+	 * @return text with normalized line endings
+	 */
+	public synchronized String getNormalizedText() {
+		if (normalizedText == null) {
+			normalizedText = normalizeLineEndings(getText());
+		}
+		return normalizedText;
+	}
+	
+	/**
+	 * @return standard license header with normalized line endings or null if there is no header
+	 */
+	public synchronized String getNormalizedHeader() {
+		if (normalizedHeader == null && license != null) {
+			normalizedHeader = normalizeLineEndings(getLicense().getStandardLicenseHeader());
+		}
+		return normalizedHeader;
+	}
+	
+	/**
+	 * @return standard license header template with normalized line endings or null if there is no header template
+	 */
+	public synchronized String getNormalizedHeaderTemplate() {
+		if (normalizedHeaderTemplate == null && license != null) {
+			normalizedHeaderTemplate = normalizeLineEndings(getLicense().getStandardLicenseHeaderTemplate());
+		}
+		return normalizedHeaderTemplate;
+	}
+	
+	/**
+	 * @return license template with normalized line endings or null if there is no template
+	 */
+	public synchronized String getNormalizedTemplate() {
+		if (normalizedTemplate == null) {
+			normalizedTemplate = normalizeLineEndings(license != null ? 
+					getLicense().getStandardLicenseTemplate() : getException().getLicenseExceptionTemplate());
+		}
+		return normalizedTemplate;
+	}
+	
+	private String getText() {
+		return license != null ? getLicense().getLicenseText() : getException().getLicenseExceptionText();
+	}
+	
+	/**
+	 * @return the license the forms are rendered from
+	 * @throws IllegalStateException if the license has been garbage collected
+	 */
+	private SpdxListedLicense getLicense() {
+		SpdxListedLicense retval = license.get();
+		if (retval == null) {
+			throw new IllegalStateException("The license for the rendered forms is no longer in use");
+		}
+		return retval;
+	}
+	
+	/**
+	 * @return the exception the forms are rendered from
+	 * @throws IllegalStateException if the exception has been garbage collected
+	 */
+	private LicenseException getException() {
+		LicenseException retval = exception.get();
+		if (retval == null) {
+			throw new IllegalStateException("The exception for the rendered forms is no longer in use");
+		}
+		return retval;
+	}
+}
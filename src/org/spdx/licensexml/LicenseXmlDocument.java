@@ -19,7 +19,6 @@ package org.spdx.licensexml;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,7 +30,6 @@ import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
-import javax.xml.validation.Validator;
 
 import org.apache.log4j.Logger;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
@@ -42,6 +40,7 @@ import org.spdx.spdxspreadsheet.SPDXLicenseSpreadsheet.DeprecatedLicenseInfo;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
+import org.xml.sax.ErrorHandler;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
@@ -55,13 +54,58 @@ public class LicenseXmlDocument {
 	
 	public static final String LICENSE_XML_SCHEMA_LOCATION = "org/spdx/licensexml/ListedLicense.xsd";
 
+	/**
+	 * Xerces feature which replaces element and attribute values in the DOM with their schema normalized values
+	 */
+	static final String SCHEMA_NORMALIZED_VALUE_FEATURE = "http://apache.org/xml/features/validation/schema/normalized-value";
+	
+	/**
+	 * Compiled license XML schema shared by all documents - a Schema is immutable and thread safe
+	 */
+	private static Schema licenseXmlSchema = null;
+
 	private Document xmlDocument;
+	
+	/**
+	 * Error handler which fails the parse on any validation or parsing error
+	 */
+	private static class ValidationErrorHandler implements ErrorHandler {
+		private File licenseXmlFile;
+		
+		ValidationErrorHandler(File licenseXmlFile) {
+			this.licenseXmlFile = licenseXmlFile;
+		}
+
+		@Override
+		public void warning(SAXParseException exception) throws SAXException {
+			logger.warn("Warning parsing license XML file "+licenseXmlFile.getName()+": "+exception.getMessage());
+		}
+
+		@Override
+		public void error(SAXParseException exception) throws SAXException {
+			throw exception;
+		}
+
+		@Override
+		public void fatalError(SAXParseException exception) throws SAXException {
+			throw exception;
+		}
+	}
 
 	/**
+	 * Parses and validates the XML file in a single pass
 	 * @param file XML file for the License
 	 */
 	public LicenseXmlDocument(File file) throws LicenseXmlException {
 		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		factory.setSchema(getLicenseXmlSchema());
+		try {
+			// keep the text as it appears in the file
+			factory.setFeature(SCHEMA_NORMALIZED_VALUE_FEATURE, false);
+		} catch (ParserConfigurationException e) {
+			logger.warn("Unable to disable schema normalization for the license XML parser");
+		}
 		DocumentBuilder builder;
 		try {
 			builder = factory.newDocumentBuilder();
@@ -69,43 +113,43 @@ public class LicenseXmlDocument {
 			logger.error("Parser configuration error creating document builder",e);
 			throw(new LicenseXmlException("Error creating parser for license XML file"));
 		}
+		builder.setErrorHandler(new ValidationErrorHandler(file));
 		try {
 			this.xmlDocument = builder.parse(file);
+		} catch (SAXParseException e) {
+			logger.error("Invalid license XML file "+file.getName(),e);
+			throw new LicenseXmlException("Parsing error in XML file "+file.getName()+ " at line "+e.getLineNumber()+", column "+e.getColumnNumber()+":"+e.getMessage());
 		} catch (SAXException e) {
-			logger.error("Error parsing license XML document",e);
-			throw(new LicenseXmlException("Unable to parse license XML file: "+e.getMessage()));
+			logger.error("Invalid license XML file "+file.getName(),e);
+			throw new LicenseXmlException("Invalid XML file "+file.getName()+":"+e.getMessage());
 		} catch (IOException e) {
 			logger.error("I/O Error reading license XML file",e);
 			throw(new LicenseXmlException("I/O Error reading XML file: "+e.getMessage()));
 		}
-		assertValid(file);
 	}
 
 	/**
-	 * Checks the xmlDocument for a valid file and throws a LicenseXmlException if not valid
+	 * @return the compiled license XML schema - compiled on first use
+	 * @throws LicenseXmlException
 	 */
-	private void assertValid(File licenseXmlFile) throws LicenseXmlException {
+	static synchronized Schema getLicenseXmlSchema() throws LicenseXmlException {
+		if (licenseXmlSchema != null) {
+			return licenseXmlSchema;
+		}
 		InputStream schemaIs = null;
 		try {
-			schemaIs = LicenseXmlDocument.class.getClassLoader().getResourceAsStream(LICENSE_XML_SCHEMA_LOCATION);			
-			Source xmlSource = new StreamSource(licenseXmlFile);
+			schemaIs = LicenseXmlDocument.class.getClassLoader().getResourceAsStream(LICENSE_XML_SCHEMA_LOCATION);
+			if (schemaIs == null) {
+				logger.error("Unable to open License List XML schema file "+LICENSE_XML_SCHEMA_LOCATION);
+				throw new LicenseXmlException("Unable to open License List XML schema file");
+			}
 			Source schemaSource = new StreamSource(schemaIs);
 			SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-			Schema schema = schemaFactory.newSchema(schemaSource);
-			Validator validator = schema.newValidator();
-			validator.validate(xmlSource);
-		} catch (MalformedURLException e) {
-			logger.error("Unable to open License List XML schema file",e);
-			throw new LicenseXmlException("Unable to open License List XML schema file");
-		} catch (SAXParseException e) {
-			logger.error("Invalid license XML file "+licenseXmlFile.getName(),e);
-			throw new LicenseXmlException("Parsing error in XML file "+licenseXmlFile.getName()+ " at line "+e.getLineNumber()+", column "+e.getColumnNumber()+":"+e.getMessage());
+			licenseXmlSchema = schemaFactory.newSchema(schemaSource);
+			return licenseXmlSchema;
 		} catch (SAXException e) {
-			logger.error("Invalid license XML file "+licenseXmlFile.getName(),e);
-			throw new LicenseXmlException("Invalid XML file "+licenseXmlFile.getName()+":"+e.getMessage());
-		} catch (IOException e) {
-			logger.error("IO Error validating license XML file",e);
-			throw new LicenseXmlException("IO Error validating license XML file");
+			logger.error("Invalid License List XML schema file",e);
+			throw new LicenseXmlException("Invalid License List XML schema file: "+e.getMessage());
 		} finally {
 			if (schemaIs != null) {
 				try {
@@ -18,9 +18,16 @@ package org.spdx.licensexml;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.log4j.Logger;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
@@ -33,9 +40,11 @@ import org.spdx.spdxspreadsheet.SPDXLicenseSpreadsheet.DeprecatedLicenseInfo;
 import org.spdx.spdxspreadsheet.SpreadsheetException;
 
 import com.google.common.io.Files;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
- * Provide license information from XML files
+ * Provide license information from XML files.  The XML files are parsed and validated
+ * in parallel ahead of the iterators while the licenses are returned in file order.
  * @author Gary O'Neall
  *
  */
@@ -44,11 +53,77 @@ public class XmlLicenseProvider implements ISpdxListedLicenseProvider {
 	Logger logger = Logger.getLogger(XmlLicenseProvider.class.getName());
 	private List<String> warnings = new ArrayList<String>();
 	
+	/**
+	 * Number of threads used to parse the license XML files
+	 */
+	static final int NUM_PARSER_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+	
+	/**
+	 * Maximum number of files parsed ahead of the file being read by an iterator
+	 */
+	static final int MAX_FILES_AHEAD = NUM_PARSER_THREADS * 4;
+	
+	/**
+	 * Parser threads shared by all providers - daemon threads so that an iterator which is 
+	 * not read to the end does not keep the JVM running
+	 */
+	private static final ExecutorService parserPool = Executors.newFixedThreadPool(NUM_PARSER_THREADS, 
+			new ThreadFactoryBuilder().setDaemon(true).setNameFormat("license-xml-parser-%d").build());
+	
+	/**
+	 * Parses the XML files in order on the parser pool, keeping up to MAX_FILES_AHEAD
+	 * files parsed ahead of the iterator reading them
+	 */
+	class XmlDocumentLoader {
+		private int nextFileToSubmit = 0;
+		private Deque<Future<LicenseXmlDocument>> pending = new ArrayDeque<Future<LicenseXmlDocument>>();
+		
+		XmlDocumentLoader() {
+			fill();
+		}
+		
+		private void fill() {
+			while (pending.size() < MAX_FILES_AHEAD && nextFileToSubmit < xmlFiles.size()) {
+				final File xmlFile = xmlFiles.get(nextFileToSubmit++);
+				pending.add(parserPool.submit(new Callable<LicenseXmlDocument>() {
+					@Override
+					public LicenseXmlDocument call() throws LicenseXmlException {
+						return new LicenseXmlDocument(xmlFile);
+					}
+				}));
+			}
+		}
+		
+		/**
+		 * Wait for the next file to be parsed
+		 * @return the parsed document for the next file in xmlFiles
+		 * @throws LicenseXmlException if the file could not be parsed
+		 */
+		LicenseXmlDocument next() throws LicenseXmlException {
+			Future<LicenseXmlDocument> future = pending.remove();
+			fill();
+			try {
+				return future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new LicenseXmlException("Interrupted reading license XML file");
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof LicenseXmlException) {
+					throw (LicenseXmlException)e.getCause();
+				}
+				logger.error("Unexpected error parsing license XML file",e.getCause());
+				throw new LicenseXmlException("Unexpected error parsing license XML file: "+e.getCause().getMessage());
+			}
+		}
+	}
+	
 	class XmlLicenseIterator implements Iterator<SpdxListedLicense> {		
 		private int xmlFileIndex = 0;
 		private SpdxListedLicense nextListedLicense = null;
 		private Iterator<SpdxListedLicense> fileListedLicenseIter = null;
 		
+		private XmlDocumentLoader loader = new XmlDocumentLoader();
+		
 		public XmlLicenseIterator() {
 			findNextItem();
 		}
@@ -59,7 +134,7 @@ public class XmlLicenseProvider implements ISpdxListedLicenseProvider {
 				fileListedLicenseIter = null;
 				while (xmlFileIndex < xmlFiles.size() && fileListedLicenseIter == null) {
 					try {
-						LicenseXmlDocument licDoc = new LicenseXmlDocument(xmlFiles.get(xmlFileIndex));
+						LicenseXmlDocument licDoc = loader.next();
 						try {
 							List<SpdxListedLicense> licList = licDoc.getListedLicenses();
 							if (licList != null && !licList.isEmpty()) {
@@ -113,6 +188,8 @@ public class XmlLicenseProvider implements ISpdxListedLicenseProvider {
 		private LicenseException nextLicenseException = null;
 		private Iterator<LicenseException> fileExceptionIterator = null;
 		
+		private XmlDocumentLoader loader = new XmlDocumentLoader();
+		
 		public XmlExceptionIterator() {
 			findNextItem();
 		}
@@ -123,7 +200,7 @@ public class XmlLicenseProvider implements ISpdxListedLicenseProvider {
 				fileExceptionIterator = null;
 				while (xmlFileIndex < xmlFiles.size() && fileExceptionIterator == null) {
 					try {
-						LicenseXmlDocument licDoc = new LicenseXmlDocument(xmlFiles.get(xmlFileIndex));
+						LicenseXmlDocument licDoc = loader.next();
 						List<LicenseException> exceptionList = licDoc.getLicenseExceptions();
 						if (exceptionList != null && !exceptionList.isEmpty()) {
 							fileExceptionIterator = exceptionList.iterator();
@@ -172,6 +249,8 @@ public class XmlLicenseProvider implements ISpdxListedLicenseProvider {
 		private DeprecatedLicenseInfo nextDeprecatedLicense = null;
 		private Iterator<DeprecatedLicenseInfo> fileDeprecatedLicenses = null;
 		
+		private XmlDocumentLoader loader = new XmlDocumentLoader();
+		
 		public XmlDeprecatedLicenseIterator() {
 			findNextItem();
 		}
@@ -182,7 +261,7 @@ public class XmlLicenseProvider implements ISpdxListedLicenseProvider {
 				fileDeprecatedLicenses = null;
 				while (xmlFileIndex < xmlFiles.size() && fileDeprecatedLicenses == null) {
 					try {
-						LicenseXmlDocument licDoc = new LicenseXmlDocument(xmlFiles.get(xmlFileIndex));
+						LicenseXmlDocument licDoc = loader.next();
 						List<DeprecatedLicenseInfo> depList = licDoc.getDeprecatedLicenseInfos();
 						if (depList != null && !depList.isEmpty()) {
 							fileDeprecatedLicenses = depList.iterator();
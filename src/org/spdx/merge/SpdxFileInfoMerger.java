@@ -18,13 +18,18 @@ package org.spdx.merge;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
+import org.spdx.rdfparser.CloseableIterator;
+import org.spdx.rdfparser.ElementIterationException;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.model.DoapProject;
 import org.spdx.rdfparser.model.SpdxDocument;
 import org.spdx.rdfparser.model.SpdxFile;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 /**
  * Application to merge SPDX files information into one unique result. 
@@ -47,82 +52,109 @@ public class SpdxFileInfoMerger{
 	}
 
 	/**
-	 * 
+	 * Merge the files of the sub documents into the files of the master document.
+	 * A sub document file is added to the result unless a file with the same SHA1
+	 * checksum or the same name (ignoring case) is already in the result.  If there is
+	 * a matching file, the artifactOf projects of the sub document file are merged
+	 * into the matching file.  Files are looked up through indexes on the checksum
+	 * and the case folded name so the merge is linear in the total number of files.
+	 * Only the files included in the result are cloned.  The files of each document are
+	 * read from the document one at a time as they are merged.
 	 * @param subDocs
 	 * @return
 	 * @throws InvalidSPDXAnalysisException
 	 */
 	public SpdxFile[] mergeFileInfo(SpdxDocument[] subDocs)throws InvalidSPDXAnalysisException{
-			
-	        //an array to store an deep copy of file information from master document.
-			List <SpdxFile> masterFileInfo = master.getDocumentContainer().findAllFiles();
-			
-			//convert masterFileInfo array into an arrayList which will be returned to main class at end
-			List<SpdxFile> retval = Lists.newArrayList((cloneFiles(masterFileInfo)));
-			
-			for(int q = 0; q < subDocs.length; q++){
-				//an array to store an deep copy of file information from current child document
-				SpdxFile[] subFileInfo = cloneList(subDocs[q].getDocumentContainer().findAllFiles());
-				
-				for(int k = 0; k < subFileInfo.length; k++){
-					boolean foundNameMatch = false;
-					boolean foundSha1Match = false;
-					SpdxFile temp = null;
-					
-					//determine if any file name matched
-					for(int p = 0; p < retval.size() ; p++){
-						temp = retval.get(p);
-						if(subFileInfo[k].getName().equalsIgnoreCase(retval.get(p).getName())){
-							foundNameMatch = true;
-						}
-						//determine if any checksum matched
-						if(subFileInfo[k].getSha1().equals(retval.get(p).getSha1())){
-							foundSha1Match = true;
-							break;
-						}
-					}
-						//if both name and checksum are not matched, then check the license Ids from child files 
-						if(!foundNameMatch && !foundSha1Match){
-							//check whether licIdMap has this particular child document  
-							if(mapper.docInNonStdLicIdMap(subDocs[q])){
-								mapper.replaceNonStdLicInFile(subDocs[q], subFileInfo[k]);
-								retval.add(subFileInfo[k]);
-							}else{
-								retval.add(subFileInfo[k]);
-							}
-						}else{
-							//if both name and checksum are matched, then merge the DoapProject information
-							//still need to figure out how to solve the issue if license and other information is not exactly the same
-							boolean foundMasterDOAP = false;
-							boolean foundChildDOAP = false;
-						    if(checkDoapProject(temp)){
-						    	foundMasterDOAP = true;
-						    	break;
-						    }
-						    if(checkDoapProject(subFileInfo[k])){
-						    	foundChildDOAP = true;
-						    	break;
-						    }
-						    if(foundMasterDOAP && foundChildDOAP){
-						    	DoapProject[] masterArtifactOf = cloneDoapProject(temp.getArtifactOf());
-						    	DoapProject[] subArtifactOfA = cloneDoapProject(subFileInfo[k].getArtifactOf());
-						    	DoapProject[] mergedArtifactOf = mergeDOAPInfo(masterArtifactOf, subArtifactOfA);
-						    	temp.setArtifactOf(mergedArtifactOf);//assume the setArtifactOf() runs as over-write data
-						    	
-						    }
-						    //if master doesn't have DoapProject information but sub file has 
-						    if(!foundMasterDOAP && foundChildDOAP){
-						    	DoapProject[] childArtifactOfB = cloneDoapProject(subFileInfo[k].getArtifactOf());
-						    	temp.setArtifactOf(childArtifactOfB);//assume add artifact and Homepage at same time
-						    }
-						}
-					}			
+		List<SpdxFile> retval = Lists.newArrayList();
+		Map<String, SpdxFile> sha1Index = Maps.newHashMap();
+		Map<String, SpdxFile> nameIndex = Maps.newHashMap();
+		try (CloseableIterator<SpdxFile> masterFiles = master.getDocumentContainer().getFileIterator(false)) {
+			while (masterFiles.hasNext()) {
+				addMergedFile(masterFiles.next().clone(), retval, sha1Index, nameIndex);
+			}
+		} catch (ElementIterationException ex) {
+			throw(ex.getCause());
+		}
+		for(int q = 0; q < subDocs.length; q++){
+			boolean mapLicenses = mapper.docInNonStdLicIdMap(subDocs[q]);
+			try (CloseableIterator<SpdxFile> subFiles = subDocs[q].getDocumentContainer().getFileIterator(false)) {
+				while (subFiles.hasNext()) {
+					mergeSubFile(subDocs[q], subFiles.next(), mapLicenses, retval, sha1Index, nameIndex);
+				}
+			} catch (ElementIterationException ex) {
+				throw(ex.getCause());
 			}
+		}
 		SpdxFile[] fileMergeResult = new SpdxFile[retval.size()];
 		retval.toArray(fileMergeResult);
 		retval.clear();
 		return fileMergeResult;
 	}
+	
+	/**
+	 * Merge a sub document file into the result.  The file is added to the result unless
+	 * it matches a file already in the result, in which case its artifactOf projects are
+	 * merged into the matching file.
+	 * @param subDoc
+	 * @param subFile
+	 * @param mapLicenses true if the non standard licenses of the sub document are mapped
+	 * @param retval
+	 * @param sha1Index
+	 * @param nameIndex
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private void mergeSubFile(SpdxDocument subDoc, SpdxFile subFile, boolean mapLicenses, List<SpdxFile> retval,
+			Map<String, SpdxFile> sha1Index, Map<String, SpdxFile> nameIndex) throws InvalidSPDXAnalysisException {
+		SpdxFile matchingFile = subFile.getSha1() == null ? null : sha1Index.get(subFile.getSha1());
+		if (matchingFile == null) {
+			matchingFile = nameIndex.get(foldCase(subFile.getName()));
+		}
+		if (matchingFile == null) {
+			SpdxFile mergedFile = subFile.clone();
+			if (mapLicenses) {
+				mapper.replaceNonStdLicInFile(subDoc, mergedFile);
+			}
+			addMergedFile(mergedFile, retval, sha1Index, nameIndex);
+		} else if (checkDoapProject(subFile)) {
+			DoapProject[] subArtifactOf = cloneDoapProject(subFile.getArtifactOf());
+			if (checkDoapProject(matchingFile)) {
+				matchingFile.setArtifactOf(mergeDOAPInfo(matchingFile.getArtifactOf(), subArtifactOf));
+			} else {
+				matchingFile.setArtifactOf(subArtifactOf);
+			}
+		}
+	}
+	
+	/**
+	 * Add a file to the merge result and its indexes.  The first file added for
+	 * a checksum or name is the one found by later lookups.
+	 * @param file
+	 * @param retval
+	 * @param sha1Index
+	 * @param nameIndex
+	 */
+	private void addMergedFile(SpdxFile file, List<SpdxFile> retval,
+			Map<String, SpdxFile> sha1Index, Map<String, SpdxFile> nameIndex) {
+		retval.add(file);
+		if (file.getSha1() != null && !sha1Index.containsKey(file.getSha1())) {
+			sha1Index.put(file.getSha1(), file);
+		}
+		String nameKey = foldCase(file.getName());
+		if (!nameIndex.containsKey(nameKey)) {
+			nameIndex.put(nameKey, file);
+		}
+	}
+	
+	/**
+	 * @param name
+	 * @return a key which is equal for names which are equal ignoring case
+	 */
+	static String foldCase(String name) {
+		if (name == null) {
+			return "";
+		}
+		return name.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+	}
 		
 	/**
 	 * 
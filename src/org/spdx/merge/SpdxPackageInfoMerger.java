@@ -19,6 +19,7 @@ package org.spdx.merge;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.JavaSha1ChecksumGenerator;
@@ -33,6 +34,7 @@ import org.spdx.rdfparser.model.SpdxPackage;
 import org.spdx.spdxspreadsheet.InvalidLicenseStringException;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 /**
  * Application to merge package information from input SPDX documents and file information merging result.
@@ -69,34 +71,31 @@ public class SpdxPackageInfoMerger {
 				throws InvalidSPDXAnalysisException, NoSuchAlgorithmException, InvalidLicenseStringException{
 			
 			List<SpdxPackage> retval = Lists.newArrayList(clonePackages(packagesResult));
+			// indexes of the packages in retval by SHA1 and by case folded name
+			Map<String, Integer> sha1Index = Maps.newHashMap();
+			Map<String, Integer> nameIndex = Maps.newHashMap();
+			for (int q = 0; q < retval.size(); q++) {
+				indexPackage(retval.get(q), q, sha1Index, nameIndex);
+			}
 			
 			for(int i = 0; i < subDocs.length; i++){				
 				List<SpdxPackage> subPackagesInfo = subDocs[i].getDocumentContainer().findAllPackages();
 				SpdxPackage tempPackage = null;
 				for(int p = 0; p < subPackagesInfo.size(); p++){
-					boolean foundNameMatch = false;
-					boolean foundSha1Match = false;
-					SpdxPackage masterPackage = null;
-					Integer index = null;
 	                tempPackage = subPackagesInfo.get(p);
-	                
-	                for(int q = 0; q < retval.size(); q++){
-	                	if(retval.get(q).getName().equalsIgnoreCase(tempPackage.getName())) {
-                            foundNameMatch = true;
-                        }
-	                	if(retval.get(q).getSha1().equals(tempPackage.getSha1())){
-	                		foundSha1Match = true;
-	                		masterPackage = retval.get(q);
-	                		index = q;
-	                		break;
-	                	}
+	                Integer index = tempPackage.getSha1() == null ? null : sha1Index.get(tempPackage.getSha1());
+	                if (index == null) {
+	                	index = nameIndex.get(SpdxFileInfoMerger.foldCase(tempPackage.getName()));
 	                }
-	                if(!foundNameMatch && !foundSha1Match){
-	                	AnyLicenseInfo[] licFromFile = checkLicenseFromFile(subDocs[i],tempPackage);
-	                	tempPackage.setLicenseInfosFromFiles(licFromFile);
-	                	retval.add(tempPackage);
+	                if(index == null){
+	                	SpdxPackage mergedPackage = tempPackage.clone();
+	                	AnyLicenseInfo[] licFromFile = checkLicenseFromFile(subDocs[i],mergedPackage);
+	                	mergedPackage.setLicenseInfosFromFiles(licFromFile);
+	                	indexPackage(mergedPackage, retval.size(), sha1Index, nameIndex);
+	                	retval.add(mergedPackage);
 	                }
 	                else{
+	                	SpdxPackage masterPackage = retval.get(index);
 	                	//process to merge license info from file
 	                	 AnyLicenseInfo[] masterLicFromFile = masterPackage.getLicenseInfoFromFiles();
 	                	 AnyLicenseInfo[] licFromFile = checkLicenseFromFile(subDocs[i],tempPackage);
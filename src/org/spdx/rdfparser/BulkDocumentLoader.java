@@ -0,0 +1,370 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.log4j.Logger;
+import org.spdx.rdfparser.license.ExtractedLicenseInfo;
+import org.spdx.rdfparser.model.Checksum.ChecksumAlgorithm;
+import org.spdx.rdfparser.model.Relationship;
+import org.spdx.rdfparser.model.SpdxElement;
+import org.spdx.rdfparser.model.SpdxFile;
+import org.spdx.rdfparser.model.SpdxPackage;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Adds large numbers of elements to an SPDX document container.
+ *
+ * While the load is in progress, resources are created without searching the model for
+ * duplicate licenses, checksums and files and without removing property values
+ * from the newly created resources.  When the load is finished, duplicates are
+ * merged in a single pass over the model using the same matching rules as the
+ * <code>findDuplicateResource</code> methods: files by name and SHA1 checksum, checksums
+ * by algorithm and value and licenses by license ID and type.  Resources which were in
+ * the model before the load started are kept in preference to the newly created resources.
+ *
+ * Obtain a loader from <code>SpdxDocumentContainer.startBulkLoad()</code>.  The loader is not
+ * thread safe.  Call <code>finish()</code> once all elements have been added, or <code>abort()</code>
+ * if the load fails.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class BulkDocumentLoader {
+
+	static final Logger logger = Logger.getLogger(BulkDocumentLoader.class);
+
+	private final SpdxDocumentContainer container;
+	private final Graph graph;
+	private final Node licenseIdProperty;
+	private final Node checksumValueProperty;
+	private final Node checksumAlgorithmProperty;
+	private final Node fileNameProperty;
+	private final Node fileChecksumProperty;
+	private final Node typeProperty;
+	private final Node sha1AlgorithmNode;
+	/**
+	 * Subjects of the license ID, checksum value and file name properties before the load started
+	 */
+	private final Set<Node> existingSubjects = Sets.newHashSet();
+	private boolean finished = false;
+
+	/**
+	 * @param container container to load - the container must be in bulk load mode
+	 */
+	BulkDocumentLoader(SpdxDocumentContainer container) {
+		this.container = container;
+		this.graph = container.getModel().getGraph();
+		this.licenseIdProperty = container.getModel().createProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_LICENSE_ID).asNode();
+		this.checksumValueProperty = container.getModel().createProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_CHECKSUM_VALUE).asNode();
+		this.checksumAlgorithmProperty = container.getModel().createProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_CHECKSUM_ALGORITHM).asNode();
+		this.fileNameProperty = container.getModel().createProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_FILE_NAME).asNode();
+		this.fileChecksumProperty = container.getModel().createProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_FILE_CHECKSUM).asNode();
+		this.typeProperty = container.getModel().createProperty(SpdxRdfConstants.RDF_NAMESPACE,
+				SpdxRdfConstants.RDF_PROP_TYPE).asNode();
+		this.sha1AlgorithmNode = container.getModel().createResource(SpdxRdfConstants.SPDX_NAMESPACE +
+				ChecksumAlgorithm.checksumAlgorithm_sha1.toString()).asNode();
+		existingSubjects.addAll(subjects(licenseIdProperty));
+		existingSubjects.addAll(subjects(checksumValueProperty));
+		existingSubjects.addAll(subjects(fileNameProperty));
+	}
+
+	private void checkNotFinished() throws InvalidSPDXAnalysisException {
+		if (finished) {
+			throw(new InvalidSPDXAnalysisException("The bulk load has already been finished"));
+		}
+	}
+
+	/**
+	 * Add extracted licenses to the document
+	 * @param licenses
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public void addExtractedLicenses(ExtractedLicenseInfo[] licenses) throws InvalidSPDXAnalysisException {
+		checkNotFinished();
+		for (ExtractedLicenseInfo license:licenses) {
+			container.addExtractedLicenseInfos(license);
+		}
+	}
+
+	/**
+	 * Add packages to the document without connecting them to any properties
+	 * @param packages
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public void addPackages(SpdxPackage[] packages) throws InvalidSPDXAnalysisException {
+		checkNotFinished();
+		for (SpdxPackage pkg:packages) {
+			container.addElement(pkg);
+		}
+	}
+
+	/**
+	 * Add files to the document.  The files are added to the package in the model only - the
+	 * package reads its files back from the model when they are requested.
+	 * @param pkg package containing the files - if null, the files are added without connecting them to a package
+	 * @param files
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public void addFiles(SpdxPackage pkg, SpdxFile[] files) throws InvalidSPDXAnalysisException {
+		checkNotFinished();
+		if (pkg != null) {
+			pkg.addFilesToModel(files);
+		} else {
+			for (SpdxFile file:files) {
+				container.addElement(file);
+			}
+		}
+	}
+
+	/**
+	 * Add relationships to an element in the document
+	 * @param element
+	 * @param relationships
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public void addRelationships(SpdxElement element, Relationship[] relationships) throws InvalidSPDXAnalysisException {
+		checkNotFinished();
+		element.addRelationships(relationships);
+	}
+
+	/**
+	 * Merge the duplicate resources created during the load and end the bulk load
+	 * @return number of duplicate resources merged
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public int finish() throws InvalidSPDXAnalysisException {
+		checkNotFinished();
+		finished = true;
+		try {
+			// Files are merged first since merging files removes their duplicate checksums
+			int retval = mergeDuplicates(fileNameProperty, this::fileKey);
+			retval += mergeDuplicates(checksumValueProperty, this::checksumKey);
+			retval += mergeDuplicates(licenseIdProperty, this::licenseKey);
+			if (retval > 0) {
+				logger.debug("Merged "+String.valueOf(retval)+" duplicate resources from the bulk load");
+			}
+			return retval;
+		} finally {
+			container.endBulkLoad();
+		}
+	}
+
+	/**
+	 * End the bulk load without merging the duplicate resources.  Used when the load fails and the
+	 * document will be discarded - the model may contain duplicate resources.  Does nothing if the
+	 * load has already been finished or aborted.
+	 */
+	public void abort() {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		container.endBulkLoad();
+	}
+
+	/**
+	 * Merge resources which have the same key into a single resource
+	 * @param property property used to find the resources to merge
+	 * @param keyFunction returns the key for a subject or null if the subject should not be merged
+	 * @return number of resources merged
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private int mergeDuplicates(Node property, Function<Node, String> keyFunction) throws InvalidSPDXAnalysisException {
+		List<Node> newSubjects = Lists.newArrayList();
+		Map<String, Node> subjectsByKey = Maps.newHashMap();
+		for (Node subject:subjects(property)) {
+			if (!existingSubjects.contains(subject)) {
+				newSubjects.add(subject);
+			} else {
+				String key = keyFunction.apply(subject);
+				if (key != null && !subjectsByKey.containsKey(key)) {
+					subjectsByKey.put(key, subject);
+				}
+			}
+		}
+		int retval = 0;
+		for (Node subject:newSubjects) {
+			String key = keyFunction.apply(subject);
+			if (key == null) {
+				continue;
+			}
+			Node merged = subjectsByKey.get(key);
+			if (merged == null) {
+				subjectsByKey.put(key, subject);
+			} else {
+				merge(subject, merged);
+				retval++;
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Replace all references to the duplicate with the merged node and remove the duplicate from the model
+	 * @param duplicate
+	 * @param merged
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private void merge(Node duplicate, Node merged) throws InvalidSPDXAnalysisException {
+		for (Triple reference:graph.find(Node.ANY, Node.ANY, duplicate).toList()) {
+			graph.delete(reference);
+			if (!reference.getSubject().equals(duplicate)) {
+				graph.add(Triple.create(reference.getSubject(), reference.getPredicate(), merged));
+			}
+		}
+		removeSubject(duplicate);
+		container.mergeNodeObjects(duplicate, RdfParserHelper.convertToResource(container.getModel(), merged));
+	}
+
+	/**
+	 * Remove all properties of a node along with any anonymous nodes which are no longer referenced
+	 * @param node
+	 */
+	private void removeSubject(Node node) {
+		List<Triple> properties = graph.find(node, Node.ANY, Node.ANY).toList();
+		for (Triple property:properties) {
+			graph.delete(property);
+		}
+		for (Triple property:properties) {
+			Node object = property.getObject();
+			if (object.isBlank() && !isReferenced(object)) {
+				removeSubject(object);
+			}
+		}
+	}
+
+	private boolean isReferenced(Node node) {
+		ExtendedIterator<Triple> referenceIter = graph.find(Node.ANY, Node.ANY, node);
+		try {
+			return referenceIter.hasNext();
+		} finally {
+			referenceIter.close();
+		}
+	}
+
+	/**
+	 * @return distinct subjects of a property
+	 */
+	private Set<Node> subjects(Node property) {
+		Set<Node> retval = Sets.newLinkedHashSet();
+		ExtendedIterator<Triple> tripleIter = graph.find(Node.ANY, property, Node.ANY);
+		try {
+			while (tripleIter.hasNext()) {
+				retval.add(tripleIter.next().getSubject());
+			}
+		} finally {
+			tripleIter.close();
+		}
+		return retval;
+	}
+
+	/**
+	 * @return the lexical form of the first literal value of a property or null if there is none
+	 */
+	private String literalValue(Node subject, Node property) {
+		ExtendedIterator<Triple> valueIter = graph.find(subject, property, Node.ANY);
+		try {
+			while (valueIter.hasNext()) {
+				Node value = valueIter.next().getObject();
+				if (value.isLiteral()) {
+					return value.getLiteralLexicalForm();
+				}
+			}
+			return null;
+		} finally {
+			valueIter.close();
+		}
+	}
+
+	/**
+	 * @return the first object of a property or null if there is none
+	 */
+	private Node objectValue(Node subject, Node property) {
+		ExtendedIterator<Triple> valueIter = graph.find(subject, property, Node.ANY);
+		try {
+			return valueIter.hasNext() ? valueIter.next().getObject() : null;
+		} finally {
+			valueIter.close();
+		}
+	}
+
+	/**
+	 * @return file name and lower case SHA1 checksum value
+	 */
+	private String fileKey(Node file) {
+		String fileName = literalValue(file, fileNameProperty);
+		if (fileName == null) {
+			return null;
+		}
+		ExtendedIterator<Triple> checksumIter = graph.find(file, fileChecksumProperty, Node.ANY);
+		try {
+			while (checksumIter.hasNext()) {
+				Node checksum = checksumIter.next().getObject();
+				if (graph.contains(checksum, checksumAlgorithmProperty, sha1AlgorithmNode)) {
+					String sha1 = literalValue(checksum, checksumValueProperty);
+					if (sha1 != null) {
+						return fileName + "\n" + sha1.toLowerCase();
+					}
+				}
+			}
+			return null;
+		} finally {
+			checksumIter.close();
+		}
+	}
+
+	/**
+	 * @return checksum algorithm and value
+	 */
+	private String checksumKey(Node checksum) {
+		Node algorithm = objectValue(checksum, checksumAlgorithmProperty);
+		String value = literalValue(checksum, checksumValueProperty);
+		if (algorithm == null || value == null) {
+			return null;
+		}
+		return algorithm.toString() + "\n" + value;
+	}
+
+	/**
+	 * @return license ID and type
+	 */
+	private String licenseKey(Node license) {
+		Node licenseId = objectValue(license, licenseIdProperty);
+		Node type = objectValue(license, typeProperty);
+		if (licenseId == null || type == null) {
+			return null;
+		}
+		return licenseId.toString(false) + "\n" + type.toString();
+	}
+}
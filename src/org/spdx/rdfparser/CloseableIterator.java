@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.rdfparser;
+
+import java.util.Iterator;
+
+/**
+ * Iterator which holds resources from the model until it is exhausted or closed.
+ * Iterators which are not read to the end should be closed, for example
+ * with a try-with-resources statement.
+ * 
+ * @author Gary O'Neall
+ *
+ */
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable {
+
+	/**
+	 * Release the resources held by the iterator.  Closing an iterator more than once has no effect.
+	 */
+	@Override
+	void close();
+}
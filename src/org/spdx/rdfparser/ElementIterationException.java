@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.rdfparser;
+
+/**
+ * Thrown by the element iterators of the document container when an element can not be
+ * created from the model.  The cause is the <code>InvalidSPDXAnalysisException</code> creating the element.
+ * 
+ * @author Gary O'Neall
+ *
+ */
+public class ElementIterationException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * @param message
+	 * @param cause
+	 */
+	public ElementIterationException(String message, InvalidSPDXAnalysisException cause) {
+		super(message, cause);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Throwable#getCause()
+	 */
+	@Override
+	public synchronized InvalidSPDXAnalysisException getCause() {
+		return (InvalidSPDXAnalysisException)super.getCause();
+	}
+}
@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser;
+
+import java.util.List;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.util.ResourceUtils;
+import org.spdx.rdfparser.license.AnyLicenseInfo;
+import org.spdx.rdfparser.license.LicenseInfoFactory;
+import org.spdx.rdfparser.license.SpdxListedLicense;
+import org.spdx.rdfparser.model.SpdxDocument;
+import org.spdx.rdfparser.model.SpdxItem;
+import org.spdx.spdxspreadsheet.InvalidLicenseStringException;
+
+/**
+ * Upgrades a model containing an SPDX 1.x document to the current SPDX version in place.
+ *
+ * The upgrade works directly on the RDF graph, so the legacy <code>SPDXDocument</code> object
+ * graph is never created and only one copy of the document is held in memory.  The upgrade:
+ * <ul>
+ * <li>renames the document resource to the SPDXRef-DOCUMENT ID in the document namespace</li>
+ * <li>assigns an SPDX element ID to any package or file which is a blank node</li>
+ * <li>sets the spec version and the CC0 data license required by the current version</li>
+ * <li>names the document after the described packages if it has no name, since a name is
+ * required from SPDX 2.0</li>
+ * <li>adds DESCRIBES relationships for the described packages (see <code>SpdxDocumentContainer</code>)</li>
+ * </ul>
+ * Everything else in the 1.x model (reviewers, file dependencies, artifact of projects) is
+ * still supported by the 2.x model and is left as it is.  Only SPDX 1.x documents are
+ * upgraded - use <code>getSpecVersion()</code> to check the version before upgrading.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class LegacyDocumentUpgrader implements SpdxRdfConstants {
+
+	/**
+	 * Properties whose values are SPDX files in a 1.x document
+	 */
+	private static final String[] FILE_PROPERTIES = new String[] {PROP_SPDX_FILE_REFERENCE,
+		PROP_PACKAGE_FILE, PROP_FILE_FILE_DEPENDENCY};
+
+	private final Model model;
+	private final Graph graph;
+	private String documentNamespace;
+	private int nextElementRef = 1;
+	private int numElementIdsAssigned = 0;
+
+	/**
+	 * @param model model containing a single SPDX document
+	 */
+	public LegacyDocumentUpgrader(Model model) {
+		this.model = model;
+		this.graph = model.getGraph();
+	}
+
+	/**
+	 * @param specVersion SPDX version of a document
+	 * @return true if the version is an SPDX 1.x version which can be upgraded
+	 */
+	public static boolean isLegacyVersion(String specVersion) {
+		return SpdxDocumentContainer.ONE_DOT_ZERO_SPDX_VERSION.equals(specVersion) ||
+				SpdxDocumentContainer.ONE_DOT_ONE_SPDX_VERSION.equals(specVersion) ||
+				SpdxDocumentContainer.ONE_DOT_TWO_SPDX_VERSION.equals(specVersion);
+	}
+
+	/**
+	 * @return the SPDX version of the document in the model or null if the document has no version
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public String getSpecVersion() throws InvalidSPDXAnalysisException {
+		Node specVersionProperty = model.createProperty(SPDX_NAMESPACE, PROP_SPDX_VERSION).asNode();
+		List<Triple> versionTriples = graph.find(getDocumentNode(), specVersionProperty, Node.ANY).toList();
+		if (versionTriples.isEmpty() || !versionTriples.get(0).getObject().isLiteral()) {
+			return null;
+		}
+		return versionTriples.get(0).getObject().getLiteralLexicalForm().trim();
+	}
+
+	/**
+	 * Upgrade the document in the model
+	 * @param defaultNamespace namespace to use if the document is a blank node
+	 * @return the container for the upgraded document
+	 * @throws InvalidSPDXAnalysisException if the document is not an SPDX 1.x document
+	 */
+	public SpdxDocumentContainer upgrade(String defaultNamespace) throws InvalidSPDXAnalysisException {
+		String currentVersion = getSpecVersion();
+		if (!isLegacyVersion(currentVersion)) {
+			throw(new InvalidSPDXAnalysisException("Only SPDX 1.x documents can be upgraded - the document version is "+
+					(currentVersion == null ? "missing" : currentVersion)));
+		}
+		Node docNode = getDocumentNode();
+		if (docNode.isURI()) {
+			String docUri = docNode.getURI();
+			int fragmentIndex = docUri.indexOf('#');
+			documentNamespace = (fragmentIndex > 0 ? docUri.substring(0, fragmentIndex) : docUri) + "#";
+		} else {
+			if (defaultNamespace == null) {
+				throw(new InvalidSPDXAnalysisException("SPDX Documents must have a unique URI"));
+			}
+			documentNamespace = defaultNamespace.endsWith("#") ? defaultNamespace : defaultNamespace + "#";
+		}
+		String newDocUri = documentNamespace + SPDX_DOCUMENT_ID;
+		if (!docNode.isURI() || !docNode.getURI().equals(newDocUri)) {
+			docNode = ResourceUtils.renameResource(model.wrapAsResource(docNode), newDocUri).asNode();
+		}
+		addMissingTypes(FILE_PROPERTIES, CLASS_SPDX_FILE);
+		addMissingTypes(new String[] {PROP_SPDX_PACKAGE}, CLASS_SPDX_PACKAGE);
+		assignElementIds(CLASS_SPDX_PACKAGE);
+		assignElementIds(CLASS_SPDX_FILE);
+		Resource docResource = model.wrapAsResource(docNode);
+		Property specVersion = model.createProperty(SPDX_NAMESPACE, PROP_SPDX_VERSION);
+		docResource.removeAll(specVersion);
+		docResource.addProperty(specVersion, SpdxDocumentContainer.CURRENT_SPDX_VERSION);
+		SpdxDocumentContainer retval = new SpdxDocumentContainer(model);
+		SpdxDocument doc = retval.getSpdxDocument();
+		AnyLicenseInfo dataLicense = doc.getDataLicense();
+		if (!(dataLicense instanceof SpdxListedLicense) ||
+				!SPDX_DATA_LICENSE_ID.equals(((SpdxListedLicense)dataLicense).getLicenseId())) {
+			try {
+				doc.setDataLicense(LicenseInfoFactory.parseSPDXLicenseString(SPDX_DATA_LICENSE_ID, retval));
+			} catch (InvalidLicenseStringException e) {
+				throw new InvalidSPDXAnalysisException("Unable to create data license", e);
+			}
+		}
+		if (doc.getName() == null || doc.getName().isEmpty()) {
+			doc.setName(documentName(doc));
+		}
+		return retval;
+	}
+
+	/**
+	 * @param doc upgraded document
+	 * @return a name for the document formed from the names of the described items or the document namespace if none are named
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private String documentName(SpdxDocument doc) throws InvalidSPDXAnalysisException {
+		StringBuilder sb = new StringBuilder();
+		for (SpdxItem item:doc.getDocumentDescribes()) {
+			if (item.getName() != null && !item.getName().isEmpty()) {
+				if (sb.length() > 0) {
+					sb.append(", ");
+				}
+				sb.append(item.getName());
+			}
+		}
+		if (sb.length() == 0) {
+			sb.append(documentNamespace.substring(0, documentNamespace.length() - 1));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @return the number of SPDX element IDs assigned to blank nodes by the upgrade
+	 */
+	public int getNumElementIdsAssigned() {
+		return numElementIdsAssigned;
+	}
+
+	/**
+	 * @return the node for the single SPDX document in the model
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private Node getDocumentNode() throws InvalidSPDXAnalysisException {
+		List<Triple> docTriples = graph.find(Node.ANY, typeNode(),
+				model.createResource(SPDX_NAMESPACE + CLASS_SPDX_DOCUMENT).asNode()).toList();
+		if (docTriples.isEmpty()) {
+			throw(new InvalidSPDXAnalysisException("Invalid model - must contain an SPDX Document"));
+		}
+		if (docTriples.size() > 1) {
+			throw(new InvalidSPDXAnalysisException("Invalid model - contains more than one SPDX Document"));
+		}
+		return docTriples.get(0).getSubject();
+	}
+
+	private Node typeNode() {
+		return model.createProperty(RDF_NAMESPACE, RDF_PROP_TYPE).asNode();
+	}
+
+	/**
+	 * Add the class type to any values of the properties which do not have a type
+	 * @param propertyNames
+	 * @param className
+	 */
+	private void addMissingTypes(String[] propertyNames, String className) {
+		Node typeNode = typeNode();
+		Node classNode = model.createResource(SPDX_NAMESPACE + className).asNode();
+		for (String propertyName:propertyNames) {
+			Node property = model.createProperty(SPDX_NAMESPACE, propertyName).asNode();
+			for (Triple t:graph.find(Node.ANY, property, Node.ANY).toList()) {
+				Node value = t.getObject();
+				if (!value.isLiteral() && !graph.contains(value, typeNode, Node.ANY)) {
+					graph.add(Triple.create(value, typeNode, classNode));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Assign an SPDX element ID to all blank nodes of the class
+	 * @param className
+	 */
+	private void assignElementIds(String className) {
+		Node classNode = model.createResource(SPDX_NAMESPACE + className).asNode();
+		for (Triple t:graph.find(Node.ANY, typeNode(), classNode).toList()) {
+			if (t.getSubject().isBlank()) {
+				ResourceUtils.renameResource(model.wrapAsResource(t.getSubject()), nextElementUri());
+				numElementIdsAssigned++;
+			}
+		}
+	}
+
+	/**
+	 * @return the next SPDX element URI which is not already used in the model
+	 */
+	private String nextElementUri() {
+		while (true) {
+			String uri = documentNamespace + SPDX_ELEMENT_REF_PRENUM + String.valueOf(nextElementRef++);
+			Node uriNode = NodeFactory.createURI(uri);
+			if (!graph.contains(uriNode, Node.ANY, Node.ANY) && !graph.contains(Node.ANY, Node.ANY, uriNode)) {
+				return uri;
+			}
+		}
+	}
+}
@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser;
+
+import java.util.List;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.spdx.rdfparser.model.Checksum.ChecksumAlgorithm;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * Indexes the subjects of the license ID, checksum value and file name properties in a model
+ * so that duplicate resources can be found without scanning the graph.
+ *
+ * The index is built from the model when it is created and then kept up to date by listening
+ * for statements added to or removed from the model.  Lookups use the index to find the candidate
+ * subjects and then check the indexed property and the remaining properties (type, checksum algorithm
+ * or file checksum) in the graph, so the results are the same as searching the whole graph.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class ModelResourceIndex extends StatementListener {
+
+	private final Model model;
+	private final Node licenseIdProperty;
+	private final Node checksumValueProperty;
+	private final Node checksumAlgorithmProperty;
+	private final Node fileNameProperty;
+	private final Node fileChecksumProperty;
+	private final Node typeProperty;
+
+	/**
+	 * Subjects by the string value of the license ID
+	 */
+	private final ListMultimap<String, Node> licenseIdSubjects = ArrayListMultimap.create();
+	/**
+	 * Subjects by checksum value node
+	 */
+	private final ListMultimap<Node, Node> checksumValueSubjects = ArrayListMultimap.create();
+	/**
+	 * Subjects by file name node
+	 */
+	private final ListMultimap<Node, Node> fileNameSubjects = ArrayListMultimap.create();
+
+	/**
+	 * Create an index for the model and register it to track changes to the model
+	 * @param model
+	 */
+	public ModelResourceIndex(Model model) {
+		this.model = model;
+		this.licenseIdProperty = model.createProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_LICENSE_ID).asNode();
+		this.checksumValueProperty = model.createProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_CHECKSUM_VALUE).asNode();
+		this.checksumAlgorithmProperty = model.createProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_CHECKSUM_ALGORITHM).asNode();
+		this.fileNameProperty = model.createProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_FILE_NAME).asNode();
+		this.fileChecksumProperty = model.createProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_FILE_CHECKSUM).asNode();
+		this.typeProperty = model.createProperty(SpdxRdfConstants.RDF_NAMESPACE,
+				SpdxRdfConstants.RDF_PROP_TYPE).asNode();
+		synchronized(this) {
+			indexProperty(licenseIdProperty);
+			indexProperty(checksumValueProperty);
+			indexProperty(fileNameProperty);
+		}
+		model.register(this);
+	}
+
+	private void indexProperty(Node property) {
+		ExtendedIterator<Triple> tripleIter = model.getGraph().find(Triple.createMatch(null, property, null));
+		try {
+			while (tripleIter.hasNext()) {
+				Triple t = tripleIter.next();
+				update(t.getSubject(), t.getPredicate(), t.getObject(), true);
+			}
+		} finally {
+			tripleIter.close();
+		}
+	}
+
+	/**
+	 * Add or remove a triple from the index
+	 */
+	private void update(Node subject, Node predicate, Node object, boolean add) {
+		if (predicate.equals(licenseIdProperty)) {
+			String licenseId = object.toString(false);
+			if (add) {
+				licenseIdSubjects.put(licenseId, subject);
+			} else {
+				licenseIdSubjects.remove(licenseId, subject);
+			}
+		} else if (predicate.equals(checksumValueProperty)) {
+			if (add) {
+				checksumValueSubjects.put(object, subject);
+			} else {
+				checksumValueSubjects.remove(object, subject);
+			}
+		} else if (predicate.equals(fileNameProperty)) {
+			if (add) {
+				fileNameSubjects.put(object, subject);
+			} else {
+				fileNameSubjects.remove(object, subject);
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.apache.jena.rdf.listeners.StatementListener#addedStatement(org.apache.jena.rdf.model.Statement)
+	 */
+	@Override
+	public synchronized void addedStatement(Statement s) {
+		update(s.getSubject().asNode(), s.getPredicate().asNode(), s.getObject().asNode(), true);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.apache.jena.rdf.listeners.StatementListener#removedStatement(org.apache.jena.rdf.model.Statement)
+	 */
+	@Override
+	public synchronized void removedStatement(Statement s) {
+		update(s.getSubject().asNode(), s.getPredicate().asNode(), s.getObject().asNode(), false);
+	}
+
+	/**
+	 * Find a license resource by license ID and RDF type
+	 * @param licenseId
+	 * @param type RDF type of the license
+	 * @return the resource of the first license with the ID and type or null if none was found
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public Resource findLicense(String licenseId, Resource type) throws InvalidSPDXAnalysisException {
+		if (licenseId == null) {
+			return null;
+		}
+		for (Node subject:candidates(licenseIdSubjects, licenseId)) {
+			if ((subject.isURI() || subject.isBlank()) && hasLicenseId(subject, licenseId) &&
+					model.getGraph().contains(subject, typeProperty, type.asNode())) {
+				return RdfParserHelper.convertToResource(model, subject);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Find a checksum resource by algorithm and value
+	 * @param algorithm
+	 * @param value
+	 * @return the resource of the first checksum with the same algorithm and value or null if none was found
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public Resource findChecksum(ChecksumAlgorithm algorithm, String value) throws InvalidSPDXAnalysisException {
+		if (algorithm == null || value == null) {
+			return null;
+		}
+		Node algorithmNode = NodeFactory.createURI(SpdxRdfConstants.SPDX_NAMESPACE + algorithm.toString());
+		Node valueNode = NodeFactory.createLiteral(value);
+		for (Node subject:candidates(checksumValueSubjects, valueNode)) {
+			if (model.getGraph().contains(subject, checksumValueProperty, valueNode) &&
+					model.getGraph().contains(subject, checksumAlgorithmProperty, algorithmNode)) {
+				return RdfParserHelper.convertToResource(model, subject);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Find a file resource by file name and SHA1 checksum
+	 * @param fileName
+	 * @param sha1 SHA1 checksum value - compared ignoring case
+	 * @return the resource of the first file with the name and SHA1 checksum or null if none was found
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public Resource findFile(String fileName, String sha1) throws InvalidSPDXAnalysisException {
+		if (fileName == null || sha1 == null) {
+			return null;
+		}
+		Node sha1AlgorithmNode = NodeFactory.createURI(SpdxRdfConstants.SPDX_NAMESPACE +
+				ChecksumAlgorithm.checksumAlgorithm_sha1.toString());
+		Node fileNameNode = NodeFactory.createLiteral(fileName);
+		for (Node subject:candidates(fileNameSubjects, fileNameNode)) {
+			if (!model.getGraph().contains(subject, fileNameProperty, fileNameNode)) {
+				continue;
+			}
+			ExtendedIterator<Triple> checksumIter = model.getGraph().find(subject, fileChecksumProperty, null);
+			try {
+				while (checksumIter.hasNext()) {
+					Node checksumNode = checksumIter.next().getObject();
+					if (!model.getGraph().contains(checksumNode, checksumAlgorithmProperty, sha1AlgorithmNode)) {
+						continue;
+					}
+					ExtendedIterator<Triple> valueIter = model.getGraph().find(checksumNode, checksumValueProperty, null);
+					try {
+						while (valueIter.hasNext()) {
+							Node valueNode = valueIter.next().getObject();
+							if (valueNode.isLiteral() && valueNode.getLiteralLexicalForm().equalsIgnoreCase(sha1)) {
+								return RdfParserHelper.convertToResource(model, subject);
+							}
+						}
+					} finally {
+						valueIter.close();
+					}
+				}
+			} finally {
+				checksumIter.close();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return true if the subject currently has the license ID in the graph
+	 */
+	private boolean hasLicenseId(Node subject, String licenseId) {
+		ExtendedIterator<Triple> idIter = model.getGraph().find(subject, licenseIdProperty, null);
+		try {
+			while (idIter.hasNext()) {
+				if (idIter.next().getObject().toString(false).equals(licenseId)) {
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			idIter.close();
+		}
+	}
+
+	/**
+	 * @return a copy of the indexed subjects for a key so that the graph can be searched without holding the lock
+	 */
+	private synchronized <K> List<Node> candidates(ListMultimap<K, Node> index, K key) {
+		return ImmutableList.copyOf(index.get(key));
+	}
+
+	/**
+	 * Stop tracking changes to the model
+	 */
+	public void close() {
+		model.unregister(this);
+	}
+}
@@ -16,12 +16,21 @@
 */
 package org.spdx.rdfparser;
 
-import java.util.Set;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
 
+import org.spdx.rdfparser.model.Annotation;
+import org.spdx.rdfparser.model.Checksum;
 import org.spdx.rdfparser.model.IRdfModel;
+import org.spdx.rdfparser.model.Relationship;
+import org.spdx.rdfparser.model.SpdxElement;
 
 import com.google.common.base.Objects;
-import com.google.common.collect.Sets;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
 
@@ -56,19 +65,22 @@ public final class RdfModelHelper {
 		if (array1.length != array2.length) {
 			return false;
 		}
-		Set<Integer> foundIndexes = Sets.newHashSet();
-		for (int i = 0; i < array1.length; i++) {
-			boolean found = false;
-			for (int j = 0; j < array2.length; j++) {
-                if (!foundIndexes.contains(j) && Objects.equal(array1[i], array2[j])) {
-					found = true;
-					foundIndexes.add(j);
-					break;
-				}
-			}
-			if (!found) {
+		// Count the occurrences of each value in array2 and match them off against array1
+		Map<Object, Integer> remaining = Maps.newHashMapWithExpectedSize(array2.length);
+		for (Object o:array2) {
+			Integer count = remaining.get(o);
+			remaining.put(o, count == null ? 1 : count + 1);
+		}
+		for (Object o:array1) {
+			Integer count = remaining.get(o);
+			if (count == null) {
 				return false;
 			}
+			if (count == 1) {
+				remaining.remove(o);
+			} else {
+				remaining.put(o, count - 1);
+			}
 		}
 		return true;
 	}
@@ -105,6 +117,20 @@ public final class RdfModelHelper {
 	 * @return
 	 */
 	public static boolean arraysEquivalent(IRdfModel[] array1, IRdfModel[] array2) {
+		return arraysEquivalent(array1, array2, RdfModelHelper::equivalentConsideringNull);
+	}
+	
+	/**
+	 * Compares 2 arrays to see if the elements are equivalent independent of order.
+	 * The elements of array2 are partitioned by <code>equivalenceHash</code> so that each
+	 * element of array1 is only compared to the elements of array2 which could be equivalent.
+	 * @param array1
+	 * @param array2
+	 * @param equivalence test for equivalence of an element of array1 to an element of array2
+	 * @return true if every element of array1 is equivalent to a different element of array2
+	 */
+	public static boolean arraysEquivalent(IRdfModel[] array1, IRdfModel[] array2, 
+			BiPredicate<IRdfModel, IRdfModel> equivalence) {
 		if (array1 == null) {
 			return array2 == null;
 		}
@@ -114,14 +140,14 @@ public final class RdfModelHelper {
 		if (array1.length != array2.length) {
 			return false;
 		}
-		Set<Integer> foundIndexes = Sets.newHashSet();
-		for (int i = 0; i < array1.length; i++) {
+		ListMultimap<Integer, IRdfModel> unmatched = partitionByEquivalenceHash(array2);
+		for (IRdfModel element:array1) {
+			List<IRdfModel> candidates = unmatched.get(equivalenceHash(element));
 			boolean found = false;
-			for (int j = 0; j < array2.length; j++) {
-				if (!foundIndexes.contains(j) &&
-						equivalentConsideringNull(array1[i],array2[j])) {
+			for (Iterator<IRdfModel> iter = candidates.iterator(); iter.hasNext();) {
+				if (equivalence.test(element, iter.next())) {
+					iter.remove();
 					found = true;
-					foundIndexes.add(j);
 					break;
 				}
 			}
@@ -131,8 +157,54 @@ public final class RdfModelHelper {
 		}
 		return true;
 	}
-
 	
+	/**
+	 * Partition elements by <code>equivalenceHash</code>
+	 * @param elements
+	 * @return elements by equivalence hash in the order they appear in the array
+	 */
+	public static ListMultimap<Integer, IRdfModel> partitionByEquivalenceHash(IRdfModel[] elements) {
+		ListMultimap<Integer, IRdfModel> retval = ArrayListMultimap.create();
+		if (elements != null) {
+			for (IRdfModel element:elements) {
+				retval.put(equivalenceHash(element), element);
+			}
+		}
+		return retval;
+	}
+	
+	/**
+	 * Hash which is the same for any two elements which are equivalent.  It is only
+	 * based on properties that <code>equivalent</code> compares exactly - types which
+	 * are not known all hash to 0 and are compared with every other element of an unknown type.
+	 * @param element
+	 * @return
+	 */
+	public static int equivalenceHash(IRdfModel element) {
+		if (element == null) {
+			return 0;
+		}
+		if (element instanceof SpdxElement) {
+			return Objects.hashCode(((SpdxElement)element).getName());
+		}
+		if (element instanceof Checksum) {
+			Checksum checksum = (Checksum)element;
+			return Objects.hashCode(checksum.getAlgorithm(), checksum.getValue());
+		}
+		if (element instanceof Relationship) {
+			Relationship relationship = (Relationship)element;
+			SpdxElement related = relationship.getRelatedSpdxElement();
+			return Objects.hashCode(relationship.getRelationshipType(), relationship.getComment(),
+					related == null ? null : related.getName());
+		}
+		if (element instanceof Annotation) {
+			Annotation annotation = (Annotation)element;
+			return Objects.hashCode(annotation.getAnnotator(), annotation.getAnnotationType(), 
+					annotation.getComment(), annotation.getAnnotationDate());
+		}
+		return 0;
+	}
+
 	/**
 	 * Compares the properties of two RdfModelObjects considering possible null values
 	 * @param o1
@@ -109,10 +109,32 @@ public class SPDXDocumentFactory {
 	}
 	
 	public static SpdxDocument createSpdxDocument(InputStream input, String baseUri, String fileType) throws InvalidSPDXAnalysisException {
-		Model model = ModelFactory.createDefaultModel();
-		model.read(input, baseUri, fileType);
-		SpdxDocumentContainer docContainer = new SpdxDocumentContainer(model);
-		return docContainer.getSpdxDocument();
+		return createSpdxDocument(input, baseUri, fileType, ModelFactory.createDefaultModel());
+	}
+	
+	/**
+	 * Create an SPDX Document reading the data into an existing model - used to read the data
+	 * directly into a disk backed model.  <code>TdbModelStore.loadRdf</code> reads the data into
+	 * a TDB store with the TDB bulk loader.
+	 * @param input
+	 * @param baseUri
+	 * @param fileType
+	 * @param model empty model to read the data into
+	 * @return SPDX Document initialized with the data
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public static SpdxDocument createSpdxDocument(InputStream input, String baseUri, String fileType, Model model) throws InvalidSPDXAnalysisException {
+		SpdxMetrics.Timer timer = SpdxMetrics.startTimer(SpdxMetrics.PARSE);
+		try {
+			model.read(input, baseUri, fileType);
+			SpdxDocumentContainer docContainer = new SpdxDocumentContainer(model);
+			if (SpdxMetrics.isEnabled()) {
+				SpdxMetrics.setGauge(SpdxMetrics.MODEL_TRIPLES, model.size());
+			}
+			return docContainer.getSpdxDocument();
+		} finally {
+			timer.stop();
+		}
 	}
 	
 	@SuppressWarnings("deprecation")
@@ -16,24 +16,36 @@
 */
 package org.spdx.rdfparser;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.AnonId;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.tdb.store.GraphTDB;
 import org.apache.jena.util.iterator.ExtendedIterator;
 import org.spdx.rdfparser.license.AnyLicenseInfo;
 import org.spdx.rdfparser.license.ExtractedLicenseInfo;
 import org.spdx.rdfparser.license.LicenseInfoFactory;
+import org.spdx.rdfparser.license.SpdxListedLicense;
 import org.spdx.rdfparser.model.ExternalDocumentRef;
 import org.spdx.rdfparser.model.IRdfModel;
 import org.spdx.rdfparser.model.RdfModelObject;
@@ -46,6 +58,7 @@ import org.spdx.rdfparser.model.SpdxPackage;
 import org.spdx.rdfparser.model.SpdxSnippet;
 import org.spdx.spdxspreadsheet.InvalidLicenseStringException;
 
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -97,9 +110,27 @@ public class SpdxDocumentContainer implements IModelContainer, SpdxRdfConstants
 	Map<String, ExternalDocumentRef> externalDocNamespaceToRef = Maps.newHashMap();
 	/**
 	 * Map of nodes to RDF model objects - used to improve performance by keeping track of which 
-	 * nodes have more than one object associated with it.
+	 * nodes have more than one object associated with it.  The objects are weakly referenced
+	 * so that the map does not keep every element read from the document in memory.
 	 */
-	Map<Node, List<IRdfModel>> nodeModelMap = Maps.newHashMap();
+	Map<Node, List<NodeObjectReference>> nodeModelMap = Maps.newHashMap();
+	/**
+	 * Queue of references to model objects which have been garbage collected
+	 */
+	ReferenceQueue<IRdfModel> collectedNodeObjects = new ReferenceQueue<IRdfModel>();
+	/**
+	 * Listed licenses created in this container by node - kept with the container rather
+	 * than in the ListedLicenses singleton so that it is released with the document
+	 */
+	Map<Node, SpdxListedLicense> listedLicenseNodeCache = Maps.newHashMap();
+	/**
+	 * Index used to find duplicate licenses, checksums and files - created on first use
+	 */
+	private ModelResourceIndex resourceIndex = null;
+	/**
+	 * Loader for the bulk load in progress - null if there is no bulk load in progress
+	 */
+	private BulkDocumentLoader bulkLoader = null;
 	
 	static {
 		SUPPORTED_SPDX_VERSIONS.add(CURRENT_SPDX_VERSION);
@@ -193,7 +224,21 @@ public class SpdxDocumentContainer implements IModelContainer, SpdxRdfConstants
 	 * @throws InvalidSPDXAnalysisException 
 	 */
 	public SpdxDocumentContainer(String uri, String spdxVersion) throws InvalidSPDXAnalysisException {
-		this.model = ModelFactory.createDefaultModel();
+		this(uri, spdxVersion, ModelFactory.createDefaultModel());
+	}
+	
+	/**
+	 * Creates a new empty SPDX Document in an existing model.  This is used to store the document
+	 * in a model other than the default in-memory model (see <code>TdbModelStore</code>).
+	 * Note: Follow-up calls MUST be made to add the required properties for this
+	 * to be a valid SPDX document
+	 * @param uri URI for the SPDX Document
+	 * @param spdxVersion The version of SPDX analysis to create (impacts the data license for some versions)
+	 * @param model empty model to store the document in
+	 * @throws InvalidSPDXAnalysisException 
+	 */
+	public SpdxDocumentContainer(String uri, String spdxVersion, Model model) throws InvalidSPDXAnalysisException {
+		this.model = model;
 		String v = verifySpdxVersion(spdxVersion);
 		if (v != null) {
 			throw(new InvalidSPDXAnalysisException("Invalid SPDX Version: "+v));
@@ -544,7 +589,9 @@ public class SpdxDocumentContainer implements IModelContainer, SpdxRdfConstants
 	 * @throws InvalidSPDXAnalysisException 
 	 */
 	public ExtractedLicenseInfo getExtractedLicense(String id) throws InvalidSPDXAnalysisException {
-		return this.licenseIdToExtractedLicense.get(id);
+		ExtractedLicenseInfo retval = this.licenseIdToExtractedLicense.get(id);
+		SpdxMetrics.cacheLookup(SpdxMetrics.EXTRACTED_LICENSE_CACHE, retval != null);
+		return retval;
 	}
 	
 	/**
@@ -705,28 +752,246 @@ public class SpdxDocumentContainer implements IModelContainer, SpdxRdfConstants
 				SpdxRdfConstants.PROP_SPDX_EXTERNAL_DOC_REF, externalDocumentRefs);
 	}
 	
-	public List<SpdxPackage> findAllPackages() throws InvalidSPDXAnalysisException {
-		Node rdfTypePredicate = model.getProperty(SpdxRdfConstants.RDF_NAMESPACE, 
-				SpdxRdfConstants.RDF_PROP_TYPE).asNode();
-		Node packageTypeObject = model.createResource(SPDX_NAMESPACE + CLASS_SPDX_PACKAGE).asNode();
-		Triple m = Triple.createMatch(null, rdfTypePredicate, packageTypeObject);
-		List<SpdxPackage> retval = Lists.newArrayList();
-		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
-		while (tripleIter.hasNext()) {
-			retval.add((SpdxPackage)SpdxElementFactory.createElementFromModel(this, tripleIter.next().getSubject()));
+	/**
+	 * Iterates over all elements of a given type in the model.  Each element
+	 * is created when it is returned by <code>next()</code>.  The triple iterator
+	 * is closed once the last element has been returned or when the iterator is closed.
+	 */
+	private class ElementTypeIterator<T extends SpdxElement> implements CloseableIterator<T> {
+		private final Class<T> elementClass;
+		private final boolean lazyProperties;
+		private final ExtendedIterator<Triple> tripleIter;
+		private boolean closed = false;
+		
+		ElementTypeIterator(Class<T> elementClass, String typeClassName, boolean lazyProperties) {
+			this.elementClass = elementClass;
+			this.lazyProperties = lazyProperties;
+			Node rdfTypePredicate = model.getProperty(SpdxRdfConstants.RDF_NAMESPACE, 
+					SpdxRdfConstants.RDF_PROP_TYPE).asNode();
+			Node typeObject = model.createResource(SPDX_NAMESPACE + typeClassName).asNode();
+			this.tripleIter = model.getGraph().find(Triple.createMatch(null, rdfTypePredicate, typeObject));
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Iterator#hasNext()
+		 */
+		@Override
+		public boolean hasNext() {
+			if (closed) {
+				return false;
+			}
+			if (!tripleIter.hasNext()) {
+				close();
+				return false;
+			}
+			return true;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Iterator#next()
+		 */
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Node subject = tripleIter.next().getSubject();
+			try {
+				return elementClass.cast(SpdxElementFactory.createElementFromModel(SpdxDocumentContainer.this, 
+						subject, lazyProperties));
+			} catch (InvalidSPDXAnalysisException e) {
+				throw(new ElementIterationException("Error creating element from the model", e));
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.spdx.rdfparser.CloseableIterator#close()
+		 */
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				tripleIter.close();
+			}
+		}
+	}
+	
+	/**
+	 * Iterate over all packages in the document container without creating them all up front.
+	 * The model must not be changed while iterating.  Any <code>InvalidSPDXAnalysisException</code> creating
+	 * an element is thrown by <code>next()</code> as the cause of an <code>ElementIterationException</code>.
+	 * The iterator should be closed if it is not read to the end.
+	 * @param lazyProperties If true, the properties of each package are only read from the model when requested - 
+	 * see <code>SpdxElement.loadProperties()</code>
+	 * @return
+	 */
+	public CloseableIterator<SpdxPackage> getPackageIterator(boolean lazyProperties) {
+		return new ElementTypeIterator<SpdxPackage>(SpdxPackage.class, CLASS_SPDX_PACKAGE, lazyProperties);
+	}
+	
+	/**
+	 * Iterate over all files in the document container - see <code>getPackageIterator</code>
+	 * @param lazyProperties If true, the properties of each file are only read from the model when requested
+	 * @return
+	 */
+	public CloseableIterator<SpdxFile> getFileIterator(boolean lazyProperties) {
+		return new ElementTypeIterator<SpdxFile>(SpdxFile.class, CLASS_SPDX_FILE, lazyProperties);
+	}
+	
+	/**
+	 * Iterate over all snippets in the document container - see <code>getPackageIterator</code>
+	 * @param lazyProperties If true, the properties of each snippet are only read from the model when requested
+	 * @return
+	 */
+	public CloseableIterator<SpdxSnippet> getSnippetIterator(boolean lazyProperties) {
+		return new ElementTypeIterator<SpdxSnippet>(SpdxSnippet.class, CLASS_SPDX_SNIPPET, lazyProperties);
+	}
+	
+	/**
+	 * Iterate over the SPDX document followed by all files, packages and snippets in the
+	 * document container - see <code>getPackageIterator</code>
+	 * @param lazyProperties If true, the properties of each element other than the document are only read from the model when requested
+	 * @return
+	 */
+	public CloseableIterator<SpdxElement> getElementIterator(boolean lazyProperties) {
+		// NOTE: This needs to be updated for any new types
+		final List<CloseableIterator<? extends SpdxElement>> typeIterators = Lists.newArrayList();
+		typeIterators.add(getFileIterator(lazyProperties));
+		typeIterators.add(getPackageIterator(lazyProperties));
+		typeIterators.add(getSnippetIterator(lazyProperties));
+		final Iterator<SpdxElement> allElements = Iterators.concat(Iterators.<SpdxElement>singletonIterator(this.spdxDocument),
+				Iterators.<SpdxElement>concat(typeIterators.iterator()));
+		return new CloseableIterator<SpdxElement>() {
+
+			@Override
+			public boolean hasNext() {
+				return allElements.hasNext();
+			}
+
+			@Override
+			public SpdxElement next() {
+				return allElements.next();
+			}
+
+			@Override
+			public void close() {
+				for (CloseableIterator<? extends SpdxElement> typeIterator:typeIterators) {
+					typeIterator.close();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Iterate over the files in the document container in pages.  The files are read from the
+	 * model until the last page has been returned.
+	 * @param pageSize maximum number of files in each page
+	 * @param lazyProperties If true, the properties of each file are only read from the model when requested
+	 * @return
+	 */
+	public Iterator<List<SpdxFile>> getFilePages(int pageSize, boolean lazyProperties) {
+		return Iterators.partition(getFileIterator(lazyProperties), pageSize);
+	}
+	
+	/**
+	 * @param lazyProperties If true, the properties of each file are only read from the model when requested
+	 * @return a sequential stream of all files in the document container - see <code>getFileIterator</code>
+	 */
+	public Stream<SpdxFile> getFileStream(boolean lazyProperties) {
+		return toStream(getFileIterator(lazyProperties));
+	}
+	
+	/**
+	 * @param lazyProperties If true, the properties of each package are only read from the model when requested
+	 * @return a sequential stream of all packages in the document container - see <code>getPackageIterator</code>
+	 */
+	public Stream<SpdxPackage> getPackageStream(boolean lazyProperties) {
+		return toStream(getPackageIterator(lazyProperties));
+	}
+	
+	/**
+	 * @param lazyProperties If true, the properties of each snippet are only read from the model when requested
+	 * @return a sequential stream of all snippets in the document container - see <code>getSnippetIterator</code>
+	 */
+	public Stream<SpdxSnippet> getSnippetStream(boolean lazyProperties) {
+		return toStream(getSnippetIterator(lazyProperties));
+	}
+	
+	/**
+	 * @param lazyProperties If true, the properties of each element are only read from the model when requested
+	 * @return a sequential stream of the document and all elements in the document container - see <code>getElementIterator</code>
+	 */
+	public Stream<SpdxElement> getElementStream(boolean lazyProperties) {
+		return toStream(getElementIterator(lazyProperties));
+	}
+	
+	private static <T> Stream<T> toStream(CloseableIterator<T> iter) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iter, 
+				Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iter::close);
+	}
+	
+	/**
+	 * Collect all of the elements from an element iterator into a list
+	 * @param iter
+	 * @return
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private static <T> List<T> collectElements(CloseableIterator<T> iter) throws InvalidSPDXAnalysisException {
+		try {
+			return Lists.newArrayList(iter);
+		} catch (ElementIterationException ex) {
+			throw(ex.getCause());
+		} finally {
+			iter.close();
 		}
-		return retval;
+	}
+	
+	public List<SpdxPackage> findAllPackages() throws InvalidSPDXAnalysisException {
+		return findAllPackages(false);
+	}
+	
+	/**
+	 * @param lazyProperties If true, the properties of each package are only read from the model when requested
+	 * @return all packages in the document container
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public List<SpdxPackage> findAllPackages(boolean lazyProperties) throws InvalidSPDXAnalysisException {
+		return collectElements(getPackageIterator(lazyProperties));
 	}
 	
 	public List<SpdxFile> findAllFiles() throws InvalidSPDXAnalysisException {
-		Node rdfTypePredicate = model.getProperty(SpdxRdfConstants.RDF_NAMESPACE, 
-				SpdxRdfConstants.RDF_PROP_TYPE).asNode();
-		Node fileTypeObject = model.createResource(SPDX_NAMESPACE + CLASS_SPDX_FILE).asNode();
-		Triple m = Triple.createMatch(null, rdfTypePredicate, fileTypeObject);
+		return findAllFiles(false);
+	}
+	
+	/**
+	 * @param lazyProperties If true, the properties of each file are only read from the model when requested
+	 * @return all files in the document container
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public List<SpdxFile> findAllFiles(boolean lazyProperties) throws InvalidSPDXAnalysisException {
+		return collectElements(getFileIterator(lazyProperties));
+	}
+
+	/**
+	 * Find files by file name using the index of the model graph
+	 * @param fileName
+	 * @return all files in the document container with the file name
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public List<SpdxFile> findFilesByName(String fileName) throws InvalidSPDXAnalysisException {
 		List<SpdxFile> retval = Lists.newArrayList();
-		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
-		while (tripleIter.hasNext()) {
-			retval.add((SpdxFile)SpdxElementFactory.createElementFromModel(this, tripleIter.next().getSubject()));
+		Node fileNameProperty = model.createProperty(SPDX_NAMESPACE, PROP_FILE_NAME).asNode();
+		ExtendedIterator<Triple> tripleIter = model.getGraph().find(Node.ANY, fileNameProperty,
+				NodeFactory.createLiteral(fileName));
+		try {
+			while (tripleIter.hasNext()) {
+				SpdxElement element = SpdxElementFactory.createElementFromModel(this, tripleIter.next().getSubject());
+				if (element instanceof SpdxFile) {
+					retval.add((SpdxFile)element);
+				}
+			}
+		} finally {
+			tripleIter.close();
 		}
 		return retval;
 	}
@@ -746,13 +1011,7 @@ public class SpdxDocumentContainer implements IModelContainer, SpdxRdfConstants
 	 * @throws InvalidSPDXAnalysisException 
 	 */
 	public List<SpdxElement> findAllElements() throws InvalidSPDXAnalysisException {
-		// NOTE: This needs to be updated for any new types
-		List<SpdxElement> retval = Lists.newArrayList();
-		retval.add(this.spdxDocument);
-		retval.addAll(this.findAllFiles());
-		retval.addAll(this.findAllPackages());
-		retval.addAll(this.findAllSnippets());
-		return retval;
+		return collectElements(getElementIterator(false));
 	}
 	
 	// The following methods (createResource and ...
@@ -772,11 +1031,7 @@ public class SpdxDocumentContainer implements IModelContainer, SpdxRdfConstants
 			retval = model.createResource(uri, type);
 		}
 		Node node = retval.asNode();
-		List<IRdfModel> existingModelObjects = this.nodeModelMap.get(node);
-		if (existingModelObjects == null) {
-			existingModelObjects = new ArrayList<IRdfModel>();
-			this.nodeModelMap.put(node, existingModelObjects);
-		}
+		List<IRdfModel> existingModelObjects = getNodeObjects(node);
 		boolean found = false;
 		for (IRdfModel existing:existingModelObjects) {
 			if (existing == nodeObject) {
@@ -785,6 +1040,7 @@ public class SpdxDocumentContainer implements IModelContainer, SpdxRdfConstants
 			}
 		}
 		if (!found) {
+			addNodeObject(node, nodeObject);
 			existingModelObjects.add(nodeObject);
 		} 
 		if (existingModelObjects.size() == 1) {
@@ -797,16 +1053,95 @@ public class SpdxDocumentContainer implements IModelContainer, SpdxRdfConstants
 		return retval;
 	}
 
+	/**
+	 * @return Index of the licenses, checksums and files in the model used to find duplicate resources or
+	 * null if the model is stored in a TDB store - the store indexes the triples on disk and an in-memory
+	 * index would hold every license, checksum and file name in the heap
+	 */
+	public synchronized ModelResourceIndex getResourceIndex() {
+		if (this.model.getGraph() instanceof GraphTDB) {
+			return null;
+		}
+		if (this.resourceIndex == null) {
+			this.resourceIndex = new ModelResourceIndex(this.model);
+		}
+		return this.resourceIndex;
+	}
+
+	/**
+	 * Start adding elements in bulk.  While the bulk load is in progress, duplicate licenses,
+	 * checksums and files are not searched for when resources are created.  The duplicates are
+	 * merged when <code>finish()</code> is called on the returned loader.
+	 * @return loader used to add the elements
+	 * @throws InvalidSPDXAnalysisException if a bulk load is already in progress
+	 */
+	public synchronized BulkDocumentLoader startBulkLoad() throws InvalidSPDXAnalysisException {
+		if (this.bulkLoader != null) {
+			throw(new InvalidSPDXAnalysisException("A bulk load is already in progress for this document"));
+		}
+		if (this.resourceIndex != null) {
+			// the index is rebuilt from the model on the next use after the load
+			this.resourceIndex.close();
+			this.resourceIndex = null;
+		}
+		this.bulkLoader = new BulkDocumentLoader(this);
+		return this.bulkLoader;
+	}
+	
+	/**
+	 * Called by the bulk loader once the duplicates have been merged
+	 */
+	synchronized void endBulkLoad() {
+		this.bulkLoader = null;
+	}
+	
+	/**
+	 * @return true if a bulk load is in progress and duplicate resources should not be searched for
+	 */
+	public synchronized boolean isBulkLoading() {
+		return this.bulkLoader != null;
+	}
+	
+	/**
+	 * Move the model objects for a duplicate node to the resource the duplicate was merged into
+	 * @param duplicate node which has been removed from the model
+	 * @param merged resource which replaces the duplicate
+	 */
+	synchronized void mergeNodeObjects(Node duplicate, Resource merged) {
+		List<IRdfModel> duplicateObjects = getNodeObjects(duplicate);
+		this.nodeModelMap.remove(duplicate);
+		if (duplicateObjects.isEmpty()) {
+			return;
+		}
+		List<IRdfModel> mergedObjects = getNodeObjects(merged.asNode());
+		for (IRdfModel duplicateObject:duplicateObjects) {
+			if (duplicateObject instanceof RdfModelObject) {
+				((RdfModelObject)duplicateObject).replaceResource(merged);
+			}
+			addNodeObject(merged.asNode(), duplicateObject);
+			mergedObjects.add(duplicateObject);
+		}
+		if (mergedObjects.size() > 1) {
+			for (IRdfModel mergedObject:mergedObjects) {
+				mergedObject.setMultipleObjectsForSameNode();
+			}
+		}
+	}
+
+	/**
+	 * @return Listed licenses created in this container by node.  Access must be synchronized on the returned map.
+	 */
+	public Map<Node, SpdxListedLicense> getListedLicenseNodeCache() {
+		return this.listedLicenseNodeCache;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.spdx.rdfparser.IModelContainer#addNodeObject(org.apache.jena.graph.Node, org.spdx.rdfparser.model.IRdfModel)
 	 */
 	@Override
 	public synchronized boolean addCheckNodeObject(Node node, IRdfModel nodeObject) {
-		List<IRdfModel> existingModelObjects = this.nodeModelMap.get(node);
-		if (existingModelObjects == null) {
-			existingModelObjects = new ArrayList<IRdfModel>();
-			this.nodeModelMap.put(node, existingModelObjects);
-		}
+		List<IRdfModel> existingModelObjects = getNodeObjects(node);
+		SpdxMetrics.cacheLookup(SpdxMetrics.ELEMENT_CACHE, !existingModelObjects.isEmpty());
 		boolean found = false;
 		for (IRdfModel existing:existingModelObjects) {
 			if (existing == nodeObject) {
@@ -827,29 +1162,93 @@ public class SpdxDocumentContainer implements IModelContainer, SpdxRdfConstants
 				for (IRdfModel existing:existingModelObjects) {
 					existing.setMultipleObjectsForSameNode();
 				}
-				existingModelObjects.add(nodeObject);
+				addNodeObject(node, nodeObject);
 				return true;
 			} else {
-				existingModelObjects.add(nodeObject);
+				addNodeObject(node, nodeObject);
 				return false;
 			}			
 		}
 	}
 
+	/**
+	 * Weak reference to a model object which keeps the node so that the reference can be
+	 * removed from the node model map once the object has been garbage collected
+	 */
+	static class NodeObjectReference extends WeakReference<IRdfModel> {
+		Node node;
+
+		NodeObjectReference(Node node, IRdfModel nodeObject, ReferenceQueue<IRdfModel> queue) {
+			super(nodeObject, queue);
+			this.node = node;
+		}
+	}
+
+	/**
+	 * Remove the references to model objects which have been garbage collected from the node model map
+	 */
+	private void removeCollectedNodeObjects() {
+		Reference<? extends IRdfModel> collected = this.collectedNodeObjects.poll();
+		while (collected != null) {
+			Node node = ((NodeObjectReference)collected).node;
+			List<NodeObjectReference> references = this.nodeModelMap.get(node);
+			if (references != null) {
+				references.remove(collected);
+				if (references.isEmpty()) {
+					this.nodeModelMap.remove(node);
+				}
+			}
+			collected = this.collectedNodeObjects.poll();
+		}
+	}
+
+	/**
+	 * @param node
+	 * @return model objects associated with the node which have not been garbage collected
+	 */
+	private List<IRdfModel> getNodeObjects(Node node) {
+		removeCollectedNodeObjects();
+		List<IRdfModel> retval = new ArrayList<IRdfModel>();
+		List<NodeObjectReference> references = this.nodeModelMap.get(node);
+		if (references != null) {
+			for (NodeObjectReference reference:references) {
+				IRdfModel nodeObject = reference.get();
+				if (nodeObject != null) {
+					retval.add(nodeObject);
+				}
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Associate a model object with a node
+	 * @param node
+	 * @param nodeObject
+	 */
+	private void addNodeObject(Node node, IRdfModel nodeObject) {
+		List<NodeObjectReference> references = this.nodeModelMap.get(node);
+		if (references == null) {
+			references = new ArrayList<NodeObjectReference>();
+			this.nodeModelMap.put(node, references);
+		}
+		references.add(new NodeObjectReference(node, nodeObject, this.collectedNodeObjects));
+	}
+
 	/**
 	 * @return all snippets in the document container
 	 * @throws InvalidSPDXAnalysisException 
 	 */
 	public List<SpdxSnippet> findAllSnippets() throws InvalidSPDXAnalysisException {
-		Node rdfTypePredicate = model.getProperty(SpdxRdfConstants.RDF_NAMESPACE, 
-				SpdxRdfConstants.RDF_PROP_TYPE).asNode();
-		Node snippetTypeObject = model.createResource(SPDX_NAMESPACE + CLASS_SPDX_SNIPPET).asNode();
-		Triple m = Triple.createMatch(null, rdfTypePredicate, snippetTypeObject);
-		List<SpdxSnippet> retval = Lists.newArrayList();
-		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
-		while (tripleIter.hasNext()) {
-			retval.add((SpdxSnippet)SpdxElementFactory.createElementFromModel(this, tripleIter.next().getSubject()));
-		}
-		return retval;
+		return findAllSnippets(false);
+	}
+	
+	/**
+	 * @param lazyProperties If true, the properties of each snippet are only read from the model when requested
+	 * @return all snippets in the document container
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public List<SpdxSnippet> findAllSnippets(boolean lazyProperties) throws InvalidSPDXAnalysisException {
+		return collectElements(getSnippetIterator(lazyProperties));
 	}
 }
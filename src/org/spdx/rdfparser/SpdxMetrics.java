@@ -0,0 +1,358 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Named timers, counters and gauges for the SPDX tools.
+ *
+ * Metrics are disabled by default.  They can be enabled with <code>setEnabled(true)</code>
+ * or the system property <code>SPDXParser.Metrics=true</code>.  When disabled, starting a timer
+ * or incrementing a counter only reads a volatile flag.
+ *
+ * Cache hit rates are recorded as a pair of counters named [cache].hit and [cache].miss.
+ *
+ * The metrics can be read programmatically, printed with <code>report()</code> or exported
+ * over JMX by calling <code>registerMBean()</code>.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public final class SpdxMetrics {
+
+	static final Logger logger = Logger.getLogger(SpdxMetrics.class);
+
+	public static final String METRICS_PROPERTY = "SPDXParser.Metrics";
+	public static final String MBEAN_NAME = "org.spdx:type=SpdxMetrics";
+
+	// Timers
+	public static final String PARSE = "parse";
+	public static final String VERIFY = "verify";
+	public static final String COMPARE = "compare";
+	public static final String LICENSE_MATCH = "licenseMatch";
+	public static final String WRITE = "write";
+	public static final String LISTED_LICENSE_LOAD = "listedLicenseLoad";
+
+	// Caches
+	public static final String LISTED_LICENSE_CACHE = "listedLicenseCache";
+	public static final String LISTED_LICENSE_NODE_CACHE = "listedLicenseNodeCache";
+	public static final String ELEMENT_CACHE = "elementCache";
+	public static final String EXTRACTED_LICENSE_CACHE = "extractedLicenseCache";
+	static final String[] CACHE_NAMES = new String[] {LISTED_LICENSE_CACHE, LISTED_LICENSE_NODE_CACHE,
+			ELEMENT_CACHE, EXTRACTED_LICENSE_CACHE};
+	static final String HIT_SUFFIX = ".hit";
+	static final String MISS_SUFFIX = ".miss";
+
+	// Counters
+	/**
+	 * Number of property queries made against the RDF graph by the model objects
+	 */
+	public static final String MODEL_QUERIES = "modelQueries";
+
+	// Gauges
+	/**
+	 * Number of triples in the most recently parsed document model
+	 */
+	public static final String MODEL_TRIPLES = "modelTriples";
+
+	private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty(METRICS_PROPERTY, "false"));
+
+	private static final ConcurrentMap<String, TimerStats> timers = new ConcurrentHashMap<String, TimerStats>();
+	private static final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<String, LongAdder>();
+	private static final ConcurrentMap<String, AtomicLong> gauges = new ConcurrentHashMap<String, AtomicLong>();
+
+	/**
+	 * Accumulated times for a named timer
+	 */
+	public static final class TimerStats {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		void record(long nanos) {
+			count.increment();
+			totalNanos.add(nanos);
+			long max = maxNanos.get();
+			while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+				max = maxNanos.get();
+			}
+		}
+
+		/**
+		 * @return number of times the timer was stopped
+		 */
+		public long getCount() {
+			return count.sum();
+		}
+
+		/**
+		 * @return total elapsed time in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return totalNanos.sum();
+		}
+
+		/**
+		 * @return longest single elapsed time in nanoseconds
+		 */
+		public long getMaxNanos() {
+			return maxNanos.get();
+		}
+	}
+
+	/**
+	 * A started timer - stop must be called when the timed operation completes.
+	 * Can be used in a try with resources statement.
+	 */
+	public static final class Timer implements AutoCloseable {
+		private final TimerStats stats;
+		private final long start;
+
+		private Timer(TimerStats stats, long start) {
+			this.stats = stats;
+			this.start = start;
+		}
+
+		/**
+		 * Record the elapsed time since the timer was started
+		 */
+		public void stop() {
+			if (stats != null) {
+				stats.record(System.nanoTime() - start);
+			}
+		}
+
+		@Override
+		public void close() {
+			stop();
+		}
+	}
+
+	private static final Timer NOOP_TIMER = new Timer(null, 0);
+
+	private SpdxMetrics() {
+		// Static methods only
+	}
+
+	/**
+	 * @return true if metrics are being collected
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @param enable true to collect metrics
+	 */
+	public static void setEnabled(boolean enable) {
+		enabled = enable;
+	}
+
+	/**
+	 * Start a named timer
+	 * @param name
+	 * @return the started timer
+	 */
+	public static Timer startTimer(String name) {
+		if (!enabled) {
+			return NOOP_TIMER;
+		}
+		TimerStats stats = timers.get(name);
+		if (stats == null) {
+			timers.putIfAbsent(name, new TimerStats());
+			stats = timers.get(name);
+		}
+		return new Timer(stats, System.nanoTime());
+	}
+
+	/**
+	 * Increment a named counter by one
+	 * @param name
+	 */
+	public static void increment(String name) {
+		if (enabled) {
+			getCounter(name).increment();
+		}
+	}
+
+	/**
+	 * Add to a named counter
+	 * @param name
+	 * @param delta
+	 */
+	public static void add(String name, long delta) {
+		if (enabled) {
+			getCounter(name).add(delta);
+		}
+	}
+
+	private static LongAdder getCounter(String name) {
+		LongAdder counter = counters.get(name);
+		if (counter == null) {
+			counters.putIfAbsent(name, new LongAdder());
+			counter = counters.get(name);
+		}
+		return counter;
+	}
+
+	/**
+	 * Record a cache lookup
+	 * @param cacheName
+	 * @param hit true if the value was found in the cache
+	 */
+	public static void cacheLookup(String cacheName, boolean hit) {
+		if (enabled) {
+			getCounter(cacheName + (hit ? HIT_SUFFIX : MISS_SUFFIX)).increment();
+		}
+	}
+
+	/**
+	 * Set the current value of a named gauge
+	 * @param name
+	 * @param value
+	 */
+	public static void setGauge(String name, long value) {
+		if (enabled) {
+			AtomicLong gauge = gauges.get(name);
+			if (gauge == null) {
+				gauges.putIfAbsent(name, new AtomicLong());
+				gauge = gauges.get(name);
+			}
+			gauge.set(value);
+		}
+	}
+
+	/**
+	 * @return current value of all counters
+	 */
+	public static Map<String, Long> getCounters() {
+		Map<String, Long> retval = Maps.newTreeMap();
+		for (Entry<String, LongAdder> entry:counters.entrySet()) {
+			retval.put(entry.getKey(), entry.getValue().sum());
+		}
+		return retval;
+	}
+
+	/**
+	 * @return current value of all gauges
+	 */
+	public static Map<String, Long> getGauges() {
+		Map<String, Long> retval = Maps.newTreeMap();
+		for (Entry<String, AtomicLong> entry:gauges.entrySet()) {
+			retval.put(entry.getKey(), entry.getValue().get());
+		}
+		return retval;
+	}
+
+	/**
+	 * @return all timers by name
+	 */
+	public static Map<String, TimerStats> getTimers() {
+		return Maps.newTreeMap(timers);
+	}
+
+	/**
+	 * @param cacheName
+	 * @return the fraction of lookups which were hits or NaN if there were no lookups
+	 */
+	public static double getHitRate(String cacheName) {
+		long hits = getCount(cacheName + HIT_SUFFIX);
+		long misses = getCount(cacheName + MISS_SUFFIX);
+		if (hits + misses == 0) {
+			return Double.NaN;
+		}
+		return (double)hits / (double)(hits + misses);
+	}
+
+	/**
+	 * @param name
+	 * @return current value of the named counter or 0 if it has not been incremented
+	 */
+	public static long getCount(String name) {
+		LongAdder counter = counters.get(name);
+		return counter == null ? 0 : counter.sum();
+	}
+
+	/**
+	 * Clear all metrics
+	 */
+	public static void reset() {
+		timers.clear();
+		counters.clear();
+		gauges.clear();
+	}
+
+	/**
+	 * @return human readable report of all metrics
+	 */
+	public static String report() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Timers (count / total ms / max ms):\n");
+		for (Entry<String, TimerStats> entry:getTimers().entrySet()) {
+			TimerStats stats = entry.getValue();
+			sb.append(String.format("\t%s: %d / %.1f / %.1f\n", entry.getKey(), stats.getCount(),
+					stats.getTotalNanos() / 1000000.0, stats.getMaxNanos() / 1000000.0));
+		}
+		sb.append("Counters:\n");
+		Map<String, Long> allCounters = getCounters();
+		for (Entry<String, Long> entry:allCounters.entrySet()) {
+			sb.append("\t" + entry.getKey() + ": " + entry.getValue() + "\n");
+		}
+		sb.append("Cache hit rates:\n");
+		for (String cacheName:CACHE_NAMES) {
+			double hitRate = getHitRate(cacheName);
+			if (!Double.isNaN(hitRate)) {
+				sb.append(String.format("\t%s: %.1f%%\n", cacheName, hitRate * 100));
+			}
+		}
+		sb.append("Gauges:\n");
+		for (Entry<String, Long> entry:getGauges().entrySet()) {
+			sb.append("\t" + entry.getKey() + ": " + entry.getValue() + "\n");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Register the metrics with the platform MBean server under MBEAN_NAME.  Registering more than once has no effect.
+	 */
+	public static void registerMBean() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			server.registerMBean(new SpdxMetricsMXBean.Impl(), new ObjectName(MBEAN_NAME));
+		} catch (InstanceAlreadyExistsException e) {
+			// already registered
+		} catch (JMException e) {
+			logger.warn("Unable to register the SPDX metrics MBean: "+e.getMessage());
+		}
+	}
+}
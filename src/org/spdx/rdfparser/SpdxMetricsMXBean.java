@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.spdx.rdfparser.SpdxMetrics.TimerStats;
+
+import com.google.common.collect.Maps;
+
+/**
+ * JMX view of SpdxMetrics
+ * @author Gary O'Neall
+ *
+ */
+public interface SpdxMetricsMXBean {
+
+	public boolean isEnabled();
+
+	public void setEnabled(boolean enabled);
+
+	/**
+	 * @return counter values by name
+	 */
+	public Map<String, Long> getCounters();
+
+	/**
+	 * @return gauge values by name
+	 */
+	public Map<String, Long> getGauges();
+
+	/**
+	 * @return number of times each timer was stopped
+	 */
+	public Map<String, Long> getTimerCounts();
+
+	/**
+	 * @return total milliseconds recorded for each timer
+	 */
+	public Map<String, Long> getTimerTotalMillis();
+
+	/**
+	 * @return hit rate percentages by cache name
+	 */
+	public Map<String, Double> getCacheHitRates();
+
+	public void reset();
+
+	static class Impl implements SpdxMetricsMXBean {
+
+		@Override
+		public boolean isEnabled() {
+			return SpdxMetrics.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(boolean enabled) {
+			SpdxMetrics.setEnabled(enabled);
+		}
+
+		@Override
+		public Map<String, Long> getCounters() {
+			return SpdxMetrics.getCounters();
+		}
+
+		@Override
+		public Map<String, Long> getGauges() {
+			return SpdxMetrics.getGauges();
+		}
+
+		@Override
+		public Map<String, Long> getTimerCounts() {
+			Map<String, Long> retval = Maps.newTreeMap();
+			for (Entry<String, TimerStats> entry:SpdxMetrics.getTimers().entrySet()) {
+				retval.put(entry.getKey(), entry.getValue().getCount());
+			}
+			return retval;
+		}
+
+		@Override
+		public Map<String, Long> getTimerTotalMillis() {
+			Map<String, Long> retval = Maps.newTreeMap();
+			for (Entry<String, TimerStats> entry:SpdxMetrics.getTimers().entrySet()) {
+				retval.put(entry.getKey(), entry.getValue().getTotalNanos() / 1000000);
+			}
+			return retval;
+		}
+
+		@Override
+		public Map<String, Double> getCacheHitRates() {
+			Map<String, Double> retval = Maps.newTreeMap();
+			for (String cacheName:SpdxMetrics.CACHE_NAMES) {
+				double hitRate = SpdxMetrics.getHitRate(cacheName);
+				if (!Double.isNaN(hitRate)) {
+					retval.put(cacheName, hitRate * 100);
+				}
+			}
+			return retval;
+		}
+
+		@Override
+		public void reset() {
+			SpdxMetrics.reset();
+		}
+	}
+}
@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.tdb.TDB;
+import org.apache.jena.tdb.TDBFactory;
+import org.apache.jena.tdb.TDBLoader;
+import org.apache.jena.tdb.base.file.Location;
+import org.apache.jena.tdb.setup.StoreParams;
+import org.apache.jena.tdb.setup.StoreParamsCodec;
+import org.apache.jena.tdb.store.GraphTDB;
+import org.apache.log4j.Logger;
+import org.spdx.rdfparser.model.SpdxDocument;
+
+/**
+ * An on-disk, indexed triple store (Jena TDB) for SPDX documents which are too large to hold in memory.
+ *
+ * The model returned by <code>getModel()</code> can be passed to <code>SpdxDocumentContainer</code>,
+ * <code>SPDXDocumentFactory.createSpdxDocument</code> or <code>TagToRDF.convertTagFileToRdf</code>.  All of the
+ * model classes use the Jena model API, so they work unchanged on top of the store.  RDF documents should
+ * be read with <code>loadRdf</code>, which uses the TDB bulk loader.
+ *
+ * Of the command line tools, only TagToRDF uses a store when the <code>SPDXParser.ModelStoreDirectory</code>
+ * system property is set.  The other tools parse their documents into in-memory models.
+ *
+ * The cache size sets the number of entries in the node table caches which map between RDF
+ * terms and their IDs in the store.  It only takes effect when the store is created.
+ *
+ * The store is used without transactions - <code>sync()</code> or <code>close()</code> must be called to
+ * write the changes to disk.  Only one document should be loaded into a store.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class TdbModelStore implements Closeable {
+
+	static final Logger logger = Logger.getLogger(TdbModelStore.class);
+
+	public static final int DEFAULT_CACHE_SIZE = 100000;
+	/**
+	 * System property for a directory in which TagToRDF creates temporary model stores - if not set, in-memory models are used
+	 */
+	public static final String STORE_DIRECTORY_PROPERTY = "SPDXParser.ModelStoreDirectory";
+	/**
+	 * System property for the cache size of the model stores created by the converters
+	 */
+	public static final String CACHE_SIZE_PROPERTY = "SPDXParser.ModelStoreCacheSize";
+
+	private final File directory;
+	private final boolean temporary;
+	private final Dataset dataset;
+	private final Model model;
+
+	/**
+	 * Open or create a store in a directory
+	 * @param directory directory containing the store - created if it does not exist
+	 * @param cacheSize number of entries in the node table caches
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public TdbModelStore(File directory, int cacheSize) throws InvalidSPDXAnalysisException {
+		this(directory, cacheSize, false);
+	}
+
+	private TdbModelStore(File directory, int cacheSize, boolean temporary) throws InvalidSPDXAnalysisException {
+		if (cacheSize <= 0) {
+			throw(new InvalidSPDXAnalysisException("Invalid cache size "+String.valueOf(cacheSize)));
+		}
+		if (!directory.exists() && !directory.mkdirs()) {
+			throw(new InvalidSPDXAnalysisException("Unable to create the model store directory "+directory.getPath()));
+		}
+		if (!directory.isDirectory()) {
+			throw(new InvalidSPDXAnalysisException("Model store "+directory.getPath()+" is not a directory"));
+		}
+		this.directory = directory;
+		this.temporary = temporary;
+		Location location = Location.create(directory.getPath());
+		if (isNewStore(directory)) {
+			// the store parameters are read from the location when the store is first created
+			StoreParams params = StoreParams.builder()
+					.node2NodeIdCacheSize(cacheSize)
+					.nodeId2NodeCacheSize(cacheSize)
+					.nodeMissCacheSize(cacheSize / 10)
+					.build();
+			StoreParamsCodec.write(location, params);
+		}
+		this.dataset = TDBFactory.createDataset(location);
+		this.model = dataset.getDefaultModel();
+	}
+
+	/**
+	 * Create a store in a new temporary directory which is deleted when the store is closed
+	 * @param cacheSize number of entries in the node table caches
+	 * @return
+	 * @throws IOException
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public static TdbModelStore createTemporary(int cacheSize) throws IOException, InvalidSPDXAnalysisException {
+		File directory = Files.createTempDirectory("spdx-tdb").toFile();
+		return new TdbModelStore(directory, cacheSize, true);
+	}
+
+	/**
+	 * Create a temporary store in the directory set by the <code>SPDXParser.ModelStoreDirectory</code>
+	 * system property using the cache size from the <code>SPDXParser.ModelStoreCacheSize</code> property
+	 * @return the new store or null if the store directory property is not set
+	 * @throws IOException
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public static TdbModelStore createFromSystemProperties() throws IOException, InvalidSPDXAnalysisException {
+		String storeDirectory = System.getProperty(STORE_DIRECTORY_PROPERTY);
+		if (storeDirectory == null || storeDirectory.trim().isEmpty()) {
+			return null;
+		}
+		int cacheSize;
+		try {
+			cacheSize = Integer.parseInt(System.getProperty(CACHE_SIZE_PROPERTY, String.valueOf(DEFAULT_CACHE_SIZE)).trim());
+		} catch (NumberFormatException ex) {
+			throw(new InvalidSPDXAnalysisException("Invalid model store cache size "+System.getProperty(CACHE_SIZE_PROPERTY)));
+		}
+		File parent = new File(storeDirectory.trim());
+		if (!parent.exists() && !parent.mkdirs()) {
+			throw(new InvalidSPDXAnalysisException("Unable to create the model store directory "+parent.getPath()));
+		}
+		File directory = Files.createTempDirectory(parent.toPath(), "spdx-tdb").toFile();
+		return new TdbModelStore(directory, cacheSize, true);
+	}
+
+	private static boolean isNewStore(File directory) {
+		String[] files = directory.list();
+		return files == null || files.length == 0;
+	}
+
+	/**
+	 * @return model backed by the store
+	 */
+	public Model getModel() {
+		return this.model;
+	}
+
+	/**
+	 * @return directory containing the store
+	 */
+	public File getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * Load an RDF document into the store with the TDB bulk loader and create an SPDX document from it
+	 * @param fileNameOrUrl file or URL containing the document - the RDF language is determined from the file extension
+	 * and the file URL is used as the base URI
+	 * @return SPDX document backed by the store
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public SpdxDocument loadRdf(String fileNameOrUrl) throws InvalidSPDXAnalysisException {
+		checkEmpty();
+		TDBLoader.loadModel(model, fileNameOrUrl, false);
+		sync();
+		return SPDXDocumentFactory.createSpdxDocument(model);
+	}
+
+	/**
+	 * Read an RDF document directly into the store and create an SPDX document from it.  N-Triples input
+	 * is loaded with the TDB bulk loader.  The TDB bulk loader only reads N-Triples from a stream, so
+	 * other languages are parsed into the store one triple at a time - use <code>loadRdf(String)</code>
+	 * to bulk load documents in other languages.
+	 * @param input
+	 * @param baseUri
+	 * @param fileType RDF/XML, TURTLE, N-TRIPLES or any other language supported by Jena
+	 * @return SPDX document backed by the store
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public SpdxDocument loadRdf(InputStream input, String baseUri, String fileType) throws InvalidSPDXAnalysisException {
+		checkEmpty();
+		SpdxDocument retval;
+		if (RDFLanguages.sameLang(Lang.NTRIPLES, RDFLanguages.nameToLang(fileType))) {
+			TDBLoader.load((GraphTDB)model.getGraph(), input, false);
+			retval = SPDXDocumentFactory.createSpdxDocument(model);
+		} else {
+			retval = SPDXDocumentFactory.createSpdxDocument(input, baseUri, fileType, model);
+		}
+		sync();
+		return retval;
+	}
+
+	private void checkEmpty() throws InvalidSPDXAnalysisException {
+		if (!model.isEmpty()) {
+			throw(new InvalidSPDXAnalysisException("The model store already contains a document"));
+		}
+	}
+
+	/**
+	 * Write any changes to disk
+	 */
+	public void sync() {
+		TDB.sync(dataset);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		sync();
+		dataset.close();
+		TDBFactory.release(dataset);
+		if (temporary) {
+			try (Stream<Path> paths = Files.walk(directory.toPath())) {
+				paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+					if (!path.toFile().delete()) {
+						logger.warn("Unable to delete model store file "+path.toString());
+					}
+				});
+			}
+		}
+	}
+}
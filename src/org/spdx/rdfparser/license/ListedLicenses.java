@@ -22,9 +22,11 @@ import java.io.InputStreamReader;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -32,6 +34,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 import org.spdx.rdfparser.IModelContainer;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.SpdxMetrics;
 import org.spdx.rdfparser.SpdxRdfConstants;
 import org.spdx.rdfparser.model.IRdfModel;
 
@@ -69,7 +73,12 @@ public class ListedLicenses implements IModelContainer {
 	Set<String> listdLicenseIds = null;
 	
 	Map<String, SpdxListedLicense> listedLicenseCache = null;
-	Map<IModelContainer, Map<Node, SpdxListedLicense>> listedLicenseNodeCache = Maps.newHashMap();
+	/**
+	 * Listed licenses by node for model containers which do not keep their own cache.
+	 * SpdxDocumentContainers keep the cache themselves so that it is released with the document.
+	 */
+	Map<IModelContainer, Map<Node, SpdxListedLicense>> listedLicenseNodeCache = 
+			Collections.synchronizedMap(new WeakHashMap<IModelContainer, Map<Node, SpdxListedLicense>>());
 	
 
     
@@ -159,11 +168,29 @@ public class ListedLicenses implements IModelContainer {
         listedLicenseModificationLock.readLock().lock();
         try {
             if (listedLicenseCache.containsKey(id)) {
+                SpdxMetrics.cacheLookup(SpdxMetrics.LISTED_LICENSE_CACHE, true);
                 return listedLicenseCache.get(id);
             }
         } finally {
             listedLicenseModificationLock.readLock().unlock();
         }
+        SpdxMetrics.cacheLookup(SpdxMetrics.LISTED_LICENSE_CACHE, false);
+        SpdxMetrics.Timer loadTimer = SpdxMetrics.startTimer(SpdxMetrics.LISTED_LICENSE_LOAD);
+        try {
+            return loadLicenseFromUri(uri, id);
+        } finally {
+            loadTimer.stop();
+        }
+    }
+    
+    /**
+     * Load a listed license which is not in the cache and add it to the cache
+     * @param uri
+     * @param id license ID
+     * @return
+     * @throws InvalidSPDXAnalysisException
+     */
+    private SpdxListedLicense loadLicenseFromUri(String uri, String id) throws InvalidSPDXAnalysisException {
 		String base = LISTED_LICENSE_ID_URL + id;
 		final Model localLicenseModel = getLicenseModel(uri, base);
 		if (localLicenseModel == null) {
@@ -513,14 +540,15 @@ public class ListedLicenses implements IModelContainer {
 	 */
 	public AnyLicenseInfo getLicenseFromStdLicModel(
 			IModelContainer modelContainer, Node node) throws InvalidSPDXAnalysisException {
-		Map<Node, SpdxListedLicense> modelNodeCache = this.listedLicenseNodeCache.get(modelContainer);
-		if (modelNodeCache == null) {
-			modelNodeCache = Maps.newHashMap();
-			this.listedLicenseNodeCache.put(modelContainer, modelNodeCache);
-		}
-		if (modelNodeCache.containsKey(node)) {
-			return modelNodeCache.get(node);
+		Map<Node, SpdxListedLicense> modelNodeCache = getListedLicenseNodeCache(modelContainer);
+		synchronized(modelNodeCache) {
+			SpdxListedLicense cached = modelNodeCache.get(node);
+			if (cached != null) {
+				SpdxMetrics.cacheLookup(SpdxMetrics.LISTED_LICENSE_NODE_CACHE, true);
+				return cached;
+			}
 		}
+		SpdxMetrics.cacheLookup(SpdxMetrics.LISTED_LICENSE_NODE_CACHE, false);
 		SpdxListedLicense retval = new SpdxListedLicense(modelContainer, node);
 		if (!this.equals(modelContainer)) {
 			String licenseId = retval.getLicenseId();
@@ -540,9 +568,29 @@ public class ListedLicenses implements IModelContainer {
 				// ignore any errors - just don't copy from the license model
 			}
 		}
-		modelNodeCache.put(node, retval);
+		synchronized(modelNodeCache) {
+			modelNodeCache.put(node, retval);
+		}
 		return retval;
 	}
+	
+	/**
+	 * @param modelContainer
+	 * @return the cache of listed licenses by node for the model container
+	 */
+	private Map<Node, SpdxListedLicense> getListedLicenseNodeCache(IModelContainer modelContainer) {
+		if (modelContainer instanceof SpdxDocumentContainer) {
+			return ((SpdxDocumentContainer)modelContainer).getListedLicenseNodeCache();
+		}
+		synchronized(listedLicenseNodeCache) {
+			Map<Node, SpdxListedLicense> retval = listedLicenseNodeCache.get(modelContainer);
+			if (retval == null) {
+				retval = Maps.newHashMap();
+				listedLicenseNodeCache.put(modelContainer, retval);
+			}
+			return retval;
+		}
+	}
 
 	/* (non-Javadoc)
 	 * @see org.spdx.rdfparser.IModelContainer#getDocumentNamespace()
@@ -20,7 +20,9 @@ import java.util.Arrays;
 
 import org.spdx.rdfparser.IModelContainer;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.ModelResourceIndex;
 import org.spdx.rdfparser.RdfModelHelper;
+import org.spdx.rdfparser.SpdxDocumentContainer;
 import org.spdx.rdfparser.SpdxRdfConstants;
 import org.spdx.rdfparser.model.IRdfModel;
 
@@ -215,6 +217,16 @@ public abstract class SimpleLicensingInfo extends AnyLicenseInfo {
 	 */
 	@Override
 	public Resource findDuplicateResource(IModelContainer modelContainer, String uri) throws InvalidSPDXAnalysisException {
+		if (modelContainer instanceof SpdxDocumentContainer) {
+			SpdxDocumentContainer container = (SpdxDocumentContainer)modelContainer;
+			if (container.isBulkLoading()) {
+				return null;	// duplicates are merged when the bulk load is finished
+			}
+			ModelResourceIndex index = container.getResourceIndex();
+			if (index != null) {
+				return index.findLicense(this.licenseId, getType(modelContainer.getModel()));
+			}
+		}
 		Property idProperty = modelContainer.getModel().createProperty(SpdxRdfConstants.SPDX_NAMESPACE, 
 				SpdxRdfConstants.PROP_LICENSE_ID);
 		Property typeProperty = modelContainer.getModel().getProperty(SpdxRdfConstants.RDF_NAMESPACE, 
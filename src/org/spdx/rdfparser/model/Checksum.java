@@ -21,7 +21,9 @@ import java.util.List;
 import org.apache.log4j.Logger;
 import org.spdx.rdfparser.IModelContainer;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.ModelResourceIndex;
 import org.spdx.rdfparser.RdfParserHelper;
+import org.spdx.rdfparser.SpdxDocumentContainer;
 import org.spdx.rdfparser.SpdxRdfConstants;
 import org.spdx.rdfparser.SpdxVerificationHelper;
 
@@ -245,6 +247,16 @@ public class Checksum extends RdfModelObject implements Comparable<Checksum> {
 		// see if we want to change what is considered a duplicate
 		// currently, a file is considered a duplicate if the checksum and filename
 		// are the same.
+		if (modelContainer instanceof SpdxDocumentContainer) {
+			SpdxDocumentContainer container = (SpdxDocumentContainer)modelContainer;
+			if (container.isBulkLoading()) {
+				return null;	// duplicates are merged when the bulk load is finished
+			}
+			ModelResourceIndex index = container.getResourceIndex();
+			if (index != null) {
+				return index.findChecksum(this.algorithm, this.checksumValue);
+			}
+		}
 		return findSpdxChecksum(modelContainer.getModel(), this);
 	}
 
@@ -18,12 +18,14 @@ package org.spdx.rdfparser.model;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.spdx.rdfparser.IModelContainer;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.RdfModelHelper;
 import org.spdx.rdfparser.SPDXCreatorInformation;
 import org.spdx.rdfparser.SPDXReview;
+import org.spdx.rdfparser.SpdxMetrics;
 import org.spdx.rdfparser.SpdxPackageVerificationCode;
 import org.spdx.rdfparser.SpdxRdfConstants;
 import org.spdx.rdfparser.license.AnyLicenseInfo;
@@ -35,12 +37,14 @@ import org.spdx.rdfparser.referencetype.ReferenceType;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.AnonId;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.impl.PropertyImpl;
 import org.apache.jena.util.iterator.ExtendedIterator;
@@ -114,6 +118,11 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 	 */
 	protected boolean refreshOnGet = true;
 	
+	/**
+	 * Properties set while populating a newly created resource - null if the resource is not being populated
+	 */
+	private Set<Property> populatedProperties = null;
+	
 	/**
 	 * Create an RDF Model Object based on an existing Node
 	 * @param modelContainer Container containing the RDF Model
@@ -166,6 +175,8 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		}
 		String uri = getUri(modelContainer);
 		Resource duplicate = findDuplicateResource(modelContainer, uri);
+		boolean newResource = duplicate == null && (uri == null || 
+				!modelContainer.getModel().containsResource(ResourceFactory.createResource(uri)));
 		// we need to wait to set the following to fields since they are checked
 		// by some of the setters
 		this.modelContainer = modelContainer;
@@ -174,7 +185,15 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 
 		this.node = this.resource.asNode();
 		if (duplicate == null || updateModel) {
-			populateModel();
+			if (newResource) {
+				// There are no existing property values to remove the first time each property is set
+				this.populatedProperties = Sets.newHashSet();
+			}
+			try {
+				populateModel();
+			} finally {
+				this.populatedProperties = null;
+			}
 		} else {
 			getPropertiesFromModel();
 		}
@@ -284,6 +303,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		}
 		Node p = model.getProperty(namespace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		List<SpdxElement> retval = Lists.newArrayList();
 		while (tripleIter.hasNext()) {
@@ -322,6 +342,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			return null;
 		}
 		
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		Statement stmt = resource.getProperty(new PropertyImpl(namespace, propertyName));
 		if (stmt == null) return null;
 		else if (stmt.getObject().isLiteral()){
@@ -345,6 +366,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		}
 		Node p = model.getProperty(namespace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		while (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -370,7 +392,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			Integer value) {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (value != null) {
 				this.resource.addProperty(p, Integer.toString(value));
 			}
@@ -390,6 +412,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		List<String> retval = Lists.newArrayList();
 		Node p = model.getProperty(namespace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		while (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -414,7 +437,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			String[] values) {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (values != null) {
 				for (int i = 0; i < values.length; i++) {
 					if (values[i] != null) {
@@ -461,7 +484,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			SpdxElement[] elements, boolean updateModel) throws InvalidSPDXAnalysisException {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (elements != null) {
 				for (int i = 0; i < elements.length; i++) {
 					if (elements[i] != null) {
@@ -486,7 +509,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			SpdxElement element, boolean updateModel) throws InvalidSPDXAnalysisException {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (element != null) {
 				this.resource.addProperty(p, element.createResource(modelContainer, updateModel));
 			}
@@ -539,7 +562,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			Annotation[] annotations) throws InvalidSPDXAnalysisException {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (annotations != null) {
 				for (int i = 0; i < annotations.length; i++) {
 					this.resource.addProperty(p, annotations[i].createResource(modelContainer));
@@ -583,6 +606,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		List<Annotation> retval = Lists.newArrayList();
 		Node p = model.getProperty(nameSpace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		while (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -606,6 +630,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		List<Relationship> retval = Lists.newArrayList();
 		Node p = model.getProperty(nameSpace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		while (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -629,6 +654,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		List<StartEndPointer> retval = Lists.newArrayList();
 		Node p = model.getProperty(nameSpace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		while (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -649,7 +675,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		if (model != null && resource != null) {
 			//TODO: Can all of these be replaced by a single method with RdfModel type?
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (values != null) {
 				for (int i = 0; i < values.length; i++) {
 					this.resource.addProperty(p, values[i].createResource(modelContainer));
@@ -669,6 +695,18 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		setPropertyValue(nameSpace, propertyName, new String[] {value});
 	}
 	
+	/**
+	 * Remove all values for a property of this resource before setting new values.  While a
+	 * newly created resource is being populated, the first set of each property has nothing to remove.
+	 * @param p
+	 */
+	private void removeAllValues(Property p) {
+		if (this.populatedProperties != null && this.populatedProperties.add(p)) {
+			return;
+		}
+		model.removeAll(this.resource, p, null);
+	}
+	
 	/**
 	 * Removes all property values for this resource. 
 	 * @param nameSpace RDF Namespace for the property
@@ -677,7 +715,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 	protected void removePropertyValue(String nameSpace, String propertyName) {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 		}
 	}
 	
@@ -694,7 +732,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			String propertyName, Relationship[] relationships) throws InvalidSPDXAnalysisException {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (relationships != null) {
 				for (int i = 0; i < relationships.length; i++) {
 					this.resource.addProperty(p, relationships[i].createResource(modelContainer));
@@ -731,7 +769,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			String propertyName, AnyLicenseInfo[] licenses) throws InvalidSPDXAnalysisException {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (licenses != null) {
 				for (int i = 0; i < licenses.length; i++) {
 					if (licenses[i] != null) {
@@ -783,6 +821,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		List<AnyLicenseInfo> retval = Lists.newArrayList();
 		Node p = model.getProperty(namespace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		while (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -821,6 +860,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		List<Checksum> retval = Lists.newArrayList();
 		Node p = model.getProperty(nameSpace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		while (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -872,7 +912,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			String propertyName, Checksum[] checksumValues) throws InvalidSPDXAnalysisException {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (checksumValues != null) {
 				for (int i = 0; i < checksumValues.length; i++) {
 					if (checksumValues[i] != null) {
@@ -893,7 +933,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			String propertyName, ReferenceType referenceType) throws InvalidSPDXAnalysisException {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (referenceType != null) {
 				this.resource.addProperty(p, referenceType.createResource(this.modelContainer));
 			}
@@ -914,6 +954,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		}
 		Node p = model.getProperty(nameSpace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		if (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -953,6 +994,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		List<DoapProject> retval = Lists.newArrayList();
 		Node p = model.getProperty(nameSpace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		while (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -971,7 +1013,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			String propertyName, DoapProject[] doapProjectValues) throws InvalidSPDXAnalysisException {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (doapProjectValues != null) {
 				for (int i = 0; i < doapProjectValues.length; i++) {
 					this.resource.addProperty(p, doapProjectValues[i].createResource(this.modelContainer));
@@ -1009,6 +1051,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		}
 		Node p = model.getProperty(namespace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		List<String> retval = Lists.newArrayList();
 		while (tripleIter.hasNext()) {
@@ -1031,7 +1074,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			String propertyName, String[] uris) throws InvalidSPDXAnalysisException {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (uris != null) {
 				for (int i = 0; i < uris.length; i++) {
 					if (uris[i] != null) {
@@ -1086,6 +1129,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		}
 		Node p = model.getProperty(nameSpace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		while (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -1103,7 +1147,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			String propertyName, SPDXCreatorInformation creatorInfo) {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (creatorInfo != null) {
 				this.resource.addProperty(p, creatorInfo.createResource(model));
 			}
@@ -1123,6 +1167,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		}
 		Node p = model.getProperty(nameSpace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		while (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -1141,7 +1186,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			String propertyName, SinglePointer singlePointer) throws InvalidSPDXAnalysisException {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (singlePointer != null) {
 				this.resource.addProperty(p, singlePointer.createResource(modelContainer));
 			}
@@ -1169,6 +1214,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		List<ExternalDocumentRef> retval = Lists.newArrayList();
 		Node p = model.getProperty(nameSpace, propertyName).asNode();
 		Triple m = Triple.createMatch(nodeContainingExternalRefs, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		while (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -1187,7 +1233,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			ExternalDocumentRef[] externalDocRefs) throws InvalidSPDXAnalysisException {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (externalDocRefs != null) {
 				for (int i = 0; i < externalDocRefs.length; i++) {
 					this.resource.addProperty(p, externalDocRefs[i].createResource(modelContainer));
@@ -1206,7 +1252,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			String propertyName, SPDXReview[] reviewers) {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (reviewers != null) {
 				for (int i = 0; i < reviewers.length; i++) {
 					this.resource.addProperty(p, reviewers[i].createResource(model));
@@ -1230,6 +1276,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		List<SPDXReview> retval = Lists.newArrayList();
 		Node p = model.getProperty(nameSpace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		while (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -1251,6 +1298,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		}
 		Node p = model.getProperty(nameSpace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		while (tripleIter.hasNext()) {
 			Triple t = tripleIter.next();
@@ -1269,7 +1317,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			String propertyName, SpdxPackageVerificationCode verificationCode) throws InvalidSPDXAnalysisException {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (verificationCode != null) {
 				this.resource.addProperty(p, verificationCode.createResource(model));
 			}
@@ -1290,6 +1338,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 		}
 		Node p = model.getProperty(nameSpace, propertyName).asNode();
 		Triple m = Triple.createMatch(node, p, null);
+		SpdxMetrics.increment(SpdxMetrics.MODEL_QUERIES);
 		ExtendedIterator<Triple> tripleIter = model.getGraph().find(m);	
 		List<ExternalRef> retval = Lists.newArrayList();
 		while (tripleIter.hasNext()) {
@@ -1310,7 +1359,7 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 			String propertyName, ExternalRef[] externalRefs) throws InvalidSPDXAnalysisException {
 		if (model != null && resource != null) {
 			Property p = model.createProperty(nameSpace, propertyName);
-			model.removeAll(this.resource, p, null);
+			removeAllValues(p);
 			if (externalRefs != null) {
 				for (int i = 0; i < externalRefs.length; i++) {
 					this.resource.addProperty(p, externalRefs[i].createResource(modelContainer));
@@ -1373,4 +1422,14 @@ public abstract class RdfModelObject implements IRdfModel, Cloneable {
 	public Node getNode() {
 		return this.node;
 	}
+	
+	/**
+	 * Use a different resource in the same model for this object.  This is used when duplicate
+	 * resources are merged into a single resource.
+	 * @param resource
+	 */
+	public void replaceResource(Resource resource) {
+		this.resource = resource;
+		this.node = resource.asNode();
+	}
 }
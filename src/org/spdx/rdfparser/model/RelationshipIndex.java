@@ -0,0 +1,470 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser.model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.spdx.rdfparser.IModelContainer;
+import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.SpdxRdfConstants;
+import org.spdx.rdfparser.model.Relationship.RelationshipType;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * An immutable index of the relationships between the elements in a model.
+ *
+ * The index is built in a single pass over the relationship, package file and type triples
+ * when it is created and is not updated when the model changes.  The relationships are held
+ * in adjacency lists keyed by element node and relationship type in both directions.
+ *
+ * The transitive queries walk the index iteratively, so they are not limited by the depth of
+ * the relationship graph and they do not read the relationships from the model at each element.
+ * Elements are only created for the results.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class RelationshipIndex {
+
+	/**
+	 * Relationship types where the subject depends on the related element
+	 */
+	private static final List<RelationshipType> DEPENDS_ON_TYPES = Arrays.asList(
+			RelationshipType.HAS_PREREQUISITE, RelationshipType.DYNAMIC_LINK, RelationshipType.STATIC_LINK);
+	/**
+	 * Relationship types where the related element depends on the subject
+	 */
+	private static final List<RelationshipType> DEPENDENCY_OF_TYPES = Arrays.asList(
+			RelationshipType.PREREQUISITE_FOR);
+
+	private final IModelContainer modelContainer;
+	/**
+	 * Related elements by element and relationship type
+	 */
+	private final ImmutableMap<Node, ImmutableListMultimap<RelationshipType, Node>> outgoing;
+	/**
+	 * Elements with a relationship to the element by related element and relationship type
+	 */
+	private final ImmutableMap<Node, ImmutableListMultimap<RelationshipType, Node>> incoming;
+	/**
+	 * Files by package (the hasFile property)
+	 */
+	private final ImmutableListMultimap<Node, Node> packageFiles;
+	private final ImmutableSet<Node> fileNodes;
+	private final ImmutableSet<Node> packageNodes;
+	private final ImmutableList<String> invalidRelationships;
+
+	/**
+	 * Build the index for all relationships in the model container
+	 * @param modelContainer
+	 */
+	public RelationshipIndex(IModelContainer modelContainer) {
+		this.modelContainer = modelContainer;
+		Model model = modelContainer.getModel();
+		Graph graph = model.getGraph();
+		Node relationshipProperty = model.getProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_RELATIONSHIP).asNode();
+		Node relatedElementProperty = model.getProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_RELATED_SPDX_ELEMENT).asNode();
+		Node relationshipTypeProperty = model.getProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_RELATIONSHIP_TYPE).asNode();
+		Map<Node, ListMultimap<RelationshipType, Node>> outgoingBuilder = Maps.newHashMap();
+		Map<Node, ListMultimap<RelationshipType, Node>> incomingBuilder = Maps.newHashMap();
+		List<String> invalid = Lists.newArrayList();
+		ExtendedIterator<Triple> tripleIter = graph.find(Triple.createMatch(null, relationshipProperty, null));
+		try {
+			while (tripleIter.hasNext()) {
+				Triple t = tripleIter.next();
+				Node element = t.getSubject();
+				Node related = findObject(graph, t.getObject(), relatedElementProperty);
+				RelationshipType type = toRelationshipType(findObject(graph, t.getObject(), relationshipTypeProperty));
+				addRelationshipErrors(invalid, modelContainer, element, related, type);
+				if (related != null && type != null) {
+					addEdge(outgoingBuilder, element, type, related);
+					addEdge(incomingBuilder, related, type, element);
+				}
+			}
+		} finally {
+			tripleIter.close();
+		}
+		this.outgoing = toImmutable(outgoingBuilder);
+		this.incoming = toImmutable(incomingBuilder);
+		this.invalidRelationships = ImmutableList.copyOf(invalid);
+		ImmutableListMultimap.Builder<Node, Node> packageFilesBuilder = ImmutableListMultimap.builder();
+		Node packageFileProperty = model.getProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_PACKAGE_FILE).asNode();
+		tripleIter = graph.find(Triple.createMatch(null, packageFileProperty, null));
+		try {
+			while (tripleIter.hasNext()) {
+				Triple t = tripleIter.next();
+				packageFilesBuilder.put(t.getSubject(), t.getObject());
+			}
+		} finally {
+			tripleIter.close();
+		}
+		this.packageFiles = packageFilesBuilder.build();
+		this.fileNodes = findSubjectsOfType(model, SpdxRdfConstants.CLASS_SPDX_FILE);
+		this.packageNodes = findSubjectsOfType(model, SpdxRdfConstants.CLASS_SPDX_PACKAGE);
+	}
+
+	/**
+	 * Find the relationships in the model which are missing the related element or the relationship type
+	 * in a single pass over the relationship triples without building the index
+	 * @param modelContainer
+	 * @return a description of each invalid relationship
+	 */
+	public static List<String> findInvalidRelationships(IModelContainer modelContainer) {
+		Model model = modelContainer.getModel();
+		Graph graph = model.getGraph();
+		Node relationshipProperty = model.getProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_RELATIONSHIP).asNode();
+		Node relatedElementProperty = model.getProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_RELATED_SPDX_ELEMENT).asNode();
+		Node relationshipTypeProperty = model.getProperty(SpdxRdfConstants.SPDX_NAMESPACE,
+				SpdxRdfConstants.PROP_RELATIONSHIP_TYPE).asNode();
+		List<String> retval = Lists.newArrayList();
+		ExtendedIterator<Triple> tripleIter = graph.find(Triple.createMatch(null, relationshipProperty, null));
+		try {
+			while (tripleIter.hasNext()) {
+				Triple t = tripleIter.next();
+				addRelationshipErrors(retval, modelContainer, t.getSubject(),
+						findObject(graph, t.getObject(), relatedElementProperty),
+						toRelationshipType(findObject(graph, t.getObject(), relationshipTypeProperty)));
+			}
+		} finally {
+			tripleIter.close();
+		}
+		return retval;
+	}
+
+	private static void addRelationshipErrors(List<String> errors, IModelContainer modelContainer,
+			Node element, Node related, RelationshipType type) {
+		if (related == null) {
+			errors.add("Missing related SPDX element in relationship for "+elementName(modelContainer, element));
+		}
+		if (type == null) {
+			errors.add("Missing relationship type in relationship for "+elementName(modelContainer, element));
+		}
+	}
+
+	private static Node findObject(Graph graph, Node subject, Node property) {
+		ExtendedIterator<Triple> tripleIter = graph.find(Triple.createMatch(subject, property, null));
+		try {
+			if (tripleIter.hasNext()) {
+				return tripleIter.next().getObject();
+			} else {
+				return null;
+			}
+		} finally {
+			tripleIter.close();
+		}
+	}
+
+	private static RelationshipType toRelationshipType(Node typeNode) {
+		if (typeNode == null || !typeNode.isURI() ||
+				!typeNode.getURI().startsWith(SpdxRdfConstants.SPDX_NAMESPACE)) {
+			return null;
+		}
+		return RelationshipType.fromString(typeNode.getURI().substring(SpdxRdfConstants.SPDX_NAMESPACE.length()));
+	}
+
+	private static String elementName(IModelContainer modelContainer, Node element) {
+		if (element.isURI()) {
+			String uri = element.getURI();
+			if (uri.startsWith(modelContainer.getDocumentNamespace())) {
+				return uri.substring(modelContainer.getDocumentNamespace().length());
+			}
+			return uri;
+		}
+		return element.toString();
+	}
+
+	private static void addEdge(Map<Node, ListMultimap<RelationshipType, Node>> adjacency,
+			Node from, RelationshipType type, Node to) {
+		ListMultimap<RelationshipType, Node> edges = adjacency.get(from);
+		if (edges == null) {
+			edges = ArrayListMultimap.create();
+			adjacency.put(from, edges);
+		}
+		edges.put(type, to);
+	}
+
+	private static ImmutableMap<Node, ImmutableListMultimap<RelationshipType, Node>> toImmutable(
+			Map<Node, ListMultimap<RelationshipType, Node>> adjacency) {
+		ImmutableMap.Builder<Node, ImmutableListMultimap<RelationshipType, Node>> builder = ImmutableMap.builder();
+		for (Map.Entry<Node, ListMultimap<RelationshipType, Node>> entry:adjacency.entrySet()) {
+			builder.put(entry.getKey(), ImmutableListMultimap.copyOf(entry.getValue()));
+		}
+		return builder.build();
+	}
+
+	private static ImmutableSet<Node> findSubjectsOfType(Model model, String className) {
+		Node typeProperty = model.getProperty(SpdxRdfConstants.RDF_NAMESPACE,
+				SpdxRdfConstants.RDF_PROP_TYPE).asNode();
+		Node typeNode = model.createResource(SpdxRdfConstants.SPDX_NAMESPACE + className).asNode();
+		ImmutableSet.Builder<Node> builder = ImmutableSet.builder();
+		ExtendedIterator<Triple> tripleIter = model.getGraph().find(Triple.createMatch(null, typeProperty, typeNode));
+		try {
+			while (tripleIter.hasNext()) {
+				builder.add(tripleIter.next().getSubject());
+			}
+		} finally {
+			tripleIter.close();
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @param element
+	 * @param type
+	 * @return nodes for the elements related to the element by a relationship of the type
+	 */
+	public List<Node> getRelatedNodes(Node element, RelationshipType type) {
+		return edges(outgoing, element, type);
+	}
+
+	/**
+	 * @param element
+	 * @param type
+	 * @return nodes for the elements which have a relationship of the type to the element
+	 */
+	public List<Node> getRelatingNodes(Node element, RelationshipType type) {
+		return edges(incoming, element, type);
+	}
+
+	private static List<Node> edges(Map<Node, ImmutableListMultimap<RelationshipType, Node>> adjacency,
+			Node element, RelationshipType type) {
+		ImmutableListMultimap<RelationshipType, Node> edges = adjacency.get(element);
+		if (edges == null) {
+			return ImmutableList.of();
+		}
+		return edges.get(type);
+	}
+
+	/**
+	 * @param element
+	 * @return true if the element is an SPDX file
+	 */
+	public boolean isFile(Node element) {
+		return fileNodes.contains(element);
+	}
+
+	/**
+	 * @param element
+	 * @return true if the element is an SPDX package
+	 */
+	public boolean isPackage(Node element) {
+		return packageNodes.contains(element);
+	}
+
+	/**
+	 * @return a description of each relationship in the model which is missing the related element or the relationship type
+	 */
+	public List<String> getInvalidRelationships() {
+		return invalidRelationships;
+	}
+
+	/**
+	 * Find all elements reachable from the start element.  The start element is only included
+	 * if it can be reached from itself.
+	 * @param start
+	 * @param outgoingTypes types of relationships from an element to follow - null to follow all types
+	 * @param incomingTypes types of relationships to an element to follow in reverse
+	 * @param followPackageFiles if true, follow the package files (hasFile) property
+	 * @return nodes for the elements in the order they were reached
+	 */
+	private Set<Node> findReachable(Node start, Collection<RelationshipType> outgoingTypes,
+			Collection<RelationshipType> incomingTypes, boolean followPackageFiles) {
+		Set<Node> reached = Sets.newLinkedHashSet();
+		Set<Node> visited = Sets.newHashSet();
+		Deque<Node> toVisit = new ArrayDeque<Node>();
+		toVisit.push(start);
+		visited.add(start);
+		while (!toVisit.isEmpty()) {
+			Node element = toVisit.pop();
+			List<Node> next = Lists.newArrayList();
+			ImmutableListMultimap<RelationshipType, Node> out = outgoing.get(element);
+			if (out != null) {
+				if (outgoingTypes == null) {
+					next.addAll(out.values());
+				} else {
+					for (RelationshipType type:outgoingTypes) {
+						next.addAll(out.get(type));
+					}
+				}
+			}
+			ImmutableListMultimap<RelationshipType, Node> in = incoming.get(element);
+			if (in != null) {
+				for (RelationshipType type:incomingTypes) {
+					next.addAll(in.get(type));
+				}
+			}
+			if (followPackageFiles) {
+				next.addAll(packageFiles.get(element));
+			}
+			for (Node node:next) {
+				reached.add(node);
+				if (visited.add(node)) {
+					toVisit.push(node);
+				}
+			}
+		}
+		return reached;
+	}
+
+	private SpdxElement toElement(Node node) throws InvalidSPDXAnalysisException {
+		return SpdxElementFactory.createElementFromModel(modelContainer, node);
+	}
+
+	/**
+	 * @param element
+	 * @param type
+	 * @return the elements related to the element by a relationship of the type
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public List<SpdxElement> getRelatedElements(SpdxElement element, RelationshipType type) throws InvalidSPDXAnalysisException {
+		List<SpdxElement> retval = Lists.newArrayList();
+		if (element.getNode() != null) {
+			for (Node node:getRelatedNodes(element.getNode(), type)) {
+				retval.add(toElement(node));
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * @param pkg
+	 * @return the files in the package (the hasFile property)
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public List<SpdxFile> getPackageFiles(SpdxPackage pkg) throws InvalidSPDXAnalysisException {
+		List<SpdxFile> retval = Lists.newArrayList();
+		if (pkg.getNode() != null) {
+			for (Node node:packageFiles.get(pkg.getNode())) {
+				retval.add((SpdxFile)toElement(node));
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Collect all files related to an element directly or through other related elements,
+	 * including the files in any related package
+	 * @param element
+	 * @return
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public Set<SpdxFile> getAllRelatedFiles(SpdxElement element) throws InvalidSPDXAnalysisException {
+		Set<SpdxFile> retval = Sets.newLinkedHashSet();
+		if (element.getNode() == null) {
+			return retval;
+		}
+		for (Node node:findReachable(element.getNode(), null, Collections.<RelationshipType>emptyList(), false)) {
+			if (isFile(node)) {
+				retval.add((SpdxFile)toElement(node));
+			} else if (isPackage(node)) {
+				for (Node file:packageFiles.get(node)) {
+					retval.add((SpdxFile)toElement(file));
+				}
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Collect all packages related to an element directly or through other related elements
+	 * @param element
+	 * @return
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public Set<SpdxPackage> getAllRelatedPackages(SpdxElement element) throws InvalidSPDXAnalysisException {
+		Set<SpdxPackage> retval = Sets.newLinkedHashSet();
+		if (element.getNode() == null) {
+			return retval;
+		}
+		for (Node node:findReachable(element.getNode(), null, Collections.<RelationshipType>emptyList(), false)) {
+			if (isPackage(node)) {
+				retval.add((SpdxPackage)toElement(node));
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Collect all files transitively contained by a package.  Containment is the package files
+	 * (hasFile) property and CONTAINS and CONTAINED_BY relationships, including the files in
+	 * any contained packages.
+	 * @param pkg
+	 * @return
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public Set<SpdxFile> getFilesContainedBy(SpdxPackage pkg) throws InvalidSPDXAnalysisException {
+		Set<SpdxFile> retval = Sets.newLinkedHashSet();
+		if (pkg.getNode() == null) {
+			return retval;
+		}
+		for (Node node:findReachable(pkg.getNode(), Arrays.asList(RelationshipType.CONTAINS),
+				Arrays.asList(RelationshipType.CONTAINED_BY), true)) {
+			if (isFile(node)) {
+				retval.add((SpdxFile)toElement(node));
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Collect all packages which depend on an element directly or through other elements.
+	 * A dependency is a HAS_PREREQUISITE, DYNAMIC_LINK or STATIC_LINK relationship from the dependent
+	 * element or a PREREQUISITE_FOR relationship to the dependent element.
+	 * @param element
+	 * @return
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public Set<SpdxPackage> getPackagesDependingOn(SpdxElement element) throws InvalidSPDXAnalysisException {
+		Set<SpdxPackage> retval = Sets.newLinkedHashSet();
+		if (element.getNode() == null) {
+			return retval;
+		}
+		for (Node node:findReachable(element.getNode(), DEPENDENCY_OF_TYPES, DEPENDS_ON_TYPES, false)) {
+			if (isPackage(node)) {
+				retval.add((SpdxPackage)toElement(node));
+			}
+		}
+		return retval;
+	}
+}
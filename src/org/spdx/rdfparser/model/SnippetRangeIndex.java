@@ -0,0 +1,344 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.model.pointer.ByteOffsetPointer;
+import org.spdx.rdfparser.model.pointer.IntervalTree;
+import org.spdx.rdfparser.model.pointer.IntervalTree.Interval;
+import org.spdx.rdfparser.model.pointer.LineCharPointer;
+import org.spdx.rdfparser.model.pointer.SinglePointer;
+import org.spdx.rdfparser.model.pointer.StartEndPointer;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * An immutable index of the snippet byte and line ranges for each file in a document.
+ *
+ * The index is built from the snippets in the document when it is created and is not updated
+ * when the document changes.  The byte ranges and the line ranges of the snippets from each file
+ * are held in an <code>IntervalTree</code> so that the snippets overlapping or containing a range
+ * can be found without scanning all of the snippets for the file.
+ *
+ * Snippets without a snippet from file are not indexed.  Snippets with a missing or invalid range
+ * are not included in the interval tree for that range but are still returned by <code>getSnippets</code>.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class SnippetRangeIndex {
+
+	public enum RangeType {BYTE_RANGE, LINE_RANGE};
+
+	/**
+	 * Snippet byte ranges by file ID
+	 */
+	private final ImmutableMap<String, IntervalTree<SpdxSnippet>> byteRanges;
+	/**
+	 * Snippet line ranges by file ID
+	 */
+	private final ImmutableMap<String, IntervalTree<SpdxSnippet>> lineRanges;
+	/**
+	 * Snippets sorted by byte range by file ID
+	 */
+	private final ImmutableListMultimap<String, SpdxSnippet> fileSnippets;
+	/**
+	 * IDs of the snippet from files by file name
+	 */
+	private final ImmutableListMultimap<String, String> fileIdsByName;
+	private final ImmutableList<String> overlapWarnings;
+
+	/**
+	 * Build the index for all snippets in the document container
+	 * @param documentContainer
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public SnippetRangeIndex(SpdxDocumentContainer documentContainer) throws InvalidSPDXAnalysisException {
+		this(documentContainer.findAllSnippets());
+	}
+
+	/**
+	 * Build the index for the snippets
+	 * @param snippets
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public SnippetRangeIndex(List<SpdxSnippet> snippets) throws InvalidSPDXAnalysisException {
+		ListMultimap<String, Interval<SpdxSnippet>> byteIntervals = ArrayListMultimap.create();
+		ListMultimap<String, Interval<SpdxSnippet>> lineIntervals = ArrayListMultimap.create();
+		ListMultimap<String, SpdxSnippet> unsortedSnippets = ArrayListMultimap.create();
+		Map<String, String> fileNames = Maps.newHashMap();
+		for (SpdxSnippet snippet:snippets) {
+			SpdxFile fromFile = snippet.getSnippetFromFile();
+			if (fromFile == null || fromFile.getId() == null) {
+				continue;
+			}
+			String fileId = fromFile.getId();
+			if (!fileNames.containsKey(fileId)) {
+				fileNames.put(fileId, fromFile.getName());
+			}
+			Interval<SpdxSnippet> byteInterval = toInterval(snippet.getByteRange(), snippet);
+			if (byteInterval != null) {
+				byteIntervals.put(fileId, byteInterval);
+			} else {
+				unsortedSnippets.put(fileId, snippet);
+			}
+			Interval<SpdxSnippet> lineInterval = toInterval(snippet.getLineRange(), snippet);
+			if (lineInterval != null) {
+				lineIntervals.put(fileId, lineInterval);
+			}
+		}
+		ImmutableMap.Builder<String, IntervalTree<SpdxSnippet>> byteRangesBuilder = ImmutableMap.builder();
+		ImmutableListMultimap.Builder<String, SpdxSnippet> fileSnippetsBuilder = ImmutableListMultimap.builder();
+		List<String> warnings = Lists.newArrayList();
+		for (String fileId:byteIntervals.keySet()) {
+			IntervalTree<SpdxSnippet> tree = new IntervalTree<SpdxSnippet>(byteIntervals.get(fileId));
+			byteRangesBuilder.put(fileId, tree);
+			for (Interval<SpdxSnippet> interval:tree.getIntervals()) {
+				fileSnippetsBuilder.put(fileId, interval.getValue());
+			}
+			addOverlapWarnings(tree, fileNames.get(fileId), warnings);
+		}
+		fileSnippetsBuilder.putAll(unsortedSnippets);
+		ImmutableMap.Builder<String, IntervalTree<SpdxSnippet>> lineRangesBuilder = ImmutableMap.builder();
+		for (String fileId:lineIntervals.keySet()) {
+			lineRangesBuilder.put(fileId, new IntervalTree<SpdxSnippet>(lineIntervals.get(fileId)));
+		}
+		ImmutableListMultimap.Builder<String, String> fileIdsByNameBuilder = ImmutableListMultimap.builder();
+		for (Map.Entry<String, String> entry:fileNames.entrySet()) {
+			if (entry.getValue() != null) {
+				fileIdsByNameBuilder.put(entry.getValue(), entry.getKey());
+			}
+		}
+		this.byteRanges = byteRangesBuilder.build();
+		this.lineRanges = lineRangesBuilder.build();
+		this.fileSnippets = fileSnippetsBuilder.build();
+		this.fileIdsByName = fileIdsByNameBuilder.build();
+		this.overlapWarnings = ImmutableList.copyOf(warnings);
+	}
+
+	/**
+	 * @param range byte or line range
+	 * @param snippet
+	 * @return an interval for the range or null if the range is missing or not valid
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private static Interval<SpdxSnippet> toInterval(StartEndPointer range, SpdxSnippet snippet) throws InvalidSPDXAnalysisException {
+		if (range == null) {
+			return null;
+		}
+		Integer start = toPosition(range.getStartPointer());
+		Integer end = toPosition(range.getEndPointer());
+		if (start == null || end == null || start > end) {
+			return null;
+		}
+		return new Interval<SpdxSnippet>(start, end, snippet);
+	}
+
+	/**
+	 * @param pointer
+	 * @return the byte offset or line number for the pointer or null if it is not available
+	 */
+	private static Integer toPosition(SinglePointer pointer) {
+		if (pointer instanceof ByteOffsetPointer) {
+			return ((ByteOffsetPointer)pointer).getOffset();
+		} else if (pointer instanceof LineCharPointer) {
+			return ((LineCharPointer)pointer).getLineNumber();
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Add a warning for each snippet whose byte range overlaps a snippet earlier in the file
+	 * @param tree byte ranges for the file
+	 * @param fileName
+	 * @param warnings
+	 */
+	private static void addOverlapWarnings(IntervalTree<SpdxSnippet> tree, String fileName, List<String> warnings) {
+		Interval<SpdxSnippet> furthest = null;	// interval reaching furthest into the file so far
+		for (Interval<SpdxSnippet> interval:tree.getIntervals()) {
+			if (furthest != null && interval.getStart() <= furthest.getEnd()) {
+				warnings.add("Snippet "+interval.getValue().toString()+" byte range overlaps snippet "+
+						furthest.getValue().toString()+" in file "+fileName);
+			}
+			if (furthest == null || interval.getEnd() > furthest.getEnd()) {
+				furthest = interval;
+			}
+		}
+	}
+
+	/**
+	 * @param rangeType
+	 * @param fileId
+	 * @return the interval tree for the file or null if there are no ranges of the type for the file
+	 */
+	private IntervalTree<SpdxSnippet> getTree(RangeType rangeType, String fileId) {
+		if (fileId == null) {
+			return null;
+		}
+		if (RangeType.BYTE_RANGE.equals(rangeType)) {
+			return byteRanges.get(fileId);
+		} else {
+			return lineRanges.get(fileId);
+		}
+	}
+
+	private static List<SpdxSnippet> toSnippets(List<Interval<SpdxSnippet>> intervals) {
+		List<SpdxSnippet> retval = Lists.newArrayListWithCapacity(intervals.size());
+		for (Interval<SpdxSnippet> interval:intervals) {
+			retval.add(interval.getValue());
+		}
+		return retval;
+	}
+
+	/**
+	 * @param fileId
+	 * @return the snippets from the file sorted by byte range followed by any snippets without a valid byte range
+	 */
+	public List<SpdxSnippet> getSnippets(String fileId) {
+		return fileSnippets.get(fileId);
+	}
+
+	/**
+	 * @param file
+	 * @return the snippets from the file sorted by byte range followed by any snippets without a valid byte range
+	 */
+	public List<SpdxSnippet> getSnippets(SpdxFile file) {
+		if (file == null || file.getId() == null) {
+			return Collections.emptyList();
+		}
+		return getSnippets(file.getId());
+	}
+
+	/**
+	 * @return the IDs of all files with snippets
+	 */
+	public Set<String> getSnippetFileIds() {
+		return fileSnippets.keySet();
+	}
+
+	/**
+	 * @param fileName
+	 * @return the IDs of the files with snippets which have the file name
+	 */
+	public List<String> getSnippetFileIds(String fileName) {
+		return fileIdsByName.get(fileName);
+	}
+
+	/**
+	 * @param fileId
+	 * @param rangeType
+	 * @param start
+	 * @param end
+	 * @return snippets from the file whose range shares at least one byte or line with the range from start to end
+	 */
+	public List<SpdxSnippet> getOverlappingSnippets(String fileId, RangeType rangeType, int start, int end) {
+		IntervalTree<SpdxSnippet> tree = getTree(rangeType, fileId);
+		if (tree == null) {
+			return Collections.emptyList();
+		}
+		return toSnippets(tree.getOverlapping(start, end));
+	}
+
+	/**
+	 * @param fileId
+	 * @param rangeType
+	 * @param start
+	 * @param end
+	 * @return snippets from the file whose range contains the whole range from start to end
+	 */
+	public List<SpdxSnippet> getContainingSnippets(String fileId, RangeType rangeType, int start, int end) {
+		IntervalTree<SpdxSnippet> tree = getTree(rangeType, fileId);
+		if (tree == null) {
+			return Collections.emptyList();
+		}
+		return toSnippets(tree.getContaining(start, end));
+	}
+
+	/**
+	 * @param fileId
+	 * @param rangeType
+	 * @param start
+	 * @param end
+	 * @return snippets from the file whose range is within the range from start to end
+	 */
+	public List<SpdxSnippet> getContainedSnippets(String fileId, RangeType rangeType, int start, int end) {
+		IntervalTree<SpdxSnippet> tree = getTree(rangeType, fileId);
+		if (tree == null) {
+			return Collections.emptyList();
+		}
+		return toSnippets(tree.getContainedIn(start, end));
+	}
+
+	/**
+	 * @param fileId
+	 * @param range byte or line range
+	 * @return snippets from the file whose range of the same type overlaps the range
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public List<SpdxSnippet> getOverlappingSnippets(String fileId, StartEndPointer range) throws InvalidSPDXAnalysisException {
+		if (range == null) {
+			return Collections.emptyList();
+		}
+		Interval<SpdxSnippet> interval = toInterval(range, null);
+		if (interval == null) {
+			return Collections.emptyList();
+		}
+		RangeType rangeType = range.getStartPointer() instanceof LineCharPointer ? RangeType.LINE_RANGE : RangeType.BYTE_RANGE;
+		return getOverlappingSnippets(fileId, rangeType, interval.getStart(), interval.getEnd());
+	}
+
+	/**
+	 * @param snippet
+	 * @param rangeType
+	 * @return the other snippets from the same file whose range overlaps the range of the snippet
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public List<SpdxSnippet> getOverlappingSnippets(SpdxSnippet snippet, RangeType rangeType) throws InvalidSPDXAnalysisException {
+		SpdxFile fromFile = snippet.getSnippetFromFile();
+		if (fromFile == null) {
+			return Collections.emptyList();
+		}
+		StartEndPointer range = RangeType.BYTE_RANGE.equals(rangeType) ? snippet.getByteRange() : snippet.getLineRange();
+		List<SpdxSnippet> retval = Lists.newArrayList();
+		for (SpdxSnippet overlapping:getOverlappingSnippets(fromFile.getId(), range)) {
+			if (!overlapping.equals(snippet)) {
+				retval.add(overlapping);
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * @return a warning for each snippet whose byte range overlaps another snippet from the same file
+	 */
+	public List<String> getOverlapWarnings() {
+		return overlapWarnings;
+	}
+}
@@ -21,12 +21,15 @@ import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateFormatUtils;
+import org.spdx.rdfparser.CloseableIterator;
+import org.spdx.rdfparser.ElementIterationException;
 import org.spdx.rdfparser.IModelContainer;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.RdfModelHelper;
 import org.spdx.rdfparser.SPDXCreatorInformation;
 import org.spdx.rdfparser.SPDXReview;
 import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.SpdxMetrics;
 import org.spdx.rdfparser.SpdxRdfConstants;
 import org.spdx.rdfparser.license.AnyLicenseInfo;
 import org.spdx.rdfparser.license.ExtractedLicenseInfo;
@@ -34,6 +37,7 @@ import org.spdx.rdfparser.license.ListedLicenses;
 import org.spdx.rdfparser.license.SpdxListedLicense;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.Lists;
 import org.apache.jena.graph.Node;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Resource;
@@ -361,6 +365,15 @@ public class SpdxDocument extends SpdxElement {
 	 */
 	@Override
 	public List<String> verify() {
+		SpdxMetrics.Timer timer = SpdxMetrics.startTimer(SpdxMetrics.VERIFY);
+		try {
+			return doVerify();
+		} finally {
+			timer.stop();
+		}
+	}
+
+	private List<String> doVerify() {
 		List<String> retval = super.verify();
 		// specVersion
 		String docSpecVersion = "";	// note - this is used later in verify to verify version specific info
@@ -461,18 +474,35 @@ public class SpdxDocument extends SpdxElement {
 		} catch (InvalidSPDXAnalysisException e) {
 			retval.add("Invalid document items: "+e.getMessage());
 		}
-		try {
-			List<SpdxElement> allElements = documentContainer.findAllElements();
-			for (SpdxElement element:allElements) {
+		try (CloseableIterator<SpdxElement> allElements = documentContainer.getElementIterator(false)) {
+			while (allElements.hasNext()) {
+				SpdxElement element = allElements.next();
 				if (!element.getId().equals(this.getId())) {
 					retval.addAll(element.verify());
 				}				
 			}
-		} catch (InvalidSPDXAnalysisException e) {
-			retval.add("Invalid elements: "+e.getMessage());
+		} catch (ElementIterationException e) {
+			retval.add("Invalid elements: "+e.getCause().getMessage());
 		}
+		// relationships - checked from the relationship triples so that the related elements are not verified recursively
+		retval.addAll(RelationshipIndex.findInvalidRelationships(documentContainer));
 		return retval;
 	} 
+
+	/**
+	 * Warnings are not verification errors and do not make the document invalid.
+	 * Currently the only warnings are for snippets from the same file with overlapping byte ranges.
+	 * @return a list of warnings for the document - empty if there are none
+	 */
+	public List<String> getWarnings() {
+		try {
+			return new SnippetRangeIndex(documentContainer).getOverlapWarnings();
+		} catch (InvalidSPDXAnalysisException e) {
+			List<String> retval = Lists.newArrayList();
+			retval.add("Unable to check the snippet ranges: "+e.getMessage());
+			return retval;
+		}
+	}
 	
 	@Override
 	public boolean equivalent(IRdfModel o) {
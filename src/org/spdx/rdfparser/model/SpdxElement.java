@@ -61,13 +61,67 @@ public class SpdxElement extends RdfModelObject {
 	 * the unique URI for the item.  The URI is the namespace of the modelContainer + id
 	 */
 	private String id;
+	/**
+	 * True if the properties have not yet been read from the model - see <code>loadProperties()</code>
+	 */
+	private boolean lazy = false;
 	
 	public SpdxElement(IModelContainer modelContainer, Node node) throws InvalidSPDXAnalysisException {
+		this(modelContainer, node, false);
+	}
+	
+	/**
+	 * @param modelContainer
+	 * @param node
+	 * @param lazyProperties If true, only the ID is read when the element is created.  The other
+	 * properties are read from the model each time they are requested.  The element must be loaded
+	 * using <code>loadProperties()</code> before any of the properties are changed.
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	protected SpdxElement(IModelContainer modelContainer, Node node, boolean lazyProperties) throws InvalidSPDXAnalysisException {
 		super(modelContainer, node);
-		getPropertiesFromModel();
+		if (lazyProperties) {
+			this.lazy = true;
+			this.refreshOnGet = true;
+			getIdFromModel();
+		} else {
+			getPropertiesFromModel();
+		}
 		SpdxElementFactory.addToCreatedElements(modelContainer, node, this);
 	}
 	
+	/**
+	 * @return true if the properties of this element have not been read from the model
+	 */
+	public boolean isLazy() {
+		return this.lazy;
+	}
+	
+	/**
+	 * Read all of the properties from the model for an element created with lazy
+	 * property loading.  Does nothing if the properties have already been read.
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public void loadProperties() throws InvalidSPDXAnalysisException {
+		if (this.lazy) {
+			this.lazy = false;
+			getPropertiesFromModel();
+		}
+	}
+	
+	/**
+	 * Load the properties before they are accessed directly by verify, equivalent or clone
+	 */
+	protected void loadLazyProperties() {
+		if (this.lazy) {
+			try {
+				loadProperties();
+			} catch (InvalidSPDXAnalysisException e) {
+				logger.error("Invalid properties in the model for element "+this.id,e);
+			}
+		}
+	}
+	
 	/* (non-Javadoc)
 	 * @see org.spdx.rdfparser.model.RdfModelObject#getPropertiesFromModel()
 	 */
@@ -78,7 +132,10 @@ public class SpdxElement extends RdfModelObject {
 		this.comment = findSinglePropertyValue(SpdxRdfConstants.RDFS_NAMESPACE, SpdxRdfConstants.RDFS_PROP_COMMENT);
 		this.name = findSinglePropertyValue(SpdxRdfConstants.SPDX_NAMESPACE, this.getNamePropertyName());
 		this.relationships = findRelationshipPropertyValues(SpdxRdfConstants.SPDX_NAMESPACE, SpdxRdfConstants.PROP_RELATIONSHIP);
-		// ID
+		getIdFromModel();
+	}
+	
+	private void getIdFromModel() {
 		this.id = null;
 		if (this.resource.isURIResource()) {
 			if (this.resource.getURI().startsWith(modelContainer.getDocumentNamespace())) {
@@ -137,11 +194,35 @@ public class SpdxElement extends RdfModelObject {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see org.spdx.rdfparser.model.RdfModelObject#createResource(org.spdx.rdfparser.IModelContainer, boolean)
+	 */
+	@Override
+	public Resource createResource(IModelContainer modelContainer, boolean updateModel) throws InvalidSPDXAnalysisException {
+		if (this.lazy && !modelContainer.equals(this.modelContainer)) {
+			// the properties are copied from the fields to the new model
+			loadProperties();
+		}
+		return super.createResource(modelContainer, updateModel);
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.spdx.rdfparser.model.RdfModelObject#setSingleObjectForSameNode()
+	 */
+	@Override
+	public void setSingleObjectForSameNode() {
+		if (!this.lazy) {
+			// lazy elements always read the properties from the model
+			super.setSingleObjectForSameNode();
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see org.spdx.rdfparser.model.IRdfModel#verify()
 	 */
 	@Override
 	public List<String> verify() {
+		loadLazyProperties();
 		String localName = name;
 		List<String> retval = Lists.newArrayList();
 		if (this.name == null) {
@@ -395,6 +476,7 @@ public class SpdxElement extends RdfModelObject {
 	 * @return
 	 */
 	public SpdxElement clone(Map<String, SpdxElement> clonedElementIds) {
+		loadLazyProperties();
 		if (clonedElementIds.containsKey(this.getId())) {
 			return clonedElementIds.get(this.getId());
 		}
@@ -425,6 +507,7 @@ public class SpdxElement extends RdfModelObject {
 	 * @return
 	 */
 	public boolean equivalent(IRdfModel o, boolean testRelationships) {
+		loadLazyProperties();
 		if (o == this) {
 			return true;
 		}
@@ -443,13 +526,23 @@ public class SpdxElement extends RdfModelObject {
 	
 	@Override
 	public String toString() {
-		if (this.name == null) {
+		String name = this.lazy ? getName() : this.name;
+		if (name == null) {
 			return super.toString();
 		} else {
-			return this.name;
+			return name;
 		}
 	}
 	
+	/* (non-Javadoc)
+	 * @see org.spdx.rdfparser.model.RdfModelObject#replaceResource(org.apache.jena.rdf.model.Resource)
+	 */
+	@Override
+	public void replaceResource(Resource resource) {
+		super.replaceResource(resource);
+		getId();	// updates the ID from the new resource URI
+	}
+	
 	/**
 	 * @param describesRelationship
 	 * @throws InvalidSPDXAnalysisException 
@@ -461,6 +554,28 @@ public class SpdxElement extends RdfModelObject {
 			addPropertyValue(SpdxRdfConstants.SPDX_NAMESPACE, SpdxRdfConstants.PROP_RELATIONSHIP, relationship);
 		} 		
 	}
+	
+	/**
+	 * Add relationships copying the relationship array once for all of the relationships
+	 * @param relationshipsToAdd
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public void addRelationships(Relationship[] relationshipsToAdd) throws InvalidSPDXAnalysisException {
+		if (relationshipsToAdd == null || relationshipsToAdd.length == 0) {
+			return;
+		}
+		int numRelationships = this.relationships.length;
+		this.relationships = Arrays.copyOf(this.relationships, numRelationships + relationshipsToAdd.length);
+		for (Relationship relationship:relationshipsToAdd) {
+			if (relationship != null) {
+				this.relationships[numRelationships++] = relationship;
+				addPropertyValue(SpdxRdfConstants.SPDX_NAMESPACE, SpdxRdfConstants.PROP_RELATIONSHIP, relationship);
+			}
+		}
+		if (numRelationships < this.relationships.length) {
+			this.relationships = Arrays.copyOf(this.relationships, numRelationships);
+		}
+	}
 
 	/**
 	 * @param annotation
@@ -496,41 +611,14 @@ public class SpdxElement extends RdfModelObject {
 	 * @param testRelationships If true, test relationships for an SpdxElement (used to manage infinite recursion on circular relationships)
 	 * @return
 	 */
-	public boolean arraysEquivalent(IRdfModel[] array1, IRdfModel[] array2, boolean testRelationships) {
-		if (array1 == null) {
-			return array2 == null;
-		}
-		if (array2 == null) {
-			return false;
-		}
-		if (array1.length != array2.length) {
-			return false;
-		}
-		Set<Integer> foundIndexes = Sets.newHashSet();
-		for (int i = 0; i < array1.length; i++) {
-			boolean found = false;
-			for (int j = 0; j < array2.length; j++) {
-				if (!foundIndexes.contains(j)) {
-					if (array1[i] instanceof SpdxElement && array2[j] instanceof SpdxElement) {
-						if (equivalentConsideringNull((SpdxElement)array1[i],(SpdxElement)array2[j], testRelationships)) {
-							found = true;
-							foundIndexes.add(j);
-							break;
-						}
-					} else {
-						if (equivalentConsideringNull(array1[i],array2[j])) {
-							found = true;
-							foundIndexes.add(j);
-							break;
-						}
-					}
-				}	
-			}
-			if (!found) {
-				return false;
+	public boolean arraysEquivalent(IRdfModel[] array1, IRdfModel[] array2, final boolean testRelationships) {
+		return RdfModelHelper.arraysEquivalent(array1, array2, (element1, element2) -> {
+			if (element1 instanceof SpdxElement && element2 instanceof SpdxElement) {
+				return equivalentConsideringNull((SpdxElement)element1, (SpdxElement)element2, testRelationships);
+			} else {
+				return equivalentConsideringNull(element1, element2);
 			}
-		}
-		return true;
+		});
 	}
 	
 	/**
@@ -23,7 +23,7 @@ import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.SpdxDocumentContainer;
 import org.spdx.rdfparser.SpdxRdfConstants;
 
-import com.google.common.collect.Maps;
+import com.google.common.collect.MapMaker;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.util.iterator.ExtendedIterator;
@@ -43,28 +43,56 @@ public class SpdxElementFactory {
 	 */
 	static synchronized void addToCreatedElements(IModelContainer modelContainer,
 			Node node, SpdxElement element) {
-		Map<Node, SpdxElement> containerNodes = createdElements.get(modelContainer);
-		if (containerNodes == null) {
-			containerNodes = Maps.newHashMap();
-			createdElements.put(modelContainer, containerNodes);
-		}
+		Map<Node, SpdxElement> containerNodes = getContainerNodes(modelContainer);
 		containerNodes.put(node, element);
 	}
 	/**
 	 * Keep track of all nodes created both for performance and to prevent
 	 * an infinite recursion from continually creating the same objects.
+	 * Both the containers and the elements are weakly referenced - every element refers
+	 * to its model container, so a strongly held element would keep its container and
+	 * model in memory after the caller has finished with the document.
 	 */
-	private static Map<IModelContainer, Map<Node, SpdxElement>> createdElements = Maps.newHashMap();
-
-	public static synchronized SpdxElement createElementFromModel(IModelContainer modelContainer,
-			Node node) throws InvalidSPDXAnalysisException {
+	private static Map<IModelContainer, Map<Node, SpdxElement>> createdElements = 
+			new MapMaker().weakKeys().makeMap();
+	
+	/**
+	 * @param modelContainer
+	 * @return the cache of created elements for the model container
+	 */
+	private static Map<Node, SpdxElement> getContainerNodes(IModelContainer modelContainer) {
 		Map<Node, SpdxElement> containerNodes = createdElements.get(modelContainer);
 		if (containerNodes == null) {
-			containerNodes = Maps.newHashMap();
+			containerNodes = new MapMaker().weakValues().makeMap();
 			createdElements.put(modelContainer, containerNodes);
 		}
+		return containerNodes;
+	}
+
+	public static synchronized SpdxElement createElementFromModel(IModelContainer modelContainer,
+			Node node) throws InvalidSPDXAnalysisException {
+		return createElementFromModel(modelContainer, node, false);
+	}
+	
+	/**
+	 * Create an SPDX element from the model
+	 * @param modelContainer
+	 * @param node
+	 * @param lazyProperties If true, files, packages, snippets, items and elements are created without
+	 * reading their properties - see <code>SpdxElement.loadProperties()</code>.  An element which
+	 * has already been created is returned from the cache.  If false and the cached element was created
+	 * lazily, its properties are loaded before it is returned.
+	 * @return
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public static synchronized SpdxElement createElementFromModel(IModelContainer modelContainer,
+			Node node, boolean lazyProperties) throws InvalidSPDXAnalysisException {
+		Map<Node, SpdxElement> containerNodes = getContainerNodes(modelContainer);
 		SpdxElement retval = containerNodes.get(node);
 		if (retval != null) {
+			if (!lazyProperties) {
+				retval.loadProperties();
+			}
 			return retval;
 		}
 		if (!node.isURI() && !node.isBlank()) {
@@ -83,7 +111,7 @@ public class SpdxElementFactory {
 			String externalId = docId + ":" + uriParts[1];
 			return new ExternalSpdxElement(externalId);
 		}
-		retval = getElementByType(modelContainer, node);
+		retval = getElementByType(modelContainer, node, lazyProperties);
 		if (retval == null) {
 			retval = guessElementByProperties(modelContainer, node);
 			if (retval == null) {
@@ -169,7 +197,7 @@ public class SpdxElementFactory {
 	 * @throws InvalidSPDXAnalysisException 
 	 */
 	private static SpdxElement getElementByType(IModelContainer modelContainer,
-			Node node) throws InvalidSPDXAnalysisException {
+			Node node, boolean lazyProperties) throws InvalidSPDXAnalysisException {
 		Node rdfTypePredicate = modelContainer.getModel().getProperty(SpdxRdfConstants.RDF_NAMESPACE, 
 				SpdxRdfConstants.RDF_PROP_TYPE).asNode();
 		Triple m = Triple.createMatch(node, rdfTypePredicate, null);
@@ -190,15 +218,15 @@ public class SpdxElementFactory {
 			}
 			String type = typeUri.substring(SpdxRdfConstants.SPDX_NAMESPACE.length());
 			if (type.equals(SpdxRdfConstants.CLASS_SPDX_FILE)) {
-				return new SpdxFile(modelContainer, node);
+				return new SpdxFile(modelContainer, node, lazyProperties);
 			} else if (type.equals(SpdxRdfConstants.CLASS_SPDX_PACKAGE)) {
-				return new SpdxPackage(modelContainer, node);
+				return new SpdxPackage(modelContainer, node, lazyProperties);
 			} else if (type.equals(SpdxRdfConstants.CLASS_SPDX_SNIPPET)) {
-				return new SpdxSnippet(modelContainer, node);
+				return new SpdxSnippet(modelContainer, node, lazyProperties);
 			} else if (type.equals(SpdxRdfConstants.CLASS_SPDX_ITEM)) {
-				return new SpdxItem(modelContainer, node);
+				return new SpdxItem(modelContainer, node, lazyProperties);
 			} else if (type.equals(SpdxRdfConstants.CLASS_SPDX_ELEMENT)) {
-				return new SpdxElement(modelContainer, node);
+				return new SpdxElement(modelContainer, node, lazyProperties);
 			} else if (type.equals(SpdxRdfConstants.CLASS_SPDX_DOCUMENT)) {
 				return new SpdxDocumentContainer(modelContainer.getModel()).getSpdxDocument();
 			} else {
@@ -24,8 +24,10 @@ import com.google.common.collect.ImmutableMap;
 import org.apache.log4j.Logger;
 import org.spdx.rdfparser.IModelContainer;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.ModelResourceIndex;
 import org.spdx.rdfparser.RdfModelHelper;
 import org.spdx.rdfparser.RdfParserHelper;
+import org.spdx.rdfparser.SpdxDocumentContainer;
 import org.spdx.rdfparser.SpdxRdfConstants;
 import org.spdx.rdfparser.license.AnyLicenseInfo;
 import org.spdx.rdfparser.model.Checksum.ChecksumAlgorithm;
@@ -238,8 +240,21 @@ public class SpdxFile extends SpdxItem implements Comparable<SpdxFile> {
 	 */
 	public SpdxFile(IModelContainer modelContainer, Node node)
 			throws InvalidSPDXAnalysisException {
-		super(modelContainer, node);
-		getMyPropertiesFromModel();
+		this(modelContainer, node, false);
+	}
+	
+	/**
+	 * @param modelContainer
+	 * @param node
+	 * @param lazyProperties If true, the properties are read from the model when requested - see <code>SpdxElement.loadProperties()</code>
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	protected SpdxFile(IModelContainer modelContainer, Node node, boolean lazyProperties)
+			throws InvalidSPDXAnalysisException {
+		super(modelContainer, node, lazyProperties);
+		if (!lazyProperties) {
+			getMyPropertiesFromModel();
+		}
 	}
 
 	/**
@@ -255,6 +270,16 @@ public class SpdxFile extends SpdxItem implements Comparable<SpdxFile> {
 		if (spdxFile.getName() == null) {
 			return null;	// Can't match without a name
 		}
+		if (modelContainer instanceof SpdxDocumentContainer) {
+			SpdxDocumentContainer container = (SpdxDocumentContainer)modelContainer;
+			if (container.isBulkLoading()) {
+				return null;	// duplicates are merged when the bulk load is finished
+			}
+			ModelResourceIndex index = container.getResourceIndex();
+			if (index != null) {
+				return index.findFile(spdxFile.getName(), spdxFile.getSha1());
+			}
+		}
 		Triple fileNameMatch = Triple.createMatch(null, fileNameProperty, NodeFactory.createLiteral(spdxFile.getName()));
 		
 		ExtendedIterator<Triple> filenameMatchIter = model.getGraph().find(fileNameMatch);	
@@ -601,6 +626,7 @@ public class SpdxFile extends SpdxItem implements Comparable<SpdxFile> {
 	}
 	@Override
 	public boolean equivalent(IRdfModel o, boolean testRelationships) {
+		loadLazyProperties();
 		if (o == this) {
 			return true;
 		}
@@ -657,6 +683,7 @@ public class SpdxFile extends SpdxItem implements Comparable<SpdxFile> {
 	
 	@Override
     public SpdxFile clone(Map<String, SpdxElement> clonedElementIds) {
+		loadLazyProperties();
 		if (clonedElementIds.containsKey(this.getId())) {
 			return (SpdxFile)clonedElementIds.get(this.getId());
 		}
@@ -696,6 +723,7 @@ public class SpdxFile extends SpdxItem implements Comparable<SpdxFile> {
 	
 	@Override
 	public List<String> verify() {
+		loadLazyProperties();
 		List<String> retval = super.verify();
 		String fileName = this.getName();
 		if (fileName == null) {
@@ -50,8 +50,21 @@ public class SpdxItem extends SpdxElement {
 	 */
 	public SpdxItem(IModelContainer modelContainer, Node node)
 			throws InvalidSPDXAnalysisException {
-		super(modelContainer, node);
-		getMyPropertiesFromModel();
+		this(modelContainer, node, false);
+	}
+	
+	/**
+	 * @param modelContainer
+	 * @param node
+	 * @param lazyProperties If true, the properties are read from the model when requested - see <code>SpdxElement.loadProperties()</code>
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	protected SpdxItem(IModelContainer modelContainer, Node node, boolean lazyProperties)
+			throws InvalidSPDXAnalysisException {
+		super(modelContainer, node, lazyProperties);
+		if (!lazyProperties) {
+			getMyPropertiesFromModel();
+		}
 	}
 	
 	/**
@@ -251,6 +264,7 @@ public class SpdxItem extends SpdxElement {
 	
 	@Override
 	public boolean equivalent(IRdfModel o, boolean testRelationships) {
+		loadLazyProperties();
 		if (o == this) {
 			return true;
 		}
@@ -294,6 +308,7 @@ public class SpdxItem extends SpdxElement {
 	
 	@Override
     public SpdxItem clone(Map<String, SpdxElement> clonedElementIds) {
+		loadLazyProperties();
 		if (clonedElementIds.containsKey(this.getId())) {
 			return (SpdxItem)clonedElementIds.get(this.getId());
 		}
@@ -311,6 +326,7 @@ public class SpdxItem extends SpdxElement {
 	
 	@Override
 	public List<String> verify() {
+		loadLazyProperties();
 		List<String> retval = super.verify();
 		String name = "UNKNOWN";
 		if (this.name != null) {
@@ -64,6 +64,10 @@ public class SpdxPackage extends SpdxItem implements SpdxRdfConstants, Comparabl
 	String supplier;
 	String versionInfo;
 	SpdxFile[] files;
+	/**
+	 * True if files have been added to the model without being kept in the files array
+	 */
+	boolean filesInModelOnly = false;
 	boolean filesAnalyzed = true;
 	ExternalRef[] externalRefs;
 
@@ -144,8 +148,21 @@ public class SpdxPackage extends SpdxItem implements SpdxRdfConstants, Comparabl
 	 */
 	public SpdxPackage(IModelContainer modelContainer, Node node)
 			throws InvalidSPDXAnalysisException {
-		super(modelContainer, node);
-		getMyPropertiesFromModel();
+		this(modelContainer, node, false);
+	}
+	
+	/**
+	 * @param modelContainer
+	 * @param node
+	 * @param lazyProperties If true, the properties are read from the model when requested - see <code>SpdxElement.loadProperties()</code>
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	protected SpdxPackage(IModelContainer modelContainer, Node node, boolean lazyProperties)
+			throws InvalidSPDXAnalysisException {
+		super(modelContainer, node, lazyProperties);
+		if (!lazyProperties) {
+			getMyPropertiesFromModel();
+		}
 	}
 
 	/* (non-Javadoc)
@@ -645,10 +662,10 @@ public class SpdxPackage extends SpdxItem implements SpdxRdfConstants, Comparabl
 	 * @throws InvalidSPDXAnalysisException
 	 */
 	public SpdxFile[] getFiles(boolean checkRelationships) throws InvalidSPDXAnalysisException {
-		if (this.resource != null && refreshOnGet) {
+		if (this.resource != null && (refreshOnGet || filesInModelOnly)) {
 			SpdxElement[] filesE = findMultipleElementPropertyValues(SPDX_NAMESPACE,
 					PROP_PACKAGE_FILE);
-			if (!arraysEquivalent(filesE, this.files, checkRelationships)) {
+			if (filesInModelOnly || !arraysEquivalent(filesE, this.files, checkRelationships)) {
 				this.files = new SpdxFile[filesE.length];
 				for (int i = 0; i < filesE.length; i++) {
 					if (!(filesE[i] instanceof SpdxFile)) {
@@ -656,6 +673,7 @@ public class SpdxPackage extends SpdxItem implements SpdxRdfConstants, Comparabl
 					}
 					this.files[i] = (SpdxFile)filesE[i];
 				}
+				filesInModelOnly = false;
 			}
 		}
 		return files;
@@ -667,6 +685,7 @@ public class SpdxPackage extends SpdxItem implements SpdxRdfConstants, Comparabl
 	 */
 	public void setFiles(SpdxFile[] files) throws InvalidSPDXAnalysisException {
 		this.files = files;
+		this.filesInModelOnly = false;
 		setPropertyValue(SPDX_NAMESPACE,
 				PROP_PACKAGE_FILE, this.files);
 	}
@@ -689,6 +708,63 @@ public class SpdxPackage extends SpdxItem implements SpdxRdfConstants, Comparabl
 		addPropertyValue(SPDX_NAMESPACE,
 				PROP_PACKAGE_FILE, file);
 	}
+	
+	/**
+	 * Add files to the list of files attached to this package.  The file array is copied
+	 * once for all of the files rather than once per file.
+	 * @param filesToAdd
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public void addFiles(SpdxFile[] filesToAdd) throws InvalidSPDXAnalysisException {
+		if (filesToAdd == null || filesToAdd.length == 0) {
+			return;
+		}
+		int start;
+		if (this.files == null) {
+			start = 0;
+			this.files = new SpdxFile[filesToAdd.length];
+		} else {
+			start = this.files.length;
+			this.files = Arrays.copyOf(this.files, this.files.length + filesToAdd.length);
+		}
+		int numFiles = start;
+		for (SpdxFile file:filesToAdd) {
+			if (file != null) {
+				this.files[numFiles++] = file;
+				addPropertyValue(SPDX_NAMESPACE,
+						PROP_PACKAGE_FILE, file);
+			}
+		}
+		if (numFiles < this.files.length) {
+			this.files = Arrays.copyOf(this.files, numFiles);
+		}
+	}
+	
+	/**
+	 * Add files to the package in the model without keeping them in the package.  The files
+	 * are read back from the model the next time the files are requested, so a package
+	 * with a large number of files does not hold every file in memory while it is loaded.
+	 * @param filesToAdd
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public void addFilesToModel(SpdxFile[] filesToAdd) throws InvalidSPDXAnalysisException {
+		if (this.resource == null) {
+			// the files can not be read back without a model
+			addFiles(filesToAdd);
+			return;
+		}
+		if (filesToAdd == null || filesToAdd.length == 0) {
+			return;
+		}
+		for (SpdxFile file:filesToAdd) {
+			if (file != null) {
+				addPropertyValue(SPDX_NAMESPACE,
+						PROP_PACKAGE_FILE, file);
+			}
+		}
+		this.files = null;
+		this.filesInModelOnly = true;
+	}
 
 	@Override
 	public boolean equivalent(IRdfModel o) {
@@ -697,6 +773,7 @@ public class SpdxPackage extends SpdxItem implements SpdxRdfConstants, Comparabl
 
 	@Override
 	public boolean equivalent(IRdfModel o, boolean testRelationships) {
+		loadLazyProperties();
 		if (o == this) {
 			return true;
 		}
@@ -742,6 +819,7 @@ public class SpdxPackage extends SpdxItem implements SpdxRdfConstants, Comparabl
 
 	@Override
     public SpdxPackage clone(Map<String, SpdxElement> clonedElementIds) {
+		loadLazyProperties();
 		if (clonedElementIds.containsKey(this.getId())) {
 			return (SpdxPackage)clonedElementIds.get(this.getId());
 		}
@@ -803,6 +881,13 @@ public class SpdxPackage extends SpdxItem implements SpdxRdfConstants, Comparabl
 	 * @return
 	 */
 	private SpdxFile[] cloneFiles(Map<String, SpdxElement> clonedElementIds) {
+		if (this.filesInModelOnly) {
+			try {
+				this.getFiles(false);
+			} catch (InvalidSPDXAnalysisException e) {
+				logger.error("Unexected error reading files during clone",e);
+			}
+		}
 		if (this.files == null) {
 			return new SpdxFile[0];
 		}
@@ -840,6 +925,7 @@ public class SpdxPackage extends SpdxItem implements SpdxRdfConstants, Comparabl
 
 	@Override
 	public List<String> verify() {
+		loadLazyProperties();
 		String pkgName = name;
 		if (pkgName == null ) {
 			pkgName = "UNKNOWN PACKAGE";
@@ -82,8 +82,21 @@ snippet information applies to.
 	 */
 	public SpdxSnippet(IModelContainer modelContainer, Node node) 
 			throws InvalidSPDXAnalysisException {
-		super(modelContainer, node);
-		getMyPropertiesFromModel();
+		this(modelContainer, node, false);
+	}
+	
+	/**
+	 * @param modelContainer
+	 * @param node
+	 * @param lazyProperties If true, the properties are read from the model when requested - see <code>SpdxElement.loadProperties()</code>
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	protected SpdxSnippet(IModelContainer modelContainer, Node node, boolean lazyProperties)
+			throws InvalidSPDXAnalysisException {
+		super(modelContainer, node, lazyProperties);
+		if (!lazyProperties) {
+			getMyPropertiesFromModel();
+		}
 	}
 	
 	/* (non-Javadoc)
@@ -314,6 +327,7 @@ snippet information applies to.
 	}
 	@Override
 	public boolean equivalent(IRdfModel o, boolean testRelationships) {
+		loadLazyProperties();
 		if (!super.equivalent(o, testRelationships)) {
 			return false;
 		}
@@ -356,6 +370,7 @@ snippet information applies to.
 	
 	@Override 
 	public SpdxSnippet clone(Map<String, SpdxElement> clonedElementIds) {
+		loadLazyProperties();
 		if (clonedElementIds.containsKey(this.getId())) {
 			return (SpdxSnippet)clonedElementIds.get(this.getId());
 		}
@@ -416,6 +431,7 @@ snippet information applies to.
 	 */
 	@Override
 	public List<String> verify() {
+		loadLazyProperties();
 		List<String> retval = super.verify();
 		String snippetName = this.name;
 		if (snippetName == null) {
@@ -442,6 +458,7 @@ snippet information applies to.
 	 */
 	@Override
 	public int compareTo(SpdxSnippet o) {
+		loadLazyProperties();
 		try {
 			if (o == null) {
 				return 1;
@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.rdfparser.model.pointer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * An immutable interval tree over closed integer ranges such as the byte offsets or line numbers
+ * of a <code>StartEndPointer</code>.
+ *
+ * The intervals are kept in an array sorted by start and end.  The tree is the implicit balanced
+ * binary tree over the sorted array, where each node holds the largest end of the intervals
+ * below it, so subtrees which can not match a query are skipped.  Query results are returned in
+ * sorted order.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class IntervalTree<T> {
+
+	/**
+	 * A closed range from start to end (inclusive) with an associated value
+	 */
+	public static class Interval<T> {
+		private final int start;
+		private final int end;
+		private final T value;
+
+		public Interval(int start, int end, T value) {
+			this.start = start;
+			this.end = end;
+			this.value = value;
+		}
+
+		/**
+		 * @return the start of the range
+		 */
+		public int getStart() {
+			return start;
+		}
+
+		/**
+		 * @return the end of the range (inclusive)
+		 */
+		public int getEnd() {
+			return end;
+		}
+
+		/**
+		 * @return the value associated with the range
+		 */
+		public T getValue() {
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(start) + "-" + String.valueOf(end) + ": " + String.valueOf(value);
+		}
+	}
+
+	private final ImmutableList<Interval<T>> intervals;
+	private final int[] starts;
+	private final int[] ends;
+	/**
+	 * Largest end of the intervals in the subtree rooted at each index
+	 */
+	private final int[] maxEnds;
+
+	/**
+	 * @param intervals intervals to be included in the tree
+	 */
+	public IntervalTree(Collection<Interval<T>> intervals) {
+		List<Interval<T>> sorted = Lists.newArrayList(intervals);
+		Collections.sort(sorted, new Comparator<Interval<T>>() {
+			@Override
+			public int compare(Interval<T> o1, Interval<T> o2) {
+				int retval = Integer.compare(o1.getStart(), o2.getStart());
+				if (retval == 0) {
+					retval = Integer.compare(o1.getEnd(), o2.getEnd());
+				}
+				return retval;
+			}
+		});
+		this.intervals = ImmutableList.copyOf(sorted);
+		int size = sorted.size();
+		this.starts = new int[size];
+		this.ends = new int[size];
+		for (int i = 0; i < size; i++) {
+			starts[i] = sorted.get(i).getStart();
+			ends[i] = sorted.get(i).getEnd();
+		}
+		this.maxEnds = new int[size];
+		fillMaxEnds(0, size - 1);
+	}
+
+	/**
+	 * Fill in the maximum ends for the subtree over the indexes from lo to hi
+	 * @return the maximum end in the subtree
+	 */
+	private int fillMaxEnds(int lo, int hi) {
+		if (lo > hi) {
+			return Integer.MIN_VALUE;
+		}
+		int mid = (lo + hi) >>> 1;
+		int max = Math.max(ends[mid], Math.max(fillMaxEnds(lo, mid - 1), fillMaxEnds(mid + 1, hi)));
+		maxEnds[mid] = max;
+		return max;
+	}
+
+	/**
+	 * @return all intervals sorted by start and end
+	 */
+	public List<Interval<T>> getIntervals() {
+		return intervals;
+	}
+
+	/**
+	 * @return the number of intervals in the tree
+	 */
+	public int size() {
+		return intervals.size();
+	}
+
+	/**
+	 * @param start
+	 * @param end
+	 * @return the intervals which share at least one position with the range from start to end
+	 */
+	public List<Interval<T>> getOverlapping(int start, int end) {
+		List<Interval<T>> retval = Lists.newArrayList();
+		findStartAtMostEndAtLeast(0, starts.length - 1, end, start, retval);
+		return retval;
+	}
+
+	/**
+	 * @param start
+	 * @param end
+	 * @return the intervals which contain the whole range from start to end
+	 */
+	public List<Interval<T>> getContaining(int start, int end) {
+		List<Interval<T>> retval = Lists.newArrayList();
+		findStartAtMostEndAtLeast(0, starts.length - 1, start, end, retval);
+		return retval;
+	}
+
+	/**
+	 * @param start
+	 * @param end
+	 * @return the intervals which are contained within the range from start to end
+	 */
+	public List<Interval<T>> getContainedIn(int start, int end) {
+		List<Interval<T>> retval = Lists.newArrayList();
+		// binary search for the first interval starting at or after start
+		int lo = 0;
+		int hi = starts.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (starts[mid] < start) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		for (int i = lo; i < starts.length && starts[i] <= end; i++) {
+			if (ends[i] <= end) {
+				retval.add(intervals.get(i));
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Add the intervals in the subtree over the indexes from lo to hi which start at or before
+	 * maxStart and end at or after minEnd to the result in sorted order
+	 */
+	private void findStartAtMostEndAtLeast(int lo, int hi, int maxStart, int minEnd, List<Interval<T>> result) {
+		if (lo > hi) {
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		if (maxEnds[mid] < minEnd) {
+			return;	// nothing in this subtree ends late enough
+		}
+		findStartAtMostEndAtLeast(lo, mid - 1, maxStart, minEnd, result);
+		if (starts[mid] > maxStart) {
+			return;	// this interval and everything to the right start too late
+		}
+		if (ends[mid] >= minEnd) {
+			result.add(intervals.get(mid));
+		}
+		findStartAtMostEndAtLeast(mid + 1, hi, maxStart, minEnd, result);
+	}
+}
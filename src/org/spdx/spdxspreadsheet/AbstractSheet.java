@@ -16,15 +16,13 @@
  */
 package org.spdx.spdxspreadsheet;
 
-import java.awt.font.FontRenderContext;
-import java.awt.font.TextAttribute;
-import java.text.AttributedString;
+import java.io.IOException;
 
+import org.apache.log4j.Logger;
 import org.apache.poi.hssf.util.HSSFColor;
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.DataFormat;
 import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.Font;
@@ -33,18 +31,25 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 /**
  * Abstract class representing a workbook sheet used in storing structured data
  * @author Gary O'Neall
  *
  */
 public abstract class AbstractSheet {
+	static final Logger logger = Logger.getLogger(AbstractSheet.class);
 	// Default style for cells
 	static final String FONT_NAME = "Arial";
 	protected static final short FONT_SIZE = (short)10*20;
 	static final String CHECKBOX_FONT_NAME = "Wingdings 2";
 	static final String CHECKBOX = "P";
-	private static final short MAX_ROW_LINES = 10;
+	static final short MAX_ROW_LINES = 10;
+	/**
+	 * Number of rows kept in memory for streaming sheets before they are resized and flushed to disk
+	 */
+	public static final int STREAMING_ROW_WINDOW = 1000;
 	protected CellStyle checkboxStyle;
 	protected CellStyle dateStyle;
 	protected CellStyle greenWrapped;
@@ -56,14 +61,47 @@ public abstract class AbstractSheet {
 	protected int lastRowNum;
 	protected int firstCellNum;
 	protected int firstRowNum;
+	/**
+	 * Sheet new rows are appended to when the workbook is streamed (see <code>AbstractSpreadsheet</code>).
+	 * Null if the sheet is not streamed.
+	 */
+	protected SXSSFSheet streamingSheet = null;
+	/**
+	 * First row of a streamed sheet which has not yet been flushed to disk
+	 */
+	private int firstUnflushedRow = 0;
+	/**
+	 * Estimates the wrapped lines for the cells when resizing rows
+	 */
+	private WrappedLineEstimator lineEstimator = null;
 
 	/**
 	 * @param workbook
 	 * @param sheetName
 	 */
 	public AbstractSheet(Workbook workbook, String sheetName) {
+		this(workbook, sheetName, false);
+	}
+	
+	/**
+	 * @param workbook
+	 * @param sheetName
+	 * @param appendOnly true if rows are only ever added to the end of the sheet through <code>addRow()</code>.
+	 * If the workbook is a streaming workbook, the rows for an append only sheet are streamed to disk
+	 * rather than held in memory.
+	 */
+	public AbstractSheet(Workbook workbook, String sheetName, boolean appendOnly) {
 		this.workbook = workbook;
-		sheet = workbook.getSheet(sheetName);
+		if (workbook instanceof SXSSFWorkbook) {
+			// Header and template rows are only accessible through the underlying XSSF workbook
+			SXSSFWorkbook streamingWorkbook = (SXSSFWorkbook)workbook;
+			sheet = streamingWorkbook.getXSSFWorkbook().getSheet(sheetName);
+			if (appendOnly && sheet != null) {
+				streamingSheet = streamingWorkbook.getSheet(sheetName);
+			}
+		} else {
+			sheet = workbook.getSheet(sheetName);
+		}
 		if (sheet != null) {
 			firstRowNum = sheet.getFirstRowNum();
 			Row firstRow = sheet.getRow(firstRowNum);
@@ -73,6 +111,7 @@ public abstract class AbstractSheet {
 				firstCellNum = firstRow.getFirstCellNum();
 			}
 			findLastRow();
+			firstUnflushedRow = lastRowNum + 1;
 		} else {
 			firstRowNum = 0;
 			lastRowNum = 0;
@@ -145,20 +184,65 @@ public abstract class AbstractSheet {
 	 * @return new row
 	 */
 	protected Row addRow() {
+		if (streamingSheet != null) {
+			if (lastRowNum + 1 - firstUnflushedRow >= STREAMING_ROW_WINDOW) {
+				flushRows();
+			}
+			lastRowNum++;
+			return streamingSheet.createRow(lastRowNum);
+		}
 		lastRowNum++;
 		Row row = sheet.createRow(lastRowNum);
 		return row;
 	}
 	
 	/**
-	 * Clears all data from the worksheet
+	 * Resize and write all rows held in memory to disk for a streaming sheet
+	 */
+	private void flushRows() {
+		resizeRows();
+		try {
+			streamingSheet.flushRows();
+		} catch (IOException e) {
+			logger.error("I/O error flushing rows for sheet "+sheet.getSheetName(), e);
+			throw new RuntimeException("I/O error flushing rows for sheet "+sheet.getSheetName(), e);
+		}
+		firstUnflushedRow = lastRowNum + 1;
+	}
+	
+	/**
+	 * Get a row which may have been added to the sheet.  Rows which have been
+	 * flushed for a streaming sheet are not available.
+	 * @param rowNum
+	 * @return the row or null if it does not exist or is no longer in memory
+	 */
+	private Row getWrittenRow(int rowNum) {
+		Row row = null;
+		if (streamingSheet != null) {
+			row = streamingSheet.getRow(rowNum);
+		}
+		if (row == null) {
+			row = sheet.getRow(rowNum);
+		}
+		return row;
+	}
+	
+	/**
+	 * Clears all data from the worksheet.  For streaming sheets, only the rows
+	 * which have not been flushed to disk are removed.
 	 */
 	public void clear() {
-		for (int i = lastRowNum; i > firstRowNum; i--) {
-			Row row = sheet.getRow(i);
-			sheet.removeRow(row);
+		int firstRemovableRow = firstRowNum;
+		if (streamingSheet != null) {
+			firstRemovableRow = Math.max(firstRowNum, firstUnflushedRow - 1);
+		}
+		for (int i = lastRowNum; i > firstRemovableRow; i--) {
+			Row row = getWrittenRow(i);
+			if (row != null) {
+				row.getSheet().removeRow(row);
+			}
 		}
-		lastRowNum = firstRowNum;
+		lastRowNum = firstRemovableRow;
 	}	
 	
 	public int getFirstDataRow() {
@@ -207,13 +291,18 @@ public abstract class AbstractSheet {
 	
 	/**
 	 * resize the rows for a best fit.  Will not exceed maximum row height.
+	 * For streaming sheets, only the rows which have not yet been flushed are resized.
 	 */
 	public void resizeRows() {
 		// header row
 		// data rows
 		int lastRow = this.getNumDataRows()+this.getFirstDataRow()-1;
-		for (int i = 0; i <= lastRow; i++) {
-			Row row = sheet.getRow(i);
+		int firstRow = streamingSheet != null ? firstUnflushedRow : 0;
+		for (int i = firstRow; i <= lastRow; i++) {
+			Row row = getWrittenRow(i);
+			if (row == null) {
+				continue;
+			}
 			int lastCell = row.getLastCellNum();	// last cell + 1
 			int maxNumLines = 1;
 			for (int j = 0; j < lastCell; j++) {
@@ -238,34 +327,10 @@ public abstract class AbstractSheet {
 	 * @param cell
 	 * @return
 	 */
-	@SuppressWarnings("deprecation")
 	private int getNumWrappedLines(Cell cell) {
-		if (cell.getCellTypeEnum() == CellType.STRING) {
-			String val = cell.getStringCellValue();
-			if (val == null || val.isEmpty()) {
-				return 1;
-			}
-			CellStyle style = cell.getCellStyle();
-			if (style == null || !style.getWrapText()) {
-				return 1;
-			}
-			Font font = sheet.getWorkbook().getFontAt(style.getFontIndex());
-			AttributedString astr = new AttributedString(val);
-			java.awt.Font awtFont = new java.awt.Font(font.getFontName(), 0, font.getFontHeightInPoints());
-			float cellWidth = sheet.getColumnWidth(cell.getColumnIndex())/ 256F * 5.5F;
-			astr.addAttribute(TextAttribute.FONT, awtFont);
-			FontRenderContext context = new FontRenderContext(null, true, true);
-			java.awt.font.LineBreakMeasurer measurer = new java.awt.font.LineBreakMeasurer(astr.getIterator(), context);
-			int pos = 0;
-			int numLines = 0;
-			while (measurer.getPosition() < val.length()) {
-				pos = measurer.nextOffset(cellWidth);
-				numLines++;
-				measurer.setPosition(pos);
-			}
-			return numLines;
-		} else {	// Not a string type
-			return 1;
+		if (lineEstimator == null) {
+			lineEstimator = new WrappedLineEstimator(sheet.getWorkbook());
 		}
+		return lineEstimator.getNumWrappedLines(cell, MAX_ROW_LINES);
 	}
 }
@@ -24,12 +24,21 @@ import java.io.IOException;
 import java.io.InputStream;
 
 import org.apache.log4j.Logger;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 /**
  * Abstract class for implementing file based spreadsheets.
+ * 
+ * Spreadsheets with a file name ending in <code>.xlsx</code> are created in the
+ * XLSX format.  A newly created XLSX spreadsheet is written through a streaming
+ * workbook where rows added to append only sheets are flushed to disk in windows
+ * of <code>AbstractSheet.STREAMING_ROW_WINDOW</code> rows rather than held in memory.
+ * All other spreadsheets use the <code>.xls</code> format and are held in memory.
  * @author Gary OpNeall
  *
  */
@@ -37,6 +46,8 @@ public abstract class AbstractSpreadsheet {
 
 	protected static final Logger logger = Logger.getLogger(AbstractSpreadsheet.class.getName());
 	
+	static final String XLSX_EXTENSION = ".xlsx";
+	
 	protected File saveFile;
 	protected Workbook workbook;
 
@@ -52,12 +63,14 @@ public abstract class AbstractSpreadsheet {
 		if (readonly && create) {
 			throw(new SpreadsheetException("Can not create a readonly spreadsheet"));
 		}
+		boolean created = false;
 		if (!spreadsheetFile.exists()) {
 			if (!create) {
 				throw(new SpreadsheetException("File "+spreadsheetFile.getName()+" does not exist"));
 			}
 			try {
 				create(spreadsheetFile);
+				created = true;
 			} catch (IOException ex) {
 				logger.error("IO error creating spreadsheet: "+ex.getMessage());
 				throw(new SpreadsheetException("I/O error creating spreadsheet"));
@@ -68,6 +81,10 @@ public abstract class AbstractSpreadsheet {
 		try {
 			input = new FileInputStream(spreadsheetFile);
 			workbook = WorkbookFactory.create(input);
+			if (created && workbook instanceof XSSFWorkbook) {
+				// Rows are flushed by the sheets themselves so that they can be resized first
+				workbook = new SXSSFWorkbook((XSSFWorkbook)workbook, -1);
+			}
 		} catch (FileNotFoundException ex) {
 			logger.error("Can not open Excel file.  File "+
 					spreadsheetFile.getName()+" does not exist");
@@ -90,7 +107,52 @@ public abstract class AbstractSpreadsheet {
 		}
 	}
 
+	/**
+	 * Create a readonly spreadsheet from a workbook which has already been read
+	 * @param spreadsheetFile file the workbook was read from
+	 * @param workbook
+	 */
+	protected AbstractSpreadsheet(File spreadsheetFile, Workbook workbook) {
+		this.readonly = true;
+		this.saveFile = spreadsheetFile;
+		this.workbook = workbook;
+	}
+
 	public abstract void create(File spreadsheetFile) throws IOException, SpreadsheetException;
+	
+	/**
+	 * @param spreadsheetFile
+	 * @return true if the file should be in the XLSX format
+	 */
+	public static boolean isXlsxFile(File spreadsheetFile) {
+		return spreadsheetFile.getName().toLowerCase().endsWith(XLSX_EXTENSION);
+	}
+	
+	/**
+	 * Create a new empty workbook in the format matching the file extension
+	 * @param spreadsheetFile
+	 * @return an XSSF workbook for <code>.xlsx</code> files, otherwise an HSSF workbook
+	 */
+	protected static Workbook newWorkbook(File spreadsheetFile) {
+		if (isXlsxFile(spreadsheetFile)) {
+			return new XSSFWorkbook();
+		} else {
+			return new HSSFWorkbook();
+		}
+	}
+	
+	/**
+	 * @return the workbook containing the rows read from the spreadsheet file.  For
+	 * a streaming workbook, this is the underlying XSSF workbook since the streamed
+	 * rows are not readable.
+	 */
+	protected Workbook getReadableWorkbook() {
+		if (this.workbook instanceof SXSSFWorkbook) {
+			return ((SXSSFWorkbook)this.workbook).getXSSFWorkbook();
+		} else {
+			return this.workbook;
+		}
+	}
 	public abstract void clear();
 	public abstract String verifyWorkbook();
 	
@@ -124,6 +186,11 @@ public abstract class AbstractSpreadsheet {
 		} catch (IOException ex) {
 			logger.error("Error writing excel sheet to file: "+ex.getMessage());
 			throw(new SpreadsheetException("Error writing excel workbook to file, see log for details."));
+		} finally {
+			if (this.workbook instanceof SXSSFWorkbook) {
+				// remove the temporary files holding the streamed rows
+				((SXSSFWorkbook)this.workbook).dispose();
+			}
 		}
 	}
 }
@@ -53,7 +53,7 @@ public class AnnotationsSheet extends AbstractSheet {
 	 * @param annotationsSheetName
 	 */
 	public AnnotationsSheet(Workbook workbook, String annotationsSheetName) {
-		super(workbook, annotationsSheetName);
+		super(workbook, annotationsSheetName, true);
 	}
 
 	@Override
@@ -19,11 +19,23 @@ package org.spdx.spdxspreadsheet;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.SpdxDocumentContainer;
 import org.spdx.rdfparser.model.SpdxFile;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
 import au.com.bytecode.opencsv.CSVReader;
 import au.com.bytecode.opencsv.CSVWriter;
 
@@ -39,11 +51,174 @@ public abstract class PerFileSheet extends AbstractSheet {
 	static final char CSV_SEPARATOR_CHAR = ',';
 	static final char CSV_QUOTING_CHAR = '"';
 	
+	/**
+	 * Column containing the file name - the same for all versions
+	 */
+	static final int FILE_NAME_COL = 0;
+	/**
+	 * Maximum number of parsed files held in the file cache
+	 */
+	static final int MAX_FILE_CACHE_SIZE = 1000;
+	
 	protected String version;
 	
+	/**
+	 * Most recently used files by file name.  Files evicted from the cache are
+	 * found again by name in the document container or from their row.
+	 */
+	protected Map<String, SpdxFile> fileCache = new LinkedHashMap<String, SpdxFile>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, SpdxFile> eldest) {
+			return size() > MAX_FILE_CACHE_SIZE;
+		}
+	};
+	
+	/**
+	 * Map of the trimmed file name to the row number containing the file
+	 */
+	private Map<String, Integer> fileNameRows = Maps.newHashMap();
+	
+	/**
+	 * Last row included in the file name index
+	 */
+	private int lastIndexedRow;
+	
 	public PerFileSheet(Workbook workbook, String sheetName, String version) {
-		super(workbook, sheetName);
+		super(workbook, sheetName, true);
 		this.version = version;
+		this.lastIndexedRow = this.firstRowNum;
+		indexFileNames();
+	}
+	
+	/**
+	 * Add any rows following the last indexed row to the file name index
+	 */
+	private void indexFileNames() {
+		if (sheet == null) {
+			return;
+		}
+		for (int i = this.lastIndexedRow + 1; i <= this.lastRowNum; i++) {
+			Row row = sheet.getRow(i);
+			if (row == null) {
+				continue;	// rows of a streamed sheet are removed once they are read
+			}
+			Cell fileNameCell = row.getCell(FILE_NAME_COL);
+			if (fileNameCell != null) {
+				String fileName = fileNameCell.getStringCellValue().trim();
+				if (!fileNameRows.containsKey(fileName)) {
+					fileNameRows.put(fileName, i);
+				}
+			}
+		}
+		if (this.lastRowNum > this.lastIndexedRow) {
+			this.lastIndexedRow = this.lastRowNum;
+		}
+	}
+	
+	/**
+	 * Finds an SPDX file by name using the file cache, the files already added to the
+	 * document container and an index of the file name rows
+	 * @param fileName
+	 * @param container document container for the files - may be null if the files are
+	 * only found in the cache or in the rows of the sheet
+	 * @return
+	 * @throws UnresolvedFileDependencyException if the file has not been read
+	 * @throws SpreadsheetException 
+	 */
+	public SpdxFile findFileByName(String fileName, SpdxDocumentContainer container) throws SpreadsheetException {
+		SpdxFile retval = this.fileCache.get(fileName);
+		if (retval != null) {
+			return retval;
+		}
+		if (container != null) {
+			try {
+				List<SpdxFile> files = container.findFilesByName(fileName);
+				if (!files.isEmpty()) {
+					return files.get(0);
+				}
+			} catch (InvalidSPDXAnalysisException e) {
+				throw(new SpreadsheetException("Error finding dependant file "+fileName+": "+e.getMessage()));
+			}
+		}
+		indexFileNames();
+		Integer rowNum = this.fileNameRows.get(fileName);
+		if (rowNum != null && sheet.getRow(rowNum) != null) {
+			return getFileInfo(rowNum, container);	//note: this will add the file to the cache
+		}
+		throw(new UnresolvedFileDependencyException(fileName));
+	}
+
+	/**
+	 * Read the files from the rows of this sheet as they are streamed from the spreadsheet file.
+	 * Each row is removed from the sheet once its file has been read.  A row with a file
+	 * dependency on a file which has not been read yet is kept until the row for that file
+	 * is read.  Rows still waiting at the end of the sheet are read in row order.
+	 * @param reader reader for the spreadsheet file
+	 * @param sheetName name of this sheet in the spreadsheet file
+	 * @param container document container for the files
+	 * @param handler called once for each file row
+	 * @throws SpreadsheetException
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	void readStreamedFileInfo(StreamingSpreadsheetReader reader, String sheetName,
+			final SpdxDocumentContainer container, final SPDXSpreadsheet.FileInfoHandler handler) throws SpreadsheetException, InvalidSPDXAnalysisException {
+		// rows waiting for the file with the (trimmed) name to be read
+		final ListMultimap<String, Integer> waitingRows = ArrayListMultimap.create();
+		final InvalidSPDXAnalysisException[] handlerError = new InvalidSPDXAnalysisException[1];
+		reader.streamSheet(sheetName, sheet, row -> {
+			int rowNum = row.getRowNum();
+			if (rowNum > lastRowNum) {
+				lastRowNum = rowNum;
+			}
+			if (handlerError[0] != null) {
+				return true;
+			}
+			try {
+				return readStreamedFile(rowNum, container, handler, waitingRows);
+			} catch (InvalidSPDXAnalysisException ex) {
+				handlerError[0] = ex;
+				return true;
+			}
+		});
+		if (handlerError[0] != null) {
+			throw handlerError[0];
+		}
+		// The remaining rows depend on each other or on files which are not in the sheet
+		List<Integer> remainingRows = Lists.newArrayList(waitingRows.values());
+		Collections.sort(remainingRows);
+		for (Integer rowNum:remainingRows) {
+			handler.handleFile(getFileInfo(rowNum, container), getPackageIds(rowNum));
+		}
+	}
+	
+	/**
+	 * Read the file in a streamed row followed by any waiting rows which depend on the file
+	 * @param rowNum
+	 * @param container
+	 * @param handler
+	 * @param waitingRows rows waiting for a file to be read by the name of the file
+	 * @return true if the file was read and the row may be removed from the sheet
+	 * @throws SpreadsheetException
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private boolean readStreamedFile(int rowNum, SpdxDocumentContainer container,
+			SPDXSpreadsheet.FileInfoHandler handler, ListMultimap<String, Integer> waitingRows) throws SpreadsheetException, InvalidSPDXAnalysisException {
+		SpdxFile file;
+		try {
+			file = getFileInfo(rowNum, container);
+		} catch (UnresolvedFileDependencyException ex) {
+			waitingRows.put(ex.getFileName(), rowNum);
+			return false;
+		}
+		handler.handleFile(file, getPackageIds(rowNum));
+		for (Integer readyRow:waitingRows.removeAll(file.getName().trim())) {
+			if (readStreamedFile(readyRow, container, handler, waitingRows)) {
+				sheet.removeRow(sheet.getRow(readyRow));
+			}
+		}
+		return true;
 	}
 
 	/**
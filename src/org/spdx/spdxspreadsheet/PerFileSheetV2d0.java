@@ -16,8 +16,6 @@
 */
 package org.spdx.spdxspreadsheet;
 
-import java.util.Map;
-
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Row;
@@ -35,8 +33,6 @@ import org.spdx.rdfparser.model.Relationship;
 import org.spdx.rdfparser.model.SpdxFile;
 import org.spdx.rdfparser.model.SpdxFile.FileType;
 
-import com.google.common.collect.Maps;
-
 /**
  * @author Gary
  *
@@ -76,11 +72,6 @@ public class PerFileSheetV2d0 extends PerFileSheet {
 	static final boolean[] CENTER_NOWRAP = new boolean[] {false, true, true, false, false, 
 		false, false, false, false, false, false, false, false, false, false, false, false};
 	
-	/**
-	 * Hashmap of the file name to SPDX file
-	 */
-	Map<String, SpdxFile> fileCache = Maps.newHashMap();
-	
 	PerFileSheetV2d0(Workbook workbook, String sheetName, String version) {
 		super(workbook, sheetName, version);
 	}
@@ -301,25 +292,6 @@ public class PerFileSheetV2d0 extends PerFileSheet {
 		return retval;
 	}
 
-	/**
-	 * Finds an SPDX file by name by searching through the rows for a matching file name
-	 * @param fileName
-	 * @return
-	 * @throws SpreadsheetException 
-	 */
-	public SpdxFile findFileByName(String fileName, SpdxDocumentContainer container) throws SpreadsheetException {
-		if (this.fileCache.containsKey(fileName)) {
-			return this.fileCache.get(fileName);
-		}
-		for (int i = this.firstRowNum; i < this.lastRowNum+1; i++) {
-			Cell fileNameCell = sheet.getRow(i).getCell(FILE_NAME_COL);
-			if (fileNameCell.getStringCellValue().trim().equals(fileName)) {
-				return getFileInfo(i, container);	//note: this will add the file to the cache
-			}
-		}
-		throw(new SpreadsheetException("Could not find dependant file in the spreadsheet: "+fileName));
-	}
-
 	/* (non-Javadoc)
 	 * @see org.spdx.rdfparser.AbstractSheet#verify()
 	 */
@@ -55,7 +55,7 @@ public class RelationshipsSheet extends AbstractSheet {
 	 * @param relationshipsSheetName
 	 */
 	public RelationshipsSheet(Workbook workbook, String relationshipsSheetName) {
-		super(workbook, relationshipsSheetName);
+		super(workbook, relationshipsSheetName, true);
 	}
 
 	@Override
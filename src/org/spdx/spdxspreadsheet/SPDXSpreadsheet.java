@@ -19,12 +19,15 @@ package org.spdx.spdxspreadsheet;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Collections;
 
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.model.SpdxFile;
 
 import com.google.common.collect.ImmutableList;
 
@@ -38,6 +41,9 @@ import com.google.common.collect.ImmutableList;
  *   - Per File Info - Information about each file in the document
  *   - Reviewers - Information on any organizations who have reviewed the documents
  *   
+ *   If the spreadsheet file name ends in .xlsx, the spreadsheet is written in the XLSX format
+ *   and the per file, relationship, annotation and snippet rows are streamed to disk.
+ *   
  *   See notes below on version management
  * @author Gary O'Neall
  *
@@ -86,6 +92,22 @@ public class SPDXSpreadsheet extends AbstractSpreadsheet {
 	private ExternalRefsSheet externalRefsSheet;
 	static final String EXTERNAL_REFS_SHEET_NAME = "External Refs";
 	private String version;
+	/**
+	 * Reader for the per file sheet rows if the spreadsheet is streamed, otherwise null
+	 */
+	private StreamingSpreadsheetReader streamingReader = null;
+	
+	/**
+	 * Handles the files read from the per file sheet
+	 */
+	public interface FileInfoHandler {
+		/**
+		 * @param file SPDX file read from the spreadsheet
+		 * @param pkgIds IDs of the packages containing the file
+		 * @throws InvalidSPDXAnalysisException
+		 */
+		void handleFile(SpdxFile file, String[] pkgIds) throws InvalidSPDXAnalysisException;
+	}
 	
 	
 	/**
@@ -98,7 +120,55 @@ public class SPDXSpreadsheet extends AbstractSpreadsheet {
 	public SPDXSpreadsheet(File spreadsheetFile, boolean create,
 			boolean readonly) throws SpreadsheetException {
 		super(spreadsheetFile, create, readonly);
-		this.version = readVersion(this.workbook, DOCUMENT_INFO_NAME);	
+		openSheets();
+	}
+	
+	/**
+	 * Creates a readonly spreadsheet where the per file sheet is streamed
+	 * @param spreadsheetFile
+	 * @param streamingReader reader for the spreadsheet file
+	 * @throws SpreadsheetException
+	 */
+	private SPDXSpreadsheet(File spreadsheetFile, StreamingSpreadsheetReader streamingReader) throws SpreadsheetException {
+		super(spreadsheetFile, streamingReader.readWorkbook(Collections.singleton(PER_FILE_SHEET_NAME)));
+		this.streamingReader = streamingReader;
+		openSheets();
+	}
+	
+	/**
+	 * Open an existing spreadsheet for reading.  If the spreadsheet is in the XLSX format,
+	 * the rows of the per file sheet are streamed from the file by <code>readFileInfo</code>
+	 * rather than loaded into memory.  All other sheets are read into memory first.
+	 * @param spreadsheetFile
+	 * @return readonly spreadsheet
+	 * @throws SpreadsheetException
+	 */
+	public static SPDXSpreadsheet openForStreaming(File spreadsheetFile) throws SpreadsheetException {
+		if (!isXlsxFile(spreadsheetFile)) {
+			return new SPDXSpreadsheet(spreadsheetFile, false, true);
+		}
+		if (!spreadsheetFile.exists()) {
+			throw(new SpreadsheetException("File "+spreadsheetFile.getName()+" does not exist"));
+		}
+		StreamingSpreadsheetReader reader = new StreamingSpreadsheetReader(spreadsheetFile);
+		try {
+			return new SPDXSpreadsheet(spreadsheetFile, reader);
+		} catch (SpreadsheetException e) {
+			try {
+				reader.close();
+			} catch (IOException e1) {
+				logger.warn("Error closing spreadsheet: "+e1.getMessage());
+			}
+			throw e;
+		}
+	}
+	
+	/**
+	 * Open all of the sheets in the workbook and verify the workbook
+	 * @throws SpreadsheetException
+	 */
+	private void openSheets() throws SpreadsheetException {
+		this.version = readVersion(getReadableWorkbook(), DOCUMENT_INFO_NAME);	
 		if (this.version.equals(UNKNOWN_VERSION)) {
 			throw(new SpreadsheetException("The version for the SPDX spreadsheet could not be read."));
 		}
@@ -166,7 +236,7 @@ public class SPDXSpreadsheet extends AbstractSpreadsheet {
 		FileOutputStream excelOut = null;
 		try {
 			excelOut = new FileOutputStream(spreadsheetFile);
-			Workbook wb = new HSSFWorkbook();
+			Workbook wb = newWorkbook(spreadsheetFile);
 			DocumentInfoSheet.create(wb, DOCUMENT_INFO_NAME);
 			PackageInfoSheet.create(wb, PACKAGE_INFO_SHEET_NAME);
 			ExternalRefsSheet.create(wb, EXTERNAL_REFS_SHEET_NAME);
@@ -361,6 +431,45 @@ public class SPDXSpreadsheet extends AbstractSpreadsheet {
 		this.externalRefsSheet = externalRefsSheet;
 	}
 
+	/**
+	 * Read all files from the per file sheet.  For a streamed spreadsheet,
+	 * rows are read from the file one at a time and discarded once the file has been read.
+	 * A row with a file dependency on a file which has not been read yet is kept until
+	 * the row for that file is read, so files are not always passed to the handler in row order.
+	 * @param container document container for the files
+	 * @param handler called once for each file row
+	 * @throws SpreadsheetException
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public void readFileInfo(final SpdxDocumentContainer container, final FileInfoHandler handler) throws SpreadsheetException, InvalidSPDXAnalysisException {
+		if (this.streamingReader == null) {
+			int firstRow = perFileSheet.getFirstDataRow();
+			int numFiles = perFileSheet.getNumDataRows();
+			for (int i = 0; i < numFiles; i++) {
+				handler.handleFile(perFileSheet.getFileInfo(firstRow+i, container), 
+						perFileSheet.getPackageIds(firstRow+i));
+			}
+			return;
+		}
+		perFileSheet.readStreamedFileInfo(streamingReader, PER_FILE_SHEET_NAME, container, handler);
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.spdx.spdxspreadsheet.AbstractSpreadsheet#close()
+	 */
+	@Override
+	public void close() throws SpreadsheetException {
+		super.close();
+		if (this.streamingReader != null) {
+			try {
+				this.streamingReader.close();
+			} catch (IOException e) {
+				logger.warn("Error closing spreadsheet: "+e.getMessage());
+			}
+			this.streamingReader = null;
+		}
+	}
+
 	/**
 	 * Resize the height of all rows - will not exceed a maximum height
 	 */
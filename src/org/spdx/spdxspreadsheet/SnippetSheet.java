@@ -87,7 +87,7 @@ public class SnippetSheet extends AbstractSheet {
 	 * @param snippetSheetName
 	 */
 	public SnippetSheet(Workbook workbook, String snippetSheetName) {
-		super(workbook, snippetSheetName);
+		super(workbook, snippetSheetName, true);
 	}
 
 	/* (non-Javadoc)
@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.spdxspreadsheet;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.log4j.Logger;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reads the sheets of an XLSX spreadsheet through a SAX event stream rather than
+ * loading the entire workbook into memory.
+ *
+ * Small sheets are copied into an in-memory workbook by <code>readWorkbook</code> so
+ * they can be used by the existing sheet classes.  Large sheets are then read one
+ * row at a time by <code>streamSheet</code> where each row is created in the in-memory
+ * workbook, passed to a handler, and removed once the handler is done with it.
+ *
+ * String, numeric and boolean cell values are preserved.  Formatting is not copied.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class StreamingSpreadsheetReader implements Closeable {
+
+	static final Logger logger = Logger.getLogger(StreamingSpreadsheetReader.class);
+
+	/**
+	 * Handles rows as they are streamed from a sheet
+	 */
+	public interface RowHandler {
+		/**
+		 * @param row row read from the sheet
+		 * @return true if the row is no longer needed and may be removed from the sheet
+		 * @throws SpreadsheetException
+		 */
+		boolean handleRow(Row row) throws SpreadsheetException;
+	}
+
+	/**
+	 * Thrown to stop parsing a sheet once all of the needed rows are read
+	 */
+	private static class StopParsingException extends SAXException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * Wraps a SpreadsheetException thrown by a row handler so it can pass through the SAX parser
+	 */
+	private static class HandlerException extends SAXException {
+		private static final long serialVersionUID = 1L;
+		SpreadsheetException cause;
+		HandlerException(SpreadsheetException cause) {
+			super(cause);
+			this.cause = cause;
+		}
+	}
+
+	/**
+	 * SAX handler for the XML of a single worksheet
+	 */
+	private class SheetHandler extends DefaultHandler {
+		private Sheet targetSheet;
+		private RowHandler rowHandler;
+		private int maxRows;
+		private int skipThroughRow;
+		private int numRowsRead = 0;
+		private Row currentRow = null;
+		private int nextRowNum = 0;
+		private int nextColNum = 0;
+		private int currentColNum;
+		private String currentCellType;
+		private StringBuilder value = new StringBuilder();
+		private boolean inValue = false;
+
+		/**
+		 * @param targetSheet sheet to create the rows in
+		 * @param rowHandler handler for each completed row - if null, all rows are retained
+		 * @param maxRows maximum number of rows to read or -1 for all rows
+		 * @param skipThroughRow rows up to and including this row number are skipped
+		 */
+		SheetHandler(Sheet targetSheet, RowHandler rowHandler, int maxRows, int skipThroughRow) {
+			this.targetSheet = targetSheet;
+			this.rowHandler = rowHandler;
+			this.maxRows = maxRows;
+			this.skipThroughRow = skipThroughRow;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName,
+				Attributes attributes) throws SAXException {
+			if ("row".equals(localName)) {
+				if (maxRows >= 0 && numRowsRead >= maxRows) {
+					throw new StopParsingException();
+				}
+				String rowRef = attributes.getValue("r");
+				int rowNum = rowRef != null ? Integer.parseInt(rowRef) - 1 : nextRowNum;
+				if (rowNum > skipThroughRow) {
+					currentRow = targetSheet.createRow(rowNum);
+				} else {
+					currentRow = null;
+				}
+				nextRowNum = rowNum + 1;
+				nextColNum = 0;
+			} else if ("c".equals(localName)) {
+				String cellRef = attributes.getValue("r");
+				currentColNum = cellRef != null ? new CellReference(cellRef).getCol() : nextColNum;
+				nextColNum = currentColNum + 1;
+				currentCellType = attributes.getValue("t");
+				value.setLength(0);
+			} else if ("v".equals(localName) || "t".equals(localName)) {
+				inValue = true;
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) throws SAXException {
+			if ("v".equals(localName) || "t".equals(localName)) {
+				inValue = false;
+			} else if ("c".equals(localName)) {
+				setCellValue();
+			} else if ("row".equals(localName)) {
+				numRowsRead++;
+				if (rowHandler != null && currentRow != null) {
+					try {
+						if (rowHandler.handleRow(currentRow)) {
+							targetSheet.removeRow(currentRow);
+						}
+					} catch (SpreadsheetException e) {
+						throw new HandlerException(e);
+					}
+				}
+				currentRow = null;
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (inValue) {
+				value.append(ch, start, length);
+			}
+		}
+
+		private void setCellValue() {
+			if (currentRow == null || value.length() == 0) {
+				return;
+			}
+			Cell cell = currentRow.createCell(currentColNum);
+			String val = value.toString();
+			if ("s".equals(currentCellType)) {
+				cell.setCellValue(sharedStrings.getEntryAt(Integer.parseInt(val)));
+			} else if ("b".equals(currentCellType)) {
+				cell.setCellValue("1".equals(val));
+			} else if ("inlineStr".equals(currentCellType) || "str".equals(currentCellType) ||
+					"e".equals(currentCellType)) {
+				cell.setCellValue(val);
+			} else {
+				try {
+					cell.setCellValue(Double.parseDouble(val));
+				} catch (NumberFormatException e) {
+					cell.setCellValue(val);
+				}
+			}
+		}
+	}
+
+	private OPCPackage pkg;
+	private XSSFReader reader;
+	private ReadOnlySharedStringsTable sharedStrings;
+	private SAXParserFactory parserFactory;
+
+	/**
+	 * @param spreadsheetFile XLSX spreadsheet file
+	 * @throws SpreadsheetException
+	 */
+	public StreamingSpreadsheetReader(File spreadsheetFile) throws SpreadsheetException {
+		try {
+			this.pkg = OPCPackage.open(spreadsheetFile, PackageAccess.READ);
+			this.reader = new XSSFReader(pkg);
+			this.sharedStrings = new ReadOnlySharedStringsTable(pkg);
+		} catch (InvalidFormatException e) {
+			logger.error("Unable to open workbook.  Invalid format: "+e.getMessage());
+			throw new SpreadsheetException("Unable to open workbook.  Invalid format");
+		} catch (IOException e) {
+			logger.error("IO Exception opening excel workbook: "+e.getMessage());
+			throw new SpreadsheetException("IO Exception opening excel workbook.  See log for more detail.");
+		} catch (OpenXML4JException e) {
+			logger.error("Unable to open workbook: "+e.getMessage());
+			throw new SpreadsheetException("Unable to open workbook: "+e.getMessage());
+		} catch (SAXException e) {
+			logger.error("Unable to read the shared strings in the workbook: "+e.getMessage());
+			throw new SpreadsheetException("Unable to read the shared strings in the workbook: "+e.getMessage());
+		}
+		this.parserFactory = SAXParserFactory.newInstance();
+		this.parserFactory.setNamespaceAware(true);
+	}
+
+	/**
+	 * Read the spreadsheet into an in-memory workbook
+	 * @param streamedSheetNames names of sheets which will be streamed - only the header row is read for these sheets
+	 * @return workbook containing all rows of the sheets which are not streamed
+	 * @throws SpreadsheetException
+	 */
+	public Workbook readWorkbook(Set<String> streamedSheetNames) throws SpreadsheetException {
+		Workbook retval = new XSSFWorkbook();
+		try {
+			XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator)reader.getSheetsData();
+			while (iter.hasNext()) {
+				InputStream sheetStream = iter.next();
+				try {
+					String sheetName = iter.getSheetName();
+					Sheet sheet = retval.createSheet(sheetName);
+					int maxRows = streamedSheetNames.contains(sheetName) ? 1 : -1;
+					parseSheet(sheetStream, new SheetHandler(sheet, null, maxRows, -1));
+				} finally {
+					sheetStream.close();
+				}
+			}
+		} catch (IOException e) {
+			logger.error("IO Exception reading excel workbook: "+e.getMessage());
+			throw new SpreadsheetException("IO Exception reading excel workbook.  See log for more detail.");
+		} catch (InvalidFormatException e) {
+			logger.error("Unable to read workbook.  Invalid format: "+e.getMessage());
+			throw new SpreadsheetException("Unable to read workbook.  Invalid format");
+		}
+		return retval;
+	}
+
+	/**
+	 * Stream all rows following the header row of a sheet to a handler.  The rows are
+	 * created in the target sheet so that they can be read by the sheet classes.
+	 * @param sheetName name of the sheet to read
+	 * @param targetSheet sheet in the in-memory workbook to create the rows in
+	 * @param rowHandler handler called once for each row in order
+	 * @throws SpreadsheetException
+	 */
+	public void streamSheet(String sheetName, Sheet targetSheet, RowHandler rowHandler) throws SpreadsheetException {
+		try {
+			XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator)reader.getSheetsData();
+			while (iter.hasNext()) {
+				InputStream sheetStream = iter.next();
+				try {
+					if (sheetName.equals(iter.getSheetName())) {
+						// the header row is already in the target sheet
+						parseSheet(sheetStream, new SheetHandler(targetSheet, rowHandler, -1, 
+								targetSheet.getFirstRowNum()));
+						return;
+					}
+				} finally {
+					sheetStream.close();
+				}
+			}
+		} catch (IOException e) {
+			logger.error("IO Exception reading excel workbook: "+e.getMessage());
+			throw new SpreadsheetException("IO Exception reading excel workbook.  See log for more detail.");
+		} catch (InvalidFormatException e) {
+			logger.error("Unable to read workbook.  Invalid format: "+e.getMessage());
+			throw new SpreadsheetException("Unable to read workbook.  Invalid format");
+		}
+		throw new SpreadsheetException("Sheet "+sheetName+" not found in the workbook");
+	}
+
+	private void parseSheet(InputStream sheetStream, SheetHandler handler) throws SpreadsheetException, IOException {
+		try {
+			SAXParser parser = parserFactory.newSAXParser();
+			parser.parse(new InputSource(sheetStream), handler);
+		} catch (StopParsingException e) {
+			// All of the requested rows were read
+		} catch (HandlerException e) {
+			throw e.cause;
+		} catch (SAXException e) {
+			logger.error("Error parsing worksheet: "+e.getMessage());
+			throw new SpreadsheetException("Error parsing worksheet: "+e.getMessage());
+		} catch (ParserConfigurationException e) {
+			logger.error("Unable to create XML parser: "+e.getMessage());
+			throw new SpreadsheetException("Unable to create XML parser: "+e.getMessage());
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		pkg.revert();
+	}
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.spdxspreadsheet;
+
+/**
+ * A file dependency in the per file sheet refers to a file which has not been read.
+ * For a streamed spreadsheet, the file may be in a later row.
+ * @author Gary O'Neall
+ *
+ */
+public class UnresolvedFileDependencyException extends SpreadsheetException {
+
+	private static final long serialVersionUID = 4861913460523829771L;
+
+	private final String fileName;
+
+	/**
+	 * @param fileName name of the file which could not be found
+	 */
+	public UnresolvedFileDependencyException(String fileName) {
+		super("Could not find dependant file in the spreadsheet: "+fileName);
+		this.fileName = fileName;
+	}
+
+	/**
+	 * @return the name of the file which could not be found
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+}
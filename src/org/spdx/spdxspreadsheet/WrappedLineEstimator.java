@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.spdxspreadsheet;
+
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Estimates the number of lines a string wraps to in a spreadsheet cell without using AWT.
+ *
+ * The character widths come from a table of Arial (Helvetica) advance widths scaled to the size
+ * of the cell font.  A scaled table is cached for each font in the workbook, so estimating a cell
+ * does not allocate any objects.  Courier and other monospaced fonts use a fixed width.
+ *
+ * The lines are broken the same way as <code>java.awt.font.LineBreakMeasurer</code>: a line
+ * may break after whitespace or after a hyphen within a word, trailing whitespace does not need
+ * to fit in the cell and a word longer than a line is broken between characters.
+ *
+ * @author Gary O'Neall
+ *
+ */
+class WrappedLineEstimator {
+
+	/**
+	 * Advance widths in 1/1000 em of the Arial characters from space (0x20) to tilde (0x7E)
+	 */
+	private static final short[] ASCII_WIDTHS = {
+		278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,		// space - /
+		556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,		// 0 - ?
+		1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,	// @ - O
+		667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,		// P - _
+		333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,		// ` - o
+		556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584			// p - ~
+	};
+	private static final short NBSP_WIDTH = 278;
+	/**
+	 * Width used for the remaining Latin-1 characters and other narrow characters
+	 */
+	private static final short DEFAULT_WIDTH = 556;
+	/**
+	 * Width used for characters from the CJK and other wide scripts
+	 */
+	private static final short WIDE_WIDTH = 1000;
+	private static final short MONOSPACE_WIDTH = 600;
+	private static final int FIRST_WIDE_CHAR = 0x1100;
+	private static final int TABLE_SIZE = 256;
+
+	/**
+	 * Width of each Latin-1 character for a 1 point Arial font
+	 */
+	static final float[] ARIAL_UNIT_WIDTHS = new float[TABLE_SIZE];
+	static final float[] MONOSPACE_UNIT_WIDTHS = new float[TABLE_SIZE];
+
+	static {
+		for (int i = 0; i < TABLE_SIZE; i++) {
+			short width;
+			if (i == ' ' || i == '\t') {
+				width = ASCII_WIDTHS[0];
+			} else if (i < ' ' || (i > '~' && i < 0xA0)) {
+				width = 0;	// control characters
+			} else if (i <= '~') {
+				width = ASCII_WIDTHS[i - ' '];
+			} else if (i == 0xA0) {
+				width = NBSP_WIDTH;
+			} else {
+				width = DEFAULT_WIDTH;
+			}
+			ARIAL_UNIT_WIDTHS[i] = width / 1000F;
+			MONOSPACE_UNIT_WIDTHS[i] = width == 0 ? 0F : MONOSPACE_WIDTH / 1000F;
+		}
+	}
+
+	private final Workbook workbook;
+	/**
+	 * Character widths in points by font index
+	 */
+	private float[][] fontWidths = new float[0][];
+	/**
+	 * Width of a wide character in points by font index
+	 */
+	private float[] fontWideWidths = new float[0];
+
+	/**
+	 * @param workbook workbook containing the fonts for the cells
+	 */
+	WrappedLineEstimator(Workbook workbook) {
+		this.workbook = workbook;
+	}
+
+	/**
+	 * @param fontIndex
+	 * @return the cached character widths in points for the font
+	 */
+	private float[] getWidths(short fontIndex) {
+		if (fontIndex >= fontWidths.length) {
+			fontWidths = Arrays.copyOf(fontWidths, fontIndex + 1);
+			fontWideWidths = Arrays.copyOf(fontWideWidths, fontIndex + 1);
+		}
+		float[] retval = fontWidths[fontIndex];
+		if (retval == null) {
+			Font font = workbook.getFontAt(fontIndex);
+			float size = font.getFontHeightInPoints();
+			float[] unitWidths = isMonospaced(font.getFontName()) ? MONOSPACE_UNIT_WIDTHS : ARIAL_UNIT_WIDTHS;
+			retval = new float[TABLE_SIZE];
+			for (int i = 0; i < TABLE_SIZE; i++) {
+				retval[i] = unitWidths[i] * size;
+			}
+			fontWidths[fontIndex] = retval;
+			fontWideWidths[fontIndex] = WIDE_WIDTH / 1000F * size;
+		}
+		return retval;
+	}
+
+	private static boolean isMonospaced(String fontName) {
+		if (fontName == null) {
+			return false;
+		}
+		String name = fontName.toLowerCase();
+		return name.contains("courier") || name.contains("mono") || name.contains("consolas");
+	}
+
+	/**
+	 * @param cell cell in a sheet of the workbook
+	 * @param maxLines lines are no longer counted once this number is reached
+	 * @return the number of lines the cell value wraps to - 1 if the cell is not a wrapped string
+	 */
+	@SuppressWarnings("deprecation")
+	int getNumWrappedLines(Cell cell, int maxLines) {
+		if (cell.getCellTypeEnum() != CellType.STRING) {
+			return 1;
+		}
+		String val = cell.getStringCellValue();
+		if (val == null || val.isEmpty()) {
+			return 1;
+		}
+		CellStyle style = cell.getCellStyle();
+		if (style == null || !style.getWrapText()) {
+			return 1;
+		}
+		float cellWidth = cell.getSheet().getColumnWidth(cell.getColumnIndex())/ 256F * 5.5F;
+		return getNumWrappedLines(val, style.getFontIndex(), cellWidth, maxLines);
+	}
+
+	/**
+	 * @param val string value of the cell
+	 * @param fontIndex index of the cell font in the workbook
+	 * @param cellWidth width of the cell in points
+	 * @param maxLines lines are no longer counted once this number is reached
+	 * @return the number of lines the value wraps to, no more than maxLines
+	 */
+	int getNumWrappedLines(String val, short fontIndex, float cellWidth, int maxLines) {
+		int len = val.length();
+		if (len == 0) {
+			return 1;
+		}
+		float[] widths = getWidths(fontIndex);
+		float defaultWidth = widths['n'];
+		float wideWidth = fontWideWidths[fontIndex];
+		int numLines = 0;
+		int lineStart = 0;
+		while (lineStart < len && numLines < maxLines) {
+			numLines++;
+			float lineWidth = 0;
+			int lastBreak = -1;	// position after the last break opportunity on the line
+			int nextLineStart = len;
+			int i = lineStart;
+			while (i < len) {
+				char c = val.charAt(i);
+				float width;
+				if (c < TABLE_SIZE) {
+					width = widths[c];
+				} else if (c >= FIRST_WIDE_CHAR) {
+					width = wideWidth;
+				} else {
+					width = defaultWidth;
+				}
+				if (Character.isWhitespace(c)) {
+					// whitespace may extend past the end of the line
+					lineWidth += width;
+					i++;
+					lastBreak = i;
+					continue;
+				}
+				if (lineWidth + width > cellWidth) {
+					if (lastBreak > lineStart) {
+						nextLineStart = lastBreak;
+					} else if (i > lineStart) {
+						nextLineStart = i;
+					} else {
+						nextLineStart = i + 1;	// at least one character on each line
+					}
+					break;
+				}
+				lineWidth += width;
+				i++;
+				if (c == '-' && i < len && i - 2 >= lineStart &&
+						Character.isLetterOrDigit(val.charAt(i - 2)) && !Character.isWhitespace(val.charAt(i))) {
+					lastBreak = i;	// break after a hyphen within a word
+				}
+			}
+			lineStart = i >= len ? len : nextLineStart;
+		}
+		return numLines;
+	}
+}
@@ -32,6 +32,7 @@ import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.jena.rdf.model.Model;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.SPDXCreatorInformation;
 import org.spdx.rdfparser.SPDXReview;
@@ -260,6 +261,23 @@ public class BuildDocument implements TagValueBehavior {
 	 */
 	private ExternalRef lastExternalRef = null;
 
+	/**
+	 * Model to store the document in - null if the default in-memory model is used
+	 */
+	private Model model = null;
+
+	/**
+	 * Build a document in a model other than the default in-memory model
+	 * @param result
+	 * @param constants
+	 * @param warnings
+	 * @param model empty model to store the document in - if null, the default in-memory model is used
+	 */
+	public BuildDocument(SpdxDocumentContainer[] result, Properties constants, List<String> warnings, Model model) {
+		this(result, constants, warnings);
+		this.model = model;
+	}
+
 	public BuildDocument(SpdxDocumentContainer[] result, Properties constants, List<String> warnings) {
 		this.constants = constants;
 		this.warningMessages = warnings;
@@ -597,9 +615,9 @@ public class BuildDocument implements TagValueBehavior {
 				throw(new InvalidSpdxTagFileException("More than one document namespace was specified at line number "+lineNumber));
 			}
 			if (this.specVersion == null) {
-				result[0] = new SpdxDocumentContainer(value);
+				result[0] = createContainer(value, SpdxDocumentContainer.CURRENT_SPDX_VERSION);
 			} else {
-				result[0] = new SpdxDocumentContainer(value, this.specVersion);
+				result[0] = createContainer(value, this.specVersion);
 			}
 			this.analysis = result[0].getSpdxDocument();
 			if (this.dataLicense != null) {
@@ -827,10 +845,25 @@ public class BuildDocument implements TagValueBehavior {
 				relationshipType, lineNumber);
 	}
 
+	/**
+	 * Create the document container in the model for this builder
+	 * @param uri
+	 * @param spdxVersion
+	 * @return
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private SpdxDocumentContainer createContainer(String uri, String spdxVersion) throws InvalidSPDXAnalysisException {
+		if (this.model == null) {
+			return new SpdxDocumentContainer(uri, spdxVersion);
+		} else {
+			return new SpdxDocumentContainer(uri, spdxVersion, this.model);
+		}
+	}
+
 	private void checkAnalysisNull() throws InvalidSpdxTagFileException, InvalidSPDXAnalysisException,InvalidFileFormatException {
 		if (this.analysis == null) {
 			if (this.specVersion != null && this.specVersion.compareTo("SPDX-2.0") < 0) {
-				result[0] = new SpdxDocumentContainer(generateDocumentNamespace());
+				result[0] = createContainer(generateDocumentNamespace(), SpdxDocumentContainer.CURRENT_SPDX_VERSION);
 				this.analysis = result[0].getSpdxDocument();
 			} else {
 				throw(new InvalidFileFormatException("The SPDX Document Namespace must be set before other SPDX document properties are set."));
@@ -38,11 +38,15 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 
+import org.spdx.rdfparser.CloseableIterator;
 import org.spdx.rdfparser.DOAPProject;
+import org.spdx.rdfparser.ElementIterationException;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.SPDXReview;
 import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.SpdxMetrics;
 import org.spdx.rdfparser.license.AnyLicenseInfo;
 import org.spdx.rdfparser.license.ExtractedLicenseInfo;
 import org.spdx.rdfparser.license.SimpleLicensingInfo;
@@ -66,6 +70,7 @@ import org.spdx.rdfparser.referencetype.ListedReferenceTypes;
 import org.spdx.tools.RdfToTag;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 /**
  * Define Common methods used by Tag-Value and SPDXViewer to print the SPDX
@@ -85,6 +90,16 @@ public class CommonCode {
 	 */
 	public static void printDoc(SpdxDocument doc, PrintWriter out,
 			Properties constants) throws InvalidSPDXAnalysisException {
+		SpdxMetrics.Timer timer = SpdxMetrics.startTimer(SpdxMetrics.WRITE);
+		try {
+			doPrintDoc(doc, out, constants);
+		} finally {
+			timer.stop();
+		}
+	}
+
+	private static void doPrintDoc(SpdxDocument doc, PrintWriter out,
+			Properties constants) throws InvalidSPDXAnalysisException {
 		if (doc == null) {
 			println(out, "Warning: No document to print");
 			return;
@@ -162,16 +177,18 @@ public class CommonCode {
 		printElementAnnotationsRelationships(doc, out, constants, "PROP_DOCUMENT_NAME", "PROP_SPDX_COMMENT");
 		println(out, "");
 		// Print the actual files
-		List<SpdxPackage> allPackages = doc.getDocumentContainer().findAllPackages();
-		List<SpdxFile> allFiles = doc.getDocumentContainer().findAllFiles();
-		List<SpdxSnippet> allSnippets = doc.getDocumentContainer().findAllSnippets();
+		// The properties are read from the model as each element is printed.  Only the IDs of the
+		// printed files are kept - the remaining files are found by iterating over the files at the end
+		List<SpdxPackage> allPackages = doc.getDocumentContainer().findAllPackages(true);
+		Set<String> printedFileIds = Sets.newHashSet();
+		List<SpdxSnippet> allSnippets = doc.getDocumentContainer().findAllSnippets(true);
 		// first print out any described files or snippets
 		SpdxItem[] items = doc.getDocumentDescribes();
 		if (items.length > 0) {
 			for (int i = 0; i < items.length; i++) {
 				if (items[i] instanceof SpdxFile) {
 					printFile((SpdxFile)items[i], out, constants);
-					allFiles.remove(items[i]);
+					printedFileIds.add(items[i].getId());
 				} else if (items[i] instanceof SpdxSnippet) {
 					printSnippet((SpdxSnippet)items[i], out, constants);
 					allSnippets.remove(items[i]);
@@ -182,18 +199,25 @@ public class CommonCode {
 		if (items.length > 0) {
 			for (int i = 0; i < items.length; i++) {
 				if (items[i] instanceof SpdxPackage) {
-					printPackage((SpdxPackage)items[i], out, constants, allFiles, doc.getDocumentNamespace());
+					printPackage((SpdxPackage)items[i], out, constants, printedFileIds, doc.getDocumentNamespace());
 					allPackages.remove(items[i]);
 				}
 			}
 		}
 		// print remaining packages
 		for (SpdxPackage pkg:allPackages) {
-			printPackage(pkg, out, constants, allFiles, doc.getDocumentNamespace());
+			printPackage(pkg, out, constants, printedFileIds, doc.getDocumentNamespace());
 		}
 		// print remaining files
-		for (SpdxFile file:allFiles) {
-			printFile(file, out, constants);
+		try (CloseableIterator<SpdxFile> fileIter = doc.getDocumentContainer().getFileIterator(true)) {
+			while (fileIter.hasNext()) {
+				SpdxFile file = fileIter.next();
+				if (!printedFileIds.contains(file.getId())) {
+					printFile(file, out, constants);
+				}
+			}
+		} catch (ElementIterationException ex) {
+			throw(ex.getCause());
 		}
 		// print remainig snippets snippets
 		Collections.sort(allSnippets);
@@ -452,7 +476,7 @@ public class CommonCode {
 	 * @throws InvalidSPDXAnalysisException
 	 */
 	private static void printPackage(SpdxPackage pkg, PrintWriter out,
-			Properties constants, List<SpdxFile> remainingFilesToPrint,
+			Properties constants, Set<String> printedFileIds,
 			String documentNamespace) throws InvalidSPDXAnalysisException {
 		println(out, constants.getProperty("PACKAGE_INFO_HEADER"));
 		printElementProperties(pkg, out, constants,"PROP_PACKAGE_DECLARED_NAME",
@@ -603,7 +627,7 @@ public class CommonCode {
                         /* Print out sorted files */
 			for (SpdxFile file : sortedFileList) {
 				printFile(file, out, constants);
-				remainingFilesToPrint.remove(file);
+				printedFileIds.add(file.getId());
 				println(out, "");
 			}
 		} else {
@@ -20,10 +20,15 @@ package org.spdx.tools;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.spdx.compare.MultiDocumentSpreadsheet;
 import org.spdx.compare.SpdxCompareException;
 import org.spdx.compare.SpdxComparer;
+import org.spdx.compare.SpdxComparerPage;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.model.SpdxDocument;
 import org.spdx.spdxspreadsheet.SpreadsheetException;
@@ -34,13 +39,32 @@ import org.spdx.spdxspreadsheet.SpreadsheetException;
  * where output.xls is a file name for the output spreadsheet file
  * and docX are SPDX document files to compare.  Document files can be either in RDF/XML  or tag/value format
  * 
+ * Documents are opened and verified in parallel using a bounded thread pool.
+ * All of the documents are compared with each other.  If more documents are supplied
+ * than will fit in a single spreadsheet (<code>MultiDocumentSpreadsheet.MAX_DOCUMENTS</code>),
+ * the results are paged into several spreadsheets named output-1.xls, output-2.xls, ...
+ * Each page contains the columns for the next group of documents.
+ * 
  * @author Gary O'Neall
  *
  */
 public class CompareMultpleSpdxDocs {
 	static final int MIN_ARGS = 3;
-	static final int MAX_ARGS = 14;
 	static final int ERROR_STATUS = 1;
+	/**
+	 * Maximum number of documents opened in parallel
+	 */
+	static final int MAX_LOAD_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+	
+	/**
+	 * Result of opening and verifying a single SPDX document
+	 */
+	static class LoadedDocument {
+		SpdxDocument document;
+		String docName;
+		List<String> warnings = new ArrayList<String>();
+		List<String> verificationErrors;
+	}
 
 
 	/**
@@ -52,11 +76,6 @@ public class CompareMultpleSpdxDocs {
 			usage();
 			System.exit(ERROR_STATUS);
 		}
-		if (args.length > MAX_ARGS) {
-			System.out.println("Too many SPDX documents specified.  Must be less than "+String.valueOf(MAX_ARGS-1)+" document filenames");
-			usage();
-			System.exit(ERROR_STATUS);
-		}
 		try {
 			onlineFunction(args);
 		} catch (OnlineToolException e){
@@ -71,39 +90,159 @@ public class CompareMultpleSpdxDocs {
 	 * @throws OnlineToolException Exception caught by JPype and displayed to the user
 	 */
 	public static void onlineFunction(String[] args) throws OnlineToolException{
-		// Arguments length( 14>=args length>=3 ) will checked in the Python Code
+		// Arguments length( args length>=3 ) will checked in the Python Code
 		File outputFile = new File(args[0]);
 		// Output File name will be checked in the Python code for no clash, but if still found
 		if (outputFile.exists()) {
 			throw new OnlineToolException("Output file "+args[0]+" already exists. Change the name of the result file.");
 		}
-		SpdxDocument[] compareDocs = new SpdxDocument[args.length-1];
-		String[] docNames = new String[args.length-1];
-		@SuppressWarnings("unchecked")
-		List<String>[] verificationErrors = new List[args.length-1];
-		for (int i = 1; i < args.length; i++) {
-			try {
-				List<String> warnings = new ArrayList<String>();	
-				compareDocs[i-1] = CompareSpdxDocs.openRdfOrTagDoc(args[i], warnings);
-				if (!warnings.isEmpty()) {
-					System.out.println("Verification errors were found in "+args[i].trim()+".  See verification errors sheet for details.");
+		String[] docFileNames = new String[args.length-1];
+		System.arraycopy(args, 1, docFileNames, 0, docFileNames.length);
+		File[] pageFiles = pageFiles(outputFile, docFileNames.length, MultiDocumentSpreadsheet.MAX_DOCUMENTS);
+		for (File pageFile:pageFiles) {
+			if (pageFile.exists()) {
+				throw new OnlineToolException("Output file "+pageFile.getPath()+" already exists. Change the name of the result file.");
+			}
+		}
+		compareAndWrite(pageFiles, loadDocuments(docFileNames), MultiDocumentSpreadsheet.MAX_DOCUMENTS);
+	}
+	
+	/**
+	 * @param outputFile output file requested by the user
+	 * @param numDocuments number of documents compared
+	 * @param docsPerPage maximum number of documents in a single spreadsheet
+	 * @return the output file if all documents fit in a single spreadsheet, otherwise a file for each page of results
+	 */
+	static File[] pageFiles(File outputFile, int numDocuments, int docsPerPage) {
+		if (numDocuments <= docsPerPage) {
+			return new File[] {outputFile};
+		}
+		File[] retval = new File[(numDocuments + docsPerPage - 1) / docsPerPage];
+		String name = outputFile.getName();
+		int dot = name.lastIndexOf('.');
+		for (int i = 0; i < retval.length; i++) {
+			String pageName;
+			if (dot > 0) {
+				pageName = name.substring(0, dot) + "-" + String.valueOf(i+1) + name.substring(dot);
+			} else {
+				pageName = name + "-" + String.valueOf(i+1);
+			}
+			retval[i] = new File(outputFile.getAbsoluteFile().getParentFile(), pageName);
+		}
+		return retval;
+	}
+	
+	/**
+	 * Open and verify the SPDX documents in parallel
+	 * @param docFileNames file names of the SPDX documents
+	 * @return loaded documents in the same order as the file names
+	 * @throws OnlineToolException
+	 */
+	static LoadedDocument[] loadDocuments(final String[] docFileNames) throws OnlineToolException {
+		LoadedDocument[] retval = new LoadedDocument[docFileNames.length];
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(MAX_LOAD_THREADS, docFileNames.length));
+		try {
+			List<Future<LoadedDocument>> futures = new ArrayList<Future<LoadedDocument>>();
+			for (final String docFileName:docFileNames) {
+				futures.add(executor.submit(() -> loadDocument(docFileName)));
+			}
+			for (int i = 0; i < retval.length; i++) {
+				try {
+					retval[i] = futures.get(i).get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					String message = cause != null ? cause.getMessage() : e.getMessage();
+					throw new OnlineToolException("Error opening SPDX document "+docFileNames[i]+": "+message);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new OnlineToolException("Interrupted opening SPDX document "+docFileNames[i]);
+				}
+				// Report in argument order regardless of completion order
+				if (!retval[i].warnings.isEmpty()) {
+					System.out.println("Verification errors were found in "+docFileNames[i].trim()+".  See verification errors sheet for details.");
 				}
-				docNames[i-1]  = CompareSpdxDocs.convertDocName(args[i]);
-				verificationErrors[i-1] = compareDocs[i-1].verify();
-				if (verificationErrors[i-1] != null && verificationErrors[i-1].size() > 0) {
-					System.out.println("Warning: "+docNames[i-1]+" contains verification errors.");
+				if (retval[i].verificationErrors != null && retval[i].verificationErrors.size() > 0) {
+					System.out.println("Warning: "+retval[i].docName+" contains verification errors.");
 				}
-			} catch (SpdxCompareException e) {
-				throw new OnlineToolException("Error opening SPDX document "+args[i]+": "+e.getMessage());
 			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return retval;
+	}
+	
+	/**
+	 * Open and verify a single SPDX document
+	 * @param docFileName
+	 * @return
+	 * @throws SpdxCompareException
+	 */
+	private static LoadedDocument loadDocument(String docFileName) throws SpdxCompareException {
+		LoadedDocument retval = new LoadedDocument();
+		retval.document = CompareSpdxDocs.openRdfOrTagDoc(docFileName, retval.warnings);
+		retval.docName = CompareSpdxDocs.convertDocName(docFileName);
+		retval.verificationErrors = retval.document.verify();
+		return retval;
+	}
+	
+	/**
+	 * Compare all of the loaded documents and write the results to new spreadsheets
+	 * @param pageFiles spreadsheet file for each page of documents
+	 * @param loaded
+	 * @param docsPerPage number of documents written to each spreadsheet
+	 * @throws OnlineToolException
+	 */
+	private static void compareAndWrite(File[] pageFiles, LoadedDocument[] loaded, int docsPerPage) throws OnlineToolException {
+		SpdxDocument[] compareDocs = new SpdxDocument[loaded.length];
+		for (int i = 0; i < loaded.length; i++) {
+			compareDocs[i] = loaded[i].document;
+		}
+		SpdxComparer comparer = new SpdxComparer();
+		try {
+			comparer.compare(compareDocs);
+		} catch (InvalidSPDXAnalysisException e) {
+			throw new OnlineToolException("Invalid SPDX analysis: "+e.getMessage());
+		} catch (SpdxCompareException e) {
+			throw new OnlineToolException("Error comparing SPDX documents: "+e.getMessage());
+		}
+		if (pageFiles.length > 1) {
+			System.out.println("Writing the comparison of "+String.valueOf(loaded.length)+" documents to "+
+					String.valueOf(pageFiles.length)+" spreadsheets");
+		}
+		for (int page = 0; page < pageFiles.length; page++) {
+			int fromIndex = page * docsPerPage;
+			int toIndex = Math.min(fromIndex + docsPerPage, loaded.length);
+			writePage(pageFiles[page], comparer, loaded, fromIndex, toIndex);
+		}
+	}
+	
+	/**
+	 * Write the results for a page of documents to a new spreadsheet
+	 * @param outputFile
+	 * @param comparer comparer for all of the documents
+	 * @param loaded
+	 * @param fromIndex index of the first document in the page
+	 * @param toIndex index after the last document in the page
+	 * @throws OnlineToolException
+	 */
+	private static void writePage(File outputFile, SpdxComparer comparer, LoadedDocument[] loaded,
+			int fromIndex, int toIndex) throws OnlineToolException {
+		String[] docNames = new String[toIndex - fromIndex];
+		@SuppressWarnings("unchecked")
+		List<String>[] verificationErrors = new List[docNames.length];
+		for (int i = 0; i < docNames.length; i++) {
+			docNames[i] = loaded[fromIndex + i].docName;
+			verificationErrors[i] = loaded[fromIndex + i].verificationErrors;
 		}
 		MultiDocumentSpreadsheet outSheet = null;
 		try {
 			outSheet = new MultiDocumentSpreadsheet(outputFile, true, false);
 			outSheet.importVerificationErrors(verificationErrors, docNames);
-			SpdxComparer comparer = new SpdxComparer();
-			comparer.compare(compareDocs);
-			outSheet.importCompareResults(comparer, docNames);
+			if (fromIndex == 0 && toIndex == comparer.getNumSpdxDocs()) {
+				outSheet.importCompareResults(comparer, docNames);
+			} else {
+				outSheet.importCompareResults(new SpdxComparerPage(comparer, fromIndex, toIndex), docNames);
+			}
 		} catch (SpreadsheetException e) {
 			throw new OnlineToolException("Unable to create output spreadsheet: "+e.getMessage());
 		} catch (InvalidSPDXAnalysisException e) {
@@ -128,7 +267,9 @@ public class CompareMultpleSpdxDocs {
 		System.out.println("Usage: CompareMultipleSpdxDoc output.xls doc1 doc2 ... docN");
 		System.out.println("where output.xls is a file name for the output spreadsheet file");
 		System.out.println("and doc1 through docN are file names of valid SPDX documents ");
-		System.out.println("in either tag/value or RDF/XML format");	
+		System.out.println("in either tag/value or RDF/XML format");
+		System.out.println("If more than "+String.valueOf(MultiDocumentSpreadsheet.MAX_DOCUMENTS)+" documents are specified, the results");
+		System.out.println("are written to output-1.xls, output-2.xls, ... each containing the next group of documents");
 	}
 
 }
@@ -29,7 +29,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import org.spdx.compare.LicenseCompareHelper;
+import org.spdx.compare.LicenseTextDuplicateFinder;
 import org.spdx.compare.SpdxCompareException;
 import org.spdx.html.InvalidLicenseTemplateException;
 import org.spdx.licensexml.XmlLicenseProvider;
@@ -44,6 +44,7 @@ import org.spdx.spdxspreadsheet.SPDXLicenseSpreadsheet.DeprecatedLicenseInfo;
 import org.spdx.tools.licensegenerator.FsfLicenseDataParser;
 import org.spdx.tools.licensegenerator.ILicenseFormatWriter;
 import org.spdx.tools.licensegenerator.ILicenseTester;
+import org.spdx.tools.licensegenerator.LicenseGeneratorManifest;
 import org.spdx.tools.licensegenerator.LicenseHtmlFormatWriter;
 import org.spdx.tools.licensegenerator.LicenseJsonFormatWriter;
 import org.spdx.tools.licensegenerator.LicenseMarkdownFormatWriter;
@@ -51,6 +52,7 @@ import org.spdx.tools.licensegenerator.LicenseRdfFormatWriter;
 import org.spdx.tools.licensegenerator.LicenseRdfaFormatWriter;
 import org.spdx.tools.licensegenerator.LicenseTemplateFormatWriter;
 import org.spdx.tools.licensegenerator.LicenseTextFormatWriter;
+import org.spdx.tools.licensegenerator.LicenseWriterPipeline;
 import org.spdx.tools.licensegenerator.SimpleLicenseTester;
 import org.spdx.tools.licensegenerator.SpdxWebsiteFormatWriter;
 import org.spdx.spdxspreadsheet.SpreadsheetException;
@@ -95,6 +97,7 @@ public class LicenseRDFAGenerator {
 	}
 	static int MIN_ARGS = 2;
 	static int MAX_ARGS = 5;
+	static final String FULL_REBUILD_OPTION = "--full";
 
 	static final int ERROR_STATUS = 1;
 	static final String CSS_TEMPLATE_FILE = "resources/screen.css";
@@ -116,6 +119,18 @@ public class LicenseRDFAGenerator {
 	 * @param args Arg 0 is either an input spreadsheet or a directory of licenses in XML format, arg 1 is the directory for the output html files
 	 */
 	public static void main(String[] args) {
+		boolean forceFullRebuild = false;
+		if (args != null) {
+			List<String> positionalArgs = Lists.newArrayList();
+			for (String arg:args) {
+				if (FULL_REBUILD_OPTION.equals(arg)) {
+					forceFullRebuild = true;
+				} else {
+					positionalArgs.add(arg);
+				}
+			}
+			args = positionalArgs.toArray(new String[positionalArgs.size()]);
+		}
 		if (args == null || args.length < MIN_ARGS || args.length > MAX_ARGS) {
 			System.out.println("Invalid arguments");
 			usage();
@@ -162,7 +177,7 @@ public class LicenseRDFAGenerator {
 		}
 
 		try {
-			generateLicenseData(ssFile, dir, version, releaseDate, testFileDir);
+			generateLicenseData(ssFile, dir, version, releaseDate, testFileDir, forceFullRebuild);
 		} catch (LicenseGeneratorException e) {
 			System.out.println(e.getMessage());
 			System.exit(ERROR_STATUS);
@@ -180,6 +195,26 @@ public class LicenseRDFAGenerator {
 	 */
 	public static List<String> generateLicenseData(File ssFile, File dir,
 			String version, String releaseDate, File testFileDir) throws LicenseGeneratorException {
+		return generateLicenseData(ssFile, dir, version, releaseDate, testFileDir, false);
+	}
+	
+	/**
+	 * Generate license data.  Unless a full rebuild is forced, the manifest from a previous run in the
+	 * same output directory is used to only rewrite the per-license files for licenses and exceptions 
+	 * whose content has changed.  The tables of contents are always rewritten.  A full rebuild is done 
+	 * if there is no manifest, if the version, release date or templates changed, or if any output file 
+	 * was changed since the previous run.
+	 * @param ssFile Either a license spreadsheet file or a directory containing license XML files
+	 * @param dir Output directory for the generated results
+	 * @param version Version for the license lise
+	 * @param releaseDate Release data string for the license
+	 * @param testFileDir Directory of license text to test the generated licenses against
+	 * @param forceFullRebuild If true, all outputs are regenerated regardless of the manifest
+	 * @return warnings
+	 * @throws LicenseGeneratorException 
+	 */
+	public static List<String> generateLicenseData(File ssFile, File dir,
+			String version, String releaseDate, File testFileDir, boolean forceFullRebuild) throws LicenseGeneratorException {
 		List<String> warnings = Lists.newArrayList();
 		List<ILicenseFormatWriter> writers = Lists.newArrayList();
 		ISpdxListedLicenseProvider licenseProvider = null;
@@ -258,12 +293,39 @@ public class LicenseRDFAGenerator {
 			if (testFileDir != null) {
 				tester = new SimpleLicenseTester(testFileDir);
 			}
-			System.out.print("Processing License List");
-			writeLicenseList(version, releaseDate, licenseProvider, warnings, writers, tester);
-			System.out.println();
-			System.out.print("Processing Exceptions");
-			writeExceptionList(version, releaseDate, licenseProvider, warnings, writers, tester);
-			System.out.println();
+			String environmentHash = LicenseGeneratorManifest.hashEnvironment(version, releaseDate);
+			LicenseGeneratorManifest previousManifest = null;
+			if (!forceFullRebuild) {
+				previousManifest = LicenseGeneratorManifest.load(dir);
+				if (previousManifest != null) {
+					if (!environmentHash.equals(previousManifest.getEnvironmentHash())) {
+						System.out.println("Version, release date or templates changed - regenerating all licenses");
+						previousManifest = null;
+					} else if (!previousManifest.outputsUnchanged(dir)) {
+						System.out.println("Output files changed since the last run - regenerating all licenses");
+						previousManifest = null;
+					} else {
+						System.out.println("Only regenerating licenses changed since the last run");
+					}
+				}
+			}
+			// The manifest is only valid once the run completes
+			LicenseGeneratorManifest.delete(dir);
+			LicenseGeneratorManifest manifest = new LicenseGeneratorManifest(environmentHash);
+			LicenseWriterPipeline pipeline = new LicenseWriterPipeline(writers, tester, System.out);
+			boolean allAdded = false;
+			try {
+				System.out.println("Processing License List");
+				writeLicenseList(version, releaseDate, licenseProvider, warnings, pipeline, previousManifest, manifest);
+				System.out.println("Processing Exceptions");
+				writeExceptionList(version, releaseDate, licenseProvider, warnings, pipeline, previousManifest, manifest);
+				allAdded = true;
+			} finally {
+				if (!allAdded) {
+					pipeline.cancel();
+				}
+			}
+			warnings.addAll(pipeline.finish());
 			System.out.print("Writing table of contents");
 			for (ILicenseFormatWriter writer : writers) {
 				writer.writeToC();
@@ -271,6 +333,15 @@ public class LicenseRDFAGenerator {
 			writeCssFile(website);
 			writeSortTableFile(website);
 			System.out.println();
+			if (previousManifest != null && !manifest.containsAllInputs(previousManifest)) {
+				// Outputs for the removed licenses are still in the output directory - leave
+				// the manifest out so the next run is a full rebuild
+				warnings.add("Licenses or exceptions were removed since the last run.  Remove the output directory contents or run with "+
+						FULL_REBUILD_OPTION + " to remove their files.");
+			} else {
+				manifest.recordOutputs(dir);
+				manifest.save(dir);
+			}
 			warnings.addAll(licenseProvider.getWarnings());
 			if (warnings.size() > 0) {
 				System.out.println("The following warning(s) were identified:");
@@ -304,9 +375,10 @@ public class LicenseRDFAGenerator {
 	 * @param version License list version
 	 * @param releaseDate release date for the license list
 	 * @param licenseProvider Provides the licensing information
-	 * @param warnings Populated with any warnings if they occur
-	 * @param writers License Format Writers to handle the writing for the different formats
-	 * @param tester License tester used to test the results of licenses
+	 * @param warnings Populated with any warnings which are not specific to an exception
+	 * @param pipeline Pipeline for the writers and tester used to write and test each exception
+	 * @param previousManifest Manifest from the previous run or null if all exceptions are to be written
+	 * @param manifest Manifest for this run - updated with the hash for each exception
 	 * @throws IOException 
 	 * @throws SpreadsheetException 
 	 * @throws LicenseRestrictionException 
@@ -314,8 +386,9 @@ public class LicenseRDFAGenerator {
 	 * @throws InvalidLicenseTemplateException 
 	*/
 	private static void writeExceptionList(String version, String releaseDate,
-			ISpdxListedLicenseProvider licenseProvider, List<String> warnings, List<ILicenseFormatWriter> writers,
-			ILicenseTester tester) throws IOException, LicenseRestrictionException, SpreadsheetException, LicenseGeneratorException, InvalidLicenseTemplateException {
+			ISpdxListedLicenseProvider licenseProvider, List<String> warnings, 
+			LicenseWriterPipeline pipeline, LicenseGeneratorManifest previousManifest,
+			LicenseGeneratorManifest manifest) throws IOException, LicenseRestrictionException, SpreadsheetException, LicenseGeneratorException, InvalidLicenseTemplateException {
 		// Collect license ID's to check for any duplicate ID's being used (e.g. license ID == exception ID)
 		Set<String> licenseIds = Sets.newHashSet();
 		try {
@@ -330,37 +403,30 @@ public class LicenseRDFAGenerator {
 		Iterator<LicenseException> exceptionIter = licenseProvider.getExceptionIterator();
 		Map<String, String> addedExceptionsMap = Maps.newHashMap();
 		while (exceptionIter.hasNext()) {
-			System.out.print(".");
 			LicenseException nextException = exceptionIter.next();
 			addExternalMetaData(nextException);
 			if (nextException.getLicenseExceptionId() != null && !nextException.getLicenseExceptionId().isEmpty()) {
+				List<String> exceptionWarnings = Lists.newArrayList();
 				// check for duplicate exceptions
 				Iterator<Entry<String, String>> addedExceptionIter = addedExceptionsMap.entrySet().iterator();
 				while (addedExceptionIter.hasNext()) {
 					Entry<String, String> entry = addedExceptionIter.next();
 					if (entry.getValue().trim().equals(nextException.getLicenseExceptionText().trim())) {
-						warnings.add("Duplicates exceptions: "+nextException.getLicenseExceptionId()+", "+entry.getKey());
+						exceptionWarnings.add("Duplicates exceptions: "+nextException.getLicenseExceptionId()+", "+entry.getKey());
 					}
 				}
 				// check for a license ID with the same ID as the exception
 				if (licenseIds.contains(nextException.getLicenseExceptionId())) {
-					warnings.add("A license ID exists with the same ID as an exception ID: "+nextException.getLicenseExceptionId());
+					exceptionWarnings.add("A license ID exists with the same ID as an exception ID: "+nextException.getLicenseExceptionId());
 				}
 				checkText(nextException.getLicenseExceptionText(), 
-						"License Exception Text for "+nextException.getLicenseExceptionId(), warnings);
+						"License Exception Text for "+nextException.getLicenseExceptionId(), exceptionWarnings);
 				addedExceptionsMap.put(nextException.getLicenseExceptionId(), nextException.getLicenseExceptionText());
-				for (ILicenseFormatWriter writer:writers) {
-					writer.writeException(nextException, false, null);
-				}
-				if (tester != null) {
-					List<String> testResults = tester.testException(nextException);
-					if (testResults != null && testResults.size() > 0) {
-						for (String testResult:testResults) {
-							warnings.add("Test for exception "+nextException.getLicenseExceptionId() + " failed: "+testResult);
-						}
-					}
-				}
-				
+				String key = LicenseGeneratorManifest.exceptionKey(nextException);
+				String hash = LicenseGeneratorManifest.hashException(nextException);
+				manifest.setInputHash(key, hash);
+				boolean unchanged = previousManifest != null && hash.equals(previousManifest.getInputHash(key));
+				pipeline.addException(nextException, false, null, exceptionWarnings, unchanged);
 			}
 		}
 	}
@@ -412,65 +478,63 @@ public class LicenseRDFAGenerator {
 	 * @param version License list version
 	 * @param releaseDate License list release date
 	 * @param licenseProvider Provides the licensing information
-	 * @param warnings Populated with any warnings if they occur
-	 * @param writers License Format Writers to handle the writing for the different formats
-	 * @param tester license tester to test the results of each license added
+	 * @param warnings Populated with any warnings which are not specific to a license
+	 * @param pipeline Pipeline for the writers and tester used to write and test each license
+	 * @param previousManifest Manifest from the previous run or null if all licenses are to be written
+	 * @param manifest Manifest for this run - updated with the hash for each license
 	 * @throws LicenseGeneratorException
 	 * @throws InvalidSPDXAnalysisException
 	 * @throws IOException
 	 * @throws SpdxListedLicenseException
 	 * @throws SpdxCompareException
+	 * @throws InvalidLicenseTemplateException 
 	 */
 	private static void writeLicenseList(String version, String releaseDate,
 			ISpdxListedLicenseProvider licenseProvider, List<String> warnings,
-			List<ILicenseFormatWriter> writers, ILicenseTester tester) throws LicenseGeneratorException, InvalidSPDXAnalysisException, IOException, SpdxListedLicenseException, SpdxCompareException {
+			LicenseWriterPipeline pipeline, LicenseGeneratorManifest previousManifest,
+			LicenseGeneratorManifest manifest) throws LicenseGeneratorException, InvalidSPDXAnalysisException, IOException, SpdxListedLicenseException, SpdxCompareException, InvalidLicenseTemplateException {
 		Iterator<SpdxListedLicense> licenseIter = licenseProvider.getLicenseIterator();
-		Map<String, String> addedLicIdTextMap = Maps.newHashMap();	// keep track for duplicate checking
+		LicenseTextDuplicateFinder duplicateFinder = new LicenseTextDuplicateFinder();	// keep track for duplicate checking
 		while (licenseIter.hasNext()) {
-			System.out.print(".");
 			SpdxListedLicense license = licenseIter.next();
 			addExternalMetaData(license);
 			if (license.getLicenseId() != null && !license.getLicenseId().isEmpty()) {
+				List<String> licenseWarnings = Lists.newArrayList();
 				// Check for duplicate licenses
-				Iterator<Entry<String, String>> addedLicenseTextIter = addedLicIdTextMap.entrySet().iterator();
-				while (addedLicenseTextIter.hasNext()) {
-					Entry<String, String> entry = addedLicenseTextIter.next();
-					if (LicenseCompareHelper.isLicenseTextEquivalent(entry.getValue(), license.getLicenseText())) {
-						warnings.add("Duplicates licenses: "+license.getLicenseId()+", "+entry.getKey());
-					}
-				}
-				addedLicIdTextMap.put(license.getLicenseId(), license.getLicenseText());
-				checkText(license.getLicenseText(), "License text for "+license.getLicenseId(), warnings);
-				for (ILicenseFormatWriter writer : writers) {
-					writer.writeLicense(license, false, null);
-				}
-				if (tester != null) {
-					List<String> testResults = tester.testLicense(license);
-					if (testResults != null && testResults.size() > 0) {
-						for (String testResult:testResults) {
-							warnings.add("Test for license "+license.getLicenseId() + " failed: "+testResult);
-						}
-					}
+				for (String duplicateId:duplicateFinder.addAndFindDuplicates(license.getLicenseId(), license.getLicenseText())) {
+					licenseWarnings.add("Duplicates licenses: "+license.getLicenseId()+", "+duplicateId);
 				}
+				checkText(license.getLicenseText(), "License text for "+license.getLicenseId(), licenseWarnings);
+				pipeline.addLicense(license, false, null, licenseWarnings, 
+						isUnchanged(license, false, null, previousManifest, manifest));
 			}
 		}
 		Iterator<DeprecatedLicenseInfo> depIter = licenseProvider.getDeprecatedLicenseIterator();
 		while (depIter.hasNext()) {
-			System.out.print(".");
 			DeprecatedLicenseInfo deprecatedLicense = depIter.next();
-			for (ILicenseFormatWriter writer : writers) {
-				writer.writeLicense(deprecatedLicense.getLicense(), true, deprecatedLicense.getDeprecatedVersion());
-			}
-			if (tester != null) {
-				List<String> testResults = tester.testLicense(deprecatedLicense.getLicense());
-				if (testResults != null && testResults.size() > 0) {
-					for (String testResult:testResults) {
-						warnings.add("Test for license "+deprecatedLicense.getLicense().getLicenseId() + " failed: "+testResult);
-					}
-				}
-			}
+			pipeline.addLicense(deprecatedLicense.getLicense(), true, deprecatedLicense.getDeprecatedVersion(), 
+					Lists.<String>newArrayList(), isUnchanged(deprecatedLicense.getLicense(), true, 
+							deprecatedLicense.getDeprecatedVersion(), previousManifest, manifest));
 		}
 	}
+	
+	/**
+	 * Record the hash of a license in the manifest and compare it to the previous run
+	 * @param license License to check
+	 * @param deprecated True if deprecated
+	 * @param deprecatedVersion License list version when the license was deprecated
+	 * @param previousManifest Manifest from the previous run or null if there is no usable previous run
+	 * @param manifest Manifest for this run
+	 * @return true if the license is unchanged since the previous run and the outputs need not be rewritten
+	 * @throws InvalidLicenseTemplateException
+	 */
+	private static boolean isUnchanged(SpdxListedLicense license, boolean deprecated, String deprecatedVersion,
+			LicenseGeneratorManifest previousManifest, LicenseGeneratorManifest manifest) throws InvalidLicenseTemplateException {
+		String key = LicenseGeneratorManifest.licenseKey(license, deprecated);
+		String hash = LicenseGeneratorManifest.hashLicense(license, deprecated, deprecatedVersion);
+		manifest.setInputHash(key, hash);
+		return previousManifest != null && hash.equals(previousManifest.getInputHash(key));
+	}
 
 	/**
 	 * Update license fields based on information from external metadata
@@ -531,8 +595,10 @@ public class LicenseRDFAGenerator {
 	
 	private static void usage() {
 		System.out.println("Usage:");
-		System.out.println("LicenseRDFAGenerator licenseSpreadsheet.xls outputDirectory [version] [releasedate]");
+		System.out.println("LicenseRDFAGenerator licenseSpreadsheet.xls outputDirectory [version] [releasedate] [testdirectory] ["+FULL_REBUILD_OPTION+"]");
 		System.out.println("   Note - if version or release date is not specified, the information will be taken from the spreadsheet.");
+		System.out.println("   Note - only licenses changed since the last run into the same output directory are regenerated unless "+
+				FULL_REBUILD_OPTION+" is specified.");
 	}
 
 }
@@ -7,14 +7,21 @@
 package org.spdx.tools;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.spdx.rdfparser.SpdxMetrics;
 
 /**
  * Dispatch to the individual tools
  */
 public class Main {
 
+	static final String STATS_OPTION = "--stats";
+
 	public static void main(String[] args) {
 
+		if (ArrayUtils.contains(args, STATS_OPTION)) {
+			args = ArrayUtils.removeElement(args, STATS_OPTION);
+			enableStats();
+		}
 		if (args.length < 1) {
 			usage();
 			return;
@@ -52,18 +59,38 @@ public class Main {
 		} else if (spdxTool.equalsIgnoreCase("MergeSpdxDocs")) {
 			System.out.println("The merge tools are currently being upgraded to SPDX 2.0");
 		//	MergeSpdxDocs.main(args);
+		} else if (spdxTool.equalsIgnoreCase("UpgradeLegacyDocs")) {
+			UpgradeLegacyDocs.main(args);
 		} else if (spdxTool.equalsIgnoreCase("MatchingStandardLicenses")) {
 			MatchingStandardLicenses.main(args);
+		} else if (spdxTool.equalsIgnoreCase("Server")) {
+			SpdxToolsServer.main(args);
 		} else {
 			usage();
 		}
 
 	}
 
+	/**
+	 * Collect metrics, export them over JMX and print them when the tool exits
+	 */
+	private static void enableStats() {
+		SpdxMetrics.setEnabled(true);
+		SpdxMetrics.registerMBean();
+		// The tools call System.exit, so the report is printed from a shutdown hook
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override
+			public void run() {
+				System.err.println(SpdxMetrics.report());
+			}
+		});
+	}
+
 	private static void usage() {
 		System.out
 				.println(""
-						+ "Usage: java -jar spdx-tools-jar-with-dependencies.jar <function> <parameters> \n"
+						+ "Usage: java -jar spdx-tools-jar-with-dependencies.jar [--stats] <function> <parameters> \n"
+						+ "--stats prints timings, counters and cache hit rates on exit and exports them over JMX \n"
 						+ "function                 parameter                         example \n"
 						+ "------------------------------------------------------------------------------------------------------------------- \n"
 						+ "TagToSpreadsheet         inputFile outputFile              Examples/SPDXTagExample.tag TagToSpreadsheet.xls \n"
@@ -80,6 +107,8 @@ public class Main {
 						+ "LicenseRDFAGenerator     licenseSpreadsheet.xls outputDirectory [version] [releasedate] [licenseTestFileDirectory] \n"
 						+ "GenerateVerificationCode sourceDirectory\n"
 						+ "MergeSpdxDocs            masterDocument, mergedDoc1, MergedDoc2, ..., outputFile\n"
-						+ "MatchingStandardLicenses licenseTextFile");
+						+ "UpgradeLegacyDocs        inputDirectory outputDirectory [threads] \n"
+						+ "MatchingStandardLicenses licenseTextFile\n"
+						+ "Server                   [port] [threads]                  8089");
 	}
 }
@@ -25,14 +25,25 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.google.common.escape.Escaper;
 import com.google.common.escape.Escapers;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.shared.Lock;
 import org.spdx.html.MustacheMap;
 import org.spdx.html.PackageContext;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.SPDXDocumentFactory;
+import org.spdx.rdfparser.SpdxMetrics;
 import org.spdx.rdfparser.license.ExtractedLicenseInfo;
+import org.spdx.rdfparser.model.RelationshipIndex;
+import org.spdx.rdfparser.model.SnippetRangeIndex;
 import org.spdx.rdfparser.model.SpdxDocument;
 import org.spdx.rdfparser.model.SpdxFile;
 import org.spdx.rdfparser.model.SpdxItem;
@@ -49,7 +60,9 @@ import com.google.common.collect.Maps;
  * Takes an input SPDX Document and produces the following HTML files in the specified directory:
  *    [spdxdocumentname]-document.html - Document level information
  *    [spdxpackagename]-package.html - Package level information (one per package found)
- *    [spdxpackagename]-packagefiles.html - File level information for all files found in the given package
+ *    [spdxpackagename]-packagefiles.html - File level information for files found in the given package
+ *    [spdxpackagename]-packagefiles-[n].html - Additional pages of file level information for packages
+ *      containing more than MAX_FILES_PER_PAGE files
  *    [spdxdocumentname]-packagefiles.html - File level information for all files described directly by the document
  *    [spdxdocumentname]-extractedlicenses.html - Extracted license information from the document
  * The HTML pretty printer is based on a set of HTML templates found in the
@@ -60,6 +73,9 @@ import com.google.common.collect.Maps;
  *   LicensesHTMLTemplate.html - Extracted license information HTML file template
  *   
  * The template uses Mustache - see http://mustache.github.com/mustache.5.html
+ * 
+ * The templates are compiled once per conversion and the package level files are
+ * written in parallel, one package per task.
  * @author Gary O'Neall
  *
  */
@@ -78,6 +94,18 @@ public class RdfToHtml {
 	static final String PACKAGE_FILE_HTML_FILE_POSTFIX = "-packagefiles.html";
 	static final String DOCUMENT_FILE_HTML_FILE_POSTFIX = "-documentfiles.html";
 	static final String SNIPPET_FILE_NAME = "snippets.html";
+	static final String PACKAGE_FILE_PAGE_HTML_FILE_POSTFIX = "-packagefiles-";
+	static final String HTML_FILE_EXTENSION = ".html";
+	
+	/**
+	 * Maximum number of files listed in a single package files HTML file
+	 */
+	static final int MAX_FILES_PER_PAGE = 1000;
+	
+	/**
+	 * Maximum number of threads used to write the package HTML files
+	 */
+	static final int MAX_RENDER_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
 
 	private static final Escaper HTML_LINEBREAK_ESCAPER = //A variation on Guava's HTML escaper
 			Escapers.builder()
@@ -90,6 +118,13 @@ public class RdfToHtml {
 					.addEscape('\n', "<br />")
 					.build();
 	
+	/**
+	 * Mustache factories by template directory - kept for the life of the JVM so that
+	 * the compiled templates are reused
+	 */
+	private static final ConcurrentMap<File, DefaultMustacheFactory> templateFactories = 
+			new ConcurrentHashMap<File, DefaultMustacheFactory>();
+	
 	static final int MIN_ARGS = 2;
 	static final int MAX_ARGS = 2;
 	static final int ERROR = 1;
@@ -175,15 +210,22 @@ public class RdfToHtml {
 		}
 		Iterator<SpdxPackage> iter = pkgs.iterator();
 		while (iter.hasNext()) {
-			String packageName = iter.next().getName();
+			SpdxPackage pkg = iter.next();
+			String packageName = pkg.getName();
 			String packageHtmlFilePath = outputDirectory.getPath() + File.separator + packageName + 
 					PACKAGE_HTML_FILE_POSTFIX;
 			File packageHtmlFile = new File(packageHtmlFilePath);
 			filesToCreate.add(packageHtmlFile);
-			String packageFilesHtmlFilePath = outputDirectory.getPath() + File.separator + packageName + 
-					PACKAGE_FILE_HTML_FILE_POSTFIX;
-			File packageFilesHtmlFile = new File(packageFilesHtmlFilePath);
-			filesToCreate.add(packageFilesHtmlFile);
+			int numPages;
+			try {
+				numPages = getNumFilePages(pkg.getFiles().length);
+			} catch (InvalidSPDXAnalysisException e) {
+				throw new OnlineToolException("Error getting files from package "+packageName+": "+e.getMessage());
+			}
+			for (int page = 1; page <= numPages; page++) {
+				filesToCreate.add(new File(outputDirectory.getPath() + File.separator + 
+						getPackageFilesHtmlFileName(packageName, page)));
+			}
 		}
 		Iterator<File> fileIter = filesToCreate.iterator();
 		while (fileIter.hasNext()) {
@@ -224,64 +266,200 @@ public class RdfToHtml {
 				+ "the output html file.");
 	}
 
+    /**
+     * Get the mustache factory for a template directory.  The factory caches the compiled templates,
+     * so templates are only compiled once per JVM.
+     * @param templateDir
+     * @return
+     */
+    static DefaultMustacheFactory getMustacheFactory(File templateDir) {
+    	DefaultMustacheFactory retval = templateFactories.get(templateDir);
+    	if (retval == null) {
+    		templateFactories.putIfAbsent(templateDir, new DefaultMustacheFactory(templateDir){
+				@Override
+				public void encode(String value, Writer writer) {
+					try{
+						String escapedValue = HTML_LINEBREAK_ESCAPER.escape(value);
+						writer.append(escapedValue);
+					} catch (IOException ioe) { //Mimic the super's behavior
+						throw new MustacheException("Failed to encode value: " + value);
+					}
+
+				}
+			});
+    		retval = templateFactories.get(templateDir);
+    	}
+    	return retval;
+    }
+
     public static void rdfToHtml(SpdxDocument doc, File templateDir,
     		File docHtmlFile, File licenseHtmlFile, File snippetHtmlFile,
     		File docFilesHtmlFile) throws MustacheException, IOException, InvalidSPDXAnalysisException {
-    	String dirPath = docHtmlFile.getParent();
-		DefaultMustacheFactory lineBreakEscapingBuilder = new DefaultMustacheFactory(templateDir){
-			@Override
-			public void encode(String value, Writer writer) {
-				try{
-					String escapedValue = HTML_LINEBREAK_ESCAPER.escape(value);
-					writer.append(escapedValue);
-				} catch (IOException ioe) { //Mimic the super's behavior
-					throw new MustacheException("Failed to encode value: " + value);
-				}
+    	SpdxMetrics.Timer timer = SpdxMetrics.startTimer(SpdxMetrics.WRITE);
+    	try {
+    		doRdfToHtml(doc, templateDir, docHtmlFile, licenseHtmlFile, snippetHtmlFile, docFilesHtmlFile);
+    	} finally {
+    		timer.stop();
+    	}
+    }
 
-			}
-		};
-        Map<String, String> spdxIdToUrl = buildIdMap(doc, dirPath);
-        Map<String, List<SpdxSnippet>> fileIdToSnippets = Maps.newHashMap();
-        List<SpdxSnippet> snippets = doc.getDocumentContainer().findAllSnippets();
-        for (SpdxSnippet snippet:snippets) {
-        	if (snippet.getId() != null && snippet.getSnippetFromFile() != null && snippet.getSnippetFromFile().getId() != null) {
-        		List<SpdxSnippet> fileSnippets = fileIdToSnippets.get(snippet.getId());
-        		if (fileSnippets == null) {
-        			fileSnippets = Lists.newArrayList();
-        			fileIdToSnippets.put(snippet.getSnippetFromFile().getId(), fileSnippets);
-        		}
-        		fileSnippets.add(snippet);
-        	}
-        }
+    private static void doRdfToHtml(SpdxDocument doc, File templateDir,
+    		File docHtmlFile, File licenseHtmlFile, File snippetHtmlFile,
+    		File docFilesHtmlFile) throws MustacheException, IOException, InvalidSPDXAnalysisException {
+    	final String dirPath = docHtmlFile.getParent();
+		DefaultMustacheFactory lineBreakEscapingBuilder = getMustacheFactory(templateDir);
+        // the package files are read from the index rather than queried from each package
+        final RelationshipIndex relationshipIndex = new RelationshipIndex(doc.getDocumentContainer());
+        final Map<String, String> spdxIdToUrl = buildIdMap(doc, dirPath, relationshipIndex);
+        final SnippetRangeIndex snippetIndex = new SnippetRangeIndex(doc.getDocumentContainer());
+        final Mustache packageMustache = lineBreakEscapingBuilder.compile(SPDX_PACKAGE_HTML_TEMPLATE);
+        final Mustache filesMustache = lineBreakEscapingBuilder.compile(SPDX_FILE_HTML_TEMPLATE);
+        final Mustache licenseMustache = lineBreakEscapingBuilder.compile(SPDX_LICENSE_HTML_TEMPLATE);
+        final Mustache snippetMustache = lineBreakEscapingBuilder.compile(SPDX_SNIPPET_HTML_TEMPLATE);
+        final Mustache docMustache = lineBreakEscapingBuilder.compile(SPDX_DOCUMENT_HTML_TEMPLATE);
+        final Model model = doc.getDocumentContainer().getModel();
         List<SpdxPackage> allPackages = doc.getDocumentContainer().findAllPackages();
-        Iterator<SpdxPackage> pkgIter = allPackages.iterator();
-        while (pkgIter.hasNext()) {
-        	SpdxPackage pkg = pkgIter.next();
-        	String packageName = pkg.getName();
-        	String packageHtmlFilePath = dirPath + File.separator + packageName + 
-					PACKAGE_HTML_FILE_POSTFIX;
-			File packageHtmlFile = new File(packageHtmlFilePath);
-			String packageFilesHtmlFilePath = dirPath + File.separator + packageName + 
-					PACKAGE_FILE_HTML_FILE_POSTFIX;
-			File packageFilesHtmlFile = new File(packageFilesHtmlFilePath);
-        	PackageContext pkgContext = new PackageContext(pkg, spdxIdToUrl);
-        	Map<String, Object> pkgFileMap = MustacheMap.buildPkgFileMap(pkg, spdxIdToUrl,
-        			fileIdToSnippets);
-        	Mustache mustache = lineBreakEscapingBuilder.compile(SPDX_PACKAGE_HTML_TEMPLATE);
-			OutputStreamWriter packageHtmlFileWriter = new OutputStreamWriter(new FileOutputStream(packageHtmlFile), "UTF-8");
-        	try {
-        		mustache.execute(packageHtmlFileWriter, pkgContext);
-        	} finally {
-        		packageHtmlFileWriter.close();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, 
+        		Math.min(MAX_RENDER_THREADS, allPackages.size())));
+        List<Future<Void>> packageResults = Lists.newArrayList();
+        try {
+        	for (final SpdxPackage pkg:allPackages) {
+        		packageResults.add(executor.submit(() -> {
+        			// The document is only read while rendering
+        			model.enterCriticalSection(Lock.READ);
+        			try {
+        				writePackageHtml(pkg, dirPath, packageMustache, filesMustache, spdxIdToUrl, snippetIndex, relationshipIndex);
+        			} finally {
+        				model.leaveCriticalSection();
+        			}
+        			return null;
+        		}));
         	}
-        	mustache = lineBreakEscapingBuilder.compile(SPDX_FILE_HTML_TEMPLATE);
-			OutputStreamWriter filesHtmlFileWriter = new OutputStreamWriter(new FileOutputStream(packageFilesHtmlFile), "UTF-8");
+        	model.enterCriticalSection(Lock.READ);
         	try {
-        		mustache.execute(filesHtmlFileWriter, pkgFileMap);
+        		writeDocumentHtml(doc, docHtmlFile, licenseHtmlFile, snippetHtmlFile, docFilesHtmlFile,
+        				filesMustache, licenseMustache, snippetMustache, docMustache, spdxIdToUrl, snippetIndex);
         	} finally {
-        		filesHtmlFileWriter.close();
+        		model.leaveCriticalSection();
         	}
+        	for (Future<Void> packageResult:packageResults) {
+        		try {
+        			packageResult.get();
+        		} catch (InterruptedException e) {
+        			Thread.currentThread().interrupt();
+        			throw new IOException("Interrupted writing package HTML files", e);
+        		} catch (ExecutionException e) {
+        			Throwable cause = e.getCause();
+        			if (cause instanceof IOException) {
+        				throw (IOException)cause;
+        			} else if (cause instanceof InvalidSPDXAnalysisException) {
+        				throw (InvalidSPDXAnalysisException)cause;
+        			} else if (cause instanceof MustacheException) {
+        				throw (MustacheException)cause;
+        			} else {
+        				throw new IOException("Error writing package HTML files: "+cause.getMessage(), cause);
+        			}
+        		}
+        	}
+        } finally {
+        	executor.shutdownNow();
         }
+    }
+    
+    /**
+     * Write the package HTML file and the package files HTML files, splitting the files
+     * into pages of at most MAX_FILES_PER_PAGE files
+     * @param pkg
+     * @param dirPath
+     * @param packageMustache compiled package template
+     * @param filesMustache compiled files template
+     * @param spdxIdToUrl
+     * @param snippetIndex snippets by file
+     * @param relationshipIndex index for the document containing the package
+     * @throws IOException
+     * @throws InvalidSPDXAnalysisException
+     */
+    private static void writePackageHtml(SpdxPackage pkg, String dirPath, Mustache packageMustache,
+    		Mustache filesMustache, Map<String, String> spdxIdToUrl, 
+    		SnippetRangeIndex snippetIndex, RelationshipIndex relationshipIndex) throws IOException, InvalidSPDXAnalysisException {
+    	String packageName = pkg.getName();
+    	File packageHtmlFile = new File(dirPath + File.separator + packageName + PACKAGE_HTML_FILE_POSTFIX);
+    	PackageContext pkgContext = new PackageContext(pkg, spdxIdToUrl);
+    	OutputStreamWriter packageHtmlFileWriter = new OutputStreamWriter(new FileOutputStream(packageHtmlFile), "UTF-8");
+    	try {
+    		packageMustache.execute(packageHtmlFileWriter, pkgContext);
+    	} finally {
+    		packageHtmlFileWriter.close();
+    	}
+    	SpdxFile[] sortedFiles = MustacheMap.getSortedFiles(pkg, relationshipIndex);
+    	int numPages = getNumFilePages(sortedFiles.length);
+    	for (int page = 1; page <= numPages; page++) {
+    		int fromIndex = (page - 1) * MAX_FILES_PER_PAGE;
+    		int toIndex = Math.min(sortedFiles.length, fromIndex + MAX_FILES_PER_PAGE);
+    		Map<String, Object> pkgFileMap = MustacheMap.buildPkgFilePageMap(pkg, sortedFiles, 
+    				fromIndex, toIndex, spdxIdToUrl, snippetIndex);
+    		if (numPages > 1) {
+    			pkgFileMap.put("pagination", buildPagination(packageName, page, numPages));
+    		}
+    		File packageFilesHtmlFile = new File(dirPath + File.separator + 
+    				getPackageFilesHtmlFileName(packageName, page));
+    		OutputStreamWriter filesHtmlFileWriter = new OutputStreamWriter(new FileOutputStream(packageFilesHtmlFile), "UTF-8");
+    		try {
+    			filesMustache.execute(filesHtmlFileWriter, pkgFileMap);
+    		} finally {
+    			filesHtmlFileWriter.close();
+    		}
+    	}
+    }
+    
+    /**
+     * @param packageName
+     * @param currentPage
+     * @param numPages
+     * @return mustache map with the links to each of the file pages for a package
+     */
+    private static Map<String, Object> buildPagination(String packageName, int currentPage, int numPages) {
+    	List<Map<String, Object>> pages = Lists.newArrayList();
+    	for (int page = 1; page <= numPages; page++) {
+    		Map<String, Object> pageMap = Maps.newHashMap();
+    		pageMap.put("pageNumber", page);
+    		pageMap.put("pageUrl", "./" + getPackageFilesHtmlFileName(packageName, page));
+    		pageMap.put("current", page == currentPage);
+    		pages.add(pageMap);
+    	}
+    	Map<String, Object> retval = Maps.newHashMap();
+    	retval.put("pages", pages);
+    	return retval;
+    }
+    
+    /**
+     * @param numFiles number of files in a package
+     * @return number of HTML pages used to list the files - at least one
+     */
+    static int getNumFilePages(int numFiles) {
+    	return Math.max(1, (numFiles + MAX_FILES_PER_PAGE - 1) / MAX_FILES_PER_PAGE);
+    }
+    
+    /**
+     * @param packageName
+     * @param page page number starting at 1
+     * @return file name for the page of the package files
+     */
+    static String getPackageFilesHtmlFileName(String packageName, int page) {
+    	if (page <= 1) {
+    		return packageName + PACKAGE_FILE_HTML_FILE_POSTFIX;
+    	} else {
+    		return packageName + PACKAGE_FILE_PAGE_HTML_FILE_POSTFIX + String.valueOf(page) + HTML_FILE_EXTENSION;
+    	}
+    }
+
+    /**
+     * Write the document level HTML files
+     */
+    private static void writeDocumentHtml(SpdxDocument doc, File docHtmlFile, File licenseHtmlFile, 
+    		File snippetHtmlFile, File docFilesHtmlFile, Mustache filesMustache, Mustache licenseMustache,
+    		Mustache snippetMustache, Mustache docMustache, Map<String, String> spdxIdToUrl, 
+    		SnippetRangeIndex snippetIndex) throws IOException, InvalidSPDXAnalysisException {
         SpdxItem[] describedItems = doc.getDocumentDescribes();
         int numFiles = 0;
         // collect just the files
@@ -299,36 +477,32 @@ public class RdfToHtml {
         		}
         	}
         	Map<String, Object> docFileMap = MustacheMap.buildDocFileMustacheMap(
-        			doc, files, spdxIdToUrl, fileIdToSnippets);
-        	Mustache mustache = lineBreakEscapingBuilder.compile(SPDX_FILE_HTML_TEMPLATE);
+        			doc, files, spdxIdToUrl, snippetIndex);
         	OutputStreamWriter docFilesHtmlFileWriter = new OutputStreamWriter(new FileOutputStream(docFilesHtmlFile), "UTF-8");
         	try {
-        		mustache.execute(docFilesHtmlFileWriter, docFileMap);
+        		filesMustache.execute(docFilesHtmlFileWriter, docFileMap);
         	} finally {
         		docFilesHtmlFileWriter.close();
         	}
         }
         Map<String, Object> extracteLicMustacheMap = MustacheMap.buildExtractedLicMustachMap(doc, spdxIdToUrl);
-        Mustache mustache = lineBreakEscapingBuilder.compile(SPDX_LICENSE_HTML_TEMPLATE);
         OutputStreamWriter licenseHtmlFileWriter = new OutputStreamWriter(new FileOutputStream(licenseHtmlFile), "UTF-8");
         try {
-        	mustache.execute(licenseHtmlFileWriter, extracteLicMustacheMap);
+        	licenseMustache.execute(licenseHtmlFileWriter, extracteLicMustacheMap);
         } finally {
         	licenseHtmlFileWriter.close();
         }
         Map<String, Object> snippetMustacheMap = MustacheMap.buildSnippetMustachMap(doc, spdxIdToUrl);
-        mustache = lineBreakEscapingBuilder.compile(SPDX_SNIPPET_HTML_TEMPLATE);
         OutputStreamWriter snippetHtmlFileWriter = new OutputStreamWriter(new FileOutputStream(snippetHtmlFile), "UTF-8");
         try {
-        	mustache.execute(snippetHtmlFileWriter, snippetMustacheMap);
+        	snippetMustache.execute(snippetHtmlFileWriter, snippetMustacheMap);
         } finally {
         	snippetHtmlFileWriter.close();
         }
         Map<String, Object> docMustacheMap = MustacheMap.buildDocMustachMap(doc, spdxIdToUrl);
-        mustache = lineBreakEscapingBuilder.compile(SPDX_DOCUMENT_HTML_TEMPLATE);
         OutputStreamWriter docHtmlFileWriter = new OutputStreamWriter(new FileOutputStream(docHtmlFile), "UTF-8");
         try {
-        	mustache.execute(docHtmlFileWriter, docMustacheMap);
+        	docMustache.execute(docHtmlFileWriter, docMustacheMap);
         } finally {
         	docHtmlFileWriter.close();
         }
@@ -339,10 +513,12 @@ public class RdfToHtml {
 	 * Builds a map of SPDX Ids and License IDs to URL's used in the document
 	 * @param doc
 	 * @param dirPath
+	 * @param relationshipIndex index for the document
 	 * @return
 	 * @throws InvalidSPDXAnalysisException 
 	 */
-	private static Map<String, String> buildIdMap(SpdxDocument doc, String dirPath) throws InvalidSPDXAnalysisException {
+	private static Map<String, String> buildIdMap(SpdxDocument doc, String dirPath, 
+			RelationshipIndex relationshipIndex) throws InvalidSPDXAnalysisException {
 		// URLs are all relative and use the ID as the part
 		Map<String, String> retval = Maps.newHashMap();
 		// extracted license IDs
@@ -358,15 +534,16 @@ public class RdfToHtml {
 		while (pkgIter.hasNext()) {
 			SpdxPackage pkg = pkgIter.next();
 			String pkgFileName = pkg.getName() + PACKAGE_HTML_FILE_POSTFIX;
-			String pkgFilesFileName = pkg.getName() + PACKAGE_FILE_HTML_FILE_POSTFIX;
 			String pkgId = pkg.getId();
 			if (pkgId != null) {
 				retval.put(pkgId, convertToUrl(pkgFileName, pkgId));
 			}
-			SpdxFile[] pkgFiles = pkg.getFiles();
+			// the files are listed in sorted order split into pages
+			SpdxFile[] pkgFiles = MustacheMap.getSortedFiles(pkg, relationshipIndex);
 			for (int i = 0; i < pkgFiles.length; i++) {
 				String fileId = pkgFiles[i].getId();
 				if (fileId != null) {
+					String pkgFilesFileName = getPackageFilesHtmlFileName(pkg.getName(), i / MAX_FILES_PER_PAGE + 1);
 					retval.put(fileId, convertToUrl(pkgFilesFileName, fileId));
 				}
 			}
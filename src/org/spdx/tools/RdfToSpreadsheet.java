@@ -28,14 +28,16 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.TreeMap;
 import java.util.regex.Pattern;
 
+import org.spdx.rdfparser.CloseableIterator;
+import org.spdx.rdfparser.ElementIterationException;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.SPDXDocumentFactory;
 import org.spdx.rdfparser.SPDXReview;
 import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.SpdxMetrics;
 import org.spdx.rdfparser.SpdxRdfConstants;
 import org.spdx.rdfparser.license.ExtractedLicenseInfo;
 import org.spdx.rdfparser.model.Annotation;
@@ -64,7 +66,8 @@ import com.google.common.collect.Maps;
  * Translates an RDF XML file to a SPDX Spreadsheet format
  * Usage: RdfToSpreadsheet rdfxmlfile.rdf spreadsheetfile.xls
  * where rdfxmlfile.rdf is a valid SPDX RDF XML file and spreadsheetfile.xls is 
- * the output SPDX spreadsheeet file.
+ * the output SPDX spreadsheeet file.  An output file name ending in .xlsx produces
+ * an XLSX spreadsheet where the per file rows are streamed to disk.
  * @author Gary O'Neall
  *
  */
@@ -156,9 +159,19 @@ public class RdfToSpreadsheet {
         return verify;
 	}
 	
-	@SuppressWarnings("deprecation")
 	public static void copyRdfXmlToSpreadsheet(SpdxDocument doc,
 			SPDXSpreadsheet ss) throws InvalidSPDXAnalysisException, SpreadsheetException {
+		SpdxMetrics.Timer timer = SpdxMetrics.startTimer(SpdxMetrics.WRITE);
+		try {
+			doCopyRdfXmlToSpreadsheet(doc, ss);
+		} finally {
+			timer.stop();
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	private static void doCopyRdfXmlToSpreadsheet(SpdxDocument doc,
+			SPDXSpreadsheet ss) throws InvalidSPDXAnalysisException, SpreadsheetException {
 		if (doc == null) {
 			System.out.println("Warning: No document to copy");
 			return;
@@ -169,19 +182,9 @@ public class RdfToSpreadsheet {
 				ss.getPackageInfoSheet(), externalRefs);
 		copyExternalRefs(externalRefs, ss.getExternalRefsSheet(), doc.getDocumentContainer());
 		copyNonStdLicenses(doc.getExtractedLicenseInfos(), ss.getNonStandardLicensesSheet());
-		copyPerFileInfo(doc.getDocumentContainer().findAllFiles(), ss.getPerFileSheet(), fileIdToPackageId);
+		copyPerFileInfo(doc.getDocumentContainer(), ss.getPerFileSheet(), fileIdToPackageId);
 		copySnippetInfo(doc.getDocumentContainer().findAllSnippets(), ss.getSnippetSheet());
-		Map<String, Relationship[]> allRelationships = new TreeMap<String, Relationship[]>();
-		Map<String, Annotation[]> allAnnotations = new TreeMap<String, Annotation[]>();
-		allRelationships.put(doc.getId(), doc.getRelationships());
-		allAnnotations.put(doc.getId(), doc.getAnnotations());
-		List<SpdxElement> allElements = doc.getDocumentContainer().findAllElements();		
-		for (SpdxElement element:allElements) {
-			allRelationships.put(element.getId(), element.getRelationships());
-			allAnnotations.put(element.getId(), element.getAnnotations());
-		}
-		copyRelationships(allRelationships, ss.getRelationshipsSheet());
-		copyAnnotations(allAnnotations, ss.getAnnotationsSheet());
+		copyRelationshipsAndAnnotations(doc.getDocumentContainer(), ss.getRelationshipsSheet(), ss.getAnnotationsSheet());
 		copyReviewerInfo(doc.getReviewers(), ss.getReviewersSheet());
 		ss.resizeRow();
 	}
@@ -205,35 +208,50 @@ public class RdfToSpreadsheet {
 	}
 
 	/**
+	 * Copy the relationships and annotations of the document and of each element as the
+	 * elements are read from the document container
+	 * @param container
+	 * @param relationshipsSheet
+	 * @param annotationsSheet
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private static void copyRelationshipsAndAnnotations(SpdxDocumentContainer container,
+			RelationshipsSheet relationshipsSheet, AnnotationsSheet annotationsSheet) throws InvalidSPDXAnalysisException {
+		// Only the relationships and annotations are needed from each element
+		try (CloseableIterator<SpdxElement> allElements = container.getElementIterator(true)) {
+			while (allElements.hasNext()) {
+				SpdxElement element = allElements.next();
+				copyRelationships(element.getId(), element.getRelationships(), relationshipsSheet);
+				copyAnnotations(element.getId(), element.getAnnotations(), annotationsSheet);
+			}
+		} catch (ElementIterationException ex) {
+			throw(ex.getCause());
+		}
+	}
+
+	/**
+	 * @param elementId
 	 * @param annotations
 	 * @param annotationsSheet
 	 */
-	private static void copyAnnotations(Map<String, Annotation[]> annotationMap,
+	private static void copyAnnotations(String elementId, Annotation[] annotations,
 			AnnotationsSheet annotationsSheet) {
-		for (Entry<String, Annotation[]> entry:annotationMap.entrySet()) {
-			Annotation[] annotations = entry.getValue();
-			Arrays.sort(annotations);
-			for (int i = 0; i < annotations.length; i++) {
-				annotationsSheet.add(annotations[i], entry.getKey());
-			}
+		Arrays.sort(annotations);
+		for (int i = 0; i < annotations.length; i++) {
+			annotationsSheet.add(annotations[i], elementId);
 		}
 	}
 
 	/**
+	 * @param elementId
 	 * @param relationships
 	 * @param relationshipsSheet
 	 */
-	private static void copyRelationships(Map<String, Relationship[]> relationshipMap,
+	private static void copyRelationships(String elementId, Relationship[] relationships,
 			RelationshipsSheet relationshipsSheet) {
-
-		String[] keys = relationshipMap.keySet().toArray(new String[relationshipMap.keySet().size()]);
-		Arrays.sort(keys);
-		for (String key:keys) {
-			Relationship[] relationships = relationshipMap.get(key);
-			Arrays.sort(relationships);
-			for (int i = 0; i < relationships.length; i++) {
-				relationshipsSheet.add(relationships[i], key);
-			}
+		Arrays.sort(relationships);
+		for (int i = 0; i < relationships.length; i++) {
+			relationshipsSheet.add(relationships[i], elementId);
 		}
 	}
 
@@ -257,12 +275,22 @@ public class RdfToSpreadsheet {
 		}
 	}
 
-	private static void copyPerFileInfo(List<SpdxFile> fileList,
-			PerFileSheet perFileSheet, Map<String, String> fileIdToPackageId) {            
-            Collections.sort(fileList);
-            /* Print out sorted files */            
-		for (SpdxFile file : fileList) {
-			perFileSheet.add(file, fileIdToPackageId.get(file.getId()));
+	/**
+	 * Copy the files to the per file sheet one row at a time as they are read from the document container
+	 * @param container
+	 * @param perFileSheet
+	 * @param fileIdToPackageId
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private static void copyPerFileInfo(SpdxDocumentContainer container,
+			PerFileSheet perFileSheet, Map<String, String> fileIdToPackageId) throws InvalidSPDXAnalysisException {
+		try (CloseableIterator<SpdxFile> files = container.getFileIterator(false)) {
+			while (files.hasNext()) {
+				SpdxFile file = files.next();
+				perFileSheet.add(file, fileIdToPackageId.get(file.getId()));
+			}
+		} catch (ElementIterationException ex) {
+			throw(ex.getCause());
 		}
 	}
 	
@@ -341,6 +369,7 @@ public class RdfToSpreadsheet {
 	private static void usage() {
 		System.out.println("Usage: RdfToSpreadsheet rdfxmlfile.rdf spreadsheetfile.xls\n"+
 				"where rdfxmlfile.rdf is a valid SPDX RDF XML file and spreadsheetfile.xls is\n"+
-				"the output SPDX spreadsheeet file.");
+				"the output SPDX spreadsheeet file.  If the file name ends in .xlsx, the\n"+
+				"spreadsheet is written in the XLSX format which supports large documents.");
 	}
 }
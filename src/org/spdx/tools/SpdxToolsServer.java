@@ -0,0 +1,486 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.license.ListedLicenses;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.io.BaseEncoding;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Resident server which runs the online functions of the SPDX tools over a local HTTP interface.
+ *
+ * The server avoids the JVM startup, class initialization and listed license loading costs of running
+ * each tool as a separate process.  The listed licenses and the compiled HTML templates stay loaded
+ * between requests.
+ *
+ * Requests are made by POSTing a JSON object with an <code>args</code> array to <code>/tools/[function]</code>
+ * where the function and arguments are the same as those used for <code>org.spdx.tools.Main</code>.
+ * The request must have a <code>Content-Type</code> of <code>application/json</code> and an
+ * <code>X-SPDX-Tools-Token</code> header with the token printed when the server starts.
+ * The response is a JSON object with a <code>status</code> of <code>OK</code> or <code>ERROR</code> and
+ * either the <code>messages</code> (warnings or verification errors) returned by the tool or an error <code>message</code>.
+ * <code>GET /status</code> returns request counts and heap usage.
+ *
+ * Each request parses its documents into its own SpdxDocumentContainer, so requests can run concurrently.
+ * The element cache in <code>SpdxElementFactory</code> only weakly references the containers and elements, so
+ * the documents can be garbage collected once the request completes.
+ *
+ * The server only listens on the loopback address.  Since the tools read and write local files, requests
+ * from a browser are rejected - any request with an <code>Origin</code> header, a <code>Host</code> other
+ * than the local host (DNS rebinding) or without the token is refused.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class SpdxToolsServer {
+
+	static final Logger logger = Logger.getLogger(SpdxToolsServer.class);
+
+	static final int DEFAULT_PORT = 8089;
+	static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+	static final String TOOLS_CONTEXT = "/tools/";
+	static final String STATUS_CONTEXT = "/status";
+	static final String ARGS_PROPERTY = "args";
+	static final String STATUS_PROPERTY = "status";
+	static final String MESSAGES_PROPERTY = "messages";
+	static final String MESSAGE_PROPERTY = "message";
+	static final String STATUS_OK = "OK";
+	static final String STATUS_ERROR = "ERROR";
+	static final String TOKEN_HEADER = "X-SPDX-Tools-Token";
+	static final String JSON_CONTENT_TYPE = "application/json";
+	static final int TOKEN_BYTES = 16;
+	static final Set<String> LOCAL_HOST_NAMES = ImmutableSet.of("localhost", "127.0.0.1", "::1");
+	static final int HTTP_OK = 200;
+	static final int HTTP_BAD_REQUEST = 400;
+	static final int HTTP_FORBIDDEN = 403;
+	static final int HTTP_NOT_FOUND = 404;
+	static final int HTTP_BAD_METHOD = 405;
+	static final int HTTP_UNSUPPORTED_MEDIA_TYPE = 415;
+	static final int HTTP_SERVER_ERROR = 500;
+	static final int ERROR_STATUS = 1;
+
+	/**
+	 * A tool function which can be run by the server
+	 */
+	interface ToolFunction {
+		/**
+		 * @param args tool arguments
+		 * @return warnings or verification errors to return to the caller
+		 * @throws Exception
+		 */
+		List<String> run(String[] args) throws Exception;
+	}
+
+	static final Map<String, ToolFunction> TOOL_FUNCTIONS = Maps.newTreeMap(String.CASE_INSENSITIVE_ORDER);
+	static {
+		TOOL_FUNCTIONS.put("TagToRDF", TagToRDF::onlineFunction);
+		TOOL_FUNCTIONS.put("TagToSpreadsheet", TagToSpreadsheet::onlineFunction);
+		TOOL_FUNCTIONS.put("RdfToTag", RdfToTag::onlineFunction);
+		TOOL_FUNCTIONS.put("RdfToHtml", RdfToHtml::onlineFunction);
+		TOOL_FUNCTIONS.put("RdfToSpreadsheet", RdfToSpreadsheet::onlineFunction);
+		TOOL_FUNCTIONS.put("SpreadsheetToRDF", SpreadsheetToRDF::onlineFunction);
+		TOOL_FUNCTIONS.put("SpreadsheetToTag", SpreadsheetToTag::onlineFunction);
+		TOOL_FUNCTIONS.put("Verify", (args) -> {
+			if (args.length < 1) {
+				throw new OnlineToolException("Missing SPDX file argument");
+			}
+			return Verify.verify(args[0]);
+		});
+		TOOL_FUNCTIONS.put("CompareMultipleSpdxDocs", (args) -> {
+			if (args.length < CompareMultpleSpdxDocs.MIN_ARGS) {
+				throw new OnlineToolException("Insufficient arguments");
+			}
+			CompareMultpleSpdxDocs.onlineFunction(args);
+			return Collections.emptyList();
+		});
+	}
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final AtomicLong requestCount = new AtomicLong();
+	private final AtomicLong errorCount = new AtomicLong();
+	private final String token;
+
+	/**
+	 * Create a server listening on the loopback address
+	 * @param port port to listen on - 0 for any free port
+	 * @param numThreads maximum number of requests processed concurrently
+	 * @throws IOException
+	 */
+	public SpdxToolsServer(int port, int numThreads) throws IOException {
+		byte[] tokenBytes = new byte[TOKEN_BYTES];
+		new SecureRandom().nextBytes(tokenBytes);
+		this.token = BaseEncoding.base16().lowerCase().encode(tokenBytes);
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		this.executor = Executors.newFixedThreadPool(numThreads,
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat("spdx-server-%d").build());
+		this.server.setExecutor(executor);
+		this.server.createContext(TOOLS_CONTEXT, new ToolHandler());
+		this.server.createContext(STATUS_CONTEXT, new StatusHandler());
+	}
+
+	/**
+	 * Load the listed licenses and start accepting requests
+	 */
+	public void start() {
+		warmUp();
+		server.start();
+		logger.info("SPDX tools server listening on port "+String.valueOf(getPort()));
+	}
+
+	/**
+	 * Stop accepting requests and wait up to delaySeconds for the current requests to complete
+	 * @param delaySeconds
+	 */
+	public void stop(int delaySeconds) {
+		server.stop(delaySeconds);
+		executor.shutdown();
+		try {
+			executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return port the server is listening on
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * @return token which must be passed in the X-SPDX-Tools-Token header of every request
+	 */
+	public String getToken() {
+		return token;
+	}
+
+	/**
+	 * @return number of tool requests processed
+	 */
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * @return number of tool requests which returned an error
+	 */
+	public long getErrorCount() {
+		return errorCount.get();
+	}
+
+	/**
+	 * Load the listed licenses so that the first request does not pay the cost
+	 */
+	private void warmUp() {
+		try {
+			ListedLicenses listedLicenses = ListedLicenses.getListedLicenses();
+			for (String id:listedLicenses.getSpdxListedLicenseIds()) {
+				listedLicenses.getListedLicenseById(id);
+			}
+		} catch (InvalidSPDXAnalysisException e) {
+			logger.warn("Unable to preload the listed licenses: "+e.getMessage());
+		}
+	}
+
+	/**
+	 * Run a tool function and build the JSON response
+	 * @param functionName
+	 * @param args
+	 * @return response to return to the caller
+	 */
+	@SuppressWarnings("unchecked")
+	JSONObject runTool(String functionName, String[] args) {
+		requestCount.incrementAndGet();
+		JSONObject retval = new JSONObject();
+		ToolFunction function = TOOL_FUNCTIONS.get(functionName);
+		if (function == null) {
+			errorCount.incrementAndGet();
+			retval.put(STATUS_PROPERTY, STATUS_ERROR);
+			retval.put(MESSAGE_PROPERTY, "Unknown function "+functionName);
+			return retval;
+		}
+		try {
+			List<String> messages = function.run(args);
+			JSONArray jsonMessages = new JSONArray();
+			if (messages != null) {
+				jsonMessages.addAll(messages);
+			}
+			retval.put(STATUS_PROPERTY, STATUS_OK);
+			retval.put(MESSAGES_PROPERTY, jsonMessages);
+		} catch (Exception e) {
+			errorCount.incrementAndGet();
+			retval.put(STATUS_PROPERTY, STATUS_ERROR);
+			retval.put(MESSAGE_PROPERTY, e.getMessage() == null ? e.getClass().getName() : e.getMessage());
+		}
+		return retval;
+	}
+
+	/**
+	 * Parse the tool arguments from a request body
+	 * @param body
+	 * @return arguments
+	 * @throws OnlineToolException if the body is not a JSON object with a string array of args
+	 * @throws IOException
+	 */
+	static String[] parseArgs(InputStream body) throws OnlineToolException, IOException {
+		Object parsed;
+		try {
+			parsed = new JSONParser().parse(new InputStreamReader(body, StandardCharsets.UTF_8));
+		} catch (ParseException e) {
+			throw new OnlineToolException("Invalid JSON request: "+e.toString());
+		}
+		if (!(parsed instanceof JSONObject)) {
+			throw new OnlineToolException("Request must be a JSON object");
+		}
+		Object jsonArgs = ((JSONObject)parsed).get(ARGS_PROPERTY);
+		if (jsonArgs == null) {
+			return new String[0];
+		}
+		if (!(jsonArgs instanceof JSONArray)) {
+			throw new OnlineToolException("Request "+ARGS_PROPERTY+" must be an array");
+		}
+		JSONArray argArray = (JSONArray)jsonArgs;
+		String[] retval = new String[argArray.size()];
+		for (int i = 0; i < retval.length; i++) {
+			if (!(argArray.get(i) instanceof String)) {
+				throw new OnlineToolException("Request "+ARGS_PROPERTY+" must only contain strings");
+			}
+			retval[i] = (String)argArray.get(i);
+		}
+		return retval;
+	}
+
+	/**
+	 * @param host value of the Host header
+	 * @return true if the host names the local host, with or without a port
+	 */
+	static boolean isLocalHost(String host) {
+		if (host == null) {
+			return false;
+		}
+		String hostName = host.trim().toLowerCase(Locale.ROOT);
+		if (hostName.startsWith("[")) {
+			int end = hostName.indexOf(']');
+			if (end < 0) {
+				return false;
+			}
+			hostName = hostName.substring(1, end);
+		} else {
+			int portStart = hostName.lastIndexOf(':');
+			if (portStart >= 0) {
+				hostName = hostName.substring(0, portStart);
+			}
+		}
+		return LOCAL_HOST_NAMES.contains(hostName);
+	}
+
+	/**
+	 * @param contentType value of the Content-Type header
+	 * @return true if the media type is application/json, ignoring any parameters
+	 */
+	static boolean isJsonContentType(String contentType) {
+		if (contentType == null) {
+			return false;
+		}
+		int paramStart = contentType.indexOf(';');
+		String mediaType = paramStart < 0 ? contentType : contentType.substring(0, paramStart);
+		return JSON_CONTENT_TYPE.equalsIgnoreCase(mediaType.trim());
+	}
+
+	/**
+	 * Check that a request comes from a local client which knows the server token and not from a browser.
+	 * A forbidden response is sent if the request is not allowed.
+	 * @param exchange
+	 * @return true if the request is allowed
+	 * @throws IOException
+	 */
+	boolean checkAccess(HttpExchange exchange) throws IOException {
+		if (exchange.getRequestHeaders().containsKey("Origin")) {
+			sendResponse(exchange, HTTP_FORBIDDEN, errorResponse("Cross origin requests are not allowed"));
+			return false;
+		}
+		if (!isLocalHost(exchange.getRequestHeaders().getFirst("Host"))) {
+			sendResponse(exchange, HTTP_FORBIDDEN, errorResponse("Requests must be made to localhost"));
+			return false;
+		}
+		String requestToken = exchange.getRequestHeaders().getFirst(TOKEN_HEADER);
+		if (requestToken == null || !MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+				requestToken.getBytes(StandardCharsets.UTF_8))) {
+			sendResponse(exchange, HTTP_FORBIDDEN, errorResponse("Missing or invalid "+TOKEN_HEADER));
+			return false;
+		}
+		return true;
+	}
+
+	private static void sendResponse(HttpExchange exchange, int httpStatus, JSONObject response) throws IOException {
+		byte[] bytes = response.toJSONString().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(httpStatus, bytes.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(bytes);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static JSONObject errorResponse(String message) {
+		JSONObject retval = new JSONObject();
+		retval.put(STATUS_PROPERTY, STATUS_ERROR);
+		retval.put(MESSAGE_PROPERTY, message);
+		return retval;
+	}
+
+	/**
+	 * Handles POST /tools/[function]
+	 */
+	class ToolHandler implements HttpHandler {
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				if (!checkAccess(exchange)) {
+					return;
+				}
+				if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+					sendResponse(exchange, HTTP_BAD_METHOD, errorResponse("Tool requests must use POST"));
+					return;
+				}
+				if (!isJsonContentType(exchange.getRequestHeaders().getFirst("Content-Type"))) {
+					sendResponse(exchange, HTTP_UNSUPPORTED_MEDIA_TYPE, errorResponse("Tool requests must be "+JSON_CONTENT_TYPE));
+					return;
+				}
+				String functionName = exchange.getRequestURI().getPath().substring(TOOLS_CONTEXT.length());
+				if (!TOOL_FUNCTIONS.containsKey(functionName)) {
+					sendResponse(exchange, HTTP_NOT_FOUND, errorResponse("Unknown function "+functionName));
+					return;
+				}
+				String[] args;
+				try (InputStream body = exchange.getRequestBody()) {
+					args = parseArgs(body);
+				} catch (OnlineToolException e) {
+					sendResponse(exchange, HTTP_BAD_REQUEST, errorResponse(e.getMessage()));
+					return;
+				}
+				JSONObject response = runTool(functionName, args);
+				sendResponse(exchange, STATUS_OK.equals(response.get(STATUS_PROPERTY)) ? HTTP_OK : HTTP_BAD_REQUEST, response);
+			} catch (RuntimeException e) {
+				logger.error("Unexpected error processing request", e);
+				sendResponse(exchange, HTTP_SERVER_ERROR, errorResponse("Unexpected error: "+e.getMessage()));
+			} finally {
+				exchange.close();
+			}
+		}
+	}
+
+	/**
+	 * Handles GET /status
+	 */
+	class StatusHandler implements HttpHandler {
+		@SuppressWarnings("unchecked")
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				if (!checkAccess(exchange)) {
+					return;
+				}
+				Runtime runtime = Runtime.getRuntime();
+				JSONObject response = new JSONObject();
+				response.put(STATUS_PROPERTY, STATUS_OK);
+				response.put("requests", getRequestCount());
+				response.put("errors", getErrorCount());
+				response.put("usedMemory", runtime.totalMemory() - runtime.freeMemory());
+				response.put("maxMemory", runtime.maxMemory());
+				sendResponse(exchange, HTTP_OK, response);
+			} finally {
+				exchange.close();
+			}
+		}
+	}
+
+	/**
+	 * @param args optional args[0] is the port, args[1] is the maximum number of concurrent requests
+	 */
+	public static void main(String[] args) {
+		int port = DEFAULT_PORT;
+		int numThreads = DEFAULT_THREADS;
+		try {
+			if (args.length > 0) {
+				port = Integer.parseInt(args[0]);
+			}
+			if (args.length > 1) {
+				numThreads = Integer.parseInt(args[1]);
+			}
+		} catch (NumberFormatException e) {
+			usage();
+			System.exit(ERROR_STATUS);
+		}
+		final SpdxToolsServer spdxServer;
+		try {
+			spdxServer = new SpdxToolsServer(port, numThreads);
+		} catch (IOException e) {
+			System.out.println("Unable to start the server: "+e.getMessage());
+			System.exit(ERROR_STATUS);
+			return;
+		}
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override
+			public void run() {
+				spdxServer.stop(1);
+			}
+		});
+		spdxServer.start();
+		System.out.println("SPDX tools server listening on http://localhost:"+String.valueOf(spdxServer.getPort())+TOOLS_CONTEXT);
+		System.out.println("Pass the following token in the "+TOKEN_HEADER+" header of each request: "+spdxServer.getToken());
+	}
+
+	private static void usage() {
+		System.out.println("Usage: SpdxToolsServer [port] [threads]");
+		System.out.println("\tport - local port to listen on, default "+String.valueOf(DEFAULT_PORT));
+		System.out.println("\tthreads - maximum number of concurrent requests, default is the number of processors");
+	}
+}
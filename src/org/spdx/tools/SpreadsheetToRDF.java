@@ -26,12 +26,15 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.apache.log4j.Logger;
+import org.spdx.rdfparser.BulkDocumentLoader;
 import org.spdx.rdfparser.InvalidSPDXAnalysisException;
 import org.spdx.rdfparser.SPDXCreatorInformation;
 import org.spdx.rdfparser.SPDXReview;
 import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.SpdxMetrics;
 import org.spdx.rdfparser.SpdxRdfConstants;
 import org.spdx.rdfparser.SpdxVerificationHelper;
 import org.spdx.rdfparser.license.ExtractedLicenseInfo;
@@ -58,6 +61,7 @@ import org.spdx.spdxspreadsheet.SPDXSpreadsheet;
 import org.spdx.spdxspreadsheet.SnippetSheet;
 import org.spdx.spdxspreadsheet.SpreadsheetException;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 /**
@@ -65,6 +69,8 @@ import com.google.common.collect.Maps;
  * Usage: SpreadsheetToRDF spreadsheetfile.xls rdfxmlfile.rdf 
  * where spreadsheetfile.xls is a valid SPDX Spreadsheet and 
  * rdfxmlfile.rdf is the output SPDX RDF Analysis file.
+ * XLSX spreadsheets (spreadsheetfile.xlsx) are read as a stream so that
+ * large per file sheets do not need to be loaded into memory.
  * @author Gary O'Neall
  *
  */
@@ -73,6 +79,11 @@ public class SpreadsheetToRDF {
 	static final Logger logger = Logger.getLogger(SpreadsheetToRDF.class.getName());
 	static final int MIN_ARGS = 2;
 	static final int MAX_ARGS = 2;
+	/**
+	 * Number of files added to a package at a time - smaller than the per file sheet cache so that
+	 * files waiting to be added are still found by name for file dependencies
+	 */
+	static final int FILE_BATCH_SIZE = 500;
 	
 	private static final ThreadLocal<DateFormat> format = new ThreadLocal<DateFormat>(){
 	    @Override
@@ -137,7 +148,7 @@ public class SpreadsheetToRDF {
 		SPDXSpreadsheet ss = null;
 		List<String> verify = new ArrayList<String>();
 		try {
-			ss = new SPDXSpreadsheet(spdxSpreadsheetFile, false, true);
+			ss = SPDXSpreadsheet.openForStreaming(spdxSpreadsheetFile);
 			SpdxDocument analysis = copySpreadsheetToSPDXAnalysis(ss);
 			verify = analysis.verify();
 			if (verify.size() > 0) {
@@ -170,6 +181,15 @@ public class SpreadsheetToRDF {
 		return verify;
 	}
 	public static SpdxDocument copySpreadsheetToSPDXAnalysis(SPDXSpreadsheet ss) throws SpreadsheetException, InvalidSPDXAnalysisException {
+		SpdxMetrics.Timer timer = SpdxMetrics.startTimer(SpdxMetrics.PARSE);
+		try {
+			return doCopySpreadsheetToSPDXAnalysis(ss);
+		} finally {
+			timer.stop();
+		}
+	}
+
+	private static SpdxDocument doCopySpreadsheetToSPDXAnalysis(SPDXSpreadsheet ss) throws SpreadsheetException, InvalidSPDXAnalysisException {
 		String pkgUrl = ss.getOriginsSheet().getNamespace() + "#" + SpdxRdfConstants.SPDX_DOCUMENT_ID;
 		if (!SpdxVerificationHelper.isValidUri(pkgUrl)) {
 			// need to create a unique URL
@@ -192,9 +212,9 @@ public class SpreadsheetToRDF {
 		// note - non std licenses must be added first so that the text is available
 		Map<String, SpdxPackage> pkgIdToPackage = copyPackageInfo(ss.getPackageInfoSheet(), ss.getExternalRefsSheet(), analysis);
 		// note - packages need to be added before the files so that the files can be added to the packages
-		Map<String, SpdxFile> fileIdToFile = copyPerFileInfo(ss.getPerFileSheet(), analysis, pkgIdToPackage);
+		copyPerFileInfo(ss, analysis, pkgIdToPackage);
 		// note - files need to be added before snippets
-		copyPerSnippetInfo(ss.getSnippetSheet(), analysis, fileIdToFile);
+		copyPerSnippetInfo(ss.getSnippetSheet(), analysis);
 		copyAnnotationInfo(ss.getAnnotationsSheet(), analysis);
 		copyRelationshipInfo(ss.getRelationshipsSheet(), analysis);
 		copyReviewerInfo(ss.getReviewersSheet(), analysis);
@@ -205,12 +225,11 @@ public class SpreadsheetToRDF {
 	 * Copy snippet information from the spreadsheet to the analysis document
 	 * @param snippetSheet
 	 * @param analysis
-	 * @param fileIdToFile
 	 * @throws InvalidSPDXAnalysisException 
 	 * @throws SpreadsheetException 
 	 */
 	private static void copyPerSnippetInfo(SnippetSheet snippetSheet,
-			SpdxDocument analysis, Map<String, SpdxFile> fileIdToFile) throws InvalidSPDXAnalysisException, SpreadsheetException {
+			SpdxDocument analysis) throws InvalidSPDXAnalysisException, SpreadsheetException {
 		int i = snippetSheet.getFirstDataRow();
 		SpdxSnippet snippet = snippetSheet.getSnippet(i, analysis.getDocumentContainer());
 		while (snippet != null) {
@@ -274,30 +293,56 @@ public class SpreadsheetToRDF {
 		analysis.setReviewers(reviewers);
 	}
 
-	private static Map<String, SpdxFile> copyPerFileInfo(PerFileSheet perFileSheet,
-			SpdxDocument analysis, Map<String, SpdxPackage> pkgIdToPackage) throws SpreadsheetException, InvalidSPDXAnalysisException {
-		int firstRow = perFileSheet.getFirstDataRow();
-		int numFiles = perFileSheet.getNumDataRows();
-		Map<String, SpdxFile> retval = Maps.newHashMap();
-		for (int i = 0; i < numFiles; i++) {
-			SpdxFile file = perFileSheet.getFileInfo(firstRow+i, analysis.getDocumentContainer());
-			retval.put(file.getId(), file);
-			String[] pkgIds = perFileSheet.getPackageIds(firstRow+i);
-			boolean fileAdded = false;
-			for (int j = 0;j < pkgIds.length; j++) {
-				SpdxPackage pkg = pkgIdToPackage.get(pkgIds[j]);
-				if (pkg != null) {
-					pkg.addFile(file);
-					fileAdded = true;
-				} else {
-					logger.warn("Can not add file "+file.getName()+" to package "+pkgIds[j]);
+	/**
+	 * Copy the files from the per file sheet to the analysis document.  Each file is added
+	 * to the document once as it is read, either to its packages or to the document if it
+	 * is not in a package, so that at most a batch of files per package is held here.
+	 * @param ss
+	 * @param analysis
+	 * @param pkgIdToPackage
+	 * @throws SpreadsheetException
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private static void copyPerFileInfo(SPDXSpreadsheet ss,
+			final SpdxDocument analysis, final Map<String, SpdxPackage> pkgIdToPackage) throws SpreadsheetException, InvalidSPDXAnalysisException {
+		// Files for a package are added in batches since adding files to a package copies the package file array
+		final Map<SpdxPackage, List<SpdxFile>> pendingPackageFiles = Maps.newHashMap();
+		final BulkDocumentLoader loader = analysis.getDocumentContainer().startBulkLoad();
+		try {
+			ss.readFileInfo(analysis.getDocumentContainer(), (file, pkgIds) -> {
+				boolean inPackage = false;
+				for (int j = 0;j < pkgIds.length; j++) {
+					SpdxPackage pkg = pkgIdToPackage.get(pkgIds[j]);
+					if (pkg != null) {
+						inPackage = true;
+						List<SpdxFile> pending = pendingPackageFiles.get(pkg);
+						if (pending == null) {
+							pending = Lists.newArrayList();
+							pendingPackageFiles.put(pkg, pending);
+						}
+						pending.add(file);
+						if (pending.size() >= FILE_BATCH_SIZE) {
+							loader.addFiles(pkg, pending.toArray(new SpdxFile[pending.size()]));
+							pending.clear();
+						}
+					} else {
+						logger.warn("Can not add file "+file.getName()+" to package "+pkgIds[j]);
+					}
 				}
+				if (!inPackage) {
+					loader.addFiles(null, new SpdxFile[] {file});
+				}
+			});
+			for (Entry<SpdxPackage, List<SpdxFile>> entry:pendingPackageFiles.entrySet()) {
+				List<SpdxFile> pending = entry.getValue();
+				loader.addFiles(entry.getKey(), pending.toArray(new SpdxFile[pending.size()]));
 			}
-			if (!fileAdded) {
-				analysis.getDocumentContainer().addElement(file);
-			}
+		} catch (SpreadsheetException | InvalidSPDXAnalysisException | RuntimeException e) {
+			// the document is not usable, so end the load without merging the duplicates
+			loader.abort();
+			throw e;
 		}
-		return retval;
+		loader.finish();
 	}
 
 	private static void copyNonStdLicenses(
@@ -378,6 +423,7 @@ public class SpreadsheetToRDF {
 	private static void usage() {
 		System.out.println("Usage: SpreadsheetToRDF spreadsheetfile.xls rdfxmlfile.rdf \n"+
 				"where spreadsheetfile.xls is a valid SPDX Spreadsheet and\n"+
+				"  may be in the .xls or .xlsx format (.xlsx is read as a stream) and\n"+
 				"rdfxmlfile.rdf is the output SPDX RDF analysis file.");
 	}
 
@@ -29,7 +29,10 @@ import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 
+import org.apache.jena.rdf.model.Model;
 import org.spdx.rdfparser.SpdxDocumentContainer;
+import org.spdx.rdfparser.SpdxMetrics;
+import org.spdx.rdfparser.TdbModelStore;
 import org.spdx.tag.BuildDocument;
 import org.spdx.tag.CommonCode;
 import org.spdx.tag.HandBuiltParser;
@@ -190,7 +193,22 @@ public class TagToRDF {
 	public static void convertTagFileToRdf(InputStream spdxTagFile,
 			OutputStream out, String outputFormat, List<String> warnings) throws RecognitionException, TokenStreamException, Exception {
 
-			convertTagFileToRdf(spdxTagFile, outputFormat, warnings).getModel().write(out, outputFormat);
+			// documents larger than the heap can be built in a disk backed store
+			TdbModelStore store = TdbModelStore.createFromSystemProperties();
+			try {
+				SpdxDocumentContainer container = convertTagFileToRdf(spdxTagFile, outputFormat, warnings,
+						store == null ? null : store.getModel());
+				SpdxMetrics.Timer timer = SpdxMetrics.startTimer(SpdxMetrics.WRITE);
+				try {
+					container.getModel().write(out, outputFormat);
+				} finally {
+					timer.stop();
+				}
+			} finally {
+				if (store != null) {
+					store.close();
+				}
+			}
 	}
 
 	/**
@@ -203,6 +221,30 @@ public class TagToRDF {
 	 */
 	public static SpdxDocumentContainer convertTagFileToRdf(
 			InputStream spdxTagFile, String outputFormat, List<String> warnings) throws RecognitionException, TokenStreamException,InvalidSpdxTagFileException,InvalidFileFormatException, Exception  {
+		return convertTagFileToRdf(spdxTagFile, outputFormat, warnings, null);
+	}
+
+	/**
+	 * Convert an tag/value format input stream into an SPDX Document stored in an existing model
+	 * @param spdxTagFile Input stream containing a SPDX tag/value format text
+	 * @param outputFormat must be one of RDF/XML-ABBREV (default), RDF/XML, N-TRIPLET, or TURTLE
+	 * @param warnings List of any warnings generated during the tag/value parsing
+	 * @param model empty model to store the document in (e.g. <code>TdbModelStore.getModel()</code>) - if null, an in-memory model is used
+	 * @return SpdxDocumentContainer containing the SPDX document represented by the spdxTagVile
+	 * @throws Exception
+	 */
+	public static SpdxDocumentContainer convertTagFileToRdf(
+			InputStream spdxTagFile, String outputFormat, List<String> warnings, Model model) throws RecognitionException, TokenStreamException,InvalidSpdxTagFileException,InvalidFileFormatException, Exception  {
+		SpdxMetrics.Timer timer = SpdxMetrics.startTimer(SpdxMetrics.PARSE);
+		try {
+			return doConvertTagFileToRdf(spdxTagFile, outputFormat, warnings, model);
+		} finally {
+			timer.stop();
+		}
+	}
+
+	private static SpdxDocumentContainer doConvertTagFileToRdf(
+			InputStream spdxTagFile, String outputFormat, List<String> warnings, Model model) throws RecognitionException, TokenStreamException,InvalidSpdxTagFileException,InvalidFileFormatException, Exception  {
 		// read the tag-value constants from a file
 		Properties constants = CommonCode.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
 		NoCommentInputStream nci = new NoCommentInputStream(spdxTagFile);
@@ -211,7 +253,7 @@ public class TagToRDF {
 		try{
 			HandBuiltParser parser = new HandBuiltParser(nci);
 			SpdxDocumentContainer[] result = new SpdxDocumentContainer[1];
-			parser.setBehavior(new BuildDocument(result, constants, warnings));
+			parser.setBehavior(new BuildDocument(result, constants, warnings, model));
 			parser.data();
 			if (result[0] == null) {
 				throw(new RuntimeException("Unexpected error parsing SPDX tag document - the result is null."));
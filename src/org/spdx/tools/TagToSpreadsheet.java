@@ -150,6 +150,7 @@ public class TagToSpreadsheet {
 		System.out
 				.println("Usage: TagToSpreadsheet spdxfile.spdx spreadsheetfile.xls \n"
 						+ "where spdxfile.spdx is a valid SPDX tag-value file and spreadsheetfile.xls is \n"
-						+ "the output SPDX spreadsheeet file.");
+						+ "the output SPDX spreadsheeet file.  If the file name ends in .xlsx, the \n"
+						+ "spreadsheet is written in the XLSX format which supports large documents.");
 	}
 }
@@ -0,0 +1,356 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+*/
+package org.spdx.tools;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.log4j.Logger;
+import org.spdx.rdfparser.InvalidSPDXAnalysisException;
+import org.spdx.rdfparser.LegacyDocumentUpgrader;
+import org.spdx.rdfparser.SpdxDocumentContainer;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Upgrades a directory of SPDX 1.x RDF/XML documents to the current SPDX version.
+ *
+ * The documents are upgraded in parallel.  Each document is read into its own model, upgraded in
+ * place by <code>LegacyDocumentUpgrader</code>, written to the output directory and then closed.
+ * Nothing refers to the model or its container once the file is done.  The element cache in
+ * <code>SpdxElementFactory</code> holds containers weakly, so it does not keep finished documents
+ * alive and memory use depends on the number of threads rather than the number of files.  The
+ * input directory is read as the documents are processed rather than listed up front.
+ *
+ * The result for each file is printed as it completes.  A file which fails does not stop the
+ * upgrade of the other files and no output file is left for it.  Documents which are not
+ * SPDX 1.x documents, such as documents already at the current version, are reported as
+ * skipped and are not written to the output directory.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class UpgradeLegacyDocs {
+
+	static final Logger logger = Logger.getLogger(UpgradeLegacyDocs.class);
+
+	static final int MIN_ARGS = 2;
+	static final int MAX_ARGS = 3;
+	static final int ERROR_STATUS = 1;
+	static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+	static final String INPUT_FILE_GLOB = "*.{rdf,RDF,xml,XML}";
+	static final String RDF_FORMAT = "RDF/XML";
+	static final String TEMP_FILE_SUFFIX = ".tmp";
+
+	/**
+	 * Result of upgrading a single document
+	 */
+	public static class UpgradeResult {
+		private final File inputFile;
+		private final File outputFile;
+		private final String errorMessage;
+		private final String skippedVersion;
+		private final int numVerificationErrors;
+
+		UpgradeResult(File inputFile, File outputFile, int numVerificationErrors) {
+			this(inputFile, outputFile, null, null, numVerificationErrors);
+		}
+
+		UpgradeResult(File inputFile, String errorMessage) {
+			this(inputFile, null, errorMessage, null, 0);
+		}
+
+		private UpgradeResult(File inputFile, File outputFile, String errorMessage,
+				String skippedVersion, int numVerificationErrors) {
+			this.inputFile = inputFile;
+			this.outputFile = outputFile;
+			this.errorMessage = errorMessage;
+			this.skippedVersion = skippedVersion;
+			this.numVerificationErrors = numVerificationErrors;
+		}
+
+		/**
+		 * @param inputFile
+		 * @param specVersion SPDX version of the document or null if the document has no version
+		 * @return result for a document which was skipped since it is not an SPDX 1.x document
+		 */
+		static UpgradeResult skipped(File inputFile, String specVersion) {
+			return new UpgradeResult(inputFile, null, null, specVersion == null ? "" : specVersion, 0);
+		}
+
+		/**
+		 * @return true if the upgraded document was written
+		 */
+		public boolean isSuccess() {
+			return errorMessage == null && skippedVersion == null;
+		}
+
+		/**
+		 * @return true if the document was not upgraded since it is not an SPDX 1.x document
+		 */
+		public boolean isSkipped() {
+			return skippedVersion != null;
+		}
+
+		/**
+		 * @return the SPDX version of a skipped document, empty if the document has no version, or null if the document was not skipped
+		 */
+		public String getSkippedVersion() {
+			return skippedVersion;
+		}
+
+		public File getInputFile() {
+			return inputFile;
+		}
+
+		/**
+		 * @return the upgraded document or null if the upgrade failed
+		 */
+		public File getOutputFile() {
+			return outputFile;
+		}
+
+		/**
+		 * @return the reason the upgrade failed or null if it succeeded or was skipped
+		 */
+		public String getErrorMessage() {
+			return errorMessage;
+		}
+
+		/**
+		 * @return the number of verification errors in the upgraded document
+		 */
+		public int getNumVerificationErrors() {
+			return numVerificationErrors;
+		}
+
+		@Override
+		public String toString() {
+			if (isSuccess()) {
+				StringBuilder sb = new StringBuilder("Upgraded ");
+				sb.append(inputFile.getPath());
+				sb.append(" to ");
+				sb.append(outputFile.getPath());
+				if (numVerificationErrors > 0) {
+					sb.append(" with ");
+					sb.append(numVerificationErrors);
+					sb.append(" verification errors");
+				}
+				return sb.toString();
+			} else if (isSkipped()) {
+				return "Skipped "+inputFile.getPath()+": not an SPDX 1.x document (version "+
+						(skippedVersion.isEmpty() ? "missing" : skippedVersion)+")";
+			} else {
+				return "Failed "+inputFile.getPath()+": "+errorMessage;
+			}
+		}
+	}
+
+	/**
+	 * @param args inputDirectory outputDirectory [threads]
+	 */
+	public static void main(String[] args) {
+		if (args.length < MIN_ARGS || args.length > MAX_ARGS) {
+			usage();
+			System.exit(ERROR_STATUS);
+		}
+		File inputDirectory = new File(args[0]);
+		if (!inputDirectory.isDirectory()) {
+			System.out.println("Input directory "+args[0]+" does not exist or is not a directory.");
+			usage();
+			System.exit(ERROR_STATUS);
+		}
+		File outputDirectory = new File(args[1]);
+		if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+			System.out.println("Unable to create output directory "+args[1]);
+			System.exit(ERROR_STATUS);
+		}
+		int numThreads = DEFAULT_THREADS;
+		if (args.length > 2) {
+			try {
+				numThreads = Integer.parseInt(args[2]);
+			} catch (NumberFormatException e) {
+				numThreads = 0;
+			}
+			if (numThreads < 1) {
+				System.out.println("Invalid number of threads: "+args[2]);
+				usage();
+				System.exit(ERROR_STATUS);
+			}
+		}
+		List<UpgradeResult> results;
+		try {
+			results = upgradeDirectory(inputDirectory, outputDirectory, numThreads, System.out);
+		} catch (IOException e) {
+			System.out.println("Error reading the input directory: "+e.getMessage());
+			System.exit(ERROR_STATUS);
+			return;
+		}
+		int numFailed = 0;
+		int numSkipped = 0;
+		for (UpgradeResult result:results) {
+			if (result.isSkipped()) {
+				numSkipped++;
+			} else if (!result.isSuccess()) {
+				numFailed++;
+			}
+		}
+		System.out.println("Upgraded "+String.valueOf(results.size() - numFailed - numSkipped)+" of "+
+				String.valueOf(results.size())+" documents.");
+		if (numSkipped > 0) {
+			System.out.println("Skipped "+String.valueOf(numSkipped)+" documents which are not SPDX 1.x documents.");
+		}
+		if (numFailed > 0) {
+			System.exit(ERROR_STATUS);
+		}
+	}
+
+	/**
+	 * Upgrade all RDF/XML documents in the input directory
+	 * @param inputDirectory directory containing the SPDX 1.x documents
+	 * @param outputDirectory directory for the upgraded documents - the file names are the same as the input files
+	 * @param numThreads number of documents upgraded at the same time
+	 * @param progress the result for each document is printed here as it completes - may be null
+	 * @return the results for all documents in the order the documents were read from the directory
+	 * @throws IOException if the input directory can not be read
+	 */
+	public static List<UpgradeResult> upgradeDirectory(File inputDirectory, final File outputDirectory,
+			int numThreads, final PrintStream progress) throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		// limits the documents waiting to be upgraded so the directory is read as they are processed
+		final Semaphore pending = new Semaphore(numThreads * 2);
+		List<Future<UpgradeResult>> futures = Lists.newArrayList();
+		try (DirectoryStream<Path> inputFiles = Files.newDirectoryStream(inputDirectory.toPath(), INPUT_FILE_GLOB)) {
+			for (Path inputPath:inputFiles) {
+				final File inputFile = inputPath.toFile();
+				if (!inputFile.isFile()) {
+					continue;
+				}
+				pending.acquireUninterruptibly();
+				futures.add(executor.submit(new Callable<UpgradeResult>() {
+					@Override
+					public UpgradeResult call() {
+						try {
+							UpgradeResult result = upgradeFile(inputFile, new File(outputDirectory, inputFile.getName()));
+							if (progress != null) {
+								progress.println(result.toString());
+							}
+							return result;
+						} finally {
+							pending.release();
+						}
+					}
+				}));
+			}
+		} finally {
+			executor.shutdown();
+		}
+		List<UpgradeResult> retval = Lists.newArrayList();
+		for (Future<UpgradeResult> future:futures) {
+			try {
+				retval.add(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted waiting for the document upgrades", e);
+			} catch (ExecutionException e) {
+				// upgradeFile catches all exceptions, so this is unexpected
+				throw new IOException("Unexpected error upgrading documents", e.getCause());
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Upgrade a single SPDX 1.x RDF/XML document.  The output is written to a temporary file which
+	 * is renamed once the document has been written, so no output file is left if the upgrade fails.
+	 * The version of the document is checked first - a document which is not an SPDX 1.x document
+	 * is skipped and no output file is written.
+	 * @param inputFile SPDX 1.x document
+	 * @param outputFile file for the upgraded document - must not already exist
+	 * @return the result of the upgrade
+	 */
+	public static UpgradeResult upgradeFile(File inputFile, File outputFile) {
+		if (outputFile.exists()) {
+			return new UpgradeResult(inputFile, "Output file "+outputFile.getPath()+" already exists");
+		}
+		File tempFile = new File(outputFile.getPath() + TEMP_FILE_SUFFIX);
+		Model model = ModelFactory.createDefaultModel();
+		try {
+			try (InputStream in = new BufferedInputStream(new FileInputStream(inputFile))) {
+				model.read(in, inputFile.toURI().toString(), RDF_FORMAT);
+			}
+			LegacyDocumentUpgrader upgrader = new LegacyDocumentUpgrader(model);
+			String specVersion = upgrader.getSpecVersion();
+			if (!LegacyDocumentUpgrader.isLegacyVersion(specVersion)) {
+				return UpgradeResult.skipped(inputFile, specVersion);
+			}
+			SpdxDocumentContainer container = upgrader.upgrade(inputFile.toURI().toString());
+			int numVerificationErrors = container.getSpdxDocument().verify().size();
+			try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+				model.write(out, RDF_FORMAT);
+			}
+			if (!tempFile.renameTo(outputFile)) {
+				throw new IOException("Unable to rename "+tempFile.getPath()+" to "+outputFile.getPath());
+			}
+			return new UpgradeResult(inputFile, outputFile, numVerificationErrors);
+		} catch (InvalidSPDXAnalysisException e) {
+			return failed(inputFile, tempFile, "Invalid SPDX document: "+e.getMessage());
+		} catch (IOException e) {
+			return failed(inputFile, tempFile, "I/O error: "+e.getMessage());
+		} catch (Exception e) {
+			// Jena reports parse errors as runtime exceptions
+			logger.warn("Error upgrading "+inputFile.getPath(), e);
+			return failed(inputFile, tempFile, e.getClass().getSimpleName()+": "+e.getMessage());
+		} finally {
+			model.close();
+		}
+	}
+
+	private static UpgradeResult failed(File inputFile, File tempFile, String message) {
+		if (tempFile.exists() && !tempFile.delete()) {
+			logger.warn("Unable to delete temporary file "+tempFile.getPath());
+		}
+		return new UpgradeResult(inputFile, message);
+	}
+
+	private static void usage() {
+		System.out.println("Usage: UpgradeLegacyDocs inputDirectory outputDirectory [threads]\n"+
+				"where inputDirectory contains SPDX 1.x RDF/XML documents, the upgraded documents are written\n"+
+				"to outputDirectory with the same file names and threads is the number of documents\n"+
+				"upgraded at the same time (default is the number of processors).  Documents which are\n"+
+				"not SPDX 1.x documents are skipped.");
+	}
+}
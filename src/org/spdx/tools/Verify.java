@@ -50,12 +50,19 @@ public class Verify {
 			System.out.printf("Warning: Extra arguments will be ignored");
 		}
 		List<String> verify = null;
+		List<String> warnings = new ArrayList<String>();
 		try {
-			verify = verify(args[0]);
+			verify = verify(args[0], warnings);
 		} catch (SpdxVerificationException e) {
 			System.out.println(e.getMessage());;
 			System.exit(ERROR_STATUS);
 		}
+		if (warnings.size() > 0) {
+			System.out.println("Warnings:");
+			for (String warning:warnings) {
+				System.out.print("\t" + warning+"\n");
+			}
+		}
 		if (verify.size() > 0) {
 			System.out.println("This SPDX Document is not valid due to:");
 			for (int i = 0; i < verify.size(); i++) {
@@ -74,6 +81,17 @@ public class Verify {
 	 * @throws Errors where the SPDX file can not be parsed or the filename is invalid
 	 */
 	public static List<String> verify(String filePath) throws SpdxVerificationException {
+		return verify(filePath, null);
+	}
+
+	/**
+	 * Verify a tag/value or SPDX file
+	 * @param filePath File path to the SPDX file to be verified
+	 * @param warnings if not null, warnings which do not make the document invalid are added to the list
+	 * @return A list of verification errors - if empty, the SPDX file is valid
+	 * @throws Errors where the SPDX file can not be parsed or the filename is invalid
+	 */
+	public static List<String> verify(String filePath, List<String> warnings) throws SpdxVerificationException {
 		SpdxDocument doc = null;
 		List<String> parserWarnings = new ArrayList<String>();
 		try {
@@ -82,6 +100,9 @@ public class Verify {
 			throw new SpdxVerificationException("Unable to parse the file: "+e.getMessage(),e);
 		}
 		List<String> verify = doc.verify();
+		if (warnings != null) {
+			warnings.addAll(doc.getWarnings());
+		}
 		List<String> retval = new ArrayList<String>();
 		if (!verify.isEmpty()) {
 			retval.addAll(parserWarnings);
@@ -56,4 +56,32 @@ public interface ILicenseFormatWriter {
 	 */
 	void writeException(LicenseException exception, boolean deprecated, String deprecatedVersion) throws IOException, LicenseGeneratorException, InvalidLicenseTemplateException;
 
+	/**
+	 * Add a license to the Table of Contents without writing the license files.  Used for
+	 * licenses which are unchanged since the output was last generated.  Formats without a
+	 * Table of Contents do not need to implement this.
+	 * @param license License to be added
+	 * @param deprecated True if deprecated
+	 * @param deprecatedVersion License list version when the license was deprecated, null otherwise
+	 * @throws IOException 
+	 * @throws LicenseGeneratorException 
+	 */
+	default void addLicenseToC(SpdxListedLicense license, boolean deprecated, String deprecatedVersion) throws IOException, LicenseGeneratorException {
+		// No table of contents - do nothing
+	}
+
+	/**
+	 * Add an exception to the Table of Contents without writing the exception files.  Used for
+	 * exceptions which are unchanged since the output was last generated.  Formats without a
+	 * Table of Contents do not need to implement this.
+	 * @param exception Exception to be added
+	 * @param deprecated True if deprecated
+	 * @param deprecatedVersion License list version when the exception was deprecated, null otherwise
+	 * @throws IOException
+	 * @throws LicenseGeneratorException 
+	 */
+	default void addExceptionToC(LicenseException exception, boolean deprecated, String deprecatedVersion) throws IOException, LicenseGeneratorException {
+		// No table of contents - do nothing
+	}
+
 }
@@ -0,0 +1,399 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.tools.licensegenerator;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.spdx.html.InvalidLicenseTemplateException;
+import org.spdx.html.RenderedLicenseForms;
+import org.spdx.rdfparser.JavaSha1ChecksumGenerator;
+import org.spdx.rdfparser.license.LicenseException;
+import org.spdx.rdfparser.license.SpdxListedLicense;
+
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Manifest of the inputs and outputs of a license list generation stored in the output directory.
+ *
+ * The manifest records a hash of the environment (license list version, release date,
+ * HTML templates and generator version), a hash of the content of every license and exception,
+ * and the SHA1 of every output file.  A later run with the same environment and unmodified
+ * output files only needs to write the licenses and exceptions whose content hash changed -
+ * the tables of contents are always rebuilt.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class LicenseGeneratorManifest {
+
+	public static final String MANIFEST_FILE_NAME = "licenseGeneratorManifest.txt";
+	/**
+	 * Update when the generated output changes for the same input
+	 */
+	static final String MANIFEST_FORMAT_VERSION = "1";
+	static final String HEADER = "# SPDX license list generator manifest - do not edit";
+	static final String ENVIRONMENT_PREFIX = "environment";
+	static final String INPUT_PREFIX = "input";
+	static final String OUTPUT_PREFIX = "output";
+	static final char SEPARATOR = '\t';
+	static final String TEMPLATE_CLASS_PATH = "resources" + "/" + "htmlTemplate";
+	static final String TEMPLATE_ROOT_PATH = "resources" + File.separator + "htmlTemplate";
+	/**
+	 * Templates used by the license format writers for the license, exception and table of contents files
+	 */
+	static final String[] TEMPLATE_FILE_NAMES = new String[] {"LicenseHTMLTemplate.html", "ExceptionHTMLTemplate.html",
+			"TocHTMLTemplate.html", "ExceptionsTocHTMLTemplate.html"};
+	static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private String environmentHash;
+	private Map<String, String> inputHashes = Maps.newTreeMap();
+	private Map<String, String> outputHashes = Maps.newTreeMap();
+
+	/**
+	 * @param environmentHash Hash of the environment for the generation
+	 */
+	public LicenseGeneratorManifest(String environmentHash) {
+		this.environmentHash = environmentHash;
+	}
+
+	/**
+	 * Load the manifest from an output directory
+	 * @param outputDir
+	 * @return the manifest or null if there is no valid manifest in the output directory
+	 */
+	public static LicenseGeneratorManifest load(File outputDir) {
+		File manifestFile = new File(outputDir, MANIFEST_FILE_NAME);
+		if (!manifestFile.isFile()) {
+			return null;
+		}
+		try {
+			List<String> lines = com.google.common.io.Files.readLines(manifestFile, UTF8);
+			if (lines.isEmpty() || !HEADER.equals(lines.get(0))) {
+				return null;
+			}
+			LicenseGeneratorManifest retval = new LicenseGeneratorManifest(null);
+			for (int i = 1; i < lines.size(); i++) {
+				String[] parts = lines.get(i).split(String.valueOf(SEPARATOR));
+				if (parts.length == 2 && ENVIRONMENT_PREFIX.equals(parts[0])) {
+					retval.environmentHash = parts[1];
+				} else if (parts.length == 3 && INPUT_PREFIX.equals(parts[0])) {
+					retval.inputHashes.put(parts[1], parts[2]);
+				} else if (parts.length == 3 && OUTPUT_PREFIX.equals(parts[0])) {
+					retval.outputHashes.put(parts[1], parts[2]);
+				} else if (!lines.get(i).trim().isEmpty()) {
+					return null;	// Not a manifest we understand
+				}
+			}
+			return retval;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Delete the manifest from the output directory.  Called before the output is modified
+	 * so that an interrupted run is never mistaken for a complete one.
+	 * @param outputDir
+	 * @throws IOException
+	 */
+	public static void delete(File outputDir) throws IOException {
+		File manifestFile = new File(outputDir, MANIFEST_FILE_NAME);
+		if (manifestFile.exists() && !manifestFile.delete()) {
+			throw new IOException("Unable to delete license generator manifest "+manifestFile.getPath());
+		}
+	}
+
+	/**
+	 * Save the manifest to the output directory
+	 * @param outputDir
+	 * @throws IOException
+	 */
+	public void save(File outputDir) throws IOException {
+		PrintWriter writer = new PrintWriter(new File(outputDir, MANIFEST_FILE_NAME), "UTF-8");
+		try {
+			writer.print(HEADER);
+			writer.print('\n');
+			writer.print(ENVIRONMENT_PREFIX + SEPARATOR + environmentHash);
+			writer.print('\n');
+			for (Entry<String, String> entry:inputHashes.entrySet()) {
+				writer.print(INPUT_PREFIX + SEPARATOR + entry.getKey() + SEPARATOR + entry.getValue());
+				writer.print('\n');
+			}
+			for (Entry<String, String> entry:outputHashes.entrySet()) {
+				writer.print(OUTPUT_PREFIX + SEPARATOR + entry.getKey() + SEPARATOR + entry.getValue());
+				writer.print('\n');
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * @return the environmentHash
+	 */
+	public String getEnvironmentHash() {
+		return environmentHash;
+	}
+
+	/**
+	 * @param key Key for the license or exception
+	 * @return the content hash recorded for the key or null if none was recorded
+	 */
+	public String getInputHash(String key) {
+		return inputHashes.get(key);
+	}
+
+	/**
+	 * @param key Key for the license or exception
+	 * @param hash Content hash
+	 */
+	public void setInputHash(String key, String hash) {
+		inputHashes.put(key, hash);
+	}
+
+	/**
+	 * @param other Manifest to compare to
+	 * @return true if this manifest has an input hash for every license and exception in the other manifest
+	 */
+	public boolean containsAllInputs(LicenseGeneratorManifest other) {
+		return inputHashes.keySet().containsAll(other.inputHashes.keySet());
+	}
+
+	/**
+	 * Record the hashes of all files in the output directory
+	 * @param outputDir
+	 * @throws IOException
+	 */
+	public void recordOutputs(File outputDir) throws IOException {
+		outputHashes.clear();
+		JavaSha1ChecksumGenerator checksumGenerator = newChecksumGenerator();
+		recordOutputs(outputDir, "", checksumGenerator);
+	}
+
+	private void recordOutputs(File dir, String relativePath, JavaSha1ChecksumGenerator checksumGenerator) throws IOException {
+		File[] files = dir.listFiles();
+		if (files == null) {
+			throw new IOException("Unable to list output directory "+dir.getPath());
+		}
+		for (File file:files) {
+			String path = relativePath + file.getName();
+			if (file.isDirectory()) {
+				recordOutputs(file, path + "/", checksumGenerator);
+			} else if (!MANIFEST_FILE_NAME.equals(path)) {
+				outputHashes.put(path, checksumGenerator.getFileChecksum(file));
+			}
+		}
+	}
+
+	/**
+	 * @param outputDir
+	 * @return true if every output file recorded in the manifest still exists with the same content
+	 */
+	public boolean outputsUnchanged(File outputDir) {
+		try {
+			JavaSha1ChecksumGenerator checksumGenerator = newChecksumGenerator();
+			for (Entry<String, String> entry:outputHashes.entrySet()) {
+				File outputFile = new File(outputDir, entry.getKey().replace('/', File.separatorChar));
+				if (!outputFile.isFile() || !entry.getValue().equals(checksumGenerator.getFileChecksum(outputFile))) {
+					return false;
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static JavaSha1ChecksumGenerator newChecksumGenerator() throws IOException {
+		try {
+			return new JavaSha1ChecksumGenerator();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException("SHA1 is not supported", e);
+		}
+	}
+
+	/**
+	 * @param license
+	 * @param deprecated
+	 * @return key for the license in the manifest
+	 */
+	public static String licenseKey(SpdxListedLicense license, boolean deprecated) {
+		return (deprecated ? "deprecated/" : "license/") + license.getLicenseId();
+	}
+
+	/**
+	 * @param exception
+	 * @return key for the exception in the manifest
+	 */
+	public static String exceptionKey(LicenseException exception) {
+		return "exception/" + exception.getLicenseExceptionId();
+	}
+
+	/**
+	 * Hash the environment which affects every generated file.  The templates are read from
+	 * the same location as the license format writers read them.
+	 * @param version License list version
+	 * @param releaseDate License list release date
+	 * @return hash of the environment
+	 * @throws IOException
+	 */
+	public static String hashEnvironment(String version, String releaseDate) throws IOException {
+		File templateDirectory = new File(TEMPLATE_ROOT_PATH);
+		if (!templateDirectory.isDirectory()) {
+			templateDirectory = null;
+		}
+		return hashEnvironment(version, releaseDate, templateDirectory);
+	}
+
+	/**
+	 * Hash the environment which affects every generated file
+	 * @param version License list version
+	 * @param releaseDate License list release date
+	 * @param templateDirectory Directory containing the HTML templates or null if the templates are read from the class path
+	 * @return hash of the environment
+	 * @throws IOException
+	 */
+	static String hashEnvironment(String version, String releaseDate, File templateDirectory) throws IOException {
+		Hasher hasher = Hashing.sha1().newHasher();
+		putString(hasher, MANIFEST_FORMAT_VERSION);
+		putString(hasher, LicenseGeneratorManifest.class.getPackage().getImplementationVersion());
+		putString(hasher, version);
+		putString(hasher, releaseDate);
+		for (String templateFileName:TEMPLATE_FILE_NAMES) {
+			putString(hasher, templateFileName);
+			byte[] template = readTemplate(templateDirectory, templateFileName);
+			if (template == null) {
+				hasher.putInt(-1);
+			} else {
+				hasher.putInt(template.length);
+				hasher.putBytes(template);
+			}
+		}
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * Read a template from the template directory or from the class path if there is no template directory
+	 * @param templateDirectory Directory containing the templates or null to read from the class path
+	 * @param templateFileName
+	 * @return content of the template or null if the template does not exist
+	 * @throws IOException
+	 */
+	private static byte[] readTemplate(File templateDirectory, String templateFileName) throws IOException {
+		if (templateDirectory != null) {
+			File templateFile = new File(templateDirectory, templateFileName);
+			if (!templateFile.isFile()) {
+				return null;
+			}
+			return com.google.common.io.Files.toByteArray(templateFile);
+		}
+		InputStream is = LicenseGeneratorManifest.class.getClassLoader().getResourceAsStream(
+				TEMPLATE_CLASS_PATH + "/" + templateFileName);
+		if (is == null) {
+			return null;
+		}
+		try {
+			return ByteStreams.toByteArray(is);
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Hash all license properties which are used by the license format writers
+	 * @param license
+	 * @param deprecated
+	 * @param deprecatedVersion
+	 * @return hash of the license content
+	 * @throws InvalidLicenseTemplateException
+	 */
+	public static String hashLicense(SpdxListedLicense license, boolean deprecated, String deprecatedVersion) throws InvalidLicenseTemplateException {
+		Hasher hasher = Hashing.sha1().newHasher();
+		putString(hasher, license.getLicenseId());
+		putString(hasher, license.getName());
+		putString(hasher, license.getLicenseText());
+		putString(hasher, RenderedLicenseForms.forLicense(license).getTextHtml());
+		putString(hasher, license.getStandardLicenseTemplate());
+		putString(hasher, license.getStandardLicenseHeader());
+		putString(hasher, license.getStandardLicenseHeaderTemplate());
+		putString(hasher, RenderedLicenseForms.forLicense(license).getHeaderHtml());
+		putString(hasher, license.getComment());
+		putStrings(hasher, license.getSeeAlso());
+		hasher.putBoolean(license.isOsiApproved());
+		putString(hasher, license.getFsfLibre() == null ? null : license.getFsfLibre().toString());
+		hasher.putBoolean(license.isDeprecated());
+		hasher.putBoolean(deprecated);
+		putString(hasher, deprecatedVersion);
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * Hash all exception properties which are used by the license format writers
+	 * @param exception
+	 * @return hash of the exception content
+	 * @throws InvalidLicenseTemplateException
+	 */
+	public static String hashException(LicenseException exception) throws InvalidLicenseTemplateException {
+		Hasher hasher = Hashing.sha1().newHasher();
+		putString(hasher, exception.getLicenseExceptionId());
+		putString(hasher, exception.getName());
+		putString(hasher, exception.getLicenseExceptionText());
+		putString(hasher, RenderedLicenseForms.forException(exception).getTextHtml());
+		putString(hasher, exception.getLicenseExceptionTemplate());
+		putString(hasher, exception.getComment());
+		putString(hasher, exception.getExample());
+		putStrings(hasher, exception.getSeeAlso());
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * Add a string to a hash such that null and empty strings and adjacent strings can be distinguished
+	 */
+	private static void putString(Hasher hasher, String value) {
+		if (value == null) {
+			hasher.putInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(UTF8);
+			hasher.putInt(bytes.length);
+			hasher.putBytes(bytes);
+		}
+	}
+
+	private static void putStrings(Hasher hasher, String[] values) {
+		if (values == null) {
+			hasher.putInt(-1);
+		} else {
+			hasher.putInt(values.length);
+			for (String value:values) {
+				putString(hasher, value);
+			}
+		}
+	}
+}
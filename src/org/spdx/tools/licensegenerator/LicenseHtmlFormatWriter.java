@@ -20,7 +20,7 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.Set;
 
-import org.spdx.licenseTemplate.SpdxLicenseTemplateHelper;
+import org.spdx.html.RenderedLicenseForms;
 import org.spdx.rdfparser.license.LicenseException;
 import org.spdx.rdfparser.license.SpdxListedLicense;
 
@@ -82,7 +82,7 @@ public class LicenseHtmlFormatWriter implements ILicenseFormatWriter {
 		String licBaseHtmlFileName = formLicenseHTMLFileName(license.getLicenseId());
 		String licHtmlFileName = licBaseHtmlFileName + ".html";
 		File htmlTextFile = new File(htmlFolder.getPath() + File.separator + licHtmlFileName);
-		Files.write(SpdxLicenseTemplateHelper.formatEscapeHTML(license.getLicenseText()), htmlTextFile, utf8);	
+		Files.write(RenderedLicenseForms.forLicense(license).getEscapedTextHtml(), htmlTextFile, utf8);	
 	}
 	
 	/**
@@ -118,7 +118,6 @@ public class LicenseHtmlFormatWriter implements ILicenseFormatWriter {
 			throws IOException {
 		String exceptionHtmlFileName = formLicenseHTMLFileName(exception.getLicenseExceptionId());
 		File htmlTextFile = new File(htmlFolder.getPath() + File.separator + exceptionHtmlFileName + ".html");
-		Files.write(SpdxLicenseTemplateHelper.formatEscapeHTML(exception.getLicenseExceptionText()), htmlTextFile, utf8);
+		Files.write(RenderedLicenseForms.forException(exception).getEscapedTextHtml(), htmlTextFile, utf8);
 	}
-	
 }
@@ -105,12 +105,20 @@ public class LicenseJsonFormatWriter implements ILicenseFormatWriter {
 	public void writeLicense(SpdxListedLicense license, boolean deprecated, String deprecatedVersion) throws IOException {
 		licJson.setLicense(license, deprecated);
 		String licBaseHtmlFileName = LicenseHtmlFormatWriter.formLicenseHTMLFileName(license.getLicenseId());
-		String licHtmlFileName = licBaseHtmlFileName + ".html";
 		String licJsonFileName = licBaseHtmlFileName + ".json";
-		String licHTMLReference = "./"+licHtmlFileName;
-		String licJSONReference = "./"+licJsonFileName;
 		File licJsonFile = new File(jsonFolder.getPath()+File.separator+"details"+File.separator+licJsonFileName);
 		licJson.writeToFile(licJsonFile);
+		addLicenseToC(license, deprecated, deprecatedVersion);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.spdx.tools.licensegenerator.ILicenseFormatWriter#addLicenseToC(org.spdx.rdfparser.license.SpdxListedLicense, boolean, java.lang.String)
+	 */
+	@Override
+	public void addLicenseToC(SpdxListedLicense license, boolean deprecated, String deprecatedVersion) {
+		String licBaseHtmlFileName = LicenseHtmlFormatWriter.formLicenseHTMLFileName(license.getLicenseId());
+		String licHTMLReference = "./"+licBaseHtmlFileName + ".html";
+		String licJSONReference = "./"+licBaseHtmlFileName + ".json";
 		tableOfContentsJSON.addLicense(license, licHTMLReference, licJSONReference, deprecated);
 	}
 
@@ -130,14 +138,23 @@ public class LicenseJsonFormatWriter implements ILicenseFormatWriter {
 			throws IOException {
 		String exceptionHtmlFileName = LicenseHtmlFormatWriter.formLicenseHTMLFileName(exception.getLicenseExceptionId());
 		String exceptionJsonFileName = exceptionHtmlFileName + ".json";
-		String exceptionJSONReference= "./" + exceptionJsonFileName;
-		String exceptionHTMLReference = "./"+exceptionHtmlFileName + ".html";
 		LicenseExceptionJSONFile exceptionJson = new LicenseExceptionJSONFile();
-		jsonExceptionToc.addException(exception, exceptionHTMLReference, exceptionJSONReference, deprecated);
+		addExceptionToC(exception, deprecated, deprecatedVersion);
 		exceptionJson.setException(exception, deprecated);
 		File exceptionJsonFile = new File(jsonFolder.getPath() + File.separator + "exceptions" + File.separator +  exceptionJsonFileName);
 		exceptionJson.writeToFile(exceptionJsonFile);
 	}
+
+	/* (non-Javadoc)
+	 * @see org.spdx.tools.licensegenerator.ILicenseFormatWriter#addExceptionToC(org.spdx.rdfparser.license.LicenseException, boolean, java.lang.String)
+	 */
+	@Override
+	public void addExceptionToC(LicenseException exception, boolean deprecated, String deprecatedVersion) {
+		String exceptionHtmlFileName = LicenseHtmlFormatWriter.formLicenseHTMLFileName(exception.getLicenseExceptionId());
+		String exceptionJSONReference= "./" + exceptionHtmlFileName + ".json";
+		String exceptionHTMLReference = "./"+exceptionHtmlFileName + ".html";
+		jsonExceptionToc.addException(exception, exceptionHTMLReference, exceptionJSONReference, deprecated);
+	}
 	
 	
 
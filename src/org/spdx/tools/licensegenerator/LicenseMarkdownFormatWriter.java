@@ -58,6 +58,11 @@ public class LicenseMarkdownFormatWriter implements ILicenseFormatWriter {
 
 	@Override
 	public void writeLicense(SpdxListedLicense license, boolean deprecated, String deprecatedVersion) throws IOException {
+		addLicenseToC(license, deprecated, deprecatedVersion);
+	}
+
+	@Override
+	public void addLicenseToC(SpdxListedLicense license, boolean deprecated, String deprecatedVersion) {
 		markdownTable.addLicense(license, deprecated);
 	}
 
@@ -69,6 +74,11 @@ public class LicenseMarkdownFormatWriter implements ILicenseFormatWriter {
 	@Override
 	public void writeException(LicenseException exception, boolean deprecated, String deprecatedVersion)
 			throws IOException {
+		addExceptionToC(exception, deprecated, deprecatedVersion);
+	}
+
+	@Override
+	public void addExceptionToC(LicenseException exception, boolean deprecated, String deprecatedVersion) {
 		markdownTable.addException(exception, deprecated);
 	}
 }
@@ -106,8 +106,17 @@ public class LicenseRdfFormatWriter implements ILicenseFormatWriter {
 		}
 		String licBaseFileName = LicenseHtmlFormatWriter.formLicenseHTMLFileName(license.getLicenseId());
 		writeRdf(onlyThisLicense, rdfXml, rdfTurtle, rdfNt, licBaseFileName);
+		addLicenseToC(license, deprecated, deprecatedVersion);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.spdx.tools.licensegenerator.ILicenseFormatWriter#addLicenseToC(org.spdx.rdfparser.license.SpdxListedLicense, boolean, java.lang.String)
+	 */
+	@Override
+	public void addLicenseToC(SpdxListedLicense license, boolean deprecated, String deprecatedVersion) throws LicenseGeneratorException {
 		try {
-			license.createResource(container);
+			// a clone is added so the license itself is not bound to the model - it may be read by other writers concurrently
+			license.clone().createResource(container);
 		} catch (InvalidSPDXAnalysisException e) {
 			throw new LicenseGeneratorException("SPDX Analysis error creating license resource: "+e.getMessage(),e);
 		}
@@ -187,8 +196,16 @@ public class LicenseRdfFormatWriter implements ILicenseFormatWriter {
 			throw new LicenseGeneratorException("SPDX Analysis error cloning exception: "+e.getMessage(),e);
 		}
 		writeRdf(onlyThisException, rdfXml, rdfTurtle, rdfNt, exceptionHtmlFileName);
+		addExceptionToC(exception, deprecated, deprecatedVersion);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.spdx.tools.licensegenerator.ILicenseFormatWriter#addExceptionToC(org.spdx.rdfparser.license.LicenseException, boolean, java.lang.String)
+	 */
+	@Override
+	public void addExceptionToC(LicenseException exception, boolean deprecated, String deprecatedVersion) throws LicenseGeneratorException {
 		try {
-			exception.createResource(container);
+			exception.clone().createResource(container);
 		} catch (InvalidSPDXAnalysisException e) {
 			throw new LicenseGeneratorException("SPDX Analysis error creating exception resource: "+e.getMessage(),e);
 		}	
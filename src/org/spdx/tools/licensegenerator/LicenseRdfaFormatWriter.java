@@ -162,7 +162,6 @@ public class LicenseRdfaFormatWriter implements ILicenseFormatWriter {
 		}
 		String licBaseHtmlFileName = LicenseHtmlFormatWriter.formLicenseHTMLFileName(license.getLicenseId());
 		String licHtmlFileName = licBaseHtmlFileName + ".html";
-		String licHTMLReference = "./"+licHtmlFileName;
 		String tocHTMLReference = "./"+LICENSE_TOC_HTML_FILE_NAME;
 
 		File licHtmlFile = new File(rdfaFolder.getPath()+File.separator+licHtmlFileName);
@@ -173,6 +172,15 @@ public class LicenseRdfaFormatWriter implements ILicenseFormatWriter {
 		} catch (InvalidLicenseTemplateException e) {
 			throw new LicenseGeneratorException("License template error for license HTML file: "+e.getMessage(),e);
 		}
+		addLicenseToC(license, deprecated, deprecatedVersion);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.spdx.tools.licensegenerator.ILicenseFormatWriter#addLicenseToC(org.spdx.rdfparser.license.SpdxListedLicense, boolean, java.lang.String)
+	 */
+	@Override
+	public void addLicenseToC(SpdxListedLicense license, boolean deprecated, String deprecatedVersion) {
+		String licHTMLReference = "./"+LicenseHtmlFormatWriter.formLicenseHTMLFileName(license.getLicenseId()) + ".html";
 		if (deprecated) {
 			tableOfContentsHTML.addDeprecatedLicense(new DeprecatedLicenseInfo(license, deprecatedVersion), licHTMLReference);
 		} else {
@@ -196,9 +204,17 @@ public class LicenseRdfaFormatWriter implements ILicenseFormatWriter {
 			throws IOException, InvalidLicenseTemplateException {
 		ExceptionHtml exceptionHtml = new ExceptionHtml(exception);
 		String exceptionHtmlFileName = LicenseHtmlFormatWriter.formLicenseHTMLFileName(exception.getLicenseExceptionId());
-		String exceptionHTMLReference = "./"+exceptionHtmlFileName + ".html";
 		File exceptionHtmlFile = new File(rdfaFolder.getPath()+File.separator+exceptionHtmlFileName + ".html");
 		exceptionHtml.writeToFile(exceptionHtmlFile, exceptionHtmlTocReference);
+		addExceptionToC(exception, deprecated, deprecatedVersion);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.spdx.tools.licensegenerator.ILicenseFormatWriter#addExceptionToC(org.spdx.rdfparser.license.LicenseException, boolean, java.lang.String)
+	 */
+	@Override
+	public void addExceptionToC(LicenseException exception, boolean deprecated, String deprecatedVersion) {
+		String exceptionHTMLReference = "./"+LicenseHtmlFormatWriter.formLicenseHTMLFileName(exception.getLicenseExceptionId()) + ".html";
 		htmlExceptionToc.addException(exception, exceptionHTMLReference);
 	}
 
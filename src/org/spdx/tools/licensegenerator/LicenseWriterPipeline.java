@@ -0,0 +1,368 @@
+/**
+ * Copyright (c) 2017 Source Auditor Inc.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package org.spdx.tools.licensegenerator;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.spdx.rdfparser.license.LicenseException;
+import org.spdx.rdfparser.license.SpdxListedLicense;
+import org.spdx.tools.LicenseGeneratorException;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Writes licenses and exceptions to a set of license format writers in parallel.
+ *
+ * All work runs on a single fixed size worker pool.  The writers keep the state for the
+ * license being formatted and the table of contents in fields, so the calls to any one
+ * writer are serialized and made in the order the licenses were added - this keeps the
+ * table of contents identical to a sequential run without any synchronization in the
+ * writers.  Calls to different writers and the license tests run concurrently, so
+ * several licenses are in progress at the same time.
+ *
+ * The number of licenses added but not yet completed is bounded.  Once the limit is
+ * reached, adding a license blocks until an earlier license has been written by all
+ * writers, so the licenses are read no faster than they can be written.
+ *
+ * Writers must not modify the licenses or exceptions passed to them since the same
+ * license is read concurrently by the other writers.
+ *
+ * @author Gary O'Neall
+ *
+ */
+public class LicenseWriterPipeline {
+
+	/**
+	 * Number of threads in the worker pool
+	 */
+	static final int DEFAULT_NUM_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * Number of licenses which may be in progress for each worker thread
+	 */
+	static final int PENDING_ITEMS_PER_THREAD = 4;
+
+	/**
+	 * Time to wait for the writers to complete
+	 */
+	static final long MAX_WAIT_HOURS = 24;
+
+	/**
+	 * License or exception being written along with the warnings specific to it
+	 */
+	private class PipelineItem {
+		String id;
+		String type;
+		List<String> warnings;
+		AtomicInteger remainingTasks;
+
+		PipelineItem(String type, String id, List<String> checkWarnings, int numTasks) {
+			this.type = type;
+			this.id = id;
+			this.warnings = Collections.synchronizedList(Lists.newArrayList(checkWarnings));
+			this.remainingTasks = new AtomicInteger(numTasks);
+		}
+
+		/**
+		 * Called when a writer or tester has completed for this item
+		 */
+		void taskComplete() {
+			if (remainingTasks.decrementAndGet() == 0) {
+				itemComplete(this);
+			}
+		}
+	}
+
+	/**
+	 * Task to run for a license or exception
+	 */
+	private interface PipelineTask {
+		void run() throws Exception;
+	}
+
+	/**
+	 * Runs the tasks for one writer on the worker pool one at a time in the order they were added
+	 */
+	private class WriterLane {
+		private Queue<Runnable> tasks = new ArrayDeque<Runnable>();
+		private boolean running = false;
+
+		synchronized void execute(Runnable task) {
+			tasks.add(task);
+			if (!running) {
+				scheduleNext();
+			}
+		}
+
+		private synchronized void scheduleNext() {
+			final Runnable next = tasks.poll();
+			running = next != null;
+			if (running) {
+				try {
+					workers.execute(() -> {
+						try {
+							next.run();
+						} finally {
+							scheduleNext();
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					// the pipeline was cancelled
+					tasks.clear();
+					running = false;
+				}
+			}
+		}
+	}
+
+	private List<ILicenseFormatWriter> writers;
+	private ILicenseTester tester;
+	private ExecutorService workers;
+	private List<WriterLane> writerLanes = Lists.newArrayList();
+	private int maxPendingItems;
+	private Semaphore pendingItems;
+	private List<PipelineItem> items = Lists.newArrayList();
+	private AtomicReference<Exception> error = new AtomicReference<Exception>();
+	private AtomicInteger numCompleted = new AtomicInteger(0);
+	private PrintStream progressOut;
+	private boolean finished = false;
+
+	/**
+	 * @param writers License format writers
+	 * @param tester License tester or null if the licenses are not tested
+	 * @param progressOut Stream for progress messages or null if no progress should be reported
+	 */
+	public LicenseWriterPipeline(List<ILicenseFormatWriter> writers, ILicenseTester tester, PrintStream progressOut) {
+		this(writers, tester, progressOut, DEFAULT_NUM_THREADS, DEFAULT_NUM_THREADS * PENDING_ITEMS_PER_THREAD);
+	}
+
+	/**
+	 * @param writers License format writers
+	 * @param tester License tester or null if the licenses are not tested
+	 * @param progressOut Stream for progress messages or null if no progress should be reported
+	 * @param numThreads Number of threads in the worker pool
+	 * @param maxPendingItems Maximum number of licenses and exceptions added but not yet completed
+	 */
+	LicenseWriterPipeline(List<ILicenseFormatWriter> writers, ILicenseTester tester, PrintStream progressOut,
+			int numThreads, int maxPendingItems) {
+		this.writers = writers;
+		this.tester = tester;
+		this.progressOut = progressOut;
+		this.workers = Executors.newFixedThreadPool(numThreads);
+		this.maxPendingItems = maxPendingItems;
+		this.pendingItems = new Semaphore(maxPendingItems);
+		for (int i = 0; i < writers.size(); i++) {
+			writerLanes.add(new WriterLane());
+		}
+	}
+
+	/**
+	 * Add a license to be written by all writers and tested by the tester
+	 * @param license License to write - must not be modified until the pipeline is finished
+	 * @param deprecated True if deprecated
+	 * @param deprecatedVersion License list version when the license was deprecated, null otherwise
+	 * @param checkWarnings Warnings already found for the license
+	 */
+	public void addLicense(final SpdxListedLicense license, final boolean deprecated,
+			final String deprecatedVersion, List<String> checkWarnings) {
+		addLicense(license, deprecated, deprecatedVersion, checkWarnings, false);
+	}
+
+	/**
+	 * Add a license to be written by all writers and tested by the tester
+	 * @param license License to write - must not be modified until the pipeline is finished
+	 * @param deprecated True if deprecated
+	 * @param deprecatedVersion License list version when the license was deprecated, null otherwise
+	 * @param checkWarnings Warnings already found for the license
+	 * @param tocOnly If true, the per-license outputs are up to date and the license is only added to the table of contents
+	 */
+	public void addLicense(final SpdxListedLicense license, final boolean deprecated,
+			final String deprecatedVersion, List<String> checkWarnings, final boolean tocOnly) {
+		final PipelineItem item = addItem("license", license.getLicenseId(), checkWarnings);
+		for (int i = 0; i < writers.size(); i++) {
+			final ILicenseFormatWriter writer = writers.get(i);
+			writerLanes.get(i).execute(task(item, () -> {
+				if (tocOnly) {
+					writer.addLicenseToC(license, deprecated, deprecatedVersion);
+				} else {
+					writer.writeLicense(license, deprecated, deprecatedVersion);
+				}
+			}));
+		}
+		if (tester != null) {
+			workers.execute(task(item, () -> {
+				List<String> testResults = tester.testLicense(license);
+				if (testResults != null) {
+					for (String testResult:testResults) {
+						item.warnings.add("Test for license "+license.getLicenseId() + " failed: "+testResult);
+					}
+				}
+			}));
+		}
+	}
+
+	/**
+	 * Add an exception to be written by all writers and tested by the tester
+	 * @param exception Exception to write - must not be modified until the pipeline is finished
+	 * @param deprecated True if deprecated
+	 * @param deprecatedVersion License list version when the exception was deprecated, null otherwise
+	 * @param checkWarnings Warnings already found for the exception
+	 */
+	public void addException(final LicenseException exception, final boolean deprecated,
+			final String deprecatedVersion, List<String> checkWarnings) {
+		addException(exception, deprecated, deprecatedVersion, checkWarnings, false);
+	}
+
+	/**
+	 * Add an exception to be written by all writers and tested by the tester
+	 * @param exception Exception to write - must not be modified until the pipeline is finished
+	 * @param deprecated True if deprecated
+	 * @param deprecatedVersion License list version when the exception was deprecated, null otherwise
+	 * @param checkWarnings Warnings already found for the exception
+	 * @param tocOnly If true, the per-exception outputs are up to date and the exception is only added to the table of contents
+	 */
+	public void addException(final LicenseException exception, final boolean deprecated,
+			final String deprecatedVersion, List<String> checkWarnings, final boolean tocOnly) {
+		final PipelineItem item = addItem("exception", exception.getLicenseExceptionId(), checkWarnings);
+		for (int i = 0; i < writers.size(); i++) {
+			final ILicenseFormatWriter writer = writers.get(i);
+			writerLanes.get(i).execute(task(item, () -> {
+				if (tocOnly) {
+					writer.addExceptionToC(exception, deprecated, deprecatedVersion);
+				} else {
+					writer.writeException(exception, deprecated, deprecatedVersion);
+				}
+			}));
+		}
+		if (tester != null) {
+			workers.execute(task(item, () -> {
+				List<String> testResults = tester.testException(exception);
+				if (testResults != null) {
+					for (String testResult:testResults) {
+						item.warnings.add("Test for exception "+exception.getLicenseExceptionId() + " failed: "+testResult);
+					}
+				}
+			}));
+		}
+	}
+
+	private PipelineItem addItem(String type, String id, List<String> checkWarnings) {
+		if (finished) {
+			throw new IllegalStateException("Pipeline is already finished");
+		}
+		pendingItems.acquireUninterruptibly();
+		int numTasks = writers.size() + (tester != null ? 1 : 0);
+		PipelineItem item = new PipelineItem(type, id, checkWarnings, numTasks);
+		items.add(item);
+		if (numTasks == 0) {
+			itemComplete(item);
+		}
+		return item;
+	}
+
+	private Runnable task(final PipelineItem item, final PipelineTask task) {
+		return () -> {
+			try {
+				if (error.get() == null) {
+					task.run();
+				}
+			} catch (Exception e) {
+				error.compareAndSet(null, e);
+			} finally {
+				item.taskComplete();
+			}
+		};
+	}
+
+	private void itemComplete(PipelineItem item) {
+		reportProgress(item);
+		pendingItems.release();
+	}
+
+	private void reportProgress(PipelineItem item) {
+		int completed = numCompleted.incrementAndGet();
+		if (progressOut == null) {
+			return;
+		}
+		StringBuilder sb = new StringBuilder("Processed ");
+		sb.append(item.type);
+		sb.append(' ');
+		sb.append(item.id);
+		sb.append(" (");
+		sb.append(completed);
+		sb.append(')');
+		synchronized(item.warnings) {
+			for (String warning:item.warnings) {
+				sb.append("\n\tWarning: ");
+				sb.append(warning);
+			}
+		}
+		progressOut.println(sb.toString());
+	}
+
+	/**
+	 * Stop all writers and testers without waiting for the remaining licenses
+	 */
+	public void cancel() {
+		finished = true;
+		workers.shutdownNow();
+	}
+
+	/**
+	 * Wait for all licenses and exceptions to be written and tested.  The table of contents
+	 * for the writers can be written once this returns.
+	 * @return warnings for all licenses and exceptions in the order they were added
+	 * @throws LicenseGeneratorException if any writer or tester failed
+	 */
+	public List<String> finish() throws LicenseGeneratorException {
+		finished = true;
+		try {
+			// all permits are available once every item has completed
+			if (!pendingItems.tryAcquire(maxPendingItems, MAX_WAIT_HOURS, TimeUnit.HOURS)) {
+				workers.shutdownNow();
+				throw new LicenseGeneratorException("Timeout waiting for the licenses to be written");
+			}
+		} catch (InterruptedException e) {
+			workers.shutdownNow();
+			Thread.currentThread().interrupt();
+			throw new LicenseGeneratorException("Interrupted waiting for the licenses to be written", e);
+		}
+		workers.shutdown();
+		Exception e = error.get();
+		if (e instanceof LicenseGeneratorException) {
+			throw (LicenseGeneratorException)e;
+		} else if (e != null) {
+			throw new LicenseGeneratorException("Error writing licenses: "+e.getMessage(), e);
+		}
+		List<String> retval = Lists.newArrayList();
+		for (PipelineItem item:items) {
+			retval.addAll(item.warnings);
+		}
+		return retval;
+	}
+}
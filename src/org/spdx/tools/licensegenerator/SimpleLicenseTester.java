@@ -16,29 +16,144 @@
 package org.spdx.tools.licensegenerator;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
 import org.spdx.compare.LicenseCompareHelper;
 import org.spdx.compare.SpdxCompareException;
 import org.spdx.compare.CompareTemplateOutputHandler.DifferenceDescription;
+import org.spdx.licensexml.XmlLicenseProvider;
 import org.spdx.rdfparser.license.License;
 import org.spdx.rdfparser.license.LicenseException;
+import org.spdx.rdfparser.license.SpdxListedLicense;
+import org.spdx.rdfparser.license.SpdxListedLicenseException;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Tests licenses against cononical text.
- * 
+ *
+ * All test texts are read from the test file directory the first time they are needed.
+ *
+ * The tester can also be run standalone as a regression harness over a directory of license
+ * XML files.  The licenses and exceptions are tested in parallel, each license template is
+ * cross-checked against the test texts of the other licenses to find unexpected matches, and
+ * a JSON report with the per-license timings is optionally written.
+ *
  * @author Gary O'Neall
  *
  */
 public class SimpleLicenseTester implements ILicenseTester {
-	
-	
-	private Charset utf8 = Charset.forName("UTF-8");
+
+	static final String TEST_FILE_EXTENSION = ".txt";
+
+	/**
+	 * Number of threads used to test licenses in parallel
+	 */
+	static final int NUM_TEST_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+	static final int MIN_ARGS = 2;
+	static final int MAX_ARGS = 3;
+	static final int ERROR_STATUS = 1;
+	static final int NUM_SLOWEST_TO_DISPLAY = 10;
+
+	/**
+	 * Results for testing a single license or exception
+	 */
+	public static class LicenseTestResult {
+		private String id;
+		private boolean exception;
+		private List<String> failures;
+		private List<String> unexpectedMatches;
+		private long testNanos;
+		private long crossCheckNanos;
+
+		LicenseTestResult(String id, boolean exception, List<String> failures,
+				List<String> unexpectedMatches, long testNanos, long crossCheckNanos) {
+			this.id = id;
+			this.exception = exception;
+			this.failures = failures;
+			this.unexpectedMatches = unexpectedMatches;
+			this.testNanos = testNanos;
+			this.crossCheckNanos = crossCheckNanos;
+		}
+
+		/**
+		 * @return license or exception ID
+		 */
+		public String getId() {
+			return id;
+		}
+
+		/**
+		 * @return true if the result is for a license exception
+		 */
+		public boolean isException() {
+			return exception;
+		}
+
+		/**
+		 * @return test failure descriptions for the license's own test text
+		 */
+		public List<String> getFailures() {
+			return failures;
+		}
+
+		/**
+		 * @return IDs of the other licenses or exceptions whose test text matched this template
+		 */
+		public List<String> getUnexpectedMatches() {
+			return unexpectedMatches;
+		}
+
+		/**
+		 * @return time in nanoseconds to compare the license's own test text
+		 */
+		public long getTestNanos() {
+			return testNanos;
+		}
+
+		/**
+		 * @return time in nanoseconds to compare all of the other test texts against the template
+		 */
+		public long getCrossCheckNanos() {
+			return crossCheckNanos;
+		}
+
+		/**
+		 * @return true if the test text matched and no unexpected matches were found
+		 */
+		public boolean isPassed() {
+			return failures.isEmpty() && unexpectedMatches.isEmpty();
+		}
+	}
+
+	private static Charset utf8 = Charset.forName("UTF-8");
 	private File testFileDir;
+	private Map<String, String> testTexts = null;
 
 	/**
 	 * @param testFileDir Directory containing license texts in the format [license-id].txt
@@ -47,17 +162,47 @@ public class SimpleLicenseTester implements ILicenseTester {
 		this.testFileDir = testFileDir;
 	}
 
+	/**
+	 * @return map of license or exception ID to the test text, read from the test file directory on first use
+	 * @throws IOException
+	 */
+	synchronized Map<String, String> getTestTexts() throws IOException {
+		if (testTexts == null) {
+			testTexts = Collections.unmodifiableMap(readTestTexts(testFileDir.toPath()));
+		}
+		return testTexts;
+	}
+
+	/**
+	 * Read all of the [id].txt files in a directory
+	 * @param dir
+	 * @return map of ID to the text with lines terminated by a newline
+	 * @throws IOException
+	 */
+	static Map<String, String> readTestTexts(Path dir) throws IOException {
+		Map<String, String> retval = Maps.newHashMap();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + TEST_FILE_EXTENSION)) {
+			for (Path path:stream) {
+				if (Files.isRegularFile(path)) {
+					String fileName = path.getFileName().toString();
+					String id = fileName.substring(0, fileName.length() - TEST_FILE_EXTENSION.length());
+					retval.put(id, readText(path));
+				}
+			}
+		}
+		return retval;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.spdx.tools.licensegenerator.ILicenseTester#testException(org.spdx.rdfparser.license.LicenseException)
 	 */
 	@Override
 	public List<String> testException(LicenseException exception) throws IOException {
-		File exceptionFile = new File(testFileDir.getPath() + File.separator + exception.getLicenseExceptionId() + ".txt");
+		String compareText = getTestTexts().get(exception.getLicenseExceptionId());
 		List<String> retval = new ArrayList<String>();
-		if (!exceptionFile.exists()) {
+		if (compareText == null) {
 			retval.add("No test text exists for license exception ID "+exception.getLicenseExceptionId());
 		} else {
-			String compareText = readText(exceptionFile);
 			DifferenceDescription result;
 			try {
 				result = LicenseCompareHelper.isTextStandardException(exception, compareText);
@@ -70,13 +215,13 @@ public class SimpleLicenseTester implements ILicenseTester {
 		}
 		return retval;
 	}
-	
-	private String readText(File f) throws IOException {
+
+	private static String readText(Path path) throws IOException {
 		StringBuilder text = new StringBuilder();
-		Files.lines(f.toPath(), utf8).forEach(line -> {
+		for (String line:Files.readAllLines(path, utf8)) {
 			text.append(line);
 			text.append("\n");
-			});
+		}
 		return text.toString();
 	}
 	/* (non-Javadoc)
@@ -85,13 +230,12 @@ public class SimpleLicenseTester implements ILicenseTester {
 	@Override
 	public List<String> testLicense(License license) throws IOException {
 		List<String> retval = new ArrayList<String>();
-		File licenseTextFile = new File(testFileDir.getPath() + File.separator + license.getLicenseId() + ".txt");
-		if (!licenseTextFile.exists()) {
+		String compareText = getTestTexts().get(license.getLicenseId());
+		if (compareText == null) {
 			if (!license.isDeprecated()) {
 				retval.add("No test text exists for license ID "+license.getLicenseId());
 			}
 		} else {
-			String compareText = readText(licenseTextFile);
 			DifferenceDescription result;
 			try {
 				result = LicenseCompareHelper.isTextStandardLicense(license, compareText);
@@ -105,4 +249,247 @@ public class SimpleLicenseTester implements ILicenseTester {
 		return retval;
 	}
 
+	/**
+	 * Test all licenses and exceptions in parallel.  If crossCheck is true, each license template is
+	 * also compared to the test texts of all other licenses, and each exception template to the test texts
+	 * of all other exceptions.  Deprecated licenses are not cross-checked since they
+	 * commonly share the text of the license that replaced them.
+	 * @param licenses
+	 * @param exceptions
+	 * @param crossCheck
+	 * @return results in the order of the licenses followed by the exceptions
+	 * @throws IOException
+	 */
+	public List<LicenseTestResult> testAll(Collection<? extends License> licenses,
+			Collection<? extends LicenseException> exceptions, boolean crossCheck) throws IOException {
+		Map<String, String> allTexts = getTestTexts();
+		final Map<String, String> licenseTexts = Maps.newHashMap();
+		final Map<String, String> exceptionTexts = Maps.newHashMap();
+		if (crossCheck) {
+			for (License license:licenses) {
+				if (!license.isDeprecated() && allTexts.containsKey(license.getLicenseId())) {
+					licenseTexts.put(license.getLicenseId(), allTexts.get(license.getLicenseId()));
+				}
+			}
+			for (LicenseException exception:exceptions) {
+				if (allTexts.containsKey(exception.getLicenseExceptionId())) {
+					exceptionTexts.put(exception.getLicenseExceptionId(), allTexts.get(exception.getLicenseExceptionId()));
+				}
+			}
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(NUM_TEST_THREADS,
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat("license-tester-%d").build());
+		try {
+			List<Future<LicenseTestResult>> futures = Lists.newArrayList();
+			for (final License license:licenses) {
+				futures.add(executor.submit(new Callable<LicenseTestResult>() {
+					@Override
+					public LicenseTestResult call() throws IOException {
+						long start = System.nanoTime();
+						List<String> failures = testLicense(license);
+						long testNanos = System.nanoTime() - start;
+						List<String> unexpectedMatches = Lists.newArrayList();
+						start = System.nanoTime();
+						if (!license.isDeprecated()) {
+							for (Entry<String, String> entry:licenseTexts.entrySet()) {
+								if (entry.getKey().equals(license.getLicenseId())) {
+									continue;
+								}
+								try {
+									if (!LicenseCompareHelper.isTextStandardLicense(license, entry.getValue()).isDifferenceFound()) {
+										unexpectedMatches.add(entry.getKey());
+									}
+								} catch (SpdxCompareException e) {
+									break;	// The invalid template is already reported by the test above
+								}
+							}
+						}
+						long crossCheckNanos = System.nanoTime() - start;
+						return new LicenseTestResult(license.getLicenseId(), false, failures,
+								unexpectedMatches, testNanos, crossCheckNanos);
+					}
+				}));
+			}
+			for (final LicenseException exception:exceptions) {
+				futures.add(executor.submit(new Callable<LicenseTestResult>() {
+					@Override
+					public LicenseTestResult call() throws IOException {
+						long start = System.nanoTime();
+						List<String> failures = testException(exception);
+						long testNanos = System.nanoTime() - start;
+						List<String> unexpectedMatches = Lists.newArrayList();
+						start = System.nanoTime();
+						for (Entry<String, String> entry:exceptionTexts.entrySet()) {
+							if (entry.getKey().equals(exception.getLicenseExceptionId())) {
+								continue;
+							}
+							try {
+								if (!LicenseCompareHelper.isTextStandardException(exception, entry.getValue()).isDifferenceFound()) {
+									unexpectedMatches.add(entry.getKey());
+								}
+							} catch (SpdxCompareException e) {
+								break;	// The invalid template is already reported by the test above
+							}
+						}
+						long crossCheckNanos = System.nanoTime() - start;
+						return new LicenseTestResult(exception.getLicenseExceptionId(), true, failures,
+								unexpectedMatches, testNanos, crossCheckNanos);
+					}
+				}));
+			}
+			List<LicenseTestResult> retval = Lists.newArrayList();
+			for (Future<LicenseTestResult> future:futures) {
+				try {
+					retval.add(future.get());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted testing licenses", e);
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof IOException) {
+						throw (IOException)e.getCause();
+					}
+					throw new IOException("Unexpected error testing licenses: "+e.getCause().getMessage(), e.getCause());
+				}
+			}
+			return retval;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @param results
+	 * @return JSON report of the test results including timings in milliseconds
+	 */
+	@SuppressWarnings("unchecked")
+	static JSONObject toJsonReport(List<LicenseTestResult> results) {
+		JSONObject retval = new JSONObject();
+		JSONArray jsonResults = new JSONArray();
+		int numFailed = 0;
+		for (LicenseTestResult result:results) {
+			JSONObject jsonResult = new JSONObject();
+			jsonResult.put("id", result.getId());
+			jsonResult.put("isException", result.isException());
+			jsonResult.put("passed", result.isPassed());
+			jsonResult.put("testMillis", nanosToMillis(result.getTestNanos()));
+			jsonResult.put("crossCheckMillis", nanosToMillis(result.getCrossCheckNanos()));
+			JSONArray failures = new JSONArray();
+			failures.addAll(result.getFailures());
+			jsonResult.put("failures", failures);
+			JSONArray unexpectedMatches = new JSONArray();
+			unexpectedMatches.addAll(result.getUnexpectedMatches());
+			jsonResult.put("unexpectedMatches", unexpectedMatches);
+			jsonResults.add(jsonResult);
+			if (!result.isPassed()) {
+				numFailed++;
+			}
+		}
+		retval.put("numTested", results.size());
+		retval.put("numFailed", numFailed);
+		retval.put("results", jsonResults);
+		return retval;
+	}
+
+	private static double nanosToMillis(long nanos) {
+		return nanos / 1000000.0;
+	}
+
+	/**
+	 * Test all licenses and exceptions found in a directory of license XML files
+	 * @param args args[0] is the directory of license XML files, args[1] is the directory of
+	 * test texts, optional args[2] is the file to write the JSON report to
+	 */
+	public static void main(String[] args) {
+		if (args.length < MIN_ARGS) {
+			usage();
+			System.exit(ERROR_STATUS);
+		}
+		if (args.length > MAX_ARGS) {
+			System.out.println("Warning: Extra arguments will be ignored");
+			usage();
+		}
+		File xmlDir = new File(args[0]);
+		if (!xmlDir.isDirectory()) {
+			System.out.println("License XML directory "+args[0]+" is not a directory");
+			System.exit(ERROR_STATUS);
+		}
+		File testDir = new File(args[1]);
+		if (!testDir.isDirectory()) {
+			System.out.println("Test file directory "+args[1]+" is not a directory");
+			System.exit(ERROR_STATUS);
+		}
+		File reportFile = null;
+		if (args.length > 2) {
+			reportFile = new File(args[2]);
+		}
+		try {
+			XmlLicenseProvider provider = new XmlLicenseProvider(xmlDir);
+			List<License> licenses = Lists.newArrayList();
+			Iterator<SpdxListedLicense> licenseIter = provider.getLicenseIterator();
+			while (licenseIter.hasNext()) {
+				licenses.add(licenseIter.next());
+			}
+			List<LicenseException> exceptions = Lists.newArrayList();
+			Iterator<LicenseException> exceptionIter = provider.getExceptionIterator();
+			while (exceptionIter.hasNext()) {
+				exceptions.add(exceptionIter.next());
+			}
+			for (String warning:provider.getWarnings()) {
+				System.out.println("Warning: "+warning);
+			}
+			long start = System.nanoTime();
+			List<LicenseTestResult> results = new SimpleLicenseTester(testDir).testAll(licenses, exceptions, true);
+			long elapsed = System.nanoTime() - start;
+			int numFailed = 0;
+			for (LicenseTestResult result:results) {
+				if (!result.isPassed()) {
+					numFailed++;
+				}
+				for (String failure:result.getFailures()) {
+					System.out.println(failure);
+				}
+				for (String match:result.getUnexpectedMatches()) {
+					System.out.println("Test text for ID "+match+" unexpectedly matches the template for ID "+result.getId());
+				}
+			}
+			List<LicenseTestResult> slowest = Lists.newArrayList(results);
+			Collections.sort(slowest, new Comparator<LicenseTestResult>() {
+				@Override
+				public int compare(LicenseTestResult o1, LicenseTestResult o2) {
+					return Long.compare(o2.getTestNanos() + o2.getCrossCheckNanos(),
+							o1.getTestNanos() + o1.getCrossCheckNanos());
+				}
+			});
+			System.out.println("Slowest templates (test ms / cross-check ms):");
+			for (int i = 0; i < Math.min(NUM_SLOWEST_TO_DISPLAY, slowest.size()); i++) {
+				LicenseTestResult result = slowest.get(i);
+				System.out.println("\t"+result.getId()+": "+String.format("%.1f / %.1f",
+						nanosToMillis(result.getTestNanos()), nanosToMillis(result.getCrossCheckNanos())));
+			}
+			System.out.println("Tested "+results.size()+" licenses and exceptions in "+
+					String.format("%.1f", nanosToMillis(elapsed))+" ms, "+numFailed+" failed");
+			if (reportFile != null) {
+				try (Writer writer = new OutputStreamWriter(new FileOutputStream(reportFile), utf8)) {
+					toJsonReport(results).writeJSONString(writer);
+				}
+			}
+			if (numFailed > 0) {
+				System.exit(ERROR_STATUS);
+			}
+		} catch (SpdxListedLicenseException e) {
+			System.out.println("Error reading license XML files: "+e.getMessage());
+			System.exit(ERROR_STATUS);
+		} catch (IOException e) {
+			System.out.println("I/O error testing licenses: "+e.getMessage());
+			System.exit(ERROR_STATUS);
+		}
+	}
+
+	private static void usage() {
+		System.out.println("Usage:");
+		System.out.println("SimpleLicenseTester licenseXmlDir testFileDir [reportFile]");
+		System.out.println("\tlicenseXmlDir - directory containing the license XML files");
+		System.out.println("\ttestFileDir - directory containing the test texts named [id].txt");
+		System.out.println("\treportFile - optional file to write a JSON report of the results and timings");
+	}
 }
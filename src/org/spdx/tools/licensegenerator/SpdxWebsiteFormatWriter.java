@@ -201,8 +201,6 @@ public class SpdxWebsiteFormatWriter implements ILicenseFormatWriter {
 		String licBaseHtmlFileName = LicenseHtmlFormatWriter.formLicenseHTMLFileName(license.getLicenseId());
 		String licHtmlFileName = licBaseHtmlFileName + ".html";
 		String licJsonFileName = licBaseHtmlFileName + ".json";
-		String licHTMLReference = "./"+licHtmlFileName;
-		String licJSONReference = "./"+licJsonFileName;
 		String tocHTMLReference = "./"+LICENSE_TOC_HTML_FILE_NAME;
 		// the base file is used for direct references from tools, the html is used for rendering by the website
 		File licBaseHtmlFile = new File(websiteFolder.getPath()+File.separator+licBaseHtmlFileName);
@@ -218,6 +216,17 @@ public class SpdxWebsiteFormatWriter implements ILicenseFormatWriter {
 		}	
 		licJson.setLicense(license, deprecated);
 		licJson.writeToFile(licJsonFile);
+		addLicenseToC(license, deprecated, deprecatedVersion);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.spdx.tools.licensegenerator.ILicenseFormatWriter#addLicenseToC(org.spdx.rdfparser.license.SpdxListedLicense, boolean, java.lang.String)
+	 */
+	@Override
+	public void addLicenseToC(SpdxListedLicense license, boolean deprecated, String deprecatedVersion) {
+		String licBaseHtmlFileName = LicenseHtmlFormatWriter.formLicenseHTMLFileName(license.getLicenseId());
+		String licHTMLReference = "./"+licBaseHtmlFileName + ".html";
+		String licJSONReference = "./"+licBaseHtmlFileName + ".json";
 		tableOfContentsJSON.addLicense(license, licHTMLReference, licJSONReference, false);
 		if (deprecated) {
 			tableOfContentsHTML.addDeprecatedLicense(new DeprecatedLicenseInfo(license, deprecatedVersion), licHTMLReference);
@@ -251,11 +260,22 @@ public class SpdxWebsiteFormatWriter implements ILicenseFormatWriter {
 		String exceptionJSONReference= "./" + exceptionJsonFileName;
 		File exceptionHtmlFile = new File(websiteFolder.getPath()+File.separator+exceptionHtmlFileName + ".html");
 		exceptionHtml.writeToFile(exceptionHtmlFile, exceptionHtmlTocReference);
-		htmlExceptionToc.addException(exception, exceptionHTMLReference);
-		jsonExceptionToc.addException(exception, exceptionHTMLReference, exceptionJSONReference, deprecated);
+		addExceptionToC(exception, deprecated, deprecatedVersion);
 		LicenseExceptionJSONFile exceptionJson = new LicenseExceptionJSONFile();
 		exceptionJson.setException(exception, deprecated);
 		File exceptionJsonFile = new File(websiteFolder.getPath() + File.separator + exceptionJsonFileName);
 		exceptionJson.writeToFile(exceptionJsonFile);
 	}
+
+	/* (non-Javadoc)
+	 * @see org.spdx.tools.licensegenerator.ILicenseFormatWriter#addExceptionToC(org.spdx.rdfparser.license.LicenseException, boolean, java.lang.String)
+	 */
+	@Override
+	public void addExceptionToC(LicenseException exception, boolean deprecated, String deprecatedVersion) {
+		String exceptionHtmlFileName = LicenseHtmlFormatWriter.formLicenseHTMLFileName(exception.getLicenseExceptionId());
+		String exceptionHTMLReference = "./"+exceptionHtmlFileName + ".html";
+		String exceptionJSONReference= "./" + exceptionHtmlFileName + ".json";
+		htmlExceptionToc.addException(exception, exceptionHTMLReference);
+		jsonExceptionToc.addException(exception, exceptionHTMLReference, exceptionJSONReference, deprecated);
+	}
 }